@@ -40,8 +40,13 @@ import org.wso2.siddhi.core.stream.output.sink.SinkCallback;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.persistence.FileSystemPersistenceStore;
+import org.wso2.siddhi.core.util.persistence.PersistenceService;
+import org.wso2.siddhi.core.util.persistence.PersistenceStore;
 import org.wso2.siddhi.core.util.snapshot.AsyncSnapshotPersistor;
+import org.wso2.siddhi.core.util.snapshot.CapturedSnapshot;
 import org.wso2.siddhi.core.util.snapshot.PersistenceReference;
+import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
@@ -185,6 +190,20 @@ public class SiddhiAppRuntime {
         streamJunction.subscribe(streamCallback);
     }
 
+    /**
+     * Describe how the conditions of the query on tables find the events they match, such as the indexes they look
+     * up, in the order the conditions are compiled.
+     *
+     * @param queryName name of the query
+     * @return descriptions of the query plans, empty if the query has no indexed table conditions
+     */
+    public List<String> explain(String queryName) {
+        if (!queryProcessorMap.containsKey(queryName)) {
+            throw new QueryNotExistException("No query found with name: " + queryName);
+        }
+        return siddhiAppContext.getQueryPlans(queryName);
+    }
+
     public void addCallback(String queryName, QueryCallback callback) {
         callback.setContext(siddhiAppContext);
         QueryRuntime queryRuntime = queryProcessorMap.get(queryName);
@@ -306,6 +325,10 @@ public class SiddhiAppRuntime {
         if (siddhiAppRuntimeMap != null) {
             siddhiAppRuntimeMap.remove(siddhiAppContext.getName());
         }
+        PersistenceStore persistenceStore = siddhiAppContext.getSiddhiContext().getPersistenceStore();
+        if (persistenceStore instanceof FileSystemPersistenceStore) {
+            ((FileSystemPersistenceStore) persistenceStore).shutdown(siddhiAppContext.getName());
+        }
         if (siddhiAppContext.isStatsEnabled() && siddhiAppContext.getStatisticsManager() != null) {
             siddhiAppContext.getStatisticsManager().stopReporting();
             siddhiAppContext.getStatisticsManager().cleanup();
@@ -338,11 +361,14 @@ public class SiddhiAppRuntime {
             // first, pause all the event sources
             sourceMap.values().forEach(list -> list.forEach(Source::pause));
             // take snapshots of execution units
-            byte[] snapshots = siddhiAppContext.getSnapshotService().snapshot();
-            // start the snapshot persisting task asynchronously
+            String revision = PersistenceService.createRevision(siddhiAppContext.getName());
+            SnapshotService snapshotService = siddhiAppContext.getSnapshotService();
+            CapturedSnapshot snapshots = snapshotService.captureSnapshot(revision);
+            // start the snapshot persisting task asynchronously, which also serializes the snapshot when the
+            // snapshots are taken in the non blocking mode
             AsyncSnapshotPersistor asyncSnapshotPersistor = new AsyncSnapshotPersistor(snapshots,
-                    siddhiAppContext.getSiddhiContext().getPersistenceStore(), siddhiAppContext.getName());
-            String revision = asyncSnapshotPersistor.getRevision();
+                    siddhiAppContext.getSiddhiContext().getPersistenceStore(), siddhiAppContext.getName(), revision,
+                    snapshotService);
             Future future = siddhiAppContext.getExecutorService().submit(asyncSnapshotPersistor);
             return new PersistenceReference(future, revision);
         } finally {
@@ -23,6 +23,7 @@ import org.wso2.siddhi.core.config.StatisticsConfiguration;
 import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import org.wso2.siddhi.core.util.config.ConfigManager;
 import org.wso2.siddhi.core.util.parser.SiddhiAppParser;
+import org.wso2.siddhi.core.util.persistence.FileSystemPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
 import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.compiler.SiddhiCompiler;
@@ -161,6 +162,9 @@ public class SiddhiManager {
         for (String siddhiAppName : siddhiAppNames) {
             siddhiAppRuntimeMap.get(siddhiAppName).shutdown();
         }
+        if (siddhiContext.getPersistenceStore() instanceof FileSystemPersistenceStore) {
+            ((FileSystemPersistenceStore) siddhiContext.getPersistenceStore()).shutdown();
+        }
     }
 
     /**
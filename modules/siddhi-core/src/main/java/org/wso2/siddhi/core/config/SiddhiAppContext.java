@@ -22,15 +22,23 @@ import com.lmax.disruptor.ExceptionHandler;
 import org.wso2.siddhi.core.function.Script;
 import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimerWheel;
+import org.wso2.siddhi.core.util.collection.CopyOnRemoveArrayList;
 import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.persistence.PersistenceService;
+import org.wso2.siddhi.core.util.purge.RegisteredElements;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
+import org.wso2.siddhi.core.util.statistics.EventPoolTracker;
 import org.wso2.siddhi.core.util.statistics.StatisticsManager;
 import org.wso2.siddhi.core.util.timestamp.TimestampGenerator;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -50,6 +58,7 @@ public class SiddhiAppContext {
 
     private ExecutorService executorService;
     private ScheduledExecutorService scheduledExecutorService;
+    private TimerWheel timerWheel;
     private List<EternalReferencedHolder> eternalReferencedHolders;
     private SnapshotService snapshotService;
 
@@ -60,9 +69,15 @@ public class SiddhiAppContext {
     private Map<String, Script> scriptFunctionMap;
     private ExceptionHandler<Object> disruptorExceptionHandler;
     private int bufferSize;
+    private int eventPoolSize = -1;
+    private boolean eventPoolEnabled = true;
+    private EventPoolTracker eventPoolTracker = null;
+    private ThreadLocal<RegisteredElements> registeredElementsThreadLocal = new ThreadLocal<RegisteredElements>();
+    private Map<String, List<String>> queryPlanMap = new ConcurrentHashMap<String, List<String>>();
 
     public SiddhiAppContext() {
-        this.eternalReferencedHolders = new CopyOnWriteArrayList<EternalReferencedHolder>();
+        // holders are added per group by key and per partition key at runtime, hence additions should not copy
+        this.eternalReferencedHolders = new CopyOnRemoveArrayList<EternalReferencedHolder>();
         this.scriptFunctionMap = new HashMap<String, Script>();
     }
 
@@ -130,8 +145,24 @@ public class SiddhiAppContext {
         this.scheduledExecutorService = scheduledExecutorService;
     }
 
+    public TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    public void setTimerWheel(TimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
     public void addEternalReferencedHolder(EternalReferencedHolder eternalReferencedHolder) {
         eternalReferencedHolders.add(eternalReferencedHolder);
+        RegisteredElements registeredElements = registeredElementsThreadLocal.get();
+        if (registeredElements != null) {
+            registeredElements.addEternalReferencedHolder(eternalReferencedHolder);
+        }
+    }
+
+    public void removeEternalReferencedHolders(Collection<EternalReferencedHolder> eternalReferencedHolders) {
+        this.eternalReferencedHolders.removeAll(new HashSet<EternalReferencedHolder>(eternalReferencedHolders));
     }
 
     public List<EternalReferencedHolder> getEternalReferencedHolders() {
@@ -198,6 +229,25 @@ public class SiddhiAppContext {
         return scriptFunctionMap;
     }
 
+    /**
+     * Record how a condition of the query finds the events it matches.
+     *
+     * @param queryName name of the query
+     * @param queryPlan description of how the events are found
+     */
+    public void addQueryPlan(String queryName, String queryPlan) {
+        List<String> queryPlans = queryPlanMap.computeIfAbsent(queryName,
+                k -> new CopyOnWriteArrayList<String>());
+        if (!queryPlans.contains(queryPlan)) {
+            queryPlans.add(queryPlan);
+        }
+    }
+
+    public List<String> getQueryPlans(String queryName) {
+        List<String> queryPlans = queryPlanMap.get(queryName);
+        return queryPlans == null ? Collections.<String>emptyList() : Collections.unmodifiableList(queryPlans);
+    }
+
     public ExceptionHandler<Object> getDisruptorExceptionHandler() {
         if (disruptorExceptionHandler != null) {
             return disruptorExceptionHandler;
@@ -217,4 +267,61 @@ public class SiddhiAppContext {
     public void setBufferSize(int bufferSize) {
         this.bufferSize = bufferSize;
     }
+
+    /**
+     * Resolve the size of an event pool
+     *
+     * @param defaultSize pool size preferred by the component when the size is not configured via @app:EventPool
+     * @return the configured event pool size, or 0 when event pooling is disabled
+     */
+    public int getEventPoolSize(int defaultSize) {
+        if (!eventPoolEnabled) {
+            return 0;
+        }
+        if (eventPoolSize >= 0) {
+            return eventPoolSize;
+        }
+        return defaultSize;
+    }
+
+    public void setEventPoolSize(int eventPoolSize) {
+        this.eventPoolSize = eventPoolSize;
+    }
+
+    public boolean isEventPoolEnabled() {
+        return eventPoolEnabled;
+    }
+
+    public void setEventPoolEnabled(boolean eventPoolEnabled) {
+        this.eventPoolEnabled = eventPoolEnabled;
+    }
+
+    public EventPoolTracker getEventPoolTracker() {
+        return eventPoolTracker;
+    }
+
+    public void setEventPoolTracker(EventPoolTracker eventPoolTracker) {
+        this.eventPoolTracker = eventPoolTracker;
+    }
+
+    /**
+     * Start recording the elements registered by the current thread, such that the elements created for a
+     * dynamically cloned runtime (e.g. a partition instance) can be deregistered when it is purged.
+     */
+    public void startRecordingRegisteredElements() {
+        registeredElementsThreadLocal.set(new RegisteredElements());
+    }
+
+    /**
+     * @return elements registered by the current thread since {@link #startRecordingRegisteredElements()}
+     */
+    public RegisteredElements stopRecordingRegisteredElements() {
+        RegisteredElements registeredElements = registeredElementsThreadLocal.get();
+        registeredElementsThreadLocal.remove();
+        return registeredElements;
+    }
+
+    public RegisteredElements getRecordingRegisteredElements() {
+        return registeredElementsThreadLocal.get();
+    }
 }
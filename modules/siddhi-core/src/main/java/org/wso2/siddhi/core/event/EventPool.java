@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.event;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread safe pool of {@link ComplexEvent}s for reuse.
+ * <p>
+ * Each thread borrows from and returns to its own magazine (a small event chain) without any synchronization. Once
+ * a magazine is full it is handed over as a whole to a lock free depot shared by all threads, from where empty
+ * magazines of other threads get refilled. Pooling is disabled when the pool size is zero or less, in which case
+ * every borrow results in a new event. The magazines of terminated threads are removed whenever a new thread starts
+ * using the pool, returning their events to the depot and retaining their statistics.
+ *
+ * @param <E> type of the pooled event
+ */
+public abstract class EventPool<E extends ComplexEvent> implements Serializable {
+
+    private static final long serialVersionUID = 2367845127393649187L;
+    private static final int MAX_MAGAZINE_SIZE = 32;
+
+    private final int size;
+    private final int magazineSize;
+    private final int depotSize;
+    private transient AtomicReference<Node> depot;
+    private transient AtomicInteger depotCount;
+    private transient ThreadLocal<Magazine> magazine;
+    private transient List<Magazine> magazines;
+    private transient AtomicLong retiredHits;
+    private transient AtomicLong retiredMisses;
+    private transient AtomicLong retiredAllocations;
+
+    protected EventPool(int size) {
+        this.size = size;
+        if (size > 0) {
+            this.magazineSize = Math.max(1, Math.min(MAX_MAGAZINE_SIZE, size / 2));
+            this.depotSize = size - magazineSize;
+        } else {
+            this.magazineSize = 0;
+            this.depotSize = 0;
+        }
+        init();
+    }
+
+    private void init() {
+        depot = new AtomicReference<Node>();
+        depotCount = new AtomicInteger();
+        magazines = new CopyOnWriteArrayList<Magazine>();
+        retiredHits = new AtomicLong();
+        retiredMisses = new AtomicLong();
+        retiredAllocations = new AtomicLong();
+        magazine = new ThreadLocal<Magazine>() {
+            @Override
+            protected Magazine initialValue() {
+                removeTerminatedMagazines();
+                Magazine magazine = new Magazine(Thread.currentThread());
+                magazines.add(magazine);
+                return magazine;
+            }
+        };
+    }
+
+    /**
+     * Remove the magazines of threads which are no longer alive. A terminated thread does not access its magazine
+     * anymore, hence its events can be safely moved to the depot.
+     */
+    private void removeTerminatedMagazines() {
+        for (Magazine aMagazine : magazines) {
+            Thread owner = aMagazine.owner.get();
+            if ((owner == null || !owner.isAlive()) && magazines.remove(aMagazine)) {
+                retiredHits.addAndGet(aMagazine.hits);
+                retiredMisses.addAndGet(aMagazine.misses);
+                retiredAllocations.addAndGet(aMagazine.allocations);
+                if (aMagazine.count > 0) {
+                    pushDepot(aMagazine);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a new event instance when the pool cannot serve the request
+     */
+    protected abstract E newInstance();
+
+    /**
+     * Borrowing an event
+     *
+     * @return if an event exist in the pool an existing event if not a new event will be returned
+     */
+    @SuppressWarnings("unchecked")
+    public E borrowEvent() {
+        Magazine aMagazine = magazine.get();
+        if (aMagazine.count == 0 && magazineSize > 0) {
+            Node node = popDepot();
+            if (node != null) {
+                aMagazine.head = node.head;
+                aMagazine.count = node.count;
+            }
+        }
+        if (aMagazine.count > 0) {
+            ComplexEvent event = aMagazine.head;
+            aMagazine.head = event.getNext();
+            aMagazine.count--;
+            event.setNext(null);
+            aMagazine.hits++;
+            return (E) event;
+        }
+        if (magazineSize > 0) {
+            aMagazine.misses++;
+        }
+        aMagazine.allocations++;
+        return newInstance();
+    }
+
+    /**
+     * Collects the used events
+     * If the pool has space the returned events will be added to the pool else they will be dropped
+     *
+     * @param event used event chain
+     */
+    public void returnEvents(E event) {
+        if (event == null || magazineSize == 0) {
+            return;
+        }
+        Magazine aMagazine = magazine.get();
+        ComplexEvent aEvent = event;
+        while (aEvent != null) {
+            ComplexEvent next = aEvent.getNext();
+            if (aMagazine.count == magazineSize) {
+                if (!pushDepot(aMagazine)) {
+                    return;
+                }
+                aMagazine.head = null;
+                aMagazine.count = 0;
+            }
+            aEvent.setNext(aMagazine.head);
+            aMagazine.head = aEvent;
+            aMagazine.count++;
+            aEvent = next;
+        }
+    }
+
+    private boolean pushDepot(Magazine aMagazine) {
+        int count;
+        do {
+            count = depotCount.get();
+            if (count + aMagazine.count > depotSize) {
+                return false;
+            }
+        } while (!depotCount.compareAndSet(count, count + aMagazine.count));
+        Node node = new Node(aMagazine.head, aMagazine.count);
+        Node top;
+        do {
+            top = depot.get();
+            node.next = top;
+        } while (!depot.compareAndSet(top, node));
+        return true;
+    }
+
+    private Node popDepot() {
+        Node top;
+        do {
+            top = depot.get();
+            if (top == null) {
+                return null;
+            }
+        } while (!depot.compareAndSet(top, top.next));
+        depotCount.addAndGet(-top.count);
+        return top;
+    }
+
+    /**
+     * @return Occupied buffer size, as seen by the calling thread
+     */
+    public int getBufferedEventsSize() {
+        return depotCount.get() + magazine.get().count;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return number of borrows served from the pool
+     */
+    public long getHitCount() {
+        long hits = retiredHits.get();
+        for (Magazine aMagazine : magazines) {
+            hits += aMagazine.hits;
+        }
+        return hits;
+    }
+
+    /**
+     * @return number of borrows that could not be served as the pool was empty
+     */
+    public long getMissCount() {
+        long misses = retiredMisses.get();
+        for (Magazine aMagazine : magazines) {
+            misses += aMagazine.misses;
+        }
+        return misses;
+    }
+
+    /**
+     * @return number of new events created by the pool
+     */
+    public long getAllocationCount() {
+        long allocations = retiredAllocations.get();
+        for (Magazine aMagazine : magazines) {
+            allocations += aMagazine.allocations;
+        }
+        return allocations;
+    }
+
+    /**
+     * @return number of threads currently holding a magazine of the pool
+     */
+    public int getMagazineCount() {
+        return magazines.size();
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        init();
+    }
+
+    /**
+     * Events owned by a single thread, along with the statistics of that thread. Counters are only written by the
+     * owning thread, hence reading them from other threads may give slightly outdated values.
+     */
+    private static class Magazine {
+        private final WeakReference<Thread> owner;
+        private ComplexEvent head;
+        private int count;
+        private long hits;
+        private long misses;
+        private long allocations;
+
+        Magazine(Thread owner) {
+            this.owner = new WeakReference<Thread>(owner);
+        }
+    }
+
+    /**
+     * Immutable chain of events held in the depot. A new node is created for each push, hence the depot does not
+     * suffer from the ABA problem.
+     */
+    private static class Node {
+        private final ComplexEvent head;
+        private final int count;
+        private Node next;
+
+        Node(ComplexEvent head, int count) {
+            this.head = head;
+            this.count = count;
+        }
+    }
+}
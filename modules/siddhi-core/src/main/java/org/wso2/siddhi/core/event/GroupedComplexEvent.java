@@ -18,21 +18,42 @@
 
 package org.wso2.siddhi.core.event;
 
+import org.wso2.siddhi.core.query.selector.GroupByKey;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
+
 /**
  * Implementation of {@link ComplexEvent} to hold events belonging to the same GroupBy group.
  */
 public class GroupedComplexEvent implements ComplexEvent {
 
     private static final long serialVersionUID = 3654677405648232168L;
-    private final ComplexEvent complexEvent;
-    private String groupKey;
+    // the group key is serialized as an Object, such that events persisted with string group keys can be restored
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("complexEvent", ComplexEvent.class),
+            new ObjectStreamField("groupKey", Object.class),
+            new ObjectStreamField("next", ComplexEvent.class)
+    };
+    private ComplexEvent complexEvent;
+    private GroupByKey groupKey;
     private ComplexEvent next;
 
-    public GroupedComplexEvent(String groupKey, ComplexEvent complexEvent) {
+    public GroupedComplexEvent(GroupByKey groupKey, ComplexEvent complexEvent) {
         this.groupKey = groupKey;
         this.complexEvent = complexEvent;
     }
 
+    /**
+     * @deprecated use {@link #GroupedComplexEvent(GroupByKey, ComplexEvent)}
+     */
+    @Deprecated
+    public GroupedComplexEvent(String groupKey, ComplexEvent complexEvent) {
+        this(GroupByKey.fromLegacyKey(groupKey), complexEvent);
+    }
+
     @Override
     public ComplexEvent getNext() {
         return next;
@@ -82,11 +103,43 @@ public class GroupedComplexEvent implements ComplexEvent {
         return complexEvent;
     }
 
-    public String getGroupKey() {
+    public GroupByKey getGroupByKey() {
         return groupKey;
     }
 
-    public void setGroupKey(String groupKey) {
+    public void setGroupByKey(GroupByKey groupKey) {
         this.groupKey = groupKey;
     }
+
+    /**
+     * @return the group key in the form of "value1::value2::"
+     * @deprecated use {@link #getGroupByKey()}
+     */
+    @Deprecated
+    public String getGroupKey() {
+        return groupKey == null ? null : groupKey.toString();
+    }
+
+    /**
+     * @deprecated use {@link #setGroupByKey(GroupByKey)}
+     */
+    @Deprecated
+    public void setGroupKey(String groupKey) {
+        this.groupKey = GroupByKey.fromLegacyKey(groupKey);
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        ObjectOutputStream.PutField fields = stream.putFields();
+        fields.put("complexEvent", complexEvent);
+        fields.put("groupKey", groupKey);
+        fields.put("next", next);
+        stream.writeFields();
+    }
+
+    private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = stream.readFields();
+        complexEvent = (ComplexEvent) fields.get("complexEvent", null);
+        groupKey = GroupByKey.fromLegacyKey(fields.get("groupKey", null));
+        next = (ComplexEvent) fields.get("next", null);
+    }
 }
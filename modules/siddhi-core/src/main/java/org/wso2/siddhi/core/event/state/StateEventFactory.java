@@ -19,10 +19,14 @@ package org.wso2.siddhi.core.event.state;
 
 import com.lmax.disruptor.EventFactory;
 
+import java.io.Serializable;
+
 /**
  * Event Factory to create new StateEvents
  */
-public class StateEventFactory implements EventFactory<StateEvent> {
+public class StateEventFactory implements EventFactory<StateEvent>, Serializable {
+
+    private static final long serialVersionUID = -1398436617217498402L;
 
     private int eventSize;
     private int outputDataSize;
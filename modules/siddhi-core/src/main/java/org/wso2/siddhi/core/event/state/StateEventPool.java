@@ -17,80 +17,40 @@
  */
 package org.wso2.siddhi.core.event.state;
 
+import org.wso2.siddhi.core.event.EventPool;
+
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Event pool containing StreamEvent for reuse
- * This is not a thread safe implementation
+ * Event pool containing StateEvent for reuse
+ * This is a thread safe implementation, see {@link EventPool}
  */
-public class StateEventPool {
+public class StateEventPool extends EventPool<StateEvent> {
 
+    private static final long serialVersionUID = 6352393431573046217L;
     private StateEventFactory eventFactory;
-    private int size;
-    private int index = 0;
-    private StateEvent stateEventList;
-    private long id = 0;
+    private AtomicLong id = new AtomicLong();
 
     public StateEventPool(MetaStateEvent metaStateEvent, int size) {
+        super(size);
         eventFactory = new StateEventFactory(metaStateEvent.getStreamEventCount(),
                 metaStateEvent.getOutputDataAttributes().size());
-        this.size = size;
     }
 
-//    public StateEventPool(int beforeWindowDataSize, int onAfterWindowDataSize, int outputDataSize, int poolSize) {
-//        eventFactory = new StreamEventFactory(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
-//        this.size = poolSize;
-//    }
-
     /**
      * Borrowing an StateEvent
      *
      * @return if StateEvent exist in the pool an existing event if not a new StateEvent will be returned
      */
+    @Override
     public StateEvent borrowEvent() {
-        if (index > 0) {
-            StateEvent event = stateEventList;
-            stateEventList = stateEventList.getNext();
-            event.setNext(null);
-            index--;
-            event.setId(++id);
-            return event;
-        } else {
-            StateEvent event = eventFactory.newInstance();
-            event.setId(++id);
-            return event;
-        }
-    }
-
-    /**
-     * Collects the used InnerStreamEvents
-     * If the pool has space the returned event will be added to the pool else it will be dropped
-     *
-     * @param stateEvent used event
-     */
-    public void returnEvents(StateEvent stateEvent) {
-        if (stateEvent != null) {
-            if (index < size) {
-                StateEvent first = stateEvent;
-                StateEvent last = stateEvent;
-                while (stateEvent != null) {
-                    last = stateEvent;
-                    index++;
-                    stateEvent = stateEvent.getNext();
-                }
-                last.setNext(stateEventList);
-                stateEventList = first;
-            }
-        }
-
-    }
-
-    /**
-     * @return Occupied buffer size
-     */
-    public int getBufferedEventsSize() {
-        return index;
+        StateEvent event = super.borrowEvent();
+        event.setId(id.incrementAndGet());
+        return event;
     }
 
-    public int getSize() {
-        return size;
+    @Override
+    protected StateEvent newInstance() {
+        return eventFactory.newInstance();
     }
 }
@@ -17,80 +17,31 @@
  */
 package org.wso2.siddhi.core.event.stream;
 
-import java.io.Serializable;
+import org.wso2.siddhi.core.event.EventPool;
 
 /**
  * Event pool containing StreamEvent for reuse
- * This is not a thread safe implementation
+ * This is a thread safe implementation, see {@link EventPool}
  */
-public class StreamEventPool implements Serializable {
+public class StreamEventPool extends EventPool<StreamEvent> {
 
     private static final long serialVersionUID = -1743558131917334571L;
     private StreamEventFactory eventFactory;
-    private int size;
-    private int index = 0;
-    private StreamEvent streamEventList;
 
     public StreamEventPool(MetaStreamEvent metaStreamEvent, int size) {
+        super(size);
         eventFactory = new StreamEventFactory(metaStreamEvent.getBeforeWindowData().size(),
                 metaStreamEvent.getOnAfterWindowData().size(),
                 metaStreamEvent.getOutputData().size());
-        this.size = size;
     }
 
     public StreamEventPool(int beforeWindowDataSize, int onAfterWindowDataSize, int outputDataSize, int poolSize) {
+        super(poolSize);
         eventFactory = new StreamEventFactory(beforeWindowDataSize, onAfterWindowDataSize, outputDataSize);
-        this.size = poolSize;
     }
 
-    /**
-     * Borrowing an StreamEvent
-     *
-     * @return if StreamEvent exist in the pool an existing event if not a new StreamEvent will be returned
-     */
-    public StreamEvent borrowEvent() {
-        if (index > 0) {
-            StreamEvent event = streamEventList;
-            streamEventList = streamEventList.getNext();
-            event.setNext(null);
-            index--;
-            return event;
-        } else {
-            return eventFactory.newInstance();
-        }
-    }
-
-    /**
-     * Collects the used InnerStreamEvents
-     * If the pool has space the returned event will be added to the pool else it will be dropped
-     *
-     * @param streamEvent used event
-     */
-    public void returnEvents(StreamEvent streamEvent) {
-        if (streamEvent != null) {
-            if (index < size) {
-                StreamEvent first = streamEvent;
-                StreamEvent last = streamEvent;
-                while (streamEvent != null) {
-                    last = streamEvent;
-                    index++;
-                    streamEvent = streamEvent.getNext();
-                }
-                last.setNext(streamEventList);
-                streamEventList = first;
-            }
-        }
-
-    }
-
-    /**
-     * @return Occupied buffer size
-     */
-    public int getBufferedEventsSize() {
-        return index;
-    }
-
-    public int getSize() {
-        return size;
+    @Override
+    protected StreamEvent newInstance() {
+        return eventFactory.newInstance();
     }
 }
@@ -27,10 +27,19 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 public class ConstantExpressionExecutor implements ExpressionExecutor {
     private Object value;
     private Attribute.Type type;
+    private long longValue;
+    private double doubleValue;
 
     public ConstantExpressionExecutor(Object value, Attribute.Type type) {
         this.value = value;
         this.type = type;
+        if (value instanceof Number) {
+            this.longValue = ((Number) value).longValue();
+            this.doubleValue = ((Number) value).doubleValue();
+        } else {
+            this.longValue = NULL_LONG;
+            this.doubleValue = Double.NaN;
+        }
     }
 
     @Override
@@ -42,6 +51,21 @@ public class ConstantExpressionExecutor implements ExpressionExecutor {
         return type;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return value == null || value instanceof Number;
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        return longValue;
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        return doubleValue;
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return this;
@@ -32,4 +32,35 @@ public interface ExpressionExecutor {
 
     ExpressionExecutor cloneExecutor(String key);
 
+    /**
+     * Sentinel returned by {@link #executeLong(ComplexEvent)} of primitive executors when the result is null or
+     * undefined, e.g. on division by zero.
+     */
+    long NULL_LONG = Long.MIN_VALUE;
+
+    /**
+     * Whether the executor can be evaluated via its primitive execute methods without side effects. Parent executors
+     * use this to evaluate numeric expression trees in a single pass without boxing intermediate results. Primitive
+     * execute methods of such executors return {@link #NULL_LONG} or {@link Double#NaN} when the result is null;
+     * as those may also be genuine values, callers fall back to {@link #execute(ComplexEvent)} on a sentinel.
+     *
+     * @return true if primitive execution is supported
+     */
+    default boolean isPrimitiveExecutable() {
+        return false;
+    }
+
+    default long executeLong(ComplexEvent event) {
+        return ((Number) execute(event)).longValue();
+    }
+
+    default double executeDouble(ComplexEvent event) {
+        return ((Number) execute(event)).doubleValue();
+    }
+
+    default boolean executeBoolean(ComplexEvent event) {
+        Object result = execute(event);
+        return result != null && (Boolean) result;
+    }
+
 }
@@ -51,6 +51,31 @@ public class VariableExpressionExecutor implements ExpressionExecutor {
         return attribute.getType();
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        switch (attribute.getType()) {
+            case INT:
+            case LONG:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        Object value = event.getAttribute(position);
+        return value == null ? NULL_LONG : ((Number) value).longValue();
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        Object value = event.getAttribute(position);
+        return value == null ? Double.NaN : ((Number) value).doubleValue();
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return this;
@@ -20,6 +20,7 @@ package org.wso2.siddhi.core.executor.condition.compare;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
+import org.wso2.siddhi.query.api.definition.Attribute;
 
 /**
  * Parent Executor class for Compare conditions. common evaluation logic is implemented within executor.
@@ -28,20 +29,81 @@ public abstract class CompareConditionExpressionExecutor extends ConditionExpres
 
     protected ExpressionExecutor leftExpressionExecutor;
     protected ExpressionExecutor rightExpressionExecutor;
+    private Attribute.Type comparisonType;
 
     public CompareConditionExpressionExecutor(ExpressionExecutor leftExpressionExecutor,
                                               ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.comparisonType = resolveComparisonType(leftExpressionExecutor, rightExpressionExecutor);
     }
 
+    /**
+     * Resolve the primitive type both sides can be compared as without boxing, retaining Java numeric promotion.
+     *
+     * @return LONG or DOUBLE when the primitive comparison is applicable, else null
+     */
+    private static Attribute.Type resolveComparisonType(ExpressionExecutor leftExpressionExecutor,
+                                                        ExpressionExecutor rightExpressionExecutor) {
+        if (!leftExpressionExecutor.isPrimitiveExecutable() || !rightExpressionExecutor.isPrimitiveExecutable()) {
+            return null;
+        }
+        Attribute.Type leftType = leftExpressionExecutor.getReturnType();
+        Attribute.Type rightType = rightExpressionExecutor.getReturnType();
+        if (isIntegral(leftType) && isIntegral(rightType)) {
+            return Attribute.Type.LONG;
+        }
+        if ((leftType == Attribute.Type.DOUBLE && (isIntegral(rightType) || rightType == Attribute.Type.FLOAT ||
+                rightType == Attribute.Type.DOUBLE)) ||
+                (rightType == Attribute.Type.DOUBLE && (isIntegral(leftType) || leftType == Attribute.Type.FLOAT)) ||
+                (leftType == Attribute.Type.FLOAT && rightType == Attribute.Type.FLOAT)) {
+            return Attribute.Type.DOUBLE;
+        }
+        return null;
+    }
+
+    private static boolean isIntegral(Attribute.Type type) {
+        return type == Attribute.Type.INT || type == Attribute.Type.LONG;
+    }
 
     public Boolean execute(ComplexEvent event) {
+        if (comparisonType == Attribute.Type.LONG) {
+            long left = leftExpressionExecutor.executeLong(event);
+            long right = rightExpressionExecutor.executeLong(event);
+            if (left != NULL_LONG && right != NULL_LONG) {
+                return compare(left, right);
+            }
+        } else if (comparisonType == Attribute.Type.DOUBLE) {
+            double left = leftExpressionExecutor.executeDouble(event);
+            double right = rightExpressionExecutor.executeDouble(event);
+            if (!Double.isNaN(left) && !Double.isNaN(right)) {
+                return compare(left, right);
+            }
+        }
         Object left = leftExpressionExecutor.execute(event);
         Object right = rightExpressionExecutor.execute(event);
-        return !(left == null || right == null) && execute(left, right);
+        if (left == null || right == null) {
+            return executeOnNull();
+        }
+        return execute(left, right);
+    }
+
+    @Override
+    public boolean executeBoolean(ComplexEvent event) {
+        return execute(event);
+    }
+
+    /**
+     * @return result of the comparison when either side is null
+     */
+    protected Boolean executeOnNull() {
+        return false;
     }
 
     protected abstract Boolean execute(Object left, Object right);
 
+    protected abstract boolean compare(long left, long right);
+
+    protected abstract boolean compare(double left, double right);
+
 }
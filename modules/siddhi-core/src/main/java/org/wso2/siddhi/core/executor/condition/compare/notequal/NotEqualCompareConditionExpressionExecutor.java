@@ -17,7 +17,6 @@
  */
 package org.wso2.siddhi.core.executor.condition.compare.notequal;
 
-import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.condition.compare.CompareConditionExpressionExecutor;
 
@@ -31,9 +30,18 @@ public abstract class NotEqualCompareConditionExpressionExecutor extends Compare
         super(leftExpressionExecutor, rightExpressionExecutor);
     }
 
-    public Boolean execute(ComplexEvent event) {
-        Object left = leftExpressionExecutor.execute(event);
-        Object right = rightExpressionExecutor.execute(event);
-        return left == null || right == null || execute(left, right);
+    @Override
+    protected Boolean executeOnNull() {
+        return true;
+    }
+
+    @Override
+    protected boolean compare(long left, long right) {
+        return left != right;
+    }
+
+    @Override
+    protected boolean compare(double left, double right) {
+        return left != right;
     }
 }
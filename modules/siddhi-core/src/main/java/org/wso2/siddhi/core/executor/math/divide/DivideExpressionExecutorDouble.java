@@ -27,16 +27,25 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 public class DivideExpressionExecutorDouble implements ExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public DivideExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
                                           ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = leftExpressionExecutor.isPrimitiveExecutable() &&
+                rightExpressionExecutor.isPrimitiveExecutable();
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            double result = executeDouble(event);
+            if (!Double.isNaN(result)) {
+                return result;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -54,6 +63,21 @@ public class DivideExpressionExecutorDouble implements ExpressionExecutor {
         return Attribute.Type.DOUBLE;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        double left = leftExpressionExecutor.executeDouble(event);
+        double right = rightExpressionExecutor.executeDouble(event);
+        if (right == 0.0) {
+            return Double.NaN;
+        }
+        return left / right;
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new DivideExpressionExecutorDouble(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
@@ -27,16 +27,25 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 public class DivideExpressionExecutorInt implements ExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public DivideExpressionExecutorInt(ExpressionExecutor leftExpressionExecutor,
                                        ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = leftExpressionExecutor.isPrimitiveExecutable() &&
+                rightExpressionExecutor.isPrimitiveExecutable();
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            long result = executeLong(event);
+            if (result != NULL_LONG) {
+                return (int) result;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -53,6 +62,27 @@ public class DivideExpressionExecutorInt implements ExpressionExecutor {
         return Attribute.Type.INT;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        long left = leftExpressionExecutor.executeLong(event);
+        long right = rightExpressionExecutor.executeLong(event);
+        if (left == NULL_LONG || right == NULL_LONG || (int) right == 0) {
+            return NULL_LONG;
+        }
+        return (int) left / (int) right;
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        long result = executeLong(event);
+        return result == NULL_LONG ? Double.NaN : result;
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new DivideExpressionExecutorInt(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
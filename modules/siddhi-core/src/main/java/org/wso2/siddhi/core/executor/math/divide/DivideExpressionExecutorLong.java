@@ -27,16 +27,25 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 public class DivideExpressionExecutorLong implements ExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public DivideExpressionExecutorLong(ExpressionExecutor leftExpressionExecutor,
                                         ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = leftExpressionExecutor.isPrimitiveExecutable() &&
+                rightExpressionExecutor.isPrimitiveExecutable();
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            long result = executeLong(event);
+            if (result != NULL_LONG) {
+                return result;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -53,6 +62,27 @@ public class DivideExpressionExecutorLong implements ExpressionExecutor {
         return Attribute.Type.LONG;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public long executeLong(ComplexEvent event) {
+        long left = leftExpressionExecutor.executeLong(event);
+        long right = rightExpressionExecutor.executeLong(event);
+        if (left == NULL_LONG || right == NULL_LONG || right == 0L) {
+            return NULL_LONG;
+        }
+        return left / right;
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        long result = executeLong(event);
+        return result == NULL_LONG ? Double.NaN : result;
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new DivideExpressionExecutorLong(leftExpressionExecutor.cloneExecutor(key), rightExpressionExecutor
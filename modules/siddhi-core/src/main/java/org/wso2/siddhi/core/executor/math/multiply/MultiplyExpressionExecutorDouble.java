@@ -28,16 +28,25 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 public class MultiplyExpressionExecutorDouble implements ExpressionExecutor {
     private ExpressionExecutor leftExpressionExecutor;
     private ExpressionExecutor rightExpressionExecutor;
+    private boolean primitiveExecutable;
 
 
     public MultiplyExpressionExecutorDouble(ExpressionExecutor leftExpressionExecutor,
                                             ExpressionExecutor rightExpressionExecutor) {
         this.leftExpressionExecutor = leftExpressionExecutor;
         this.rightExpressionExecutor = rightExpressionExecutor;
+        this.primitiveExecutable = leftExpressionExecutor.isPrimitiveExecutable() &&
+                rightExpressionExecutor.isPrimitiveExecutable();
     }
 
     @Override
     public Object execute(ComplexEvent event) {
+        if (primitiveExecutable) {
+            double result = executeDouble(event);
+            if (!Double.isNaN(result)) {
+                return result;
+            }
+        }
         Object leftObject = leftExpressionExecutor.execute(event);
         Object rightObject = rightExpressionExecutor.execute(event);
         if (leftObject == null || rightObject == null) {
@@ -50,6 +59,18 @@ public class MultiplyExpressionExecutorDouble implements ExpressionExecutor {
         return Attribute.Type.DOUBLE;
     }
 
+    @Override
+    public boolean isPrimitiveExecutable() {
+        return primitiveExecutable;
+    }
+
+    @Override
+    public double executeDouble(ComplexEvent event) {
+        double left = leftExpressionExecutor.executeDouble(event);
+        double right = rightExpressionExecutor.executeDouble(event);
+        return left * right;
+    }
+
     @Override
     public ExpressionExecutor cloneExecutor(String key) {
         return new MultiplyExpressionExecutorDouble(leftExpressionExecutor.cloneExecutor(key),
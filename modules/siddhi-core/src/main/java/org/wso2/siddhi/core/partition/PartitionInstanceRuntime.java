@@ -18,6 +18,7 @@
 package org.wso2.siddhi.core.partition;
 
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.util.purge.RegisteredElements;
 
 import java.util.List;
 
@@ -28,10 +29,15 @@ import java.util.List;
 public class PartitionInstanceRuntime {
     private String key;
     private List<QueryRuntime> queryRuntimeList;
+    private RegisteredElements registeredElements;
+    private volatile long lastAccessTime;
 
-    public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList) {
+    public PartitionInstanceRuntime(String key, List<QueryRuntime> queryRuntimeList,
+                                    RegisteredElements registeredElements, long lastAccessTime) {
         this.key = key;
         this.queryRuntimeList = queryRuntimeList;
+        this.registeredElements = registeredElements;
+        this.lastAccessTime = lastAccessTime;
     }
 
     public List<QueryRuntime> getQueryRuntimeList() {
@@ -42,6 +48,22 @@ public class PartitionInstanceRuntime {
         return key;
     }
 
+    /**
+     * @return elements registered while cloning the queries of this partition instance, or null if they were not
+     * recorded
+     */
+    public RegisteredElements getRegisteredElements() {
+        return registeredElements;
+    }
+
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    public void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = lastAccessTime;
+    }
+
 }
 
 
@@ -17,9 +17,12 @@
  */
 package org.wso2.siddhi.core.partition;
 
+import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.EventPool;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.partition.executor.PartitionExecutor;
 import org.wso2.siddhi.core.query.QueryRuntime;
@@ -27,9 +30,20 @@ import org.wso2.siddhi.core.query.input.stream.join.JoinStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.state.StateStreamRuntime;
 import org.wso2.siddhi.core.query.output.callback.InsertIntoStreamCallback;
+import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
 import org.wso2.siddhi.core.util.parser.helper.DefinitionParserHelper;
+import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.core.util.purge.PurgeConfiguration;
+import org.wso2.siddhi.core.util.purge.PurgeScheduler;
+import org.wso2.siddhi.core.util.purge.Purgeable;
+import org.wso2.siddhi.core.util.purge.RegisteredElements;
 import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.statistics.EventPoolTracker;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
@@ -49,6 +63,7 @@ import org.wso2.siddhi.query.api.execution.query.output.stream.InsertIntoStream;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -59,10 +74,19 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Runtime class to handle partitioning. It will hold all information regarding current partiotns and wil create
- * partition dynamically during runtime.
+ * partition dynamically during runtime. When {@code @purge} is given, partition instances which are idle or exceed
+ * the maximum number of keys are periodically destroyed.
+ * <p>
+ * When {@code @keyed} is given, the queries are not cloned per key, instead a single query runtime is shared by all
+ * the keys and its aggregations are kept per partition key. Hence keyed partitions only support queries which keep no
+ * state other than aggregations.
+ * <p>
+ * When {@code @parallel(workers='N')} is given, partition keys are hashed onto N {@link PartitionWorkers}, such that
+ * different keys are processed in parallel while the events of each key are processed in order by a single thread.
  */
-public class PartitionRuntime implements Snapshotable {
+public class PartitionRuntime implements Snapshotable, Purgeable {
 
+    private static final Logger log = Logger.getLogger(PartitionRuntime.class);
 
     private String partitionId;
     private String elementId;
@@ -74,11 +98,18 @@ public class PartitionRuntime implements Snapshotable {
     private ConcurrentMap<String, AbstractDefinition> streamDefinitionMap;
     private ConcurrentMap<String, StreamJunction> streamJunctionMap;
     private ConcurrentMap<String, QueryRuntime> metaQueryRuntimeMap = new ConcurrentHashMap<String, QueryRuntime>();
+    private ConcurrentMap<String, QueryRuntime> keyedQueryRuntimeMap = new ConcurrentHashMap<String, QueryRuntime>();
     private ConcurrentMap<String, PartitionInstanceRuntime> partitionInstanceRuntimeMap = new
             ConcurrentHashMap<String, PartitionInstanceRuntime>();
     private ConcurrentMap<String, PartitionStreamReceiver> partitionStreamReceivers = new ConcurrentHashMap<String,
             PartitionStreamReceiver>();
     private SiddhiAppContext siddhiAppContext;
+    private PurgeScheduler purgeScheduler;
+    private boolean keyed;
+    private PartitionWorkers partitionWorkers;
+    // streams outside the partition the queries insert into, and whether they are published by multiple threads
+    private List<StreamJunction> outputStreamJunctions = new ArrayList<StreamJunction>();
+    private boolean parallel;
 
     public PartitionRuntime(ConcurrentMap<String, AbstractDefinition> streamDefinitionMap, ConcurrentMap<String,
             StreamJunction> streamJunctionMap, Partition partition, SiddhiAppContext siddhiAppContext) {
@@ -98,9 +129,65 @@ public class PartitionRuntime implements Snapshotable {
         this.partition = partition;
         this.streamDefinitionMap = streamDefinitionMap;
         this.streamJunctionMap = streamJunctionMap;
+
+        PurgeConfiguration purgeConfiguration = QueryParserHelper.getPurgeConfiguration(partition.getAnnotations());
+        if (purgeConfiguration != null) {
+            String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                    SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_PARTITIONS +
+                    SiddhiConstants.METRIC_DELIMITER + partitionId;
+            purgeScheduler = QueryParserHelper.createPurgeScheduler(partitionId, metricName, purgeConfiguration,
+                    siddhiAppContext);
+            purgeScheduler.register(this);
+        }
+        Annotation keyedAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_KEYED,
+                partition.getAnnotations());
+        if (keyedAnnotation != null) {
+            String enabledString = keyedAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_ENABLED);
+            keyed = enabledString == null || Boolean.parseBoolean(enabledString);
+        }
+        Annotation parallelAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PARALLEL,
+                partition.getAnnotations());
+        if (parallelAnnotation != null) {
+            int workers = Runtime.getRuntime().availableProcessors();
+            String workersString = parallelAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS);
+            if (workersString != null) {
+                workers = Integer.parseInt(workersString);
+                if (workers < 1) {
+                    throw new SiddhiAppCreationException(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + " of the " +
+                            "Partition " + partitionId + " should be greater than zero, but found " + workers);
+                }
+            }
+            int bufferSize = siddhiAppContext.getBufferSize() > 0 ? siddhiAppContext.getBufferSize() :
+                    SiddhiConstants.DEFAULT_EVENT_BUFFER_SIZE;
+            String bufferSizeString = parallelAnnotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_BUFFER_SIZE);
+            if (bufferSizeString != null) {
+                bufferSize = Integer.parseInt(bufferSizeString);
+            }
+            if (workers > 1) {
+                partitionWorkers = new PartitionWorkers(workers, bufferSize, siddhiAppContext);
+                parallel = true;
+                siddhiAppContext.addEternalReferencedHolder(partitionWorkers);
+                siddhiAppContext.getThreadBarrier().addEventBuffer(partitionWorkers);
+            }
+        }
     }
 
     public QueryRuntime addQuery(QueryRuntime metaQueryRuntime) {
+        return addQuery(metaQueryRuntime, false);
+    }
+
+    /**
+     * Add a query of the partition
+     *
+     * @param metaQueryRuntime query runtime parsed for the partition
+     * @param keyedQuery       true if the query runtime is shared by all the keys instead of being cloned per key
+     * @return the query runtime
+     */
+    public QueryRuntime addQuery(QueryRuntime metaQueryRuntime, boolean keyedQuery) {
+
         Query query = metaQueryRuntime.getQuery();
 
         if (query.getOutputStream() instanceof InsertIntoStream && metaQueryRuntime.getOutputCallback() instanceof
@@ -137,10 +224,23 @@ public class PartitionRuntime implements Snapshotable {
                                                               siddhiAppContext);
                     streamJunctionMap.putIfAbsent(id, outputStreamJunction);
                 }
-                insertIntoStreamCallback.init(streamJunctionMap.get(id));
+                outputStreamJunction = streamJunctionMap.get(id);
+                outputStreamJunctions.add(outputStreamJunction);
+                if (parallel) {
+                    outputStreamJunction.enableParallelPublishing();
+                }
+                insertIntoStreamCallback.init(outputStreamJunction);
             }
         }
         metaQueryRuntimeMap.put(metaQueryRuntime.getQueryId(), metaQueryRuntime);
+        if (keyedQuery) {
+            keyedQueryRuntimeMap.put(metaQueryRuntime.getQueryId(), metaQueryRuntime);
+            QuerySelector selector = metaQueryRuntime.getSelector();
+            if (purgeScheduler != null && selector.isGroupBy() && selector.getPurgeScheduler() == null) {
+                // Keyed aggregations are purged together with the partition keys
+                selector.setPurgeScheduler(purgeScheduler);
+            }
+        }
 
         return metaQueryRuntime;
     }
@@ -156,6 +256,10 @@ public class PartitionRuntime implements Snapshotable {
             SingleInputStream singleInputStream = (SingleInputStream) query.getInputStream();
             addPartitionReceiver(singleInputStream.getStreamId(), singleInputStream.isInnerStream(), metaEvent
                     .getMetaStreamEvent(0), partitionExecutors.get(0));
+            if (keyedQueryRuntimeMap.containsKey(queryRuntime.getQueryId())) {
+                partitionStreamReceivers.get(singleInputStream.getStreamId()).addKeyedProcessStreamReceiver(
+                        ((SingleStreamRuntime) queryRuntime.getStreamRuntime()).getProcessStreamReceiver());
+            }
         } else if (queryRuntime.getStreamRuntime() instanceof JoinStreamRuntime) {
             SingleInputStream leftSingleInputStream = (SingleInputStream) ((JoinInputStream) query.getInputStream())
                     .getLeftInputStream();
@@ -207,7 +311,14 @@ public class PartitionRuntime implements Snapshotable {
                     siddhiAppContext, metaStreamEvent, (StreamDefinition) streamDefinitionMap.get(streamId),
                     partitionExecutors, this);
             partitionStreamReceivers.put(partitionStreamReceiver.getStreamId(), partitionStreamReceiver);
-            streamJunctionMap.get(partitionStreamReceiver.getStreamId()).subscribe(partitionStreamReceiver);
+            StreamJunction streamJunction = streamJunctionMap.get(partitionStreamReceiver.getStreamId());
+            streamJunction.subscribe(partitionStreamReceiver);
+            if (!parallel && streamJunction.isParallelReceiver(partitionStreamReceiver)) {
+                parallel = true;
+                for (StreamJunction outputStreamJunction : outputStreamJunctions) {
+                    outputStreamJunction.enableParallelPublishing();
+                }
+            }
         }
     }
 
@@ -218,8 +329,11 @@ public class PartitionRuntime implements Snapshotable {
      * @param key partition key
      */
     public void cloneIfNotExist(String key) {
-        if (!partitionInstanceRuntimeMap.containsKey(key)) {
+        PartitionInstanceRuntime partitionInstance = partitionInstanceRuntimeMap.get(key);
+        if (partitionInstance == null) {
             clonePartition(key);
+        } else if (purgeScheduler != null) {
+            partitionInstance.setLastAccessTime(siddhiAppContext.getTimestampGenerator().currentTime());
         }
     }
 
@@ -229,8 +343,15 @@ public class PartitionRuntime implements Snapshotable {
         if (partitionInstance == null) {
             List<QueryRuntime> queryRuntimeList = new ArrayList<QueryRuntime>();
             List<QueryRuntime> partitionedQueryRuntimeList = new CopyOnWriteArrayList<QueryRuntime>();
+            if (purgeScheduler != null) {
+                // Record the elements registered by the cloned queries to deregister them when the instance is purged
+                siddhiAppContext.startRecordingRegisteredElements();
+            }
 
             for (QueryRuntime queryRuntime : metaQueryRuntimeMap.values()) {
+                if (keyedQueryRuntimeMap.containsKey(queryRuntime.getQueryId())) {
+                    continue;
+                }
 
                 QueryRuntime clonedQueryRuntime = queryRuntime.clone(key, localStreamJunctionMap);
                 queryRuntimeList.add(clonedQueryRuntime);
@@ -260,12 +381,100 @@ public class PartitionRuntime implements Snapshotable {
                     partitionedQueryRuntimeList.add(clonedQueryRuntime);
                 }
             }
-            partitionInstanceRuntimeMap.putIfAbsent(key, new PartitionInstanceRuntime(key, queryRuntimeList));
+            RegisteredElements registeredElements = null;
+            if (purgeScheduler != null) {
+                registeredElements = siddhiAppContext.stopRecordingRegisteredElements();
+                if (purgeScheduler.getPurgeTracker() != null) {
+                    purgeScheduler.getPurgeTracker().keysAdded(1);
+                }
+            }
+            partitionInstanceRuntimeMap.putIfAbsent(key, new PartitionInstanceRuntime(key, queryRuntimeList,
+                    registeredElements, siddhiAppContext.getTimestampGenerator().currentTime()));
             updatePartitionStreamReceivers(key, partitionedQueryRuntimeList);
         }
 
     }
 
+    /**
+     * Destroy the partition instances which were not accessed during the idle period, and the least recently
+     * accessed ones exceeding the maximum number of keys.
+     *
+     * @param currentTime current time of the Siddhi app
+     */
+    @Override
+    public void purge(long currentTime) {
+        PurgeConfiguration purgeConfiguration = purgeScheduler.getPurgeConfiguration();
+        ThreadBarrier threadBarrier = siddhiAppContext.getThreadBarrier();
+        threadBarrier.lock();
+        try {
+            synchronized (this) {
+                List<PartitionInstanceRuntime> purgedInstances = new ArrayList<PartitionInstanceRuntime>();
+                List<PartitionInstanceRuntime> retainedInstances = new ArrayList<PartitionInstanceRuntime>();
+                long idleBefore = currentTime - purgeConfiguration.getIdlePeriod();
+                for (PartitionInstanceRuntime partitionInstance : partitionInstanceRuntimeMap.values()) {
+                    if (purgeConfiguration.isIdlePurgeEnabled() && partitionInstance.getLastAccessTime() <=
+                            idleBefore) {
+                        purgedInstances.add(partitionInstance);
+                    } else {
+                        retainedInstances.add(partitionInstance);
+                    }
+                }
+                if (purgeConfiguration.isMaxKeysEnabled() && retainedInstances.size() >
+                        purgeConfiguration.getMaxKeys()) {
+                    retainedInstances.sort(Comparator.comparingLong(PartitionInstanceRuntime::getLastAccessTime));
+                    purgedInstances.addAll(retainedInstances.subList(0, retainedInstances.size() -
+                            purgeConfiguration.getMaxKeys()));
+                }
+                for (PartitionInstanceRuntime partitionInstance : purgedInstances) {
+                    destroyPartitionInstance(partitionInstance);
+                }
+                if (!purgedInstances.isEmpty() && purgeScheduler.getPurgeTracker() != null) {
+                    purgeScheduler.getPurgeTracker().keysEvicted(purgedInstances.size());
+                }
+            }
+        } finally {
+            threadBarrier.unlock();
+        }
+    }
+
+    private void destroyPartitionInstance(PartitionInstanceRuntime partitionInstance) {
+        String key = partitionInstance.getKey();
+        partitionInstanceRuntimeMap.remove(key);
+        for (PartitionStreamReceiver partitionStreamReceiver : partitionStreamReceivers.values()) {
+            partitionStreamReceiver.removeStreamJunction(key);
+        }
+        for (String streamId : partitionStreamReceivers.keySet()) {
+            localStreamJunctionMap.remove(streamId + key);
+        }
+        for (String streamId : localStreamDefinitionMap.keySet()) {
+            localStreamJunctionMap.remove(streamId + key);
+        }
+        for (QueryRuntime queryRuntime : partitionInstance.getQueryRuntimeList()) {
+            queryRuntime.getSelector().releaseGroupByState();
+        }
+
+        RegisteredElements registeredElements = partitionInstance.getRegisteredElements();
+        if (registeredElements != null) {
+            for (EternalReferencedHolder eternalReferencedHolder : registeredElements.getEternalReferencedHolders()) {
+                try {
+                    eternalReferencedHolder.stop();
+                } catch (Throwable t) {
+                    log.error("Error while stopping EternalReferencedHolder '" + eternalReferencedHolder +
+                            "' of purged partition key '" + key + "' in Siddhi app '" + siddhiAppContext.getName() +
+                            "', " + t.getMessage(), t);
+                }
+            }
+            siddhiAppContext.removeEternalReferencedHolders(registeredElements.getEternalReferencedHolders());
+            siddhiAppContext.getSnapshotService().removeSnapshotables(registeredElements.getSnapshotables());
+            EventPoolTracker eventPoolTracker = siddhiAppContext.getEventPoolTracker();
+            if (eventPoolTracker != null) {
+                for (EventPool eventPool : registeredElements.getEventPools()) {
+                    eventPoolTracker.unregisterEventPool(eventPool);
+                }
+            }
+        }
+    }
+
     private void updatePartitionStreamReceivers(String key, List<QueryRuntime> partitionedQueryRuntimeList) {
         for (PartitionStreamReceiver partitionStreamReceiver : partitionStreamReceivers.values()) {
             partitionStreamReceiver.addStreamJunction(key, partitionedQueryRuntimeList);
@@ -282,6 +491,27 @@ public class PartitionRuntime implements Snapshotable {
         }
     }
 
+    /**
+     * @return workers processing the partition keys in parallel, or null if the partition is not parallel
+     */
+    public PartitionWorkers getPartitionWorkers() {
+        return partitionWorkers;
+    }
+
+    /**
+     * @return true if the partition was annotated with {@code @keyed}
+     */
+    public boolean isKeyed() {
+        return keyed;
+    }
+
+    /**
+     * @return true if any of the queries need to be cloned per partition key
+     */
+    public boolean hasClonedQueries() {
+        return metaQueryRuntimeMap.size() > keyedQueryRuntimeMap.size();
+    }
+
     public String getPartitionId() {
         return partitionId;
     }
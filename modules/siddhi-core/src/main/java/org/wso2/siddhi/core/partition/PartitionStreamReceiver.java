@@ -23,36 +23,47 @@ import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverterFactory;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.partition.executor.PartitionExecutor;
+import org.wso2.siddhi.core.partition.executor.ValuePartitionExecutor;
 import org.wso2.siddhi.core.query.QueryRuntime;
+import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
+import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.stream.StreamJunction;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Specific {@link StreamJunction.Receiver} implementation to pump events into partitions. This will send the event
- * to the matching partition.
+ * to the matching partition. For parallel partitions, the events are copied and handed over to the
+ * {@link PartitionWorkers} worker of the partition key.
  */
-public class PartitionStreamReceiver implements StreamJunction.Receiver {
+public class PartitionStreamReceiver implements StreamJunction.ParallelReceiver {
 
     private final StreamEventPool eventPool;
     private StreamEventConverter streamEventConverter;
+    private StreamEventCloner streamEventCloner;
     private String streamId;
     private MetaStreamEvent metaStreamEvent;
     private StreamDefinition streamDefinition;
     private SiddhiAppContext siddhiAppContext;
     private PartitionRuntime partitionRuntime;
+    private PartitionWorkers partitionWorkers;
     private List<PartitionExecutor> partitionExecutors;
     private Map<String, StreamJunction> cachedStreamJunctionMap = new ConcurrentHashMap<String, StreamJunction>();
+    private List<ProcessStreamReceiver> keyedProcessStreamReceivers = new CopyOnWriteArrayList<ProcessStreamReceiver>();
     private ComplexEventChunk<ComplexEvent> streamEventChunk;
-
+    private int shardingAttributePosition = -1;
 
     public PartitionStreamReceiver(SiddhiAppContext siddhiAppContext, MetaStreamEvent metaStreamEvent,
                                    StreamDefinition streamDefinition,
@@ -63,14 +74,48 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         this.partitionRuntime = partitionRuntime;
         this.partitionExecutors = partitionExecutors;
         this.siddhiAppContext = siddhiAppContext;
+        this.partitionWorkers = partitionRuntime.getPartitionWorkers();
         streamId = streamDefinition.getId();
-        this.eventPool = new StreamEventPool(metaStreamEvent, 5);
+        this.eventPool = new StreamEventPool(metaStreamEvent, siddhiAppContext.getEventPoolSize(5));
         this.streamEventChunk = new ComplexEventChunk<ComplexEvent>(false);
 
     }
 
     public void init() {
         streamEventConverter = StreamEventConverterFactory.constructEventConverter(metaStreamEvent);
+        streamEventCloner = new StreamEventCloner(metaStreamEvent, eventPool);
+        if (partitionExecutors.size() == 1 && partitionExecutors.get(0) instanceof ValuePartitionExecutor) {
+            ExpressionExecutor expressionExecutor = ((ValuePartitionExecutor) partitionExecutors.get(0))
+                    .getExpressionExecutor();
+            if (expressionExecutor instanceof VariableExpressionExecutor) {
+                shardingAttributePosition = streamDefinition.getAttributePosition(
+                        ((VariableExpressionExecutor) expressionExecutor).getAttribute().getName());
+            }
+        }
+    }
+
+    /**
+     * Partitions keyed by a stream attribute can be processed by multiple workers, as long as all the events of a
+     * partition key are sent to the same worker.
+     */
+    @Override
+    public boolean isParallelProcessingAllowed() {
+        return shardingAttributePosition >= 0;
+    }
+
+    @Override
+    public int getShardingAttributePosition() {
+        return shardingAttributePosition;
+    }
+
+    @Override
+    public PartitionStreamReceiver createWorkerReceiver() {
+        PartitionStreamReceiver partitionStreamReceiver = new PartitionStreamReceiver(siddhiAppContext,
+                metaStreamEvent, streamDefinition, partitionExecutors, partitionRuntime);
+        partitionStreamReceiver.cachedStreamJunctionMap = this.cachedStreamJunctionMap;
+        partitionStreamReceiver.keyedProcessStreamReceivers = this.keyedProcessStreamReceivers;
+        partitionStreamReceiver.init();
+        return partitionStreamReceiver;
     }
 
     @Override
@@ -237,13 +282,81 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
 
     private void send(String key, ComplexEvent event) {
         if (key != null) {
-            partitionRuntime.cloneIfNotExist(key);
-            cachedStreamJunctionMap.get(streamId + key).sendEvent(event);
+            if (partitionWorkers != null && partitionWorkers.isStarted()) {
+                partitionWorkers.send(this, key, partitionWorkers.getWorkerIndex(key), copyEvents(event));
+            } else {
+                process(key, event);
+            }
         }
     }
 
     private void send(ComplexEvent event) {
-        for (StreamJunction streamJunction : cachedStreamJunctionMap.values()) {
+        if (partitionWorkers != null && partitionWorkers.isStarted()) {
+            for (int i = 0; i < partitionWorkers.getWorkers(); i++) {
+                partitionWorkers.send(this, null, i, copyEvents(event));
+            }
+        } else {
+            for (StreamJunction streamJunction : cachedStreamJunctionMap.values()) {
+                streamJunction.sendEvent(event);
+            }
+        }
+    }
+
+    /**
+     * process the events handed over to a worker of a parallel partition, and return them to the event pool
+     *
+     * @param key         partition key of the events, or null if the events belong to all the keys of the worker
+     * @param workerIndex index of the worker
+     * @param streamEvent events to be processed
+     */
+    void processInWorker(String key, int workerIndex, StreamEvent streamEvent) {
+        try {
+            if (key != null) {
+                process(key, streamEvent);
+            } else {
+                for (Map.Entry<String, StreamJunction> entry : cachedStreamJunctionMap.entrySet()) {
+                    if (partitionWorkers.getWorkerIndex(entry.getKey().substring(streamId.length())) ==
+                            workerIndex) {
+                        entry.getValue().sendEvent(streamEvent);
+                    }
+                }
+            }
+        } finally {
+            eventPool.returnEvents(streamEvent);
+        }
+    }
+
+    private StreamEvent copyEvents(ComplexEvent complexEvent) {
+        StreamEvent firstEvent = streamEventCloner.copyStreamEvent((StreamEvent) complexEvent);
+        StreamEvent lastEvent = firstEvent;
+        for (ComplexEvent nextEvent = complexEvent.getNext(); nextEvent != null; nextEvent = nextEvent.getNext()) {
+            StreamEvent copiedEvent = streamEventCloner.copyStreamEvent((StreamEvent) nextEvent);
+            lastEvent.setNext(copiedEvent);
+            lastEvent = copiedEvent;
+        }
+        return firstEvent;
+    }
+
+    private void process(String key, ComplexEvent event) {
+        if (!keyedProcessStreamReceivers.isEmpty()) {
+            String previousKey = QuerySelector.getThreadLocalPartitionKey();
+            QuerySelector.setThreadLocalPartitionKey(key);
+            try {
+                for (ProcessStreamReceiver processStreamReceiver : keyedProcessStreamReceivers) {
+                    processStreamReceiver.receive(event);
+                }
+            } finally {
+                QuerySelector.setThreadLocalPartitionKey(previousKey);
+            }
+        }
+        if (partitionRuntime.hasClonedQueries()) {
+            partitionRuntime.cloneIfNotExist(key);
+            StreamJunction streamJunction = cachedStreamJunctionMap.get(streamId + key);
+            if (streamJunction == null) {
+                // Partition instance got purged after the previous check, hence recreate it.
+                partitionRuntime.cloneIfNotExist(key);
+                streamJunction = cachedStreamJunctionMap.get(streamId + key);
+            }
             streamJunction.sendEvent(event);
         }
     }
@@ -277,6 +390,25 @@ public class PartitionStreamReceiver implements StreamJunction.Receiver {
         }
     }
 
+    /**
+     * add the receiver of a query shared by all the keys of a keyed partition, events are directly sent to it along
+     * with the partition key
+     *
+     * @param processStreamReceiver processStreamReceiver of the keyed query
+     */
+    public void addKeyedProcessStreamReceiver(ProcessStreamReceiver processStreamReceiver) {
+        keyedProcessStreamReceivers.add(processStreamReceiver);
+    }
+
+    /**
+     * remove the local streamJunction of a partition key, when the partition instance is purged
+     *
+     * @param key partitioning key
+     */
+    public void removeStreamJunction(String key) {
+        cachedStreamJunctionMap.remove(streamId + key);
+    }
+
     private StreamJunction createStreamJunction() {
         return new StreamJunction(streamDefinition, siddhiAppContext.getExecutorService(),
                                   siddhiAppContext.getBufferSize(), siddhiAppContext);
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.partition;
+
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.EventFactory;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceReportingEventHandler;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+
+/**
+ * Single threaded workers processing the events of a partition annotated with {@code @parallel}. Each partition key
+ * is hashed onto one of the workers, hence the events of a key are processed in their arrival order by a single
+ * thread while the keys of different workers are processed in parallel. Events are passed to the workers through a
+ * Disruptor ring buffer, where each worker only handles the events assigned to it.
+ */
+public class PartitionWorkers implements EternalReferencedHolder, EventBufferHolder {
+
+    private final int workers;
+    private final int bufferSize;
+    private final SiddhiAppContext siddhiAppContext;
+    private Disruptor<PartitionEvent> disruptor;
+    private volatile RingBuffer<PartitionEvent> ringBuffer;
+
+    public PartitionWorkers(int workers, int bufferSize, SiddhiAppContext siddhiAppContext) {
+        this.workers = workers;
+        this.bufferSize = bufferSize;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @param key partition key
+     * @return index of the worker processing the events of the given key
+     */
+    public int getWorkerIndex(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return (hash & Integer.MAX_VALUE) % workers;
+    }
+
+    /**
+     * @return true if the workers are running and events should be handed over to them
+     */
+    public boolean isStarted() {
+        return ringBuffer != null;
+    }
+
+    /**
+     * Hand over events to a worker, which passes them to the partition instance and returns them to the event pool
+     * of the receiver
+     *
+     * @param partitionStreamReceiver receiver of the partitioned stream
+     * @param key                     partition key of the events, or null if the events belong to all the keys
+     * @param workerIndex             index of the worker to process the events
+     * @param streamEvent             events owned by the worker from here onwards
+     */
+    public void send(PartitionStreamReceiver partitionStreamReceiver, String key, int workerIndex,
+                     StreamEvent streamEvent) {
+        RingBuffer<PartitionEvent> ringBuffer = this.ringBuffer;
+        long sequenceNo = ringBuffer.next();
+        try {
+            PartitionEvent partitionEvent = ringBuffer.get(sequenceNo);
+            partitionEvent.partitionStreamReceiver = partitionStreamReceiver;
+            partitionEvent.key = key;
+            partitionEvent.workerIndex = workerIndex;
+            partitionEvent.streamEvent = streamEvent;
+        } finally {
+            ringBuffer.publish(sequenceNo);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (disruptor == null) {
+            disruptor = new Disruptor<PartitionEvent>(new PartitionEventFactory(), bufferSize,
+                    siddhiAppContext.getExecutorService(), ProducerType.MULTI, new BlockingWaitStrategy());
+            disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
+            PartitionWorkerHandler[] partitionWorkerHandlers = new PartitionWorkerHandler[workers];
+            for (int i = 0; i < workers; i++) {
+                partitionWorkerHandlers[i] = new PartitionWorkerHandler(i);
+            }
+            disruptor.handleEventsWith(partitionWorkerHandlers);
+            ringBuffer = disruptor.start();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (disruptor != null) {
+            disruptor.shutdown();
+            ringBuffer = null;
+            disruptor = null;
+        }
+    }
+
+    @Override
+    public long getBufferedEvents() {
+        RingBuffer<PartitionEvent> ringBuffer = this.ringBuffer;
+        if (ringBuffer == null) {
+            return 0;
+        }
+        return ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+    }
+
+    @Override
+    public long getRemainingCapacity() {
+        RingBuffer<PartitionEvent> ringBuffer = this.ringBuffer;
+        if (ringBuffer == null) {
+            return bufferSize;
+        }
+        return ringBuffer.remainingCapacity();
+    }
+
+    /**
+     * Ring buffer entry carrying the events of a partition key to its worker.
+     */
+    private static class PartitionEvent {
+        private PartitionStreamReceiver partitionStreamReceiver;
+        private String key;
+        private int workerIndex;
+        private StreamEvent streamEvent;
+    }
+
+    private static class PartitionEventFactory implements EventFactory<PartitionEvent> {
+
+        @Override
+        public PartitionEvent newInstance() {
+            return new PartitionEvent();
+        }
+    }
+
+    /**
+     * Handler of a single worker, which only processes the events assigned to it.
+     */
+    private class PartitionWorkerHandler implements SequenceReportingEventHandler<PartitionEvent>, LifecycleAware {
+
+        private final int workerIndex;
+        private Sequence sequenceCallback;
+
+        PartitionWorkerHandler(int workerIndex) {
+            this.workerIndex = workerIndex;
+        }
+
+        @Override
+        public void onEvent(PartitionEvent partitionEvent, long sequence, boolean endOfBatch) {
+            try {
+                if (partitionEvent.workerIndex == workerIndex) {
+                    PartitionStreamReceiver partitionStreamReceiver = partitionEvent.partitionStreamReceiver;
+                    String key = partitionEvent.key;
+                    StreamEvent streamEvent = partitionEvent.streamEvent;
+                    partitionEvent.partitionStreamReceiver = null;
+                    partitionEvent.key = null;
+                    partitionEvent.streamEvent = null;
+                    partitionStreamReceiver.processInWorker(key, workerIndex, streamEvent);
+                }
+            } finally {
+                if (endOfBatch) {
+                    siddhiAppContext.getThreadBarrier().batchProcessed(sequenceCallback, sequence);
+                }
+            }
+        }
+
+        @Override
+        public void setSequenceCallback(Sequence sequenceCallback) {
+            this.sequenceCallback = sequenceCallback;
+        }
+
+        @Override
+        public void onStart() {
+            // Workers are drained, rather than blocked, when the thread barrier is locked
+            siddhiAppContext.getThreadBarrier().registerWorkerThread();
+        }
+
+        @Override
+        public void onShutdown() {
+            siddhiAppContext.getThreadBarrier().unregisterWorkerThread();
+        }
+    }
+}
@@ -31,6 +31,10 @@ public class ValuePartitionExecutor implements PartitionExecutor {
         this.expressionExecutor = expressionExecutor;
     }
 
+    public ExpressionExecutor getExpressionExecutor() {
+        return expressionExecutor;
+    }
+
     public String execute(ComplexEvent event) {
         try {
             return expressionExecutor.execute(event).toString();
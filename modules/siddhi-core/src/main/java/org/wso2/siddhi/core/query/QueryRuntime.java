@@ -25,6 +25,7 @@ import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.stream.StreamJunction;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.parser.OutputParser;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
@@ -133,7 +134,9 @@ public class QueryRuntime {
         QueryRuntime queryRuntime = new QueryRuntime(query, siddhiAppContext, clonedStreamRuntime, clonedSelector,
                                                      clonedOutputRateLimiter, outputCallback, this.metaComplexEvent,
                                                      synchronised, this.queryId + key);
-        QueryParserHelper.initStreamRuntime(clonedStreamRuntime, metaComplexEvent, lockWrapper, queryId);
+        QueryParserHelper.initStreamRuntime(clonedStreamRuntime, metaComplexEvent, lockWrapper, queryId,
+                QueryParserHelper.getEventPoolSize(query, siddhiAppContext, SiddhiConstants.DEFAULT_EVENT_POOL_SIZE),
+                siddhiAppContext);
 
         queryRuntime.setToLocalStream(toLocalStream);
 
@@ -39,7 +39,7 @@ import java.util.List;
  * Parent implementation for all process stream receivers(Multi/Single/State). Any newly written process stream
  * receivers should extend this. ProcessStreamReceivers are the entry point to Siddhi queries.
  */
-public class ProcessStreamReceiver implements StreamJunction.Receiver {
+public class ProcessStreamReceiver implements StreamJunction.ParallelReceiver {
 
     protected String streamId;
     protected Processor next;
@@ -49,6 +49,7 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
     protected LockWrapper lockWrapper;
     protected ComplexEventChunk<StreamEvent> batchingStreamEventChunk = new ComplexEventChunk<StreamEvent>(false);
     protected boolean batchProcessingAllowed;
+    protected boolean parallelProcessingAllowed;
     private StreamEventConverter streamEventConverter;
     private MetaStreamEvent metaStreamEvent;
     private StreamEventPool streamEventPool;
@@ -70,6 +71,31 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         ProcessStreamReceiver processStreamReceiver = new ProcessStreamReceiver(streamId + key, latencyTracker,
                                                                                 queryName);
         processStreamReceiver.batchProcessingAllowed = this.batchProcessingAllowed;
+        processStreamReceiver.parallelProcessingAllowed = this.parallelProcessingAllowed;
+        return processStreamReceiver;
+    }
+
+    @Override
+    public boolean isParallelProcessingAllowed() {
+        return parallelProcessingAllowed;
+    }
+
+    @Override
+    public int getShardingAttributePosition() {
+        return -1;
+    }
+
+    @Override
+    public ProcessStreamReceiver createWorkerReceiver() {
+        ProcessStreamReceiver processStreamReceiver = new ProcessStreamReceiver(streamId, latencyTracker, queryName);
+        processStreamReceiver.batchProcessingAllowed = this.batchProcessingAllowed;
+        processStreamReceiver.parallelProcessingAllowed = this.parallelProcessingAllowed;
+        processStreamReceiver.next = this.next;
+        processStreamReceiver.lockWrapper = this.lockWrapper;
+        processStreamReceiver.siddhiDebugger = this.siddhiDebugger;
+        processStreamReceiver.metaStreamEvent = this.metaStreamEvent;
+        processStreamReceiver.streamEventPool = this.streamEventPool;
+        processStreamReceiver.init();
         return processStreamReceiver;
     }
 
@@ -196,6 +222,17 @@ public class ProcessStreamReceiver implements StreamJunction.Receiver {
         this.batchProcessingAllowed = batchProcessingAllowed;
     }
 
+    /**
+     * Allow the receiver to be fed by multiple workers of an async stream, only applicable for stateless queries.
+     * The workers convert and filter the events in parallel, while the selector still processes one event chunk at a
+     * time.
+     *
+     * @param parallelProcessingAllowed true if the query does not hold any state
+     */
+    public void setParallelProcessingAllowed(boolean parallelProcessingAllowed) {
+        this.parallelProcessingAllowed = parallelProcessingAllowed;
+    }
+
     public void setNext(Processor next) {
         this.next = next;
     }
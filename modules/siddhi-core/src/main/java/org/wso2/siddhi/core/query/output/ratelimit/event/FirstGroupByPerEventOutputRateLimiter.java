@@ -22,6 +22,7 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -34,7 +35,7 @@ import java.util.Map;
  */
 public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     private final Integer value;
-    private List<String> groupByKeys = new ArrayList<String>();
+    private List<GroupByKey> groupByKeys = new ArrayList<GroupByKey>();
     private String id;
     private ComplexEventChunk<ComplexEvent> allComplexEventChunk;
     private volatile int counter = 0;
@@ -62,8 +63,8 @@ public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
                 if (event.getType() == ComplexEvent.Type.CURRENT || event.getType() == ComplexEvent.Type.EXPIRED) {
                     complexEventChunk.remove();
                     GroupedComplexEvent groupedComplexEvent = ((GroupedComplexEvent) event);
-                    if (!groupByKeys.contains(groupedComplexEvent.getGroupKey())) {
-                        groupByKeys.add(groupedComplexEvent.getGroupKey());
+                    if (!groupByKeys.contains(groupedComplexEvent.getGroupByKey())) {
+                        groupByKeys.add(groupedComplexEvent.getGroupByKey());
                         allComplexEventChunk.add(groupedComplexEvent.getComplexEvent());
                     }
                     if (++counter == value) {
@@ -114,7 +115,7 @@ public class FirstGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     public void restoreState(Map<String, Object> state) {
         synchronized (this) {
             counter = (int) state.get("Counter");
-            groupByKeys = (List<String>) state.get("GroupByKeys");
+            groupByKeys = GroupByKey.fromLegacyKeys((List<?>) state.get("GroupByKeys"));
             allComplexEventChunk.clear();
             allComplexEventChunk.add((ComplexEvent) state.get("AllComplexEventChunk"));
         }
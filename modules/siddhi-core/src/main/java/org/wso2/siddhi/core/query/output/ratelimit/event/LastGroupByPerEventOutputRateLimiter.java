@@ -23,6 +23,7 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -37,7 +38,7 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     private final Integer value;
     private String id;
     private volatile int counter = 0;
-    private Map<String, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<String, ComplexEvent>();
+    private Map<GroupByKey, ComplexEvent> allGroupByKeyEvents = new LinkedHashMap<GroupByKey, ComplexEvent>();
 
     public LastGroupByPerEventOutputRateLimiter(String id, Integer value) {
         this.id = id;
@@ -61,7 +62,7 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
                 if (event.getType() == ComplexEvent.Type.CURRENT || event.getType() == ComplexEvent.Type.EXPIRED) {
                     complexEventChunk.remove();
                     GroupedComplexEvent groupedComplexEvent = ((GroupedComplexEvent) event);
-                    allGroupByKeyEvents.put(groupedComplexEvent.getGroupKey(), groupedComplexEvent.getComplexEvent());
+                    allGroupByKeyEvents.put(groupedComplexEvent.getGroupByKey(), groupedComplexEvent.getComplexEvent());
                     if (++counter == value) {
                         counter = 0;
                         if (allGroupByKeyEvents.size() != 0) {
@@ -106,6 +107,6 @@ public class LastGroupByPerEventOutputRateLimiter extends OutputRateLimiter {
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
         counter = (int) state.get("Counter");
-        allGroupByKeyEvents = (Map<String, ComplexEvent>) state.get("AllGroupByKeyEvents");
+        allGroupByKeyEvents = GroupByKey.fromLegacyKeys((Map<?, ComplexEvent>) state.get("AllGroupByKeyEvents"));
     }
 }
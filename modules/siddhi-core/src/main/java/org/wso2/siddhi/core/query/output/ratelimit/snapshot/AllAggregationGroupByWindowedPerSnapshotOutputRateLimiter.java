@@ -24,6 +24,7 @@ import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.parser.SchedulerParser;
 
@@ -44,7 +45,7 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter extends S
     private final ScheduledExecutorService scheduledExecutorService;
     String queryName;
     private String id;
-    private Map<String, LastEventHolder> groupByKeyEvents = new LinkedHashMap<String, LastEventHolder>();
+    private Map<GroupByKey, LastEventHolder> groupByKeyEvents = new LinkedHashMap<GroupByKey, LastEventHolder>();
     private Scheduler scheduler;
     private long scheduledTime;
 
@@ -79,10 +80,10 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter extends S
                     complexEventChunk.remove();
                     tryFlushEvents(outputEventChunks, event);
                     GroupedComplexEvent groupedComplexEvent = ((GroupedComplexEvent) event);
-                    LastEventHolder lastEventHolder = groupByKeyEvents.get(groupedComplexEvent.getGroupKey());
+                    LastEventHolder lastEventHolder = groupByKeyEvents.get(groupedComplexEvent.getGroupByKey());
                     if (lastEventHolder == null) {
                         lastEventHolder = new LastEventHolder();
-                        groupByKeyEvents.put(groupedComplexEvent.getGroupKey(), lastEventHolder);
+                        groupByKeyEvents.put(groupedComplexEvent.getGroupByKey(), lastEventHolder);
                     }
                     if (groupedComplexEvent.getType() == ComplexEvent.Type.CURRENT) {
                         lastEventHolder.addLastInEvent(groupedComplexEvent.getComplexEvent());
@@ -103,9 +104,9 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter extends S
     private void tryFlushEvents(List<ComplexEventChunk<ComplexEvent>> outputEventChunks, ComplexEvent event) {
         if (event.getTimestamp() >= scheduledTime) {
             ComplexEventChunk<ComplexEvent> outputEventChunk = new ComplexEventChunk<ComplexEvent>(false);
-            for (Iterator<Map.Entry<String, LastEventHolder>> iterator = groupByKeyEvents.entrySet().iterator();
+            for (Iterator<Map.Entry<GroupByKey, LastEventHolder>> iterator = groupByKeyEvents.entrySet().iterator();
                  iterator.hasNext(); ) {
-                Map.Entry<String, LastEventHolder> lastEventHolderEntry = iterator.next();
+                Map.Entry<GroupByKey, LastEventHolder> lastEventHolderEntry = iterator.next();
 
                 //clearing expired events after update
                 lastEventHolderEntry.getValue().checkAndClearLastInEvent();
@@ -147,7 +148,7 @@ public class AllAggregationGroupByWindowedPerSnapshotOutputRateLimiter extends S
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        groupByKeyEvents = (Map<String, LastEventHolder>) state.get("GroupByKeyEvents");
+        groupByKeyEvents = GroupByKey.fromLegacyKeys((Map<?, LastEventHolder>) state.get("GroupByKeyEvents"));
     }
 
     private class LastEventHolder {
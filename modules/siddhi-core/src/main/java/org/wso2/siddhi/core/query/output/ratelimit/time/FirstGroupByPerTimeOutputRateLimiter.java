@@ -24,6 +24,7 @@ import org.wso2.siddhi.core.event.ComplexEventChunk;
 import org.wso2.siddhi.core.event.GroupedComplexEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.util.Schedulable;
 import org.wso2.siddhi.core.util.Scheduler;
 import org.wso2.siddhi.core.util.parser.SchedulerParser;
@@ -42,7 +43,7 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
     private static final Logger log = Logger.getLogger(FirstGroupByPerTimeOutputRateLimiter.class);
     private final Long value;
     private String id;
-    private List<String> groupByKeys = new ArrayList<String>();
+    private List<GroupByKey> groupByKeys = new ArrayList<GroupByKey>();
     private ComplexEventChunk<ComplexEvent> allComplexEventChunk;
     private ScheduledExecutorService scheduledExecutorService;
     private Scheduler scheduler;
@@ -91,9 +92,9 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
                 } else if (event.getType() == ComplexEvent.Type.CURRENT || event.getType() == ComplexEvent.Type
                         .EXPIRED) {
                     GroupedComplexEvent groupedComplexEvent = ((GroupedComplexEvent) event);
-                    if (!groupByKeys.contains(groupedComplexEvent.getGroupKey())) {
+                    if (!groupByKeys.contains(groupedComplexEvent.getGroupByKey())) {
                         complexEventChunk.remove();
-                        groupByKeys.add(groupedComplexEvent.getGroupKey());
+                        groupByKeys.add(groupedComplexEvent.getGroupByKey());
                         allComplexEventChunk.add(groupedComplexEvent.getComplexEvent());
                     }
                 }
@@ -133,7 +134,7 @@ public class FirstGroupByPerTimeOutputRateLimiter extends OutputRateLimiter impl
     public synchronized void restoreState(Map<String, Object> state) {
         allComplexEventChunk.clear();
         allComplexEventChunk.add((ComplexEvent) state.get("AllComplexEventChunk"));
-        groupByKeys = (List<String>) state.get("GroupByKeys");
+        groupByKeys = GroupByKey.fromLegacyKeys((List<?>) state.get("GroupByKeys"));
     }
 
 }
@@ -51,7 +51,7 @@ public class FilterProcessor implements Processor {
         complexEventChunk.reset();
         while (complexEventChunk.hasNext()) {
             ComplexEvent complexEvent = complexEventChunk.next();
-            if (!(Boolean) conditionExecutor.execute(complexEvent)) {
+            if (!conditionExecutor.executeBoolean(complexEvent)) {
                 complexEventChunk.remove();
             }
         }
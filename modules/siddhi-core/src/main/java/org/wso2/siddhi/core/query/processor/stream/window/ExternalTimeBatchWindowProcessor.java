@@ -35,6 +35,7 @@ import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.query.processor.SchedulingProcessor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.Scheduler;
+import org.wso2.siddhi.core.util.collection.IndexedStreamEventChunk;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
@@ -137,7 +138,7 @@ public class ExternalTimeBatchWindowProcessor extends WindowProcessor implements
             outputExpectsExpiredEvents, SiddhiAppContext siddhiAppContext) {
         this.outputExpectsExpiredEvents = outputExpectsExpiredEvents;
         if (outputExpectsExpiredEvents) {
-            this.expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+            this.expiredEventChunk = new IndexedStreamEventChunk(false);
             this.storeExpiredEvents = true;
         }
         if (attributeExpressionExecutors.length >= 2 && attributeExpressionExecutors.length <= 5) {
@@ -217,7 +218,7 @@ public class ExternalTimeBatchWindowProcessor extends WindowProcessor implements
         }
         if (schedulerTimeout > 0) {
             if (expiredEventChunk == null) {
-                this.expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+                this.expiredEventChunk = new IndexedStreamEventChunk(false);
             }
         }
     }
@@ -483,10 +484,10 @@ public class ExternalTimeBatchWindowProcessor extends WindowProcessor implements
             expiredEventChunk.add((StreamEvent) state.get("ExpiredEventChunk"));
         } else {
             if (outputExpectsExpiredEvents) {
-                expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+                expiredEventChunk = new IndexedStreamEventChunk(false);
             }
             if (schedulerTimeout > 0) {
-                expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+                expiredEventChunk = new IndexedStreamEventChunk(false);
             }
         }
         resetEvent = (StreamEvent) state.get("ResetEvent");
@@ -504,7 +505,7 @@ public class ExternalTimeBatchWindowProcessor extends WindowProcessor implements
                                               List<VariableExpressionExecutor> variableExpressionExecutors,
                                               Map<String, Table> tableMap, String queryName) {
         if (expiredEventChunk == null) {
-            expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+            expiredEventChunk = new IndexedStreamEventChunk(false);
             storeExpiredEvents = true;
         }
         return OperatorParser.constructOperator(expiredEventChunk, expression, matchingMetaInfoHolder,
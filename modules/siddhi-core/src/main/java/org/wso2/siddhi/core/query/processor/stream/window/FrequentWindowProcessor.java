@@ -31,7 +31,9 @@ import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.util.collection.StreamSummary;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
@@ -39,15 +41,14 @@ import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
 import org.wso2.siddhi.query.api.expression.Expression;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementation of {@link WindowProcessor} which represent a Window operating based on frequency of incoming events.
- * Implementation uses a counting algorithm based on Misra-Gries counting algorithm
+ * Implementation uses a counting algorithm based on Misra-Gries counting algorithm, where the counters are kept in a
+ * {@link StreamSummary} such that each event is counted in O(1) time.
  */
 @Extension(
         name = "frequent",
@@ -85,8 +86,10 @@ import java.util.concurrent.ConcurrentHashMap;
         }
 )
 public class FrequentWindowProcessor extends WindowProcessor implements FindableProcessor {
-    private ConcurrentHashMap<String, Integer> countMap = new ConcurrentHashMap<String, Integer>();
-    private ConcurrentHashMap<String, StreamEvent> map = new ConcurrentHashMap<String, StreamEvent>();
+    private StreamSummary<GroupByKey> countMap = new StreamSummary<GroupByKey>();
+    private Map<GroupByKey, StreamEvent> map = new HashMap<GroupByKey, StreamEvent>();
+    // counts restored from snapshots taken before keys were typed, which are adopted when their keys next arrive
+    private Map<String, Integer> legacyCountMap = null;
     private VariableExpressionExecutor[] variableExpressionExecutors;
 
     private int mostFrequentCount;
@@ -116,25 +119,18 @@ public class FrequentWindowProcessor extends WindowProcessor implements Findable
                 StreamEvent clonedEvent = streamEventCloner.copyStreamEvent(streamEvent);
                 clonedEvent.setType(StreamEvent.Type.EXPIRED);
 
-                String key = generateKey(streamEvent);
+                GroupByKey key = generateKey(streamEvent);
                 StreamEvent oldEvent = map.put(key, clonedEvent);
                 if (oldEvent != null) {
-                    countMap.put(key, countMap.get(key) + 1);
+                    countMap.increment(key);
                     streamEventChunk.add(streamEvent);
                 } else {
                     //  This is a new event
                     if (map.size() > mostFrequentCount) {
-                        List<String> keys = new ArrayList<String>(countMap.keySet());
-                        for (int i = 0; i < mostFrequentCount; i++) {
-                            int count = countMap.get(keys.get(i)) - 1;
-                            if (count == 0) {
-                                countMap.remove(keys.get(i));
-                                StreamEvent expiredEvent = map.remove(keys.get(i));
-                                expiredEvent.setTimestamp(currentTime);
-                                streamEventChunk.add(expiredEvent);
-                            } else {
-                                countMap.put(keys.get(i), count);
-                            }
+                        for (GroupByKey expiredKey : countMap.decrementAll()) {
+                            StreamEvent expiredEvent = map.remove(expiredKey);
+                            expiredEvent.setTimestamp(currentTime);
+                            streamEventChunk.add(expiredEvent);
                         }
                         // now we have tried to remove one for newly added item
                         if (map.size() > mostFrequentCount) {
@@ -145,11 +141,11 @@ public class FrequentWindowProcessor extends WindowProcessor implements Findable
                         } else {
                             // we got some space, event is already there in map object
                             // we just have to add it to the countMap
-                            countMap.put(key, 1);
+                            countMap.add(key, 1 + removeLegacyCount(streamEvent), 0);
                             streamEventChunk.add(streamEvent);
                         }
                     } else {
-                        countMap.put(generateKey(streamEvent), 1);
+                        countMap.add(key, 1 + removeLegacyCount(streamEvent), 0);
                         streamEventChunk.add(streamEvent);
                     }
                 }
@@ -173,18 +169,47 @@ public class FrequentWindowProcessor extends WindowProcessor implements Findable
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
         synchronized (this) {
-            state.put("CountMap", countMap);
+            state.put("Counters", countMap.toList());
+            state.put("Events", new HashMap<GroupByKey, StreamEvent>(map));
+            if (legacyCountMap != null) {
+                state.put("LegacyCountMap", new HashMap<String, Integer>(legacyCountMap));
+            }
         }
         return state;
     }
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        countMap = (ConcurrentHashMap<String, Integer>) state.get("CountMap");
+        countMap.clear();
+        Map<String, Integer> legacyCounts = (Map<String, Integer>) state.get("CountMap");
+        if (legacyCounts != null) {
+            // snapshots taken before keys were typed only hold the counts keyed by the concatenated attribute values
+            map = new HashMap<GroupByKey, StreamEvent>();
+            legacyCountMap = legacyCounts.isEmpty() ? null : new HashMap<String, Integer>(legacyCounts);
+            return;
+        }
+        for (Object[] counter : (List<Object[]>) state.get("Counters")) {
+            countMap.add((GroupByKey) counter[0], (Long) counter[1], (Long) counter[2]);
+        }
+        map = (Map<GroupByKey, StreamEvent>) state.get("Events");
+        legacyCountMap = (Map<String, Integer>) state.get("LegacyCountMap");
+    }
+
+    private GroupByKey generateKey(StreamEvent event) {
+        if (variableExpressionExecutors.length == 0) {
+            return new GroupByKey(event.getOutputData().clone());
+        }
+        Object[] key = new Object[variableExpressionExecutors.length];
+        for (int i = 0; i < variableExpressionExecutors.length; i++) {
+            key[i] = event.getAttribute(variableExpressionExecutors[i].getPosition());
+        }
+        return new GroupByKey(key);
     }
 
-    private String generateKey(StreamEvent event) {      // for performance reason if its all attribute we don't do
-        // the attribute list check
+    private long removeLegacyCount(StreamEvent event) {
+        if (legacyCountMap == null) {
+            return 0;
+        }
         StringBuilder stringBuilder = new StringBuilder();
         if (variableExpressionExecutors.length == 0) {
             for (Object data : event.getOutputData()) {
@@ -195,7 +220,11 @@ public class FrequentWindowProcessor extends WindowProcessor implements Findable
                 stringBuilder.append(event.getAttribute(executor.getPosition()));
             }
         }
-        return stringBuilder.toString();
+        Integer count = legacyCountMap.remove(stringBuilder.toString());
+        if (legacyCountMap.isEmpty()) {
+            legacyCountMap = null;
+        }
+        return count == null ? 0 : count;
     }
 
     @Override
@@ -32,11 +32,14 @@ import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.util.collection.IndexedStreamEventChunk;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
+import org.wso2.siddhi.core.util.snapshot.EventQueueDeltaTracker;
+import org.wso2.siddhi.core.util.snapshot.IncrementalSnapshotable;
 import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.expression.Expression;
 
@@ -70,11 +73,12 @@ import java.util.Map;
                 description = "This will processing 10 events and out put all events."
         )
 )
-public class LengthWindowProcessor extends WindowProcessor implements FindableProcessor {
+public class LengthWindowProcessor extends WindowProcessor implements FindableProcessor, IncrementalSnapshotable {
 
     private int length;
     private int count = 0;
     private ComplexEventChunk<StreamEvent> expiredEventChunk;
+    private EventQueueDeltaTracker deltaTracker = new EventQueueDeltaTracker();
 
     public int getLength() {
         return length;
@@ -87,7 +91,7 @@ public class LengthWindowProcessor extends WindowProcessor implements FindablePr
     @Override
     protected void init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader, boolean
             outputExpectsExpiredEvents, SiddhiAppContext siddhiAppContext) {
-        expiredEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        expiredEventChunk = new IndexedStreamEventChunk(false);
         if (attributeExpressionExecutors.length == 1) {
             length = (Integer) ((ConstantExpressionExecutor) attributeExpressionExecutors[0]).getValue();
         } else {
@@ -108,12 +112,15 @@ public class LengthWindowProcessor extends WindowProcessor implements FindablePr
                 if (count < length) {
                     count++;
                     this.expiredEventChunk.add(clonedEvent);
+                    deltaTracker.added();
                 } else {
                     StreamEvent firstEvent = this.expiredEventChunk.poll();
                     if (firstEvent != null) {
+                        deltaTracker.removed();
                         firstEvent.setTimestamp(currentTime);
                         streamEventChunk.insertBeforeCurrent(firstEvent);
                         this.expiredEventChunk.add(clonedEvent);
+                        deltaTracker.added();
                     } else {
                         StreamEvent resetEvent = streamEventCloner.copyStreamEvent(streamEvent);
                         resetEvent.setType(ComplexEvent.Type.RESET);
@@ -176,5 +183,22 @@ public class LengthWindowProcessor extends WindowProcessor implements FindablePr
         count = (int) state.get("Count");
         expiredEventChunk.clear();
         expiredEventChunk.add((StreamEvent) state.get("ExpiredEventChunk"));
+        deltaTracker.reset(expiredEventChunk.getFirst());
+    }
+
+    @Override
+    public synchronized Map<String, Object> currentDelta() {
+        return deltaTracker.currentDelta(expiredEventChunk.getFirst(), streamEventCloner);
+    }
+
+    @Override
+    public synchronized void restoreDelta(Map<String, Object> delta) {
+        deltaTracker.restoreDelta(delta, expiredEventChunk);
+        count = deltaTracker.size();
+    }
+
+    @Override
+    public synchronized void checkpoint() {
+        deltaTracker.checkpoint();
     }
 }
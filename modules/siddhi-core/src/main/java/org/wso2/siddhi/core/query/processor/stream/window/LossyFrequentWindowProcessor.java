@@ -32,7 +32,9 @@ import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.util.collection.StreamSummary;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
@@ -40,14 +42,14 @@ import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
 import org.wso2.siddhi.query.api.expression.Expression;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Implementation of {@link WindowProcessor} which represent a Window operating based on event frequency.
+ * Implementation uses the Lossy Counting algorithm, where each counter is kept in a {@link StreamSummary} with its
+ * frequency plus its maximum error as the count, such that pruning only visits the counters being removed.
  */
 @Extension(
         name = "lossyFrequent",
@@ -101,8 +103,8 @@ import java.util.concurrent.ConcurrentHashMap;
 )
 public class LossyFrequentWindowProcessor extends WindowProcessor implements FindableProcessor {
     private static final Logger log = Logger.getLogger(LossyFrequentWindowProcessor.class);
-    private ConcurrentHashMap<String, LossyCount> countMap = new ConcurrentHashMap<String, LossyCount>();
-    private ConcurrentHashMap<String, StreamEvent> map = new ConcurrentHashMap<String, StreamEvent>();
+    private StreamSummary<GroupByKey> countMap = new StreamSummary<GroupByKey>();
+    private Map<GroupByKey, StreamEvent> map = new HashMap<GroupByKey, StreamEvent>();
     private VariableExpressionExecutor[] variableExpressionExecutors;
 
     private int totalCount = 0;
@@ -155,42 +157,28 @@ public class LossyFrequentWindowProcessor extends WindowProcessor implements Fin
                 if (totalCount != 1) {
                     currentBucketId = Math.ceil(totalCount / windowWidth);
                 }
-                String currentKey = generateKey(streamEvent);
+                GroupByKey currentKey = generateKey(streamEvent);
                 StreamEvent oldEvent = map.put(currentKey, clonedEvent);
                 if (oldEvent != null) {    // this event is already in the store
-                    countMap.put(currentKey, countMap.get(currentKey).incrementCount());
+                    countMap.increment(currentKey);
                 } else {
-                    //  This is a new event
-                    LossyCount lCount;
-                    lCount = new LossyCount(1, (int) currentBucketId - 1);
-                    countMap.put(currentKey, lCount);
+                    //  This is a new event, counted with the bucket id as its maximum error
+                    long bucketId = (long) currentBucketId - 1;
+                    countMap.add(currentKey, 1 + bucketId, bucketId);
                 }
-                // calculating all the events in the system which match the
-                // requirement provided by the user
-                List<String> keys = new ArrayList<String>();
-                keys.addAll(countMap.keySet());
-                for (String key : keys) {
-                    LossyCount lossyCount = countMap.get(key);
-                    if (lossyCount.getCount() >= ((support - error) * totalCount)) {
-                        // among the selected events, if the newly arrive event is there we mark it as an inEvent
-                        if (key.equals(currentKey)) {
-                            streamEventChunk.add(streamEvent);
-                        }
-                    }
+                // the newly arrived event is marked as an inEvent if its frequency matches the requirement
+                // provided by the user
+                if (countMap.getCount(currentKey) - countMap.getError(currentKey) >=
+                        ((support - error) * totalCount)) {
+                    streamEventChunk.add(streamEvent);
                 }
                 if (totalCount % windowWidth == 0) {
                     // its time to run the data-structure prune code
-                    keys = new ArrayList<String>();
-                    keys.addAll(countMap.keySet());
-                    for (String key : keys) {
-                        LossyCount lossyCount = countMap.get(key);
-                        if (lossyCount.getCount() + lossyCount.getBucketId() <= currentBucketId) {
-                            log.info("Removing the Event: " + key + " from the window");
-                            countMap.remove(key);
-                            StreamEvent expirtedEvent = map.remove(key);
-                            expirtedEvent.setTimestamp(currentTime);
-                            streamEventChunk.add(expirtedEvent);
-                        }
+                    for (GroupByKey key : countMap.removeAtMost((long) currentBucketId)) {
+                        log.info("Removing the Event: " + key + " from the window");
+                        StreamEvent expirtedEvent = map.remove(key);
+                        expirtedEvent.setTimestamp(currentTime);
+                        streamEventChunk.add(expirtedEvent);
                     }
                 }
                 streamEvent = next;
@@ -214,7 +202,10 @@ public class LossyFrequentWindowProcessor extends WindowProcessor implements Fin
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
         synchronized (this) {
-            state.put("CountMap", countMap);
+            state.put("Counters", countMap.toList());
+            state.put("Events", new HashMap<GroupByKey, StreamEvent>(map));
+            state.put("TotalCount", totalCount);
+            state.put("CurrentBucketId", currentBucketId);
         }
         return state;
     }
@@ -222,22 +213,24 @@ public class LossyFrequentWindowProcessor extends WindowProcessor implements Fin
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        countMap = (ConcurrentHashMap<String, LossyCount>) state.get("CountMap");
+        countMap.clear();
+        for (Object[] counter : (List<Object[]>) state.get("Counters")) {
+            countMap.add((GroupByKey) counter[0], (Long) counter[1], (Long) counter[2]);
+        }
+        map = (Map<GroupByKey, StreamEvent>) state.get("Events");
+        totalCount = (Integer) state.get("TotalCount");
+        currentBucketId = (Double) state.get("CurrentBucketId");
     }
 
-    private String generateKey(StreamEvent event) {      // for performance reason if its all attribute we don't do
-        // the attribute list check
-        StringBuilder stringBuilder = new StringBuilder();
+    private GroupByKey generateKey(StreamEvent event) {
         if (variableExpressionExecutors.length == 0) {
-            for (Object data : event.getOutputData()) {
-                stringBuilder.append(data);
-            }
-        } else {
-            for (VariableExpressionExecutor executor : variableExpressionExecutors) {
-                stringBuilder.append(event.getAttribute(executor.getPosition()));
-            }
+            return new GroupByKey(event.getOutputData().clone());
         }
-        return stringBuilder.toString();
+        Object[] key = new Object[variableExpressionExecutors.length];
+        for (int i = 0; i < variableExpressionExecutors.length; i++) {
+            key[i] = event.getAttribute(variableExpressionExecutors[i].getPosition());
+        }
+        return new GroupByKey(key);
     }
 
     @Override
@@ -253,38 +246,4 @@ public class LossyFrequentWindowProcessor extends WindowProcessor implements Fin
         return OperatorParser.constructOperator(map.values(), expression, matchingMetaInfoHolder,
                 siddhiAppContext, variableExpressionExecutors, tableMap, this.queryName);
     }
-
-    /**
-     * Inner class to keep the lossy count
-     */
-    public class LossyCount {
-        int count;
-        int bucketId;
-
-        public LossyCount(int count, int bucketId) {
-            this.count = count;
-            this.bucketId = bucketId;
-        }
-
-        public int getCount() {
-            return count;
-        }
-
-        public void setCount(int count) {
-            this.count = count;
-        }
-
-        public int getBucketId() {
-            return bucketId;
-        }
-
-        public void setBucketId(int bucketId) {
-            this.bucketId = bucketId;
-        }
-
-        public LossyCount incrementCount() {
-            this.count++;
-            return this;
-        }
-    }
 }
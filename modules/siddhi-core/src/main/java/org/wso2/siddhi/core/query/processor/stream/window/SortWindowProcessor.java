@@ -32,6 +32,7 @@ import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.table.Table;
+import org.wso2.siddhi.core.util.collection.SortedStreamEventCollection;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
@@ -41,8 +42,6 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.Expression;
 
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -96,9 +95,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
     private static final String ASC = "asc";
     private static final String DESC = "desc";
     private int lengthToKeep;
-    private List<StreamEvent> sortedWindow = new ArrayList<StreamEvent>();
-    private List<Object[]> parameterInfo;
-    private EventComparator eventComparator;
+    private SortedStreamEventCollection sortedWindow;
 
     @Override
     protected void init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader, boolean
@@ -109,13 +106,14 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
         } else {
             throw new UnsupportedOperationException("The first parameter should be an integer");
         }
-        parameterInfo = new ArrayList<Object[]>();
-        eventComparator = new EventComparator();
+        List<VariableExpressionExecutor> sortExecutors = new ArrayList<VariableExpressionExecutor>();
+        List<Integer> orders = new ArrayList<Integer>();
         for (int i = 1, parametersLength = attributeExpressionExecutors.length; i < parametersLength; i++) {
             if (!(attributeExpressionExecutors[i] instanceof VariableExpressionExecutor)) {
                 throw new UnsupportedOperationException("Required a variable, but found a string parameter");
             } else {
-                ExpressionExecutor variableExpressionExecutor = attributeExpressionExecutors[i];
+                VariableExpressionExecutor variableExpressionExecutor = (VariableExpressionExecutor)
+                        attributeExpressionExecutors[i];
                 int order;
                 String nextParameter;
                 if (i + 1 < parametersLength && attributeExpressionExecutors[i + 1].getReturnType() == Attribute.Type
@@ -135,10 +133,11 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
                 } else {
                     order = 1; //assigning the default order: "asc"
                 }
-                parameterInfo.add(new Object[]{variableExpressionExecutor, order});
+                sortExecutors.add(variableExpressionExecutor);
+                orders.add(order);
             }
         }
-
+        sortedWindow = new SortedStreamEventCollection(sortExecutors, orders);
     }
 
     @Override
@@ -160,8 +159,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
 
                 sortedWindow.add(clonedEvent);
                 if (sortedWindow.size() > lengthToKeep) {
-                    Collections.sort(sortedWindow, eventComparator);
-                    StreamEvent expiredEvent = sortedWindow.remove(sortedWindow.size() - 1);
+                    StreamEvent expiredEvent = sortedWindow.pollLast();
                     expiredEvent.setTimestamp(currentTime);
                     streamEventChunk.add(expiredEvent);
                 }
@@ -186,7 +184,7 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
     public Map<String, Object> currentState() {
         Map<String, Object> state = new HashMap<>();
         synchronized (this) {
-            state.put("SortedWindow", sortedWindow);
+            state.put("SortedWindow", new ArrayList<StreamEvent>(sortedWindow));
         }
         return state;
     }
@@ -194,7 +192,8 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
 
     @Override
     public synchronized void restoreState(Map<String, Object> state) {
-        sortedWindow = (List<StreamEvent>) state.get("SortedWindow");
+        sortedWindow.clear();
+        sortedWindow.addAll((List<StreamEvent>) state.get("SortedWindow"));
     }
 
     @Override
@@ -210,21 +209,4 @@ public class SortWindowProcessor extends WindowProcessor implements FindableProc
         return OperatorParser.constructOperator(sortedWindow, expression, matchingMetaInfoHolder,
                 siddhiAppContext, variableExpressionExecutors, tableMap, this.queryName);
     }
-
-    private class EventComparator implements Comparator<StreamEvent> {
-        @Override
-        public int compare(StreamEvent e1, StreamEvent e2) {
-            int comparisonResult;
-            for (Object[] listItem : parameterInfo) {
-                int[] variablePosition = ((VariableExpressionExecutor) listItem[0]).getPosition();
-                Comparable comparableVariable1 = (Comparable) e1.getAttribute(variablePosition);
-                Comparable comparableVariable2 = (Comparable) e2.getAttribute(variablePosition);
-                comparisonResult = comparableVariable1.compareTo(comparableVariable2);
-                if (comparisonResult != 0) {
-                    return ((Integer) listItem[1]) * comparisonResult;
-                }
-            }
-            return 0;
-        }
-    }
 }
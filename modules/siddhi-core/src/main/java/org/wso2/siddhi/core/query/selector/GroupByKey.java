@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Composite key of a GroupBy group, holding the typed values of the group by attributes. The hash is computed once
+ * at construction, hence keys can be looked up repeatedly without rehashing the attribute values.
+ */
+public final class GroupByKey implements Serializable {
+
+    private static final long serialVersionUID = -3384815385236428437L;
+    private final Object[] values;
+    private final int hash;
+    private final String legacyKey;
+
+    public GroupByKey(Object[] values) {
+        this.values = values;
+        this.hash = Arrays.hashCode(values);
+        this.legacyKey = null;
+    }
+
+    private GroupByKey(String legacyKey) {
+        this.values = new Object[]{legacyKey};
+        this.hash = legacyKey.hashCode();
+        this.legacyKey = legacyKey;
+    }
+
+    /**
+     * Convert a group key persisted before keys were typed, in the form of "value1::value2::". As the types of the
+     * values are not known, the converted key only equals keys converted from the same string, hence state held
+     * against it is kept until it is flushed rather than being merged with the state of the new typed keys.
+     *
+     * @param key a {@link GroupByKey} or a string group key
+     * @return the group by key
+     */
+    public static GroupByKey fromLegacyKey(Object key) {
+        if (key == null || key instanceof GroupByKey) {
+            return (GroupByKey) key;
+        }
+        return new GroupByKey((String) key);
+    }
+
+    /**
+     * @param keys restored group keys, which may hold string keys persisted before keys were typed
+     * @return the keys as {@link GroupByKey}s, or the given list if it holds no string keys
+     */
+    @SuppressWarnings("unchecked")
+    public static List<GroupByKey> fromLegacyKeys(List<?> keys) {
+        if (keys == null || !containsLegacyKey(keys)) {
+            return (List<GroupByKey>) keys;
+        }
+        List<GroupByKey> groupByKeys = new ArrayList<GroupByKey>(keys.size());
+        for (Object key : keys) {
+            groupByKeys.add(fromLegacyKey(key));
+        }
+        return groupByKeys;
+    }
+
+    /**
+     * @param map restored map keyed by group keys, which may hold string keys persisted before keys were typed
+     * @param <V> type of the values
+     * @return the map keyed by {@link GroupByKey}s preserving its order, or the given map if it holds no string keys
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> Map<GroupByKey, V> fromLegacyKeys(Map<?, V> map) {
+        if (map == null || !containsLegacyKey(map.keySet())) {
+            return (Map<GroupByKey, V>) map;
+        }
+        Map<GroupByKey, V> groupByKeyMap = new LinkedHashMap<GroupByKey, V>();
+        for (Map.Entry<?, V> entry : map.entrySet()) {
+            groupByKeyMap.put(fromLegacyKey(entry.getKey()), entry.getValue());
+        }
+        return groupByKeyMap;
+    }
+
+    private static boolean containsLegacyKey(Iterable<?> keys) {
+        for (Object key : keys) {
+            if (key instanceof String) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Object[] getValues() {
+        return values;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GroupByKey)) {
+            return false;
+        }
+        GroupByKey that = (GroupByKey) o;
+        return hash == that.hash && (legacyKey == null ? that.legacyKey == null : legacyKey.equals(that.legacyKey))
+                && Arrays.equals(values, that.values);
+    }
+
+    /**
+     * @return the key in the form of "value1::value2::", as used when naming per group components
+     */
+    @Override
+    public String toString() {
+        if (legacyKey != null) {
+            return legacyKey;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Object value : values) {
+            sb.append(value).append("::");
+        }
+        return sb.toString();
+    }
+}
@@ -20,7 +20,6 @@ package org.wso2.siddhi.core.query.selector;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.MetaComplexEvent;
-import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.SiddhiConstants;
@@ -31,17 +30,28 @@ import java.util.List;
 import java.util.Map;
 
 /**
- * Class to generate keys for GroupBy groups
+ * Class to generate keys for GroupBy groups. When the query is executed in a keyed partition, the current partition
+ * key is prepended to the key, such that the state of each partition key is kept separately.
  */
 public class GroupByKeyGenerator {
 
     private VariableExpressionExecutor[] groupByExecutors = null;
+    private boolean partitionKeyed = false;
 
     public GroupByKeyGenerator(List<Variable> groupByList,
                                MetaComplexEvent metaComplexEvent,
                                Map<String, Table> tableMap,
                                List<VariableExpressionExecutor> executors,
                                SiddhiAppContext siddhiContext, String queryName) {
+        this(groupByList, metaComplexEvent, tableMap, executors, siddhiContext, queryName, false);
+    }
+
+    public GroupByKeyGenerator(List<Variable> groupByList,
+                               MetaComplexEvent metaComplexEvent,
+                               Map<String, Table> tableMap,
+                               List<VariableExpressionExecutor> executors,
+                               SiddhiAppContext siddhiContext, String queryName, boolean partitionKeyed) {
+        this.partitionKeyed = partitionKeyed;
         if (!groupByList.isEmpty()) {
             groupByExecutors = new VariableExpressionExecutor[groupByList.size()];
             for (int i = 0, expressionsSize = groupByList.size(); i < expressionsSize; i++) {
@@ -58,13 +68,21 @@ public class GroupByKeyGenerator {
      * @param event complexEvent
      * @return GroupByKey
      */
-    protected String constructEventKey(ComplexEvent event) {
-        if (groupByExecutors != null) {
-            StringBuilder sb = new StringBuilder();
-            for (ExpressionExecutor executor : groupByExecutors) {
-                sb.append(executor.execute(event)).append("::");
+    protected GroupByKey constructEventKey(ComplexEvent event) {
+        if (partitionKeyed) {
+            int groupByLength = groupByExecutors != null ? groupByExecutors.length : 0;
+            Object[] values = new Object[groupByLength + 1];
+            values[0] = QuerySelector.getThreadLocalPartitionKey();
+            for (int i = 0; i < groupByLength; i++) {
+                values[i + 1] = groupByExecutors[i].execute(event);
+            }
+            return new GroupByKey(values);
+        } else if (groupByExecutors != null) {
+            Object[] values = new Object[groupByExecutors.length];
+            for (int i = 0; i < groupByExecutors.length; i++) {
+                values[i] = groupByExecutors[i].execute(event);
             }
-            return sb.toString();
+            return new GroupByKey(values);
         } else {
             return null;
         }
@@ -29,21 +29,32 @@ import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
+import org.wso2.siddhi.core.query.selector.attribute.processor.executor.GroupByAggregationAttributeExecutor;
+import org.wso2.siddhi.core.util.collection.OpenAddressingHashMap;
+import org.wso2.siddhi.core.util.purge.PurgeConfiguration;
+import org.wso2.siddhi.core.util.purge.PurgeScheduler;
+import org.wso2.siddhi.core.util.purge.Purgeable;
+import org.wso2.siddhi.core.util.statistics.PurgeTracker;
 import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Processor implementation representing selector portion of the Siddhi query.
+ * Processor implementation representing selector portion of the Siddhi query. When {@code @purge} is given for a
+ * group by query, the aggregation state of the groups which are idle or exceed the maximum number of keys are
+ * periodically dropped.
  */
-public class QuerySelector implements Processor {
+public class QuerySelector implements Processor, Purgeable {
 
 
     private static final Logger log = Logger.getLogger(QuerySelector.class);
-    private static final ThreadLocal<String> keyThreadLocal = new ThreadLocal<String>();
+    private static final ThreadLocal<GroupByKey> keyThreadLocal = new ThreadLocal<GroupByKey>();
+    private static final ThreadLocal<String> partitionKeyThreadLocal = new ThreadLocal<String>();
     private Selector selector;
     private SiddhiAppContext siddhiAppContext;
     private boolean currentOn = false;
@@ -57,6 +68,9 @@ public class QuerySelector implements Processor {
     private String id;
     private StateEventPopulator eventPopulator;
     private boolean batchingEnabled = true;
+    private List<GroupByAggregationAttributeExecutor> groupByAggregationAttributeExecutors = Collections.emptyList();
+    private PurgeScheduler purgeScheduler;
+    private OpenAddressingHashMap<GroupByKey, long[]> groupByKeyAccessTimes;
 
     public QuerySelector(String id, Selector selector, boolean currentOn, boolean expiredOn, SiddhiAppContext
             siddhiAppContext) {
@@ -67,10 +81,31 @@ public class QuerySelector implements Processor {
         this.siddhiAppContext = siddhiAppContext;
     }
 
-    public static String getThreadLocalGroupByKey() {
+    public static GroupByKey getThreadLocalTypedGroupByKey() {
         return keyThreadLocal.get();
     }
 
+    /**
+     * @return the group key in the form of "value1::value2::"
+     * @deprecated use {@link #getThreadLocalTypedGroupByKey()}
+     */
+    @Deprecated
+    public static String getThreadLocalGroupByKey() {
+        GroupByKey groupByKey = keyThreadLocal.get();
+        return groupByKey == null ? null : groupByKey.toString();
+    }
+
+    /**
+     * @return key of the partition the current thread is processing events of, used by keyed partitions
+     */
+    public static String getThreadLocalPartitionKey() {
+        return partitionKeyThreadLocal.get();
+    }
+
+    public static void setThreadLocalPartitionKey(String partitionKey) {
+        partitionKeyThreadLocal.set(partitionKey);
+    }
+
     @Override
     public void process(ComplexEventChunk complexEventChunk) {
 
@@ -134,6 +169,7 @@ public class QuerySelector implements Processor {
 
         ComplexEventChunk<ComplexEvent> currentComplexEventChunk = new ComplexEventChunk<ComplexEvent>
                 (complexEventChunk.isBatch());
+        long currentTime = groupByKeyAccessTimes != null ? siddhiAppContext.getTimestampGenerator().currentTime() : 0;
 
         synchronized (this) {
             while (complexEventChunk.hasNext()) {
@@ -143,8 +179,11 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupedByKey = groupByKeyGenerator.constructEventKey(event);
+                        GroupByKey groupedByKey = groupByKeyGenerator.constructEventKey(event);
                         keyThreadLocal.set(groupedByKey);
+                        if (groupByKeyAccessTimes != null) {
+                            updateAccessTime(groupedByKey, currentTime);
+                        }
 
                         for (AttributeProcessor attributeProcessor : attributeProcessorList) {
                             attributeProcessor.process(event);
@@ -215,8 +254,9 @@ public class QuerySelector implements Processor {
     }
 
     private void processInBatchGroupBy(ComplexEventChunk complexEventChunk) {
-        Map<String, ComplexEvent> groupedEvents = new LinkedHashMap<String, ComplexEvent>();
+        Map<GroupByKey, ComplexEvent> groupedEvents = new LinkedHashMap<GroupByKey, ComplexEvent>();
         complexEventChunk.reset();
+        long currentTime = groupByKeyAccessTimes != null ? siddhiAppContext.getTimestampGenerator().currentTime() : 0;
 
         synchronized (this) {
             while (complexEventChunk.hasNext()) {
@@ -226,8 +266,11 @@ public class QuerySelector implements Processor {
                     case CURRENT:
                     case EXPIRED:
                         eventPopulator.populateStateEvent(event);
-                        String groupByKey = groupByKeyGenerator.constructEventKey(event);
+                        GroupByKey groupByKey = groupByKeyGenerator.constructEventKey(event);
                         keyThreadLocal.set(groupByKey);
+                        if (groupByKeyAccessTimes != null) {
+                            updateAccessTime(groupByKey, currentTime);
+                        }
 
                         for (AttributeProcessor attributeProcessor : attributeProcessorList) {
                             attributeProcessor.process(event);
@@ -255,7 +298,7 @@ public class QuerySelector implements Processor {
 
         if (groupedEvents.size() != 0) {
             complexEventChunk.clear();
-            for (Map.Entry<String, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
+            for (Map.Entry<GroupByKey, ComplexEvent> groupedEventEntry : groupedEvents.entrySet()) {
                 complexEventChunk.add(new GroupedComplexEvent(groupedEventEntry.getKey(), groupedEventEntry.getValue
                         ()));
             }
@@ -264,6 +307,77 @@ public class QuerySelector implements Processor {
         }
     }
 
+    private void updateAccessTime(GroupByKey groupByKey, long currentTime) {
+        long[] accessTime = groupByKeyAccessTimes.get(groupByKey);
+        if (accessTime == null) {
+            groupByKeyAccessTimes.put(groupByKey, new long[]{currentTime});
+            PurgeTracker purgeTracker = purgeScheduler.getPurgeTracker();
+            if (purgeTracker != null) {
+                purgeTracker.keysAdded(1);
+            }
+        } else {
+            accessTime[0] = currentTime;
+        }
+    }
+
+    /**
+     * Drop the aggregation state of the groups which were not accessed during the idle period, and of the least
+     * recently accessed groups exceeding the maximum number of keys.
+     *
+     * @param currentTime current time of the Siddhi app
+     */
+    @Override
+    public synchronized void purge(long currentTime) {
+        if (groupByKeyAccessTimes == null) {
+            return;
+        }
+        PurgeConfiguration purgeConfiguration = purgeScheduler.getPurgeConfiguration();
+        List<GroupByKey> purgedKeys = new ArrayList<GroupByKey>();
+        List<GroupByKey> retainedKeys = new ArrayList<GroupByKey>();
+        long idleBefore = currentTime - purgeConfiguration.getIdlePeriod();
+        groupByKeyAccessTimes.forEach((groupByKey, accessTime) -> {
+            if (purgeConfiguration.isIdlePurgeEnabled() && accessTime[0] <= idleBefore) {
+                purgedKeys.add(groupByKey);
+            } else {
+                retainedKeys.add(groupByKey);
+            }
+        });
+        if (purgeConfiguration.isMaxKeysEnabled() && retainedKeys.size() > purgeConfiguration.getMaxKeys()) {
+            retainedKeys.sort(Comparator.comparingLong(groupByKey -> groupByKeyAccessTimes.get(groupByKey)[0]));
+            purgedKeys.addAll(retainedKeys.subList(0, retainedKeys.size() - purgeConfiguration.getMaxKeys()));
+        }
+        if (!purgedKeys.isEmpty()) {
+            for (GroupByKey groupByKey : purgedKeys) {
+                groupByKeyAccessTimes.remove(groupByKey);
+            }
+            for (GroupByAggregationAttributeExecutor executor : groupByAggregationAttributeExecutors) {
+                executor.removeGroups(purgedKeys);
+            }
+            PurgeTracker purgeTracker = purgeScheduler.getPurgeTracker();
+            if (purgeTracker != null) {
+                purgeTracker.keysEvicted(purgedKeys.size());
+            }
+        }
+    }
+
+    /**
+     * Stop purging and drop the group by state of the selector, used when the selector is discarded as its
+     * partition instance got purged.
+     */
+    public synchronized void releaseGroupByState() {
+        for (GroupByAggregationAttributeExecutor executor : groupByAggregationAttributeExecutors) {
+            executor.removeAllGroups();
+        }
+        if (groupByKeyAccessTimes != null) {
+            purgeScheduler.unregister(this);
+            PurgeTracker purgeTracker = purgeScheduler.getPurgeTracker();
+            if (purgeTracker != null && !groupByKeyAccessTimes.isEmpty()) {
+                purgeTracker.keysEvicted(groupByKeyAccessTimes.size());
+            }
+            groupByKeyAccessTimes.clear();
+        }
+    }
+
     @Override
     public Processor getNextProcessor() {
         return null;    //since there is no processors after a query selector
@@ -305,6 +419,40 @@ public class QuerySelector implements Processor {
         this.containsAggregator = this.containsAggregator || containsAggregator;
     }
 
+    /**
+     * @return true if the selector keeps state across events due to aggregations or group by
+     */
+    public boolean isStateful() {
+        return containsAggregator || isGroupBy;
+    }
+
+    public void setGroupByAggregationAttributeExecutors(List<GroupByAggregationAttributeExecutor>
+                                                                groupByAggregationAttributeExecutors) {
+        this.groupByAggregationAttributeExecutors = groupByAggregationAttributeExecutors;
+        for (GroupByAggregationAttributeExecutor executor : groupByAggregationAttributeExecutors) {
+            executor.setStateLock(this);
+        }
+    }
+
+    /**
+     * Enable purging the group by state of idle groups
+     *
+     * @param purgeScheduler scheduler which periodically purges this selector and its clones
+     */
+    public void setPurgeScheduler(PurgeScheduler purgeScheduler) {
+        this.purgeScheduler = purgeScheduler;
+        this.groupByKeyAccessTimes = new OpenAddressingHashMap<GroupByKey, long[]>();
+        purgeScheduler.register(this);
+    }
+
+    public PurgeScheduler getPurgeScheduler() {
+        return purgeScheduler;
+    }
+
+    public boolean isGroupBy() {
+        return isGroupBy;
+    }
+
     public void setGroupByKeyGenerator(GroupByKeyGenerator groupByKeyGenerator) {
         isGroupBy = true;
         this.groupByKeyGenerator = groupByKeyGenerator;
@@ -320,9 +468,21 @@ public class QuerySelector implements Processor {
         QuerySelector clonedQuerySelector = new QuerySelector(id + key, selector, currentOn, expiredOn,
                                                               siddhiAppContext);
         List<AttributeProcessor> clonedAttributeProcessorList = new ArrayList<AttributeProcessor>();
-        for (AttributeProcessor attributeProcessor : attributeProcessorList) {
-            clonedAttributeProcessorList.add(attributeProcessor.cloneProcessor(key));
+        List<GroupByAggregationAttributeExecutor> clonedExecutors =
+                new ArrayList<GroupByAggregationAttributeExecutor>();
+        for (GroupByAggregationAttributeExecutor executor : groupByAggregationAttributeExecutors) {
+            executor.setClonedExecutors(clonedExecutors);
         }
+        try {
+            for (AttributeProcessor attributeProcessor : attributeProcessorList) {
+                clonedAttributeProcessorList.add(attributeProcessor.cloneProcessor(key));
+            }
+        } finally {
+            for (GroupByAggregationAttributeExecutor executor : groupByAggregationAttributeExecutors) {
+                executor.setClonedExecutors(null);
+            }
+        }
+        clonedQuerySelector.setGroupByAggregationAttributeExecutors(clonedExecutors);
         clonedQuerySelector.attributeProcessorList = clonedAttributeProcessorList;
         clonedQuerySelector.isGroupBy = isGroupBy;
         clonedQuerySelector.containsAggregator = containsAggregator;
@@ -330,6 +490,9 @@ public class QuerySelector implements Processor {
         clonedQuerySelector.havingConditionExecutor = havingConditionExecutor;
         clonedQuerySelector.eventPopulator = eventPopulator;
         clonedQuerySelector.batchingEnabled = batchingEnabled;
+        if (purgeScheduler != null) {
+            clonedQuerySelector.setPurgeScheduler(purgeScheduler);
+        }
         return clonedQuerySelector;
     }
 
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.ReturnAttribute;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.CountMinSketch;
+import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link AttributeAggregator} to approximate the frequency of the values of an event attribute using a
+ * {@link CountMinSketch}, which takes the same amount of memory regardless of the number of distinct values.
+ */
+@Extension(
+        name = "approximateCount",
+        namespace = "",
+        description = "Returns the approximate frequency of the given arg. The frequency is never underestimated, " +
+                "and it is overestimated by more than relative.error times the number of events with a " +
+                "probability of at most 1 - confidence.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The value that should be counted.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT, DataType.STRING,
+                                DataType.BOOL}),
+                @Parameter(name = "relative.error",
+                        description = "The error of the frequency relative to the number of events.",
+                        type = {DataType.DOUBLE},
+                        optional = true,
+                        defaultValue = "0.01"),
+                @Parameter(name = "confidence",
+                        description = "The probability of the frequency being within the error.",
+                        type = {DataType.DOUBLE},
+                        optional = true,
+                        defaultValue = "0.99")
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the approximate frequency of the given arg.",
+                type = {DataType.LONG}),
+        examples = @Example(
+                syntax = "from requestStream#window.time(1 min)\n" +
+                        "select ip, approximateCount(ip) as requests\n" +
+                        "insert into requestCountStream;",
+                description = "approximateCount(ip) returns the approximate number of requests from the ip " +
+                        "address of each event within the last minute."
+        )
+)
+public class ApproximateCountAttributeAggregator extends AttributeAggregator {
+    private static final double DEFAULT_RELATIVE_ERROR = 0.01;
+    private static final double DEFAULT_CONFIDENCE = 0.99;
+    private CountMinSketch countMinSketch;
+
+    /**
+     * The initialization method for FunctionExecutor
+     *
+     * @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param configReader                 this hold the {@link ApproximateCountAttributeAggregator} configuration
+     *                                     reader.
+     * @param siddhiAppContext             Siddhi app runtime context
+     */
+    @Override
+    protected void init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader,
+                        SiddhiAppContext siddhiAppContext) {
+        if (attributeExpressionExecutors.length != 1 && attributeExpressionExecutors.length != 3) {
+            throw new OperationNotSupportedException("Approximate count aggregator has to have 1 or 3 parameters, " +
+                    "currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        double relativeError = DEFAULT_RELATIVE_ERROR;
+        double confidence = DEFAULT_CONFIDENCE;
+        if (attributeExpressionExecutors.length == 3) {
+            relativeError = getProbability(attributeExpressionExecutors[1], "relative.error");
+            confidence = getProbability(attributeExpressionExecutors[2], "confidence");
+        }
+        countMinSketch = new CountMinSketch(relativeError, confidence);
+    }
+
+    private double getProbability(ExpressionExecutor expressionExecutor, String name) {
+        if (!(expressionExecutor instanceof ConstantExpressionExecutor) ||
+                expressionExecutor.getReturnType() != Attribute.Type.DOUBLE) {
+            throw new OperationNotSupportedException(name + " of the approximate count aggregator should be a " +
+                    "constant double");
+        }
+        double value = (Double) ((ConstantExpressionExecutor) expressionExecutor).getValue();
+        if (value <= 0 || value >= 1) {
+            throw new OperationNotSupportedException(name + " of the approximate count aggregator should be " +
+                    "between 0 and 1, but found " + value);
+        }
+        return value;
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.LONG;
+    }
+
+    @Override
+    public Object processAdd(Object data) {
+        return countMinSketch.add(data, 1);
+    }
+
+    @Override
+    public Object processAdd(Object[] data) {
+        return countMinSketch.add(data[0], 1);
+    }
+
+    @Override
+    public Object processRemove(Object data) {
+        return countMinSketch.add(data, -1);
+    }
+
+    @Override
+    public Object processRemove(Object[] data) {
+        return countMinSketch.add(data[0], -1);
+    }
+
+    @Override
+    public Object reset() {
+        countMinSketch.clear();
+        return 0L;
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("Table", countMinSketch.getTable());
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        countMinSketch.setTable((long[]) state.get("Table"));
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.ReturnAttribute;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.exception.OperationNotSupportedException;
+import org.wso2.siddhi.core.executor.ConstantExpressionExecutor;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.StreamSummary;
+import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link AttributeAggregator} to approximate the most frequent values of an event attribute using the Space-Saving
+ * algorithm, which counts a bounded number of values in a {@link StreamSummary}.
+ */
+@Extension(
+        name = "approximateTopK",
+        namespace = "",
+        description = "Returns the approximate k most frequent values of the given arg, mapped to their " +
+                "approximate frequencies in the descending order of the frequencies. Only a bounded number of " +
+                "values are counted, and a value that is not counted replaces the least frequent value counted. " +
+                "The same map is updated as events arrive, hence it should be copied if it is to be retained.",
+        parameters = {
+                @Parameter(name = "arg",
+                        description = "The value that should be counted.",
+                        type = {DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT, DataType.STRING,
+                                DataType.BOOL}),
+                @Parameter(name = "k",
+                        description = "The number of most frequent values to be returned.",
+                        type = {DataType.INT}),
+                @Parameter(name = "capacity",
+                        description = "The number of values counted, where larger capacities give more " +
+                                "accurate frequencies.",
+                        type = {DataType.INT},
+                        optional = true,
+                        defaultValue = "10 times k")
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns a map of the most frequent values to their approximate frequencies.",
+                type = {DataType.OBJECT}),
+        examples = @Example(
+                syntax = "from requestStream#window.time(1 min)\n" +
+                        "select approximateTopK(ip, 3) as topTalkers\n" +
+                        "insert into topTalkerStream;",
+                description = "approximateTopK(ip, 3) returns the 3 ip addresses with the most requests within the " +
+                        "last minute, along with their request counts."
+        )
+)
+public class ApproximateTopKAttributeAggregator extends AttributeAggregator {
+    private StreamSummary<Object> counters = new StreamSummary<Object>();
+    private final Map<Object, Long> topK = new LinkedHashMap<Object, Long>();
+    private int k;
+    private int capacity;
+
+    /**
+     * The initialization method for FunctionExecutor
+     *
+     * @param attributeExpressionExecutors are the executors of each attributes in the function
+     * @param configReader                 this hold the {@link ApproximateTopKAttributeAggregator} configuration
+     *                                     reader.
+     * @param siddhiAppContext             Siddhi app runtime context
+     */
+    @Override
+    protected void init(ExpressionExecutor[] attributeExpressionExecutors, ConfigReader configReader,
+                        SiddhiAppContext siddhiAppContext) {
+        if (attributeExpressionExecutors.length != 2 && attributeExpressionExecutors.length != 3) {
+            throw new OperationNotSupportedException("Approximate top k aggregator has to have 2 or 3 parameters, " +
+                    "currently " + attributeExpressionExecutors.length + " parameters provided");
+        }
+        k = getPositiveInt(attributeExpressionExecutors[1], "k");
+        if (attributeExpressionExecutors.length == 3) {
+            capacity = getPositiveInt(attributeExpressionExecutors[2], "capacity");
+            if (capacity < k) {
+                throw new OperationNotSupportedException("Capacity of the approximate top k aggregator should not " +
+                        "be less than k, but found capacity " + capacity + " and k " + k);
+            }
+        } else {
+            capacity = k * 10;
+        }
+    }
+
+    private int getPositiveInt(ExpressionExecutor expressionExecutor, String name) {
+        if (!(expressionExecutor instanceof ConstantExpressionExecutor) ||
+                expressionExecutor.getReturnType() != Attribute.Type.INT ||
+                (Integer) ((ConstantExpressionExecutor) expressionExecutor).getValue() <= 0) {
+            throw new OperationNotSupportedException(name + " of the approximate top k aggregator should be a " +
+                    "positive constant int");
+        }
+        return (Integer) ((ConstantExpressionExecutor) expressionExecutor).getValue();
+    }
+
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.OBJECT;
+    }
+
+    @Override
+    public Object processAdd(Object data) {
+        // will not occur
+        return new IllegalStateException("Approximate top k aggregator cannot process a single value, but found " +
+                data);
+    }
+
+    @Override
+    public Object processAdd(Object[] data) {
+        Object value = data[0];
+        if (counters.contains(value)) {
+            counters.increment(value);
+        } else if (counters.size() < capacity) {
+            counters.add(value, 1, 0);
+        } else {
+            counters.replaceMin(value);
+        }
+        return getTopK();
+    }
+
+    @Override
+    public Object processRemove(Object data) {
+        // will not occur
+        return new IllegalStateException("Approximate top k aggregator cannot process a single value, but found " +
+                data);
+    }
+
+    @Override
+    public Object processRemove(Object[] data) {
+        // values replaced since they were added are no longer counted, hence they are not decremented
+        if (counters.contains(data[0])) {
+            counters.decrement(data[0]);
+        }
+        return getTopK();
+    }
+
+    @Override
+    public Object reset() {
+        counters.clear();
+        return getTopK();
+    }
+
+    @Override
+    public void start() {
+        // Nothing to start.
+    }
+
+    @Override
+    public void stop() {
+        // Nothing to stop.
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("Counters", counters.toList());
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        counters.clear();
+        for (Object[] counter : (List<Object[]>) state.get("Counters")) {
+            counters.add(counter[0], (Long) counter[1], (Long) counter[2]);
+        }
+    }
+
+    private Map<Object, Long> getTopK() {
+        topK.clear();
+        for (Object value : counters.top(k)) {
+            topK.put(value, counters.getCount(value));
+        }
+        return topK;
+    }
+}
@@ -25,14 +25,14 @@ import org.wso2.siddhi.annotation.util.DataType;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.DoubleMonotonicDeque;
+import org.wso2.siddhi.core.util.collection.LongMonotonicDeque;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -145,42 +145,58 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         maxOutputAttributeAggregator.restoreState(state);
     }
 
+    @SuppressWarnings("unchecked")
+    private static void restoreDeque(LongMonotonicDeque deque, Object state) {
+        if (state instanceof Collection) {
+            // state of the aggregators which kept the candidate values in a deque of boxed values
+            deque.restore((Collection<? extends Number>) state);
+        } else {
+            deque.restore((long[]) state);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void restoreDeque(DoubleMonotonicDeque deque, Object state) {
+        if (state instanceof Collection) {
+            deque.restore((Collection<? extends Number>) state);
+        } else {
+            deque.restore((double[]) state);
+        }
+    }
+
     class MaxAttributeAggregatorDouble extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private Deque<Double> maxDeque = new LinkedList<Double>();
-        private volatile Double maxValue = null;
+        private DoubleMonotonicDeque maxDeque = new DoubleMonotonicDeque(true);
+        private Double maxValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
-            Double value = (Double) data;
-            for (Iterator<Double> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
-                maxValue = value;
-            }
-            return maxValue;
+        public Object processAdd(Object data) {
+            maxDeque.add((Double) data);
+            return updateMaxValue();
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
+        public Object processRemove(Object data) {
+            maxDeque.remove((Double) data);
+            return updateMaxValue();
+        }
+
+        private Double updateMaxValue() {
+            if (maxDeque.isEmpty()) {
+                maxValue = null;
+            } else if (maxValue == null || Double.compare(maxValue, maxDeque.peek()) != 0) {
+                maxValue = maxDeque.peek();
+            }
             return maxValue;
         }
 
         @Override
-        public synchronized Object reset() {
+        public Object reset() {
             maxDeque.clear();
             maxValue = null;
             return null;
@@ -189,56 +205,51 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
-            synchronized (this) {
-                state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
-            }
+            state.put("MaxValue", maxValue);
+            state.put("MaxDeque", maxDeque.toArray());
             return state;
         }
 
         @Override
-        public synchronized void restoreState(Map<String, Object> state) {
+        public void restoreState(Map<String, Object> state) {
             maxValue = (Double) state.get("MaxValue");
-            maxDeque = (Deque<Double>) state.get("MaxDeque");
+            restoreDeque(maxDeque, state.get("MaxDeque"));
         }
     }
 
     class MaxAttributeAggregatorFloat extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private Deque<Float> maxDeque = new LinkedList<Float>();
-        private volatile Float maxValue = null;
+        private DoubleMonotonicDeque maxDeque = new DoubleMonotonicDeque(true);
+        private Float maxValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
-            Float value = (Float) data;
-            for (Iterator<Float> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
-                maxValue = value;
-            }
-            return maxValue;
+        public Object processAdd(Object data) {
+            maxDeque.add((Float) data);
+            return updateMaxValue();
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
+        public Object processRemove(Object data) {
+            maxDeque.remove((Float) data);
+            return updateMaxValue();
+        }
+
+        private Float updateMaxValue() {
+            if (maxDeque.isEmpty()) {
+                maxValue = null;
+            } else if (maxValue == null || Float.compare(maxValue, (float) maxDeque.peek()) != 0) {
+                maxValue = (float) maxDeque.peek();
+            }
             return maxValue;
         }
 
         @Override
-        public synchronized Object reset() {
+        public Object reset() {
             maxDeque.clear();
             maxValue = null;
             return null;
@@ -247,57 +258,51 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
-            synchronized (this) {
-                state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
-            }
+            state.put("MaxValue", maxValue);
+            state.put("MaxDeque", maxDeque.toArray());
             return state;
         }
 
         @Override
-        public synchronized void restoreState(Map<String, Object> state) {
+        public void restoreState(Map<String, Object> state) {
             maxValue = (Float) state.get("MaxValue");
-            maxDeque = (Deque<Float>) state.get("MaxDeque");
+            restoreDeque(maxDeque, state.get("MaxDeque"));
         }
-
     }
 
     class MaxAttributeAggregatorInt extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private Deque<Integer> maxDeque = new LinkedList<Integer>();
-        private volatile Integer maxValue = null;
+        private LongMonotonicDeque maxDeque = new LongMonotonicDeque(true);
+        private Integer maxValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
-            Integer value = (Integer) data;
-            for (Iterator<Integer> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
-                maxValue = value;
-            }
-            return maxValue;
+        public Object processAdd(Object data) {
+            maxDeque.add((Integer) data);
+            return updateMaxValue();
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
+        public Object processRemove(Object data) {
+            maxDeque.remove((Integer) data);
+            return updateMaxValue();
+        }
+
+        private Integer updateMaxValue() {
+            if (maxDeque.isEmpty()) {
+                maxValue = null;
+            } else if (maxValue == null || Integer.compare(maxValue, (int) maxDeque.peek()) != 0) {
+                maxValue = (int) maxDeque.peek();
+            }
             return maxValue;
         }
 
         @Override
-        public synchronized Object reset() {
+        public Object reset() {
             maxDeque.clear();
             maxValue = null;
             return null;
@@ -306,57 +311,51 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
-            synchronized (this) {
-                state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
-            }
+            state.put("MaxValue", maxValue);
+            state.put("MaxDeque", maxDeque.toArray());
             return state;
         }
 
         @Override
-        public synchronized void restoreState(Map<String, Object> state) {
+        public void restoreState(Map<String, Object> state) {
             maxValue = (Integer) state.get("MaxValue");
-            maxDeque = (Deque<Integer>) state.get("MaxDeque");
+            restoreDeque(maxDeque, state.get("MaxDeque"));
         }
-
     }
 
     class MaxAttributeAggregatorLong extends MaxAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private Deque<Long> maxDeque = new LinkedList<Long>();
-        private volatile Long maxValue = null;
+        private LongMonotonicDeque maxDeque = new LongMonotonicDeque(true);
+        private Long maxValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
-            Long value = (Long) data;
-            for (Iterator<Long> iterator = maxDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() < value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            maxDeque.addLast(value);
-            if (maxValue == null || maxValue < value) {
-                maxValue = value;
-            }
-            return maxValue;
+        public Object processAdd(Object data) {
+            maxDeque.add((Long) data);
+            return updateMaxValue();
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
-            maxDeque.removeFirstOccurrence(data);
-            maxValue = maxDeque.peekFirst();
+        public Object processRemove(Object data) {
+            maxDeque.remove((Long) data);
+            return updateMaxValue();
+        }
+
+        private Long updateMaxValue() {
+            if (maxDeque.isEmpty()) {
+                maxValue = null;
+            } else if (maxValue == null || Long.compare(maxValue, maxDeque.peek()) != 0) {
+                maxValue = maxDeque.peek();
+            }
             return maxValue;
         }
 
         @Override
-        public synchronized Object reset() {
+        public Object reset() {
             maxDeque.clear();
             maxValue = null;
             return null;
@@ -365,19 +364,15 @@ public class MaxAttributeAggregator extends AttributeAggregator {
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
-            synchronized (this) {
-                state.put("MaxValue", maxValue);
-                state.put("MaxDeque", maxDeque);
-            }
+            state.put("MaxValue", maxValue);
+            state.put("MaxDeque", maxDeque.toArray());
             return state;
         }
 
         @Override
-        public synchronized void restoreState(Map<String, Object> state) {
+        public void restoreState(Map<String, Object> state) {
             maxValue = (Long) state.get("MaxValue");
-            maxDeque = (Deque<Long>) state.get("MaxDeque");
+            restoreDeque(maxDeque, state.get("MaxDeque"));
         }
-
     }
-
 }
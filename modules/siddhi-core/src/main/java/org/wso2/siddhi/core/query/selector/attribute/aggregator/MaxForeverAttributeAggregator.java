@@ -150,14 +150,14 @@ public class MaxForeverAttributeAggregator extends AttributeAggregator {
     class MaxForeverAttributeAggregatorDouble extends MaxForeverAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private volatile Double maxValue = null;
+        private Double maxValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
+        public Object processAdd(Object data) {
             Double value = (Double) data;
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -166,7 +166,7 @@ public class MaxForeverAttributeAggregator extends AttributeAggregator {
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
+        public Object processRemove(Object data) {
             Double value = (Double) data;
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -196,14 +196,14 @@ public class MaxForeverAttributeAggregator extends AttributeAggregator {
     class MaxForeverAttributeAggregatorFloat extends MaxForeverAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private volatile Float maxValue = null;
+        private Float maxValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
+        public Object processAdd(Object data) {
             Float value = (Float) data;
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -212,7 +212,7 @@ public class MaxForeverAttributeAggregator extends AttributeAggregator {
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
+        public Object processRemove(Object data) {
             Float value = (Float) data;
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -242,14 +242,14 @@ public class MaxForeverAttributeAggregator extends AttributeAggregator {
     class MaxForeverAttributeAggregatorInt extends MaxForeverAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private volatile Integer maxValue = null;
+        private Integer maxValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
+        public Object processAdd(Object data) {
             Integer value = (Integer) data;
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -258,7 +258,7 @@ public class MaxForeverAttributeAggregator extends AttributeAggregator {
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
+        public Object processRemove(Object data) {
             Integer value = (Integer) data;
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -288,14 +288,14 @@ public class MaxForeverAttributeAggregator extends AttributeAggregator {
     class MaxForeverAttributeAggregatorLong extends MaxForeverAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private volatile Long maxValue = null;
+        private Long maxValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
+        public Object processAdd(Object data) {
             Long value = (Long) data;
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
@@ -304,7 +304,7 @@ public class MaxForeverAttributeAggregator extends AttributeAggregator {
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
+        public Object processRemove(Object data) {
             Long value = (Long) data;
             if (maxValue == null || maxValue < value) {
                 maxValue = value;
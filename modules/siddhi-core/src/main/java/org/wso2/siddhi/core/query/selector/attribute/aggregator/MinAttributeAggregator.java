@@ -25,14 +25,14 @@ import org.wso2.siddhi.annotation.util.DataType;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.DoubleMonotonicDeque;
+import org.wso2.siddhi.core.util.collection.LongMonotonicDeque;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.query.api.definition.Attribute;
 
 import java.util.Arrays;
-import java.util.Deque;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Map;
 
 /**
@@ -150,42 +150,58 @@ public class MinAttributeAggregator extends AttributeAggregator {
         minOutputAttributeAggregator.restoreState(state);
     }
 
+    @SuppressWarnings("unchecked")
+    private static void restoreDeque(LongMonotonicDeque deque, Object state) {
+        if (state instanceof Collection) {
+            // state of the aggregators which kept the candidate values in a deque of boxed values
+            deque.restore((Collection<? extends Number>) state);
+        } else {
+            deque.restore((long[]) state);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void restoreDeque(DoubleMonotonicDeque deque, Object state) {
+        if (state instanceof Collection) {
+            deque.restore((Collection<? extends Number>) state);
+        } else {
+            deque.restore((double[]) state);
+        }
+    }
+
     class MinAttributeAggregatorDouble extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private Deque<Double> minDeque = new LinkedList<Double>();
-        private volatile Double minValue = null;
+        private DoubleMonotonicDeque minDeque = new DoubleMonotonicDeque(false);
+        private Double minValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
-            Double value = (Double) data;
-            for (Iterator<Double> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
-                minValue = value;
-            }
-            return minValue;
+        public Object processAdd(Object data) {
+            minDeque.add((Double) data);
+            return updateMinValue();
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
+        public Object processRemove(Object data) {
+            minDeque.remove((Double) data);
+            return updateMinValue();
+        }
+
+        private Double updateMinValue() {
+            if (minDeque.isEmpty()) {
+                minValue = null;
+            } else if (minValue == null || Double.compare(minValue, minDeque.peek()) != 0) {
+                minValue = minDeque.peek();
+            }
             return minValue;
         }
 
         @Override
-        public synchronized Object reset() {
+        public Object reset() {
             minDeque.clear();
             minValue = null;
             return null;
@@ -194,57 +210,51 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
-            synchronized (this) {
-                state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
-            }
+            state.put("MinValue", minValue);
+            state.put("MinDeque", minDeque.toArray());
             return state;
         }
 
         @Override
-        public synchronized void restoreState(Map<String, Object> state) {
+        public void restoreState(Map<String, Object> state) {
             minValue = (Double) state.get("MinValue");
-            minDeque = (Deque<Double>) state.get("MinDeque");
+            restoreDeque(minDeque, state.get("MinDeque"));
         }
-
     }
 
     class MinAttributeAggregatorFloat extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private Deque<Float> minDeque = new LinkedList<Float>();
-        private volatile Float minValue = null;
+        private DoubleMonotonicDeque minDeque = new DoubleMonotonicDeque(false);
+        private Float minValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
-            Float value = (Float) data;
-            for (Iterator<Float> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
-                minValue = value;
-            }
-            return minValue;
+        public Object processAdd(Object data) {
+            minDeque.add((Float) data);
+            return updateMinValue();
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
+        public Object processRemove(Object data) {
+            minDeque.remove((Float) data);
+            return updateMinValue();
+        }
+
+        private Float updateMinValue() {
+            if (minDeque.isEmpty()) {
+                minValue = null;
+            } else if (minValue == null || Float.compare(minValue, (float) minDeque.peek()) != 0) {
+                minValue = (float) minDeque.peek();
+            }
             return minValue;
         }
 
         @Override
-        public synchronized Object reset() {
+        public Object reset() {
             minDeque.clear();
             minValue = null;
             return null;
@@ -253,136 +263,121 @@ public class MinAttributeAggregator extends AttributeAggregator {
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
-            synchronized (this) {
-                state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
-            }
+            state.put("MinValue", minValue);
+            state.put("MinDeque", minDeque.toArray());
             return state;
         }
 
         @Override
-        public synchronized void restoreState(Map<String, Object> state) {
+        public void restoreState(Map<String, Object> state) {
             minValue = (Float) state.get("MinValue");
-            minDeque = (Deque<Float>) state.get("MinDeque");
+            restoreDeque(minDeque, state.get("MinDeque"));
         }
     }
 
     class MinAttributeAggregatorInt extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private Deque<Integer> minDeque = new LinkedList<Integer>();
-        private volatile Integer minValue = null;
+        private LongMonotonicDeque minDeque = new LongMonotonicDeque(false);
+        private Integer minValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
-            Integer value = (Integer) data;
-            for (Iterator<Integer> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
-                minValue = value;
+        public Object processAdd(Object data) {
+            minDeque.add((Integer) data);
+            return updateMinValue();
+        }
+
+        @Override
+        public Object processRemove(Object data) {
+            minDeque.remove((Integer) data);
+            return updateMinValue();
+        }
+
+        private Integer updateMinValue() {
+            if (minDeque.isEmpty()) {
+                minValue = null;
+            } else if (minValue == null || Integer.compare(minValue, (int) minDeque.peek()) != 0) {
+                minValue = (int) minDeque.peek();
             }
             return minValue;
         }
 
         @Override
-        public synchronized Object reset() {
+        public Object reset() {
             minDeque.clear();
             minValue = null;
             return null;
         }
 
-        @Override
-        public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
-            return minValue;
-        }
-
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
-            synchronized (this) {
-                state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
-            }
+            state.put("MinValue", minValue);
+            state.put("MinDeque", minDeque.toArray());
             return state;
         }
 
         @Override
-        public synchronized void restoreState(Map<String, Object> state) {
+        public void restoreState(Map<String, Object> state) {
             minValue = (Integer) state.get("MinValue");
-            minDeque = (Deque<Integer>) state.get("MinDeque");
+            restoreDeque(minDeque, state.get("MinDeque"));
         }
     }
 
     class MinAttributeAggregatorLong extends MinAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private Deque<Long> minDeque = new LinkedList<Long>();
-        private volatile Long minValue = null;
+        private LongMonotonicDeque minDeque = new LongMonotonicDeque(false);
+        private Long minValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
-            Long value = (Long) data;
-            for (Iterator<Long> iterator = minDeque.descendingIterator(); iterator.hasNext(); ) {
-                if (iterator.next() > value) {
-                    iterator.remove();
-                } else {
-                    break;
-                }
-            }
-            minDeque.addLast(value);
-            if (minValue == null || minValue > value) {
-                minValue = value;
+        public Object processAdd(Object data) {
+            minDeque.add((Long) data);
+            return updateMinValue();
+        }
+
+        @Override
+        public Object processRemove(Object data) {
+            minDeque.remove((Long) data);
+            return updateMinValue();
+        }
+
+        private Long updateMinValue() {
+            if (minDeque.isEmpty()) {
+                minValue = null;
+            } else if (minValue == null || Long.compare(minValue, minDeque.peek()) != 0) {
+                minValue = minDeque.peek();
             }
             return minValue;
         }
 
         @Override
-        public synchronized Object reset() {
+        public Object reset() {
             minDeque.clear();
             minValue = null;
             return null;
         }
 
-        @Override
-        public synchronized Object processRemove(Object data) {
-            minDeque.removeFirstOccurrence(data);
-            minValue = minDeque.peekFirst();
-            return minValue;
-        }
-
         @Override
         public Map<String, Object> currentState() {
             Map<String, Object> state = new HashMap<>();
-            synchronized (this) {
-                state.put("MinValue", minValue);
-                state.put("MinDeque", minDeque);
-            }
+            state.put("MinValue", minValue);
+            state.put("MinDeque", minDeque.toArray());
             return state;
         }
 
         @Override
-        public synchronized void restoreState(Map<String, Object> state) {
+        public void restoreState(Map<String, Object> state) {
             minValue = (Long) state.get("MinValue");
-            minDeque = (Deque<Long>) state.get("MinDeque");
+            restoreDeque(minDeque, state.get("MinDeque"));
         }
-
     }
-
 }
@@ -148,14 +148,14 @@ public class MinForeverAttributeAggregator extends AttributeAggregator {
     class MinForeverAttributeAggregatorDouble extends MinForeverAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.DOUBLE;
-        private volatile Double minValue = null;
+        private Double minValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
+        public Object processAdd(Object data) {
             Double value = (Double) data;
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -164,7 +164,7 @@ public class MinForeverAttributeAggregator extends AttributeAggregator {
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
+        public Object processRemove(Object data) {
             Double value = (Double) data;
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -194,14 +194,14 @@ public class MinForeverAttributeAggregator extends AttributeAggregator {
     class MinForeverAttributeAggregatorFloat extends MinForeverAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.FLOAT;
-        private volatile Float minValue = null;
+        private Float minValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
+        public Object processAdd(Object data) {
             Float value = (Float) data;
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -210,7 +210,7 @@ public class MinForeverAttributeAggregator extends AttributeAggregator {
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
+        public Object processRemove(Object data) {
             Float value = (Float) data;
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -241,14 +241,14 @@ public class MinForeverAttributeAggregator extends AttributeAggregator {
     class MinForeverAttributeAggregatorInt extends MinForeverAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.INT;
-        private volatile Integer minValue = null;
+        private Integer minValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
+        public Object processAdd(Object data) {
             Integer value = (Integer) data;
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -262,7 +262,7 @@ public class MinForeverAttributeAggregator extends AttributeAggregator {
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
+        public Object processRemove(Object data) {
             Integer value = (Integer) data;
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -288,14 +288,14 @@ public class MinForeverAttributeAggregator extends AttributeAggregator {
     class MinForeverAttributeAggregatorLong extends MinForeverAttributeAggregator {
 
         private final Attribute.Type type = Attribute.Type.LONG;
-        private volatile Long minValue = null;
+        private Long minValue = null;
 
         public Attribute.Type getReturnType() {
             return type;
         }
 
         @Override
-        public synchronized Object processAdd(Object data) {
+        public Object processAdd(Object data) {
             Long value = (Long) data;
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -309,7 +309,7 @@ public class MinForeverAttributeAggregator extends AttributeAggregator {
         }
 
         @Override
-        public synchronized Object processRemove(Object data) {
+        public Object processRemove(Object data) {
             Long value = (Long) data;
             if (minValue == null || minValue > value) {
                 minValue = value;
@@ -20,20 +20,40 @@ package org.wso2.siddhi.core.query.selector.attribute.processor.executor;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.query.selector.attribute.aggregator.AttributeAggregator;
+import org.wso2.siddhi.core.util.collection.OpenAddressingHashMap;
 import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.snapshot.IncrementalSnapshotable;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Executor class for aggregations with group by configuration.
  */
-public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor {
+public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttributeExecutor implements
+        IncrementalSnapshotable {
 
     private final ConfigReader configReader;
-    protected Map<String, AttributeAggregator> aggregatorMap = new HashMap<String, AttributeAggregator>();
+    protected OpenAddressingHashMap<GroupByKey, AttributeAggregator> aggregatorMap =
+            new OpenAddressingHashMap<GroupByKey, AttributeAggregator>();
+    // groups changed and removed since the last checkpoint, null when the changes are not tracked
+    private Set<GroupByKey> changedKeys = null;
+    private Set<GroupByKey> removedKeys = null;
+    // states restored from snapshots keyed by "value1::value2::" strings, moved to their group once it is seen
+    private Map<String, Map<String, Object>> legacyStates = null;
+    // monitor of the selector processing the events, which also guards the group state when it is not processing
+    private Object stateLock = this;
+    // receives the executors cloned from this one while its selector is being cloned
+    private List<GroupByAggregationAttributeExecutor> clonedExecutors = null;
 
     public GroupByAggregationAttributeExecutor(AttributeAggregator attributeAggregator,
                                                ExpressionExecutor[] attributeExpressionExecutors,
@@ -43,54 +63,220 @@ public class GroupByAggregationAttributeExecutor extends AbstractAggregationAttr
         this.configReader = configReader;
     }
 
+    /**
+     * Set the lock guarding the group state, which is the monitor the {@link QuerySelector} holds while processing
+     * events, such that snapshots and restores do not interleave with the processing and purging of the groups.
+     *
+     * @param stateLock monitor of the selector
+     */
+    public void setStateLock(Object stateLock) {
+        this.stateLock = stateLock;
+    }
+
+    /**
+     * Collect the executors cloned from this executor into the given list, such that the cloned
+     * {@link QuerySelector} can purge the group by state of its executors.
+     *
+     * @param clonedExecutors list to add the clones to, or null to stop collecting them
+     */
+    public void setClonedExecutors(List<GroupByAggregationAttributeExecutor> clonedExecutors) {
+        this.clonedExecutors = clonedExecutors;
+    }
+
     @Override
     public Object execute(ComplexEvent event) {
         if (event.getType() == ComplexEvent.Type.RESET) {
+            synchronized (stateLock) {
+                changedKeys = null;
+            }
             Object aOutput = null;
             for (AttributeAggregator attributeAggregator : aggregatorMap.values()) {
                 aOutput = attributeAggregator.process(event);
             }
             return aOutput;
         }
-        String key = QuerySelector.getThreadLocalGroupByKey();
+        GroupByKey key = QuerySelector.getThreadLocalTypedGroupByKey();
         AttributeAggregator currentAttributeAggregator = aggregatorMap.get(key);
         if (currentAttributeAggregator == null) {
-            currentAttributeAggregator = attributeAggregator.cloneAggregator(key);
+            currentAttributeAggregator = attributeAggregator.cloneAggregator(key.toString());
             currentAttributeAggregator.initAggregator(attributeExpressionExecutors, siddhiAppContext, configReader);
             currentAttributeAggregator.start();
             aggregatorMap.put(key, currentAttributeAggregator);
+            if (legacyStates != null) {
+                Map<String, Object> legacyState = legacyStates.remove(key.toString());
+                if (legacyState != null) {
+                    currentAttributeAggregator.restoreState(legacyState);
+                }
+                if (legacyStates.isEmpty()) {
+                    legacyStates = null;
+                }
+            }
+        }
+        if (changedKeys != null) {
+            changedKeys.add(key);
         }
         return currentAttributeAggregator.process(event);
     }
 
+    /**
+     * Drop the aggregation state of the given groups
+     *
+     * @param keys group by keys to be removed
+     */
+    public void removeGroups(Collection<GroupByKey> keys) {
+        List<EternalReferencedHolder> removedAggregators = new ArrayList<EternalReferencedHolder>(keys.size());
+        for (GroupByKey key : keys) {
+            AttributeAggregator removedAggregator = aggregatorMap.remove(key);
+            if (removedAggregator != null) {
+                removedAggregators.add(removedAggregator);
+                if (changedKeys != null) {
+                    changedKeys.remove(key);
+                    removedKeys.add(key);
+                }
+            }
+        }
+        releaseAggregators(removedAggregators);
+    }
+
+    /**
+     * Drop the aggregation state of all the groups
+     */
+    public void removeAllGroups() {
+        List<EternalReferencedHolder> removedAggregators = new ArrayList<EternalReferencedHolder>(aggregatorMap
+                .values());
+        aggregatorMap.clear();
+        legacyStates = null;
+        changedKeys = null;
+        releaseAggregators(removedAggregators);
+    }
+
+    private void releaseAggregators(List<EternalReferencedHolder> removedAggregators) {
+        if (!removedAggregators.isEmpty()) {
+            for (EternalReferencedHolder removedAggregator : removedAggregators) {
+                removedAggregator.stop();
+            }
+            siddhiAppContext.removeEternalReferencedHolders(removedAggregators);
+        }
+    }
+
     public ExpressionExecutor cloneExecutor(String key) {
-        return new GroupByAggregationAttributeExecutor(attributeAggregator.cloneAggregator(key),
-                                                       attributeExpressionExecutors, configReader, siddhiAppContext,
-                                                       queryName);
+        GroupByAggregationAttributeExecutor clonedExecutor = new GroupByAggregationAttributeExecutor(
+                attributeAggregator.cloneAggregator(key), attributeExpressionExecutors, configReader,
+                siddhiAppContext, queryName);
+        if (clonedExecutors != null) {
+            clonedExecutors.add(clonedExecutor);
+        }
+        return clonedExecutor;
     }
 
     @Override
     public Map<String, Object> currentState() {
-        HashMap<String, Map<String, Object>> data = new HashMap<>();
-        for (Map.Entry<String, AttributeAggregator> entry : aggregatorMap.entrySet()) {
-            data.put(entry.getKey(), entry.getValue().currentState());
+        synchronized (stateLock) {
+            HashMap<GroupByKey, Map<String, Object>> data = new HashMap<>();
+            aggregatorMap.forEach((key, aggregator) -> data.put(key, aggregator.currentState()));
+            Map<String, Object> state = new HashMap<>();
+            state.put("Data", data);
+            if (legacyStates != null) {
+                state.put("LegacyData", new HashMap<>(legacyStates));
+            }
+            return state;
         }
-        Map<String, Object> state = new HashMap<>();
-        state.put("Data", data);
-        return state;
     }
 
     @Override
     public void restoreState(Map<String, Object> state) {
-        HashMap<String, Map<String, Object>> data = (HashMap<String, Map<String, Object>>) state.get("Data");
+        synchronized (stateLock) {
+            // group keys were strings in the form of "value1::value2::" before keys were typed
+            Map<Object, Map<String, Object>> data = (Map<Object, Map<String, Object>>) state.get("Data");
+            Map<String, Map<String, Object>> legacyData = (Map<String, Map<String, Object>>) state.get(
+                    "LegacyData");
+            if (legacyData != null) {
+                legacyData = new HashMap<>(legacyData);
+            }
+            for (Map.Entry<Object, Map<String, Object>> entry : data.entrySet()) {
+                if (entry.getKey() instanceof String) {
+                    if (legacyData == null) {
+                        legacyData = new HashMap<>();
+                    }
+                    legacyData.put((String) entry.getKey(), entry.getValue());
+                } else {
+                    restoreGroup((GroupByKey) entry.getKey(), entry.getValue());
+                }
+            }
+            if (legacyData != null) {
+                restoreLegacyGroups(legacyData);
+            }
+            changedKeys = null;
+        }
+    }
 
-        for (Map.Entry<String, Map<String, Object>> entry : data.entrySet()) {
-            String key = entry.getKey();
-            AttributeAggregator aAttributeAggregator = attributeAggregator.cloneAggregator(key);
+    private void restoreLegacyGroups(Map<String, Map<String, Object>> legacyData) {
+        Map<String, AttributeAggregator> aggregatorsByKey = new HashMap<>();
+        aggregatorMap.forEach((groupByKey, aggregator) -> aggregatorsByKey.put(groupByKey.toString(), aggregator));
+        for (Map.Entry<String, Map<String, Object>> entry : legacyData.entrySet()) {
+            AttributeAggregator existing = aggregatorsByKey.get(entry.getKey());
+            if (existing != null) {
+                existing.restoreState(entry.getValue());
+            } else {
+                if (legacyStates == null) {
+                    legacyStates = new HashMap<>();
+                }
+                legacyStates.put(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void restoreGroup(GroupByKey key, Map<String, Object> state) {
+        AttributeAggregator aAttributeAggregator = aggregatorMap.get(key);
+        if (aAttributeAggregator == null) {
+            aAttributeAggregator = attributeAggregator.cloneAggregator(key.toString());
             aAttributeAggregator.initAggregator(attributeExpressionExecutors, siddhiAppContext, configReader);
             aAttributeAggregator.start();
-            aAttributeAggregator.restoreState(entry.getValue());
             aggregatorMap.put(key, aAttributeAggregator);
         }
+        aAttributeAggregator.restoreState(state);
+    }
+
+    @Override
+    public Map<String, Object> currentDelta() {
+        synchronized (stateLock) {
+            Map<String, Object> delta = null;
+            if (changedKeys != null) {
+                delta = new HashMap<>();
+                if (!changedKeys.isEmpty() || !removedKeys.isEmpty()) {
+                    HashMap<GroupByKey, Map<String, Object>> data = new HashMap<>();
+                    for (GroupByKey key : changedKeys) {
+                        data.put(key, aggregatorMap.get(key).currentState());
+                    }
+                    delta.put("Data", data);
+                    delta.put("Removed", removedKeys);
+                }
+            }
+            checkpoint();
+            return delta;
+        }
+    }
+
+    @Override
+    public void restoreDelta(Map<String, Object> delta) {
+        synchronized (stateLock) {
+            if (!delta.isEmpty()) {
+                removeGroups((Set<GroupByKey>) delta.get("Removed"));
+                HashMap<GroupByKey, Map<String, Object>> data = (HashMap<GroupByKey, Map<String, Object>>) delta
+                        .get("Data");
+                for (Map.Entry<GroupByKey, Map<String, Object>> entry : data.entrySet()) {
+                    restoreGroup(entry.getKey(), entry.getValue());
+                }
+            }
+            changedKeys = null;
+        }
+    }
+
+    @Override
+    public void checkpoint() {
+        synchronized (stateLock) {
+            changedKeys = new HashSet<GroupByKey>();
+            removedKeys = new HashSet<GroupByKey>();
+        }
     }
 }
@@ -19,8 +19,15 @@
 package org.wso2.siddhi.core.stream;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
-import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.LifecycleAware;
+import com.lmax.disruptor.PhasedBackoffWaitStrategy;
 import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceReportingEventHandler;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import org.apache.log4j.Logger;
@@ -28,9 +35,11 @@ import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.ComplexEvent;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.event.SiddhiEventFactory;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.stream.input.InputProcessor;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
 import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
 import org.wso2.siddhi.core.util.timestamp.EventTimeBasedMillisTimestampGenerator;
 import org.wso2.siddhi.query.api.annotation.Annotation;
@@ -42,14 +51,21 @@ import java.lang.reflect.Constructor;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Stream Junction is the place where streams are collected and distributed. There will be an Stream Junction per
  * evey event stream. {@link StreamJunction.Publisher} can be used to publish events to the junction and
  * {@link StreamJunction.Receiver} can be used to receive events from Stream Junction. Stream Junction will hold the
  * events till they are consumed by registered Receivers.
+ * <p>
+ * When the stream is annotated with {@code @Async}, events are passed through a Disruptor ring buffer whose
+ * {@code buffer.size}, {@code wait.strategy} (blocking, sleeping, yielding, busy-spin, phased-backoff) and
+ * {@code producer.type} (single, multi) can be configured via the annotation. With {@code workers} greater than one,
+ * each {@link StreamJunction.ParallelReceiver} that allows parallel processing is fed by that many worker threads,
+ * sharding the events among them by the receiver's sharding attribute.
  */
-public class StreamJunction {
+public class StreamJunction implements EventBufferHolder {
     private static final Logger log = Logger.getLogger(StreamJunction.class);
     private final SiddhiAppContext siddhiAppContext;
     private final StreamDefinition streamDefinition;
@@ -58,6 +74,9 @@ public class StreamJunction {
     private List<Publisher> publishers = new CopyOnWriteArrayList<Publisher>();
     private ExecutorService executorService;
     private Boolean async = null;
+    private String waitStrategyType = null;
+    private ProducerType producerType = ProducerType.MULTI;
+    private int workers = 1;
     private Disruptor<Event> disruptor;
     private RingBuffer<Event> ringBuffer;
     private ThroughputTracker throughputTracker = null;
@@ -92,6 +111,46 @@ public class StreamJunction {
                 if (bufferSizeString != null) {
                     this.bufferSize = Integer.parseInt(bufferSizeString);
                 }
+                waitStrategyType = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY);
+                if (waitStrategyType != null) {
+                    // Validate at creation time rather than when the junction starts.
+                    createWaitStrategy(waitStrategyType);
+                }
+                String workersString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS);
+                if (workersString != null) {
+                    this.workers = Integer.parseInt(workersString);
+                    if (workers < 1) {
+                        throw new SiddhiAppCreationException(SiddhiConstants.ANNOTATION_ELEMENT_WORKERS + " of the " +
+                                "Stream " + streamDefinition.getId() + " should be greater than zero, but found " +
+                                workers);
+                    }
+                }
+                String producerTypeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER_TYPE);
+                if (producerTypeString != null) {
+                    if ("single".equalsIgnoreCase(producerTypeString)) {
+                        producerType = ProducerType.SINGLE;
+                    } else if (!"multi".equalsIgnoreCase(producerTypeString)) {
+                        throw new SiddhiAppCreationException("Unsupported " +
+                                SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER_TYPE + " '" + producerTypeString +
+                                "' for the Stream " + streamDefinition.getId() + ", only 'single' and 'multi' " +
+                                "are supported");
+                    }
+                }
+            }
+            if (async && siddhiAppContext.isStatsEnabled() && siddhiAppContext.getStatisticsManager() != null) {
+                String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration()
+                        .getMatricPrefix() +
+                        SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                        SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
+                        SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                        SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_STREAMS +
+                        SiddhiConstants.METRIC_DELIMITER + streamDefinition.getId();
+                siddhiAppContext
+                        .getSiddhiContext()
+                        .getStatisticsConfiguration()
+                        .getFactory()
+                        .createBufferedEventsTracker(siddhiAppContext.getStatisticsManager())
+                        .registerEventBufferHolder(this, metricName);
             }
 
         } catch (DuplicateAnnotationException e) {
@@ -106,18 +165,29 @@ public class StreamJunction {
         }
         ComplexEvent complexEventList = complexEvent;
         if (disruptor != null) {
+            int eventCount = 0;
             while (complexEventList != null) {
-                if (throughputTracker != null) {
-                    throughputTracker.eventIn();
-                }
-                long sequenceNo = ringBuffer.next();
+                eventCount++;
+                complexEventList = complexEventList.getNext();
+            }
+            if (throughputTracker != null) {
+                throughputTracker.eventsIn(eventCount);
+            }
+            complexEventList = complexEvent;
+            while (eventCount > 0) {
+                int batchSize = Math.min(eventCount, ringBuffer.getBufferSize());
+                long highSequenceNo = ringBuffer.next(batchSize);
+                long lowSequenceNo = highSequenceNo - batchSize + 1;
                 try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(complexEventList);
+                    for (long sequenceNo = lowSequenceNo; sequenceNo <= highSequenceNo; sequenceNo++) {
+                        Event existingEvent = ringBuffer.get(sequenceNo);
+                        existingEvent.copyFrom(complexEventList);
+                        complexEventList = complexEventList.getNext();
+                    }
                 } finally {
-                    ringBuffer.publish(sequenceNo);
+                    ringBuffer.publish(lowSequenceNo, highSequenceNo);
                 }
-                complexEventList = complexEventList.getNext();
+                eventCount -= batchSize;
             }
         } else {
             if (throughputTracker != null) {
@@ -164,15 +234,7 @@ public class StreamJunction {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(event);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
-            }
+            publishBatch(events, events.length);
         } else {
             for (Receiver receiver : receivers) {
                 receiver.receive(events);
@@ -181,19 +243,14 @@ public class StreamJunction {
     }
 
     private void sendEvent(List<Event> events) {
+        if (throughputTracker != null) {
+            throughputTracker.eventsIn(events.size());
+        }
         if (isTraceEnabled) {
             log.trace("Event is received by streamJunction " + this);
         }
         if (disruptor != null) {
-            for (Event event : events) {   // Todo : optimize for arrays
-                long sequenceNo = ringBuffer.next();
-                try {
-                    Event existingEvent = ringBuffer.get(sequenceNo);
-                    existingEvent.copyFrom(event);
-                } finally {
-                    ringBuffer.publish(sequenceNo);
-                }
-            }
+            publishBatch(events.toArray(new Event[events.size()]), events.size());
         } else {
             for (Receiver receiver : receivers) {
                 receiver.receive(events.toArray(new Event[events.size()]));
@@ -201,6 +258,30 @@ public class StreamJunction {
         }
     }
 
+    /**
+     * Publish the given events to the ring buffer by claiming contiguous sequence ranges, such that the whole batch
+     * is made visible to the consumers at once instead of one slot at a time.
+     *
+     * @param events     events to be published
+     * @param eventCount number of events from the beginning of the array to be published
+     */
+    private void publishBatch(Event[] events, int eventCount) {
+        int index = 0;
+        while (index < eventCount) {
+            int batchSize = Math.min(eventCount - index, ringBuffer.getBufferSize());
+            long highSequenceNo = ringBuffer.next(batchSize);
+            long lowSequenceNo = highSequenceNo - batchSize + 1;
+            try {
+                for (long sequenceNo = lowSequenceNo; sequenceNo <= highSequenceNo; sequenceNo++) {
+                    Event existingEvent = ringBuffer.get(sequenceNo);
+                    existingEvent.copyFrom(events[index++]);
+                }
+            } finally {
+                ringBuffer.publish(lowSequenceNo, highSequenceNo);
+            }
+        }
+    }
+
     private void sendData(long timeStamp, Object[] data) {
         // Set timestamp to system if Siddhi is in playback mode
         if (siddhiAppContext.isPlayback()) {
@@ -234,10 +315,9 @@ public class StreamJunction {
         if (!receivers.isEmpty() && async) {
             for (Constructor constructor : Disruptor.class.getConstructors()) {
                 if (constructor.getParameterTypes().length == 5) {      // If new disruptor classes available
-                    ProducerType producerType = ProducerType.MULTI;
                     disruptor = new Disruptor<Event>(new SiddhiEventFactory(streamDefinition.getAttributeList().size()),
                                                      bufferSize, executorService, producerType,
-                                                     new BlockingWaitStrategy());
+                                                     createWaitStrategy(waitStrategyType));
                     disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
                     break;
                 }
@@ -248,9 +328,21 @@ public class StreamJunction {
                 disruptor.handleExceptionsWith(siddhiAppContext.getDisruptorExceptionHandler());
             }
             for (Receiver receiver : receivers) {
-                disruptor.handleEventsWith(new StreamHandler(receiver));
+                if (isParallelReceiver(receiver)) {
+                    ParallelReceiver parallelReceiver = (ParallelReceiver) receiver;
+                    StreamHandler[] streamHandlers = new StreamHandler[workers];
+                    for (int i = 0; i < workers; i++) {
+                        Receiver workerReceiver = (i == 0) ? receiver : parallelReceiver.createWorkerReceiver();
+                        streamHandlers[i] = new ShardedStreamHandler(workerReceiver, i, workers,
+                                                                     parallelReceiver.getShardingAttributePosition());
+                    }
+                    disruptor.handleEventsWith(streamHandlers);
+                } else {
+                    disruptor.handleEventsWith(new StreamHandler(receiver));
+                }
             }
             ringBuffer = disruptor.start();
+            siddhiAppContext.getThreadBarrier().addEventBuffer(this);
         } else {
             for (Receiver receiver : receivers) {
                 if (receiver instanceof StreamCallback) {
@@ -272,7 +364,70 @@ public class StreamJunction {
         }
     }
 
+    private WaitStrategy createWaitStrategy(String waitStrategyType) {
+        if (waitStrategyType == null || "blocking".equalsIgnoreCase(waitStrategyType)) {
+            return new BlockingWaitStrategy();
+        } else if ("sleeping".equalsIgnoreCase(waitStrategyType)) {
+            return new SleepingWaitStrategy();
+        } else if ("yielding".equalsIgnoreCase(waitStrategyType)) {
+            return new YieldingWaitStrategy();
+        } else if ("busy-spin".equalsIgnoreCase(waitStrategyType)) {
+            return new BusySpinWaitStrategy();
+        } else if ("phased-backoff".equalsIgnoreCase(waitStrategyType)) {
+            return PhasedBackoffWaitStrategy.withLock(1, 1, TimeUnit.MILLISECONDS);
+        } else {
+            throw new SiddhiAppCreationException("Unsupported " + SiddhiConstants.ANNOTATION_ELEMENT_WAIT_STRATEGY +
+                    " '" + waitStrategyType + "' for the Stream " + streamDefinition.getId() + ", only 'blocking', " +
+                    "'sleeping', 'yielding', 'busy-spin' and 'phased-backoff' are supported");
+        }
+    }
+
+    @Override
+    public long getBufferedEvents() {
+        RingBuffer<Event> ringBuffer = this.ringBuffer;
+        if (ringBuffer == null) {
+            return 0;
+        }
+        return ringBuffer.getBufferSize() - ringBuffer.remainingCapacity();
+    }
+
+    @Override
+    public long getRemainingCapacity() {
+        RingBuffer<Event> ringBuffer = this.ringBuffer;
+        if (ringBuffer == null) {
+            return bufferSize;
+        }
+        return ringBuffer.remainingCapacity();
+    }
+
+    /**
+     * @param receiver receiver subscribed to the junction
+     * @return true if the receiver is fed by multiple workers of the junction, hence its outputs are published by
+     * multiple threads in parallel
+     */
+    public boolean isParallelReceiver(Receiver receiver) {
+        return async && workers > 1 && receiver instanceof ParallelReceiver &&
+                ((ParallelReceiver) receiver).isParallelProcessingAllowed();
+    }
+
+    /**
+     * Mark the stream as published by multiple threads in parallel, such as the workers feeding a parallel query,
+     * which requires a multi producer ring buffer irrespective of the configured producer type.
+     */
+    public synchronized void enableParallelPublishing() {
+        if (producerType == ProducerType.SINGLE) {
+            log.warn("Stream " + streamDefinition.getId() + " is published by multiple workers in parallel, hence " +
+                    "using " + SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER_TYPE + " 'multi' instead of 'single'");
+            producerType = ProducerType.MULTI;
+        }
+    }
+
     public synchronized Publisher constructPublisher() {
+        if (producerType == ProducerType.SINGLE && !publishers.isEmpty()) {
+            throw new SiddhiAppCreationException("Stream " + streamDefinition.getId() + " is configured with " +
+                    SiddhiConstants.ANNOTATION_ELEMENT_PRODUCER_TYPE + " 'single', hence it cannot have more than " +
+                    "one publisher");
+        }
         Publisher publisher = new Publisher();
         publisher.setStreamJunction(this);
         publishers.add(publisher);
@@ -312,20 +467,119 @@ public class StreamJunction {
         void receive(Event[] events);
     }
 
+    /**
+     * Interface to be implemented by receivers which can be fed by multiple worker threads of an async Stream
+     * Junction. Events having the same value for the sharding attribute are always delivered to the same worker,
+     * hence their order is preserved.
+     */
+    public interface ParallelReceiver extends Receiver {
+
+        /**
+         * @return true if the receiver can process events from multiple workers in parallel
+         */
+        boolean isParallelProcessingAllowed();
+
+        /**
+         * @return position of the stream attribute used to shard the events among the workers, or -1 if the receiver
+         * is stateless and events can be sharded in their arrival order
+         */
+        int getShardingAttributePosition();
+
+        /**
+         * @return a receiver feeding the same processing chain, holding its own state for an additional worker
+         */
+        Receiver createWorkerReceiver();
+    }
+
     /**
      * Interface to be implemented to receive events via handlers.
      */
-    public class StreamHandler implements EventHandler<Event> {
+    public class StreamHandler implements SequenceReportingEventHandler<Event>, LifecycleAware {
 
-        private Receiver receiver;
+        protected final Receiver receiver;
+        private Sequence sequenceCallback;
 
         public StreamHandler(Receiver receiver) {
             this.receiver = receiver;
         }
 
         public void onEvent(Event event, long sequence, boolean endOfBatch) {
+            try {
+                receive(event, sequence, endOfBatch);
+            } finally {
+                if (endOfBatch) {
+                    siddhiAppContext.getThreadBarrier().batchProcessed(sequenceCallback, sequence);
+                }
+            }
+        }
+
+        protected void receive(Event event, long sequence, boolean endOfBatch) {
             receiver.receive(event, endOfBatch);
         }
+
+        @Override
+        public void setSequenceCallback(Sequence sequenceCallback) {
+            this.sequenceCallback = sequenceCallback;
+        }
+
+        @Override
+        public void onStart() {
+            // Consumers are drained, rather than blocked, when the thread barrier is locked
+            siddhiAppContext.getThreadBarrier().registerWorkerThread();
+        }
+
+        @Override
+        public void onShutdown() {
+            siddhiAppContext.getThreadBarrier().unregisterWorkerThread();
+        }
+    }
+
+    /**
+     * Stream handler of a single worker, which only passes the events belonging to its shard to the receiver.
+     */
+    public class ShardedStreamHandler extends StreamHandler {
+
+        private final int workerIndex;
+        private final int workers;
+        private final int shardingAttributePosition;
+        // last event of the shard, held back till the next one arrives or the batch ends, as the batch may end on an
+        // event of another shard
+        private Event pendingEvent;
+
+        public ShardedStreamHandler(Receiver receiver, int workerIndex, int workers, int shardingAttributePosition) {
+            super(receiver);
+            this.workerIndex = workerIndex;
+            this.workers = workers;
+            this.shardingAttributePosition = shardingAttributePosition;
+        }
+
+        @Override
+        protected void receive(Event event, long sequence, boolean endOfBatch) {
+            if (accept(event, sequence)) {
+                if (pendingEvent != null) {
+                    receiver.receive(pendingEvent, false);
+                }
+                pendingEvent = event;
+            }
+            if (endOfBatch && pendingEvent != null) {
+                Event lastEvent = pendingEvent;
+                pendingEvent = null;
+                receiver.receive(lastEvent, true);
+            }
+        }
+
+        private boolean accept(Event event, long sequence) {
+            if (shardingAttributePosition < 0) {
+                return sequence % workers == workerIndex;
+            }
+            Object key = event.getData(shardingAttributePosition);
+            if (key == null) {
+                return workerIndex == 0;
+            }
+            int hash = key.hashCode();
+            hash ^= (hash >>> 16);
+            return (hash & Integer.MAX_VALUE) % workers == workerIndex;
+        }
     }
 
     /**
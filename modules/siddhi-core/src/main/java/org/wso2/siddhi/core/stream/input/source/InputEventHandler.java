@@ -21,6 +21,8 @@ import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -33,6 +35,7 @@ public class InputEventHandler {
     private String sourceType;
     private InputHandler inputHandler;
     private List<AttributeMapping> transportMapping;
+    private List<Event> eventBuffer;
 
     InputEventHandler(InputHandler inputHandler, List<AttributeMapping> transportMapping,
                       ThreadLocal<String[]> trpProperties, String sourceType) {
@@ -42,6 +45,29 @@ public class InputEventHandler {
         this.sourceType = sourceType;
     }
 
+    /**
+     * @return handler that buffers the events sent through it till {@link #flush()} is called
+     */
+    InputEventHandler createBatchHandler() {
+        InputEventHandler batchHandler = new InputEventHandler(inputHandler, transportMapping, trpProperties,
+                sourceType);
+        batchHandler.eventBuffer = new ArrayList<>();
+        return batchHandler;
+    }
+
+    /**
+     * Send the buffered events as a single batch.
+     *
+     * @throws InterruptedException if interrupted while sending the events
+     */
+    void flush() throws InterruptedException {
+        if (eventBuffer != null && !eventBuffer.isEmpty()) {
+            Event[] events = eventBuffer.toArray(new Event[eventBuffer.size()]);
+            eventBuffer.clear();
+            inputHandler.send(events);
+        }
+    }
+
     public void sendEvent(Event event) throws InterruptedException {
         try {
             String[] transportProperties = trpProperties.get();
@@ -50,7 +76,11 @@ public class InputEventHandler {
                 AttributeMapping attributeMapping = transportMapping.get(i);
                 event.getData()[attributeMapping.getPosition()] = transportProperties[i];
             }
-            inputHandler.send(event);
+            if (eventBuffer != null) {
+                eventBuffer.add(event);
+            } else {
+                inputHandler.send(event);
+            }
         } catch (RuntimeException e) {
             LOG.error("Error in applying transport property mapping for '" + sourceType
                     + "' source at '" + inputHandler.getStreamId() + "' stream, " + e.getMessage(), e);
@@ -69,7 +99,11 @@ public class InputEventHandler {
                     event.getData()[attributeMapping.getPosition()] = transportProperties[i];
                 }
             }
-            inputHandler.send(events);
+            if (eventBuffer != null) {
+                Collections.addAll(eventBuffer, events);
+            } else {
+                inputHandler.send(events);
+            }
         } catch (RuntimeException e) {
             LOG.error("Error in applying transport property mapping for '" + sourceType
                     + "' source at '" + inputHandler.getStreamId() + "' stream, " + e.getMessage(), e);
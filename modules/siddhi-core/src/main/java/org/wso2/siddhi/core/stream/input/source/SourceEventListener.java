@@ -29,4 +29,20 @@ public interface SourceEventListener {
     StreamDefinition getStreamDefinition();
 
     void onEvent(Object eventObject, String[] transportProperties);
+
+    /**
+     * Receive a batch of events, such as the messages of a single poll, having the same transport properties.
+     *
+     * @param eventObjects        received events
+     * @param transportProperties transport properties of the events
+     * @return whether the batch was processed, such that the source can acknowledge it, otherwise the source should
+     * redeliver the batch. The default implementation passes the events to
+     * {@link #onEvent(Object, String[])} and cannot detect failures.
+     */
+    default boolean onEvents(Object[] eventObjects, String[] transportProperties) {
+        for (Object eventObject : eventObjects) {
+            onEvent(eventObject, transportProperties);
+        }
+        return true;
+    }
 }
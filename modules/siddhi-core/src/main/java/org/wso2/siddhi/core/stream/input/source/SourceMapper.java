@@ -81,14 +81,65 @@ public abstract class SourceMapper implements SourceEventListener {
                 trpProperties.set(transportProperties);
                 mapAndProcess(eventObject, inputEventHandler);
             }
-        } catch (InterruptedException | RuntimeException e) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while processing '" + eventObject + "', for the input Mapping '" + mapType +
+                    "' for the stream '" + streamDefinition.getId() + "'", e);
+        } catch (RuntimeException e) {
             log.error("Error while processing '" + eventObject + "', for the input Mapping '" + mapType +
-                    "' for the stream '" + streamDefinition.getId() + "'");
+                    "' for the stream '" + streamDefinition.getId() + "'", e);
         } finally {
             trpProperties.remove();
         }
     }
 
+    /**
+     * Map the given events and send them as a single batch, such that a batch received by a {@link Source} is
+     * processed as one {@link org.wso2.siddhi.core.event.Event} array. Events failing to map are logged and dropped
+     * from the batch as done by {@link #onEvent(Object, String[])}, while the batch is not sent at all if interrupted.
+     *
+     * @param eventObjects        received events
+     * @param transportProperties transport properties of the events
+     * @return false if the batch could not be sent, hence the source should not acknowledge the batch but redeliver
+     * it
+     */
+    @Override
+    public final boolean onEvents(Object[] eventObjects, String[] transportProperties) {
+        InputEventHandler batchEventHandler = inputEventHandler.createBatchHandler();
+        for (Object eventObject : eventObjects) {
+            try {
+                if (eventObject != null) {
+                    trpProperties.set(transportProperties);
+                    mapAndProcess(eventObject, batchEventHandler);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while processing '" + eventObject + "', for the input Mapping '" + mapType +
+                        "' for the stream '" + streamDefinition.getId() + "', dropping the batch of " +
+                        eventObjects.length + " events", e);
+                return false;
+            } catch (RuntimeException e) {
+                log.error("Error while processing '" + eventObject + "', for the input Mapping '" + mapType +
+                        "' for the stream '" + streamDefinition.getId() + "', dropping the event", e);
+            } finally {
+                trpProperties.remove();
+            }
+        }
+        try {
+            batchEventHandler.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error("Interrupted while processing a batch of " + eventObjects.length + " events, for the input " +
+                    "Mapping '" + mapType + "' for the stream '" + streamDefinition.getId() + "'", e);
+            return false;
+        } catch (RuntimeException e) {
+            log.error("Error while processing a batch of " + eventObjects.length + " events, for the input " +
+                    "Mapping '" + mapType + "' for the stream '" + streamDefinition.getId() + "'", e);
+            return false;
+        }
+        return true;
+    }
+
     public final StreamDefinition getStreamDefinition() {
         return streamDefinition;
     }
@@ -30,12 +30,13 @@ import org.wso2.siddhi.core.table.holder.EventHolder;
 import org.wso2.siddhi.core.util.collection.AddingStreamEventExtractor;
 import org.wso2.siddhi.core.util.collection.UpdateAttributeMapper;
 import org.wso2.siddhi.core.util.collection.operator.CompiledCondition;
+import org.wso2.siddhi.core.util.collection.operator.IndexOperator;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
 import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.parser.EventHolderPasser;
 import org.wso2.siddhi.core.util.parser.OperatorParser;
-import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+import org.wso2.siddhi.core.util.snapshot.IncrementalSnapshotable;
 import org.wso2.siddhi.query.api.definition.TableDefinition;
 import org.wso2.siddhi.query.api.expression.Expression;
 
@@ -48,13 +49,15 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 /**
  * In-memory event table implementation of SiddhiQL.
  */
-public class InMemoryTable extends Table implements Snapshotable {
+public class InMemoryTable extends Table implements IncrementalSnapshotable {
 
     private TableDefinition tableDefinition;
     private StreamEventCloner tableStreamEventCloner;
     private ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
     private EventHolder eventHolder;
     private String elementId;
+    // whether the table is modified since the last checkpoint
+    private volatile boolean modified = true;
 
 
     @Override
@@ -81,6 +84,7 @@ public class InMemoryTable extends Table implements Snapshotable {
     public void add(ComplexEventChunk<StreamEvent> addingEventChunk) {
         try {
             readWriteLock.writeLock().lock();
+            modified = true;
             eventHolder.add(addingEventChunk);
         } finally {
             readWriteLock.writeLock().unlock();
@@ -92,6 +96,7 @@ public class InMemoryTable extends Table implements Snapshotable {
     public void delete(ComplexEventChunk<StateEvent> deletingEventChunk, CompiledCondition compiledCondition) {
         try {
             readWriteLock.writeLock().lock();
+            modified = true;
             ((Operator) compiledCondition).delete(deletingEventChunk, eventHolder);
         } finally {
             readWriteLock.writeLock().unlock();
@@ -103,6 +108,7 @@ public class InMemoryTable extends Table implements Snapshotable {
                        UpdateAttributeMapper[] updateAttributeMappers) {
         try {
             readWriteLock.writeLock().lock();
+            modified = true;
             ((Operator) compiledCondition).update(updatingEventChunk, eventHolder, updateAttributeMappers);
         } finally {
             readWriteLock.writeLock().unlock();
@@ -116,6 +122,7 @@ public class InMemoryTable extends Table implements Snapshotable {
                             AddingStreamEventExtractor addingStreamEventExtractor) {
         try {
             readWriteLock.writeLock().lock();
+            modified = true;
             ComplexEventChunk<StreamEvent> failedEvents = ((Operator) compiledCondition).tryUpdate
                     (updateOrAddingEventChunk,
                     eventHolder, updateAttributeMappers, addingStreamEventExtractor);
@@ -170,8 +177,12 @@ public class InMemoryTable extends Table implements Snapshotable {
                                               SiddhiAppContext siddhiAppContext,
                                               List<VariableExpressionExecutor> variableExpressionExecutors,
                                               Map<String, Table> tableMap, String queryName) {
-        return OperatorParser.constructOperator(eventHolder, expression, matchingMetaInfoHolder,
+        Operator operator = OperatorParser.constructOperator(eventHolder, expression, matchingMetaInfoHolder,
                 siddhiAppContext, variableExpressionExecutors, tableMap, tableDefinition.getId());
+        if (queryName != null && operator instanceof IndexOperator) {
+            siddhiAppContext.addQueryPlan(queryName, ((IndexOperator) operator).explain());
+        }
+        return operator;
     }
 
 
@@ -185,6 +196,24 @@ public class InMemoryTable extends Table implements Snapshotable {
     @Override
     public void restoreState(Map<String, Object> state) {
         eventHolder = (EventHolder) state.get("EventHolder");
+        modified = true;
+    }
+
+    @Override
+    public Map<String, Object> currentDelta() {
+        Map<String, Object> delta = modified ? null : new HashMap<>();
+        modified = false;
+        return delta;
+    }
+
+    @Override
+    public void restoreDelta(Map<String, Object> delta) {
+        // only unchanged state is reported as a delta
+    }
+
+    @Override
+    public void checkpoint() {
+        modified = false;
     }
 
     @Override
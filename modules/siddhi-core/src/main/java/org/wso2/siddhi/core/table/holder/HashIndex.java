@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.table.holder;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Hash index of {@link IndexEventHolder}, mapping attribute values to the events having them. Values are kept in an
+ * open addressing table with linear probing, and a value held by a single event refers to the event directly instead
+ * of a set of events, such that the common case of unique values allocates no objects per event.
+ */
+class HashIndex implements Serializable {
+
+    private static final long serialVersionUID = -6930520484402683207L;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    // either a StreamEvent, or a Set of StreamEvents when the key is held by multiple events
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int keyCount = 0;
+    // events of the null key, which cannot be told apart from an empty slot
+    private Object nullKeyValue = null;
+
+    /**
+     * @return number of distinct values indexed
+     */
+    int keyCount() {
+        return nullKeyValue == null ? keyCount : keyCount + 1;
+    }
+
+    /**
+     * @param key attribute value
+     * @return events having the value, or null if there are none
+     */
+    Collection<StreamEvent> get(Object key) {
+        Object value = key == null ? nullKeyValue : values[slot(key)];
+        if (value instanceof Set) {
+            // copied as the events are often deleted while iterating them
+            return new HashSet<StreamEvent>(toEventSet(value));
+        }
+        return toCollection(value);
+    }
+
+    /**
+     * @param key attribute value
+     * @return number of events having the value
+     */
+    int count(Object key) {
+        Object value = key == null ? nullKeyValue : values[slot(key)];
+        if (value == null) {
+            return 0;
+        } else if (value instanceof StreamEvent) {
+            return 1;
+        } else {
+            return toEventSet(value).size();
+        }
+    }
+
+    void add(Object key, StreamEvent event) {
+        if (key == null) {
+            nullKeyValue = addValue(nullKeyValue, event);
+            return;
+        }
+        int slot = slot(key);
+        if (keys[slot] == null) {
+            keys[slot] = key;
+            values[slot] = event;
+            keyCount++;
+            if (keyCount * 4 > keys.length * 3) {
+                resize(keys.length * 2);
+            }
+        } else {
+            values[slot] = addValue(values[slot], event);
+        }
+    }
+
+    void remove(Object key, StreamEvent event) {
+        if (key == null) {
+            nullKeyValue = removeValue(nullKeyValue, event);
+            return;
+        }
+        int slot = slot(key);
+        if (keys[slot] != null) {
+            values[slot] = removeValue(values[slot], event);
+            if (values[slot] == null) {
+                removeSlot(slot);
+            }
+        }
+    }
+
+    /**
+     * @param key attribute value
+     * @return events that had the value, or null if there were none
+     */
+    Collection<StreamEvent> remove(Object key) {
+        if (key == null) {
+            Object value = nullKeyValue;
+            nullKeyValue = null;
+            return toCollection(value);
+        }
+        int slot = slot(key);
+        Object value = values[slot];
+        if (keys[slot] != null) {
+            removeSlot(slot);
+        }
+        return toCollection(value);
+    }
+
+    void addAllEvents(Collection<StreamEvent> events) {
+        for (Object value : values) {
+            addEvents(value, events);
+        }
+        addEvents(nullKeyValue, events);
+    }
+
+    /**
+     * @param eventCopier gives the copy of an event, which is the same copy for the same event
+     * @return copy of the index referring to the copied events
+     */
+    HashIndex copy(UnaryOperator<StreamEvent> eventCopier) {
+        HashIndex copiedIndex = new HashIndex();
+        copiedIndex.keys = keys.clone();
+        copiedIndex.values = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            copiedIndex.values[i] = copyValue(values[i], eventCopier);
+        }
+        copiedIndex.keyCount = keyCount;
+        copiedIndex.nullKeyValue = copyValue(nullKeyValue, eventCopier);
+        return copiedIndex;
+    }
+
+    void clear() {
+        keys = new Object[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        keyCount = 0;
+        nullKeyValue = null;
+    }
+
+    private int slot(Object key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != null && !keys[slot].equals(key)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int hash(Object key) {
+        int hash = key.hashCode() * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Remove the key at the given slot, moving back the keys that probed past it such that they stay reachable.
+     */
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        keys[slot] = null;
+        values[slot] = null;
+        keyCount--;
+        int next = (slot + 1) & mask;
+        while (keys[next] != null) {
+            int home = hash(keys[next]) & mask;
+            // move the key if its home slot is not cyclically within (slot, next]
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                keys[next] = null;
+                values[next] = null;
+                slot = next;
+            }
+            next = (next + 1) & mask;
+        }
+    }
+
+    private void resize(int capacity) {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static Object addValue(Object value, StreamEvent event) {
+        if (value == null) {
+            return event;
+        } else if (value instanceof StreamEvent) {
+            if (value.equals(event)) {
+                return value;
+            }
+            Set<StreamEvent> events = new HashSet<StreamEvent>();
+            events.add((StreamEvent) value);
+            events.add(event);
+            return events;
+        } else {
+            toEventSet(value).add(event);
+            return value;
+        }
+    }
+
+    private static Object copyValue(Object value, UnaryOperator<StreamEvent> eventCopier) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof StreamEvent) {
+            return eventCopier.apply((StreamEvent) value);
+        } else {
+            Set<StreamEvent> events = toEventSet(value);
+            Set<StreamEvent> copiedEvents = new HashSet<StreamEvent>(events.size() * 2);
+            for (StreamEvent event : events) {
+                copiedEvents.add(eventCopier.apply(event));
+            }
+            return copiedEvents;
+        }
+    }
+
+    private static Object removeValue(Object value, StreamEvent event) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof StreamEvent) {
+            return value.equals(event) ? null : value;
+        } else {
+            Set<StreamEvent> events = toEventSet(value);
+            events.remove(event);
+            if (events.size() == 1) {
+                return events.iterator().next();
+            }
+            return events;
+        }
+    }
+
+    /**
+     * @param value value of a key, which is a Set of StreamEvents unless it is a single StreamEvent
+     * @return events of the value
+     */
+    @SuppressWarnings("unchecked")
+    private static Set<StreamEvent> toEventSet(Object value) {
+        return (Set<StreamEvent>) value;
+    }
+
+    private static Collection<StreamEvent> toCollection(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof StreamEvent) {
+            return Collections.singleton((StreamEvent) value);
+        } else {
+            return toEventSet(value);
+        }
+    }
+
+    private static void addEvents(Object value, Collection<StreamEvent> events) {
+        if (value instanceof StreamEvent) {
+            events.add((StreamEvent) value);
+        } else if (value != null) {
+            events.addAll(toEventSet(value));
+        }
+    }
+}
@@ -27,33 +27,44 @@ import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 import org.wso2.siddhi.core.exception.OperationNotSupportedException;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.function.UnaryOperator;
 
 /**
  * EventHolder implementation where events will be indexed and stored. This will offer faster access compared to
  * other EventHolder implementations. User can only add unique events based on a given primary key.
  */
-public class IndexEventHolder implements IndexedEventHolder {
+public class IndexEventHolder implements IndexedEventHolder, Serializable {
 
+    private static final long serialVersionUID = 1272291743721603253L;
     private static final Logger log = Logger.getLogger(IndexEventHolder.class);
+    // fraction of the events assumed to fall in a range, when the distribution of the values is unknown
+    private static final int DEFAULT_RANGE_SELECTIVITY = 3;
     private final Map<Object, StreamEvent> primaryKeyData;
     private final Map<String, TreeMap<Object, Set<StreamEvent>>> indexData;
+    private final Map<String, HashIndex> hashIndexData;
     private StreamEventPool tableStreamEventPool;
     private StreamEventConverter eventConverter;
     private int primaryKeyPosition = -1;
     private String primaryKeyAttribute;
     private Map<String, Integer> indexMetaData;
     private Map<String, Integer> allIndexMetaData = new HashMap<>();
+    // number of events held when there is no primary key, whose map would otherwise give it
+    private int indexedEventCount = 0;
 
     public IndexEventHolder(StreamEventPool tableStreamEventPool, StreamEventConverter eventConverter,
                             int primaryKeyPosition, String primaryKeyAttribute,
-                            boolean isPrimaryNumeric, Map<String, Integer> indexMetaData) {
+                            boolean isPrimaryNumeric, Map<String, Integer> indexMetaData,
+                            Set<String> hashIndexAttributes) {
         this.tableStreamEventPool = tableStreamEventPool;
         this.eventConverter = eventConverter;
         this.primaryKeyPosition = primaryKeyPosition;
@@ -72,14 +83,75 @@ public class IndexEventHolder implements IndexedEventHolder {
         }
         if (indexMetaData.size() > 0) {
             indexData = new HashMap<String, TreeMap<Object, Set<StreamEvent>>>();
+            hashIndexData = new HashMap<String, HashIndex>();
             for (String indexAttributeName : indexMetaData.keySet()) {
-                indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+                if (hashIndexAttributes.contains(indexAttributeName)) {
+                    hashIndexData.put(indexAttributeName, new HashIndex());
+                } else {
+                    indexData.put(indexAttributeName, new TreeMap<Object, Set<StreamEvent>>());
+                }
             }
             allIndexMetaData.putAll(indexMetaData);
         } else {
             indexData = null;
+            hashIndexData = null;
+        }
+
+    }
+
+    private IndexEventHolder(IndexEventHolder eventHolder, UnaryOperator<StreamEvent> eventCopier) {
+        this.tableStreamEventPool = eventHolder.tableStreamEventPool;
+        this.eventConverter = eventHolder.eventConverter;
+        this.primaryKeyPosition = eventHolder.primaryKeyPosition;
+        this.primaryKeyAttribute = eventHolder.primaryKeyAttribute;
+        this.indexMetaData = eventHolder.indexMetaData;
+        this.allIndexMetaData = eventHolder.allIndexMetaData;
+        this.indexedEventCount = eventHolder.indexedEventCount;
+
+        // an event is referred by the primary key and each index, hence is copied once and shared by them
+        Map<StreamEvent, StreamEvent> copiedEvents = new IdentityHashMap<StreamEvent, StreamEvent>();
+        UnaryOperator<StreamEvent> sharedEventCopier = event -> copiedEvents.computeIfAbsent(event, eventCopier);
+        if (eventHolder.primaryKeyData instanceof TreeMap) {
+            primaryKeyData = new TreeMap<Object, StreamEvent>(
+                    (TreeMap<Object, StreamEvent>) eventHolder.primaryKeyData);
+        } else if (eventHolder.primaryKeyData != null) {
+            primaryKeyData = new HashMap<Object, StreamEvent>(eventHolder.primaryKeyData);
+        } else {
+            primaryKeyData = null;
+        }
+        if (primaryKeyData != null) {
+            primaryKeyData.replaceAll((key, event) -> sharedEventCopier.apply(event));
+        }
+        if (eventHolder.indexData != null) {
+            indexData = new HashMap<String, TreeMap<Object, Set<StreamEvent>>>();
+            for (Map.Entry<String, TreeMap<Object, Set<StreamEvent>>> indexEntry : eventHolder.indexData.entrySet()) {
+                TreeMap<Object, Set<StreamEvent>> indexMap = new TreeMap<Object, Set<StreamEvent>>(
+                        indexEntry.getValue());
+                indexMap.replaceAll((key, events) -> {
+                    Set<StreamEvent> copiedEventSet = new HashSet<StreamEvent>(events.size() * 2);
+                    for (StreamEvent event : events) {
+                        copiedEventSet.add(sharedEventCopier.apply(event));
+                    }
+                    return copiedEventSet;
+                });
+                indexData.put(indexEntry.getKey(), indexMap);
+            }
+            hashIndexData = new HashMap<String, HashIndex>();
+            for (Map.Entry<String, HashIndex> hashIndexEntry : eventHolder.hashIndexData.entrySet()) {
+                hashIndexData.put(hashIndexEntry.getKey(), hashIndexEntry.getValue().copy(sharedEventCopier));
+            }
+        } else {
+            indexData = null;
+            hashIndexData = null;
         }
+    }
 
+    /**
+     * @param eventCopier gives the copy of an event
+     * @return copy of the holder containing the copied events, which is detached from this holder
+     */
+    public IndexEventHolder copy(UnaryOperator<StreamEvent> eventCopier) {
+        return new IndexEventHolder(this, eventCopier);
     }
 
     public String getPrimaryKeyAttribute() {
@@ -107,21 +179,12 @@ public class IndexEventHolder implements IndexedEventHolder {
                                   "'" +
                                   streamEvent.getOutputData()[primaryKeyPosition] + "'");
             }
+        } else {
+            indexedEventCount++;
         }
 
-        if (indexData != null) {
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
-                }
-            }
+        if (indexData != null && existingValue == null) {
+            addToIndexes(streamEvent);
         }
 
     }
@@ -131,27 +194,34 @@ public class IndexEventHolder implements IndexedEventHolder {
         StreamEvent deletedEvent = null;
         if (primaryKeyData != null) {
             deletedEvent = primaryKeyData.put(streamEvent.getOutputData()[primaryKeyPosition], streamEvent);
+        } else {
+            indexedEventCount++;
         }
 
         if (indexData != null) {
-            for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = streamEvent.getOutputData()[indexEntry.getValue()];
-                if (deletedEvent != null) {
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
-                }
-                Set<StreamEvent> values = indexMap.get(key);
-                if (values == null) {
-                    values = new HashSet<StreamEvent>();
-                    values.add(streamEvent);
-                    indexMap.put(streamEvent.getOutputData()[indexEntry.getValue()], values);
-                } else {
-                    values.add(streamEvent);
-                }
+            if (deletedEvent != null) {
+                deleteFromIndexes(deletedEvent);
+            }
+            addToIndexes(streamEvent);
+        }
+    }
+
+    private void addToIndexes(StreamEvent streamEvent) {
+        for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
+            Object key = streamEvent.getOutputData()[indexEntry.getValue()];
+            HashIndex hashIndex = hashIndexData.get(indexEntry.getKey());
+            if (hashIndex != null) {
+                hashIndex.add(key, streamEvent);
+                continue;
+            }
+            TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
+            Set<StreamEvent> values = indexMap.get(key);
+            if (values == null) {
+                values = new HashSet<StreamEvent>();
+                values.add(streamEvent);
+                indexMap.put(key, values);
+            } else {
+                values.add(streamEvent);
             }
         }
     }
@@ -180,6 +250,14 @@ public class IndexEventHolder implements IndexedEventHolder {
         return allIndexMetaData.containsValue(position);
     }
 
+    @Override
+    public boolean isAttributeIndexedInOrder(String attribute) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttribute)) {
+            return primaryKeyData instanceof TreeMap;
+        }
+        return indexData != null && indexData.containsKey(attribute);
+    }
+
     @Override
     public Collection<StreamEvent> getAllEvents() {
         if (primaryKeyData != null) {
@@ -192,6 +270,8 @@ public class IndexEventHolder implements IndexedEventHolder {
                 for (Set<StreamEvent> streamEvents : aIndexData.values()) {
                     resultEventSet.addAll(streamEvents);
                 }
+            } else {
+                hashIndexData.values().iterator().next().addAllEvents(resultEventSet);
             }
             return resultEventSet;
         } else {
@@ -234,6 +314,8 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return resultEventSet;
             }
+        } else if (hashIndexData.containsKey(attribute)) {
+            return findEvents(hashIndexData.get(attribute), operator, value);
         } else {
             HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
             TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
@@ -287,8 +369,149 @@ public class IndexEventHolder implements IndexedEventHolder {
                 .getName());
     }
 
+    private Collection<StreamEvent> findEvents(HashIndex hashIndex, Compare.Operator operator, Object value) {
+        Collection<StreamEvent> resultEvents;
+        switch (operator) {
+            case EQUAL:
+                resultEvents = hashIndex.get(value);
+                return resultEvents != null ? resultEvents : new HashSet<StreamEvent>();
+            case NOT_EQUAL:
+                HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
+                hashIndex.addAllEvents(resultEventSet);
+                resultEvents = hashIndex.get(value);
+                if (resultEvents != null) {
+                    resultEventSet.removeAll(resultEvents);
+                }
+                return resultEventSet;
+            default:
+                //hash indexes are not ordered, hence trigger sequential scan
+                return null;
+        }
+    }
+
+    @Override
+    public Collection<StreamEvent> findEvents(String attribute, Object fromValue, boolean fromInclusive,
+                                              Object toValue, boolean toInclusive) {
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttribute)) {
+            if (!(primaryKeyData instanceof TreeMap)) {
+                return null;
+            }
+            if (isEmptyRange(fromValue, fromInclusive, toValue, toInclusive)) {
+                return new HashSet<StreamEvent>();
+            }
+            return ((TreeMap<Object, StreamEvent>) primaryKeyData).subMap(fromValue, fromInclusive, toValue,
+                    toInclusive).values();
+        } else if (hashIndexData.containsKey(attribute)) {
+            return null;
+        } else {
+            HashSet<StreamEvent> resultEventSet = new HashSet<StreamEvent>();
+            if (!isEmptyRange(fromValue, fromInclusive, toValue, toInclusive)) {
+                for (Set<StreamEvent> eventSet : indexData.get(attribute).subMap(fromValue, fromInclusive, toValue,
+                        toInclusive).values()) {
+                    resultEventSet.addAll(eventSet);
+                }
+            }
+            return resultEventSet;
+        }
+    }
+
+    private boolean isEmptyRange(Object fromValue, boolean fromInclusive, Object toValue, boolean toInclusive) {
+        if (fromValue == null || toValue == null) {
+            return true;
+        }
+        int compare = ((Comparable<Object>) fromValue).compareTo(toValue);
+        return compare > 0 || (compare == 0 && !(fromInclusive && toInclusive));
+    }
+
+    @Override
+    public int size() {
+        if (primaryKeyData != null) {
+            return primaryKeyData.size();
+        } else {
+            return indexedEventCount;
+        }
+    }
+
+    @Override
+    public int estimateSize(String attribute, Compare.Operator operator, Object value) {
+        if (value == null) {
+            return 0;
+        }
+        int matchingSize;
+        NavigableMap<Object, ?> orderedData;
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttribute)) {
+            matchingSize = primaryKeyData.containsKey(value) ? 1 : 0;
+            orderedData = primaryKeyData instanceof TreeMap ? (TreeMap<Object, StreamEvent>) primaryKeyData : null;
+        } else if (hashIndexData.containsKey(attribute)) {
+            matchingSize = hashIndexData.get(attribute).count(value);
+            orderedData = null;
+        } else {
+            TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
+            Set<StreamEvent> resultEvents = currentIndexedData.get(value);
+            matchingSize = resultEvents != null ? resultEvents.size() : 0;
+            orderedData = currentIndexedData;
+        }
+        switch (operator) {
+            case EQUAL:
+                return matchingSize;
+            case NOT_EQUAL:
+                return size() - matchingSize;
+            case LESS_THAN:
+            case LESS_THAN_EQUAL:
+                return estimateRangeSize(orderedData, null, value);
+            default:
+                return estimateRangeSize(orderedData, value, null);
+        }
+    }
+
+    @Override
+    public int estimateSize(String attribute, Object fromValue, boolean fromInclusive, Object toValue,
+                            boolean toInclusive) {
+        if (isEmptyRange(fromValue, fromInclusive, toValue, toInclusive)) {
+            return 0;
+        }
+        if (primaryKeyData != null && attribute.equals(primaryKeyAttribute)) {
+            return estimateRangeSize(primaryKeyData instanceof TreeMap ? (TreeMap<Object, StreamEvent>)
+                    primaryKeyData : null, fromValue, toValue);
+        } else {
+            return estimateRangeSize(indexData.get(attribute), fromValue, toValue);
+        }
+    }
+
+    /**
+     * Estimate the number of events in the given range by interpolating between the smallest and the largest values,
+     * assuming numeric values are uniformly distributed.
+     *
+     * @param orderedData events ordered by the values, or null if they are not ordered
+     * @param fromValue   lower bound, or null if the range is not bounded below
+     * @param toValue     upper bound, or null if the range is not bounded above
+     */
+    private int estimateRangeSize(NavigableMap<Object, ?> orderedData, Object fromValue, Object toValue) {
+        int size = size();
+        if (orderedData == null || orderedData.isEmpty()) {
+            return orderedData == null ? size : 0;
+        }
+        Object firstValue = orderedData.firstKey();
+        Object lastValue = orderedData.lastKey();
+        if (!(firstValue instanceof Number && lastValue instanceof Number &&
+                (fromValue == null || fromValue instanceof Number) && (toValue == null || toValue instanceof Number))) {
+            return size / DEFAULT_RANGE_SELECTIVITY;
+        }
+        double first = ((Number) firstValue).doubleValue();
+        double last = ((Number) lastValue).doubleValue();
+        double from = fromValue == null ? first : Math.max(first, ((Number) fromValue).doubleValue());
+        double to = toValue == null ? last : Math.min(last, ((Number) toValue).doubleValue());
+        if (to < from) {
+            return 0;
+        } else if (last == first) {
+            return size;
+        }
+        return (int) Math.ceil(size * (to - from) / (last - first));
+    }
+
     @Override
     public void deleteAll() {
+        indexedEventCount = 0;
         if (primaryKeyData != null) {
             primaryKeyData.clear();
         }
@@ -296,6 +519,9 @@ public class IndexEventHolder implements IndexedEventHolder {
             for (TreeMap<Object, Set<StreamEvent>> aIndexedData : indexData.values()) {
                 aIndexedData.clear();
             }
+            for (HashIndex hashIndex : hashIndexData.values()) {
+                hashIndex.clear();
+            }
         }
     }
 
@@ -309,6 +535,7 @@ public class IndexEventHolder implements IndexedEventHolder {
                 }
             } else if (indexData != null) {
                 deleteFromIndexes(streamEvent);
+                indexedEventCount--;
             }
         }
     }
@@ -368,6 +595,24 @@ public class IndexEventHolder implements IndexedEventHolder {
                     }
                     return;
             }
+        } else if (hashIndexData.containsKey(attribute)) {
+            switch (operator) {
+                case EQUAL:
+                    Collection<StreamEvent> deletedEvents = hashIndexData.get(attribute).remove(value);
+                    if (deletedEvents != null) {
+                        deleteFromIndexesAndPrimaryKey(attribute, deletedEvents);
+                    }
+                    return;
+                case NOT_EQUAL:
+                    Collection<StreamEvent> matchingEvents = hashIndexData.get(attribute).get(value);
+                    deleteAll();
+                    if (matchingEvents != null) {
+                        for (StreamEvent matchingEvent : matchingEvents) {
+                            add(matchingEvent);
+                        }
+                    }
+                    return;
+            }
         } else {
             switch (operator) {
 
@@ -444,6 +689,13 @@ public class IndexEventHolder implements IndexedEventHolder {
                 case NOT_EQUAL:
                     return primaryKeyData.size() > 1;
             }
+        } else if (hashIndexData.containsKey(attribute)) {
+            switch (operator) {
+                case EQUAL:
+                    return hashIndexData.get(attribute).count(value) > 0;
+                case NOT_EQUAL:
+                    return hashIndexData.get(attribute).keyCount() > 1;
+            }
         } else {
             TreeMap<Object, Set<StreamEvent>> currentIndexedData = indexData.get(attribute);
 
@@ -467,20 +719,17 @@ public class IndexEventHolder implements IndexedEventHolder {
                 .getName());
     }
 
-    private void deleteFromIndexesAndPrimaryKey(String currentAttribute, Set<StreamEvent> deletedEventSet) {
+    private void deleteFromIndexesAndPrimaryKey(String currentAttribute, Collection<StreamEvent> deletedEventSet) {
         for (StreamEvent deletedEvent : deletedEventSet) {
             if (primaryKeyData != null) {
                 primaryKeyData.remove(deletedEvent.getOutputData()[primaryKeyPosition]);
+            } else {
+                indexedEventCount--;
             }
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
                 if (!currentAttribute.equals(indexEntry.getKey())) {
-                    TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                    Object key = deletedEvent.getOutputData()[indexEntry.getValue()];
-                    Set<StreamEvent> values = indexMap.get(key);
-                    values.remove(deletedEvent);
-                    if (values.size() == 0) {
-                        indexMap.remove(key);
-                    }
+                    deleteFromIndex(indexEntry.getKey(), deletedEvent.getOutputData()[indexEntry.getValue()],
+                            deletedEvent);
                 }
             }
         }
@@ -489,13 +738,24 @@ public class IndexEventHolder implements IndexedEventHolder {
     private void deleteFromIndexes(StreamEvent toDeleteEvent) {
         if (indexMetaData != null) {
             for (Map.Entry<String, Integer> indexEntry : indexMetaData.entrySet()) {
-                TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(indexEntry.getKey());
-                Object key = toDeleteEvent.getOutputData()[indexEntry.getValue()];
-                Set<StreamEvent> values = indexMap.get(key);
-                values.remove(toDeleteEvent);
-                if (values.size() == 0) {
-                    indexMap.remove(key);
-                }
+                deleteFromIndex(indexEntry.getKey(), toDeleteEvent.getOutputData()[indexEntry.getValue()],
+                        toDeleteEvent);
+            }
+        }
+    }
+
+    private void deleteFromIndex(String attribute, Object key, StreamEvent toDeleteEvent) {
+        HashIndex hashIndex = hashIndexData.get(attribute);
+        if (hashIndex != null) {
+            hashIndex.remove(key, toDeleteEvent);
+            return;
+        }
+        TreeMap<Object, Set<StreamEvent>> indexMap = indexData.get(attribute);
+        Set<StreamEvent> values = indexMap.get(key);
+        if (values != null) {
+            values.remove(toDeleteEvent);
+            if (values.size() == 0) {
+                indexMap.remove(key);
             }
         }
     }
@@ -33,10 +33,58 @@ public interface IndexedEventHolder extends EventHolder {
 
     boolean isAttributeIndexed(int position);
 
+    /**
+     * @param attribute attribute name
+     * @return whether the attribute is indexed in the order of its values, such that ranges of it can be looked up
+     */
+    boolean isAttributeIndexedInOrder(String attribute);
+
     Collection<StreamEvent> getAllEvents();
 
     Collection<StreamEvent> findEvents(String attribute, Compare.Operator operator, Object value);
 
+    /**
+     * Find the events whose indexed attribute falls in the given range.
+     *
+     * @param attribute     indexed attribute
+     * @param fromValue     lower bound of the attribute
+     * @param fromInclusive whether the lower bound is included
+     * @param toValue       upper bound of the attribute
+     * @param toInclusive   whether the upper bound is included
+     * @return matching events, or null if the attribute is not indexed in order
+     */
+    Collection<StreamEvent> findEvents(String attribute, Object fromValue, boolean fromInclusive, Object toValue,
+                                       boolean toInclusive);
+
+    /**
+     * @return number of events held
+     */
+    int size();
+
+    /**
+     * Estimate the number of events {@link #findEvents(String, Compare.Operator, Object)} would return, based on the
+     * statistics of the index, without collecting them.
+     *
+     * @param attribute indexed attribute
+     * @param operator  operator comparing the attribute (as the left operand) with the value
+     * @param value     value to compare with
+     * @return estimated number of matching events
+     */
+    int estimateSize(String attribute, Compare.Operator operator, Object value);
+
+    /**
+     * Estimate the number of events {@link #findEvents(String, Object, boolean, Object, boolean)} would return,
+     * based on the statistics of the index, without collecting them.
+     *
+     * @param attribute     indexed attribute
+     * @param fromValue     lower bound of the attribute
+     * @param fromInclusive whether the lower bound is included
+     * @param toValue       upper bound of the attribute
+     * @param toInclusive   whether the upper bound is included
+     * @return estimated number of matching events
+     */
+    int estimateSize(String attribute, Object fromValue, boolean fromInclusive, Object toValue, boolean toInclusive);
+
     void deleteAll();
 
     void deleteAll(Collection<StreamEvent> storeEventSet);
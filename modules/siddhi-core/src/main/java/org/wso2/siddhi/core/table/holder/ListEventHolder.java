@@ -25,6 +25,7 @@ import org.wso2.siddhi.core.event.stream.StreamEventPool;
 import org.wso2.siddhi.core.event.stream.converter.StreamEventConverter;
 
 import java.util.LinkedList;
+import java.util.function.UnaryOperator;
 
 /**
  * Holder object to contain a list of {@link StreamEvent}. Users can add {@link ComplexEventChunk}s to the
@@ -51,4 +52,16 @@ public class ListEventHolder extends LinkedList<StreamEvent> implements EventHol
             this.add(streamEvent);
         }
     }
+
+    /**
+     * @param eventCopier gives the copy of an event
+     * @return copy of the holder containing the copied events, which is detached from this holder
+     */
+    public ListEventHolder copy(UnaryOperator<StreamEvent> eventCopier) {
+        ListEventHolder copiedEventHolder = new ListEventHolder(tableStreamEventPool, eventConverter);
+        for (StreamEvent streamEvent : this) {
+            copiedEventHolder.add(eventCopier.apply(streamEvent));
+        }
+        return copiedEventHolder;
+    }
 }
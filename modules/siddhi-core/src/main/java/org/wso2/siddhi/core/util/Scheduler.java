@@ -113,12 +113,19 @@ public abstract class Scheduler implements Snapshotable {
 
     /**
      * Go through the timestamps stored in the {@link #toNotifyQueue} and send the TIMER events for the expired events.
+     * All timestamps reached at the time of sending are notified by one TIMER event carrying the latest of them.
      */
     protected void sendTimerEvents() {
         Long toNotifyTime = toNotifyQueue.peek();
         long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
         while (toNotifyTime != null && toNotifyTime - currentTime <= 0) {
             toNotifyQueue.poll();
+            Long nextToNotifyTime = toNotifyQueue.peek();
+            while (nextToNotifyTime != null && nextToNotifyTime - currentTime <= 0) {
+                toNotifyQueue.poll();
+                toNotifyTime = Math.max(toNotifyTime, nextToNotifyTime);
+                nextToNotifyTime = toNotifyQueue.peek();
+            }
 
             StreamEvent timerEvent = streamEventPool.borrowEvent();
             timerEvent.setType(StreamEvent.Type.TIMER);
@@ -144,10 +144,13 @@ public class SiddhiAppRuntimeBuilder {
         queryProcessorMap.put(queryRuntime.getQueryId(), queryRuntime);
         StreamRuntime streamRuntime = queryRuntime.getStreamRuntime();
 
+        boolean parallel = false;
         for (SingleStreamRuntime singleStreamRuntime : streamRuntime.getSingleStreamRuntimes()) {
             ProcessStreamReceiver processStreamReceiver = singleStreamRuntime.getProcessStreamReceiver();
             if (!processStreamReceiver.toTable()) {
-                streamJunctionMap.get(processStreamReceiver.getStreamId()).subscribe(processStreamReceiver);
+                StreamJunction streamJunction = streamJunctionMap.get(processStreamReceiver.getStreamId());
+                streamJunction.subscribe(processStreamReceiver);
+                parallel |= streamJunction.isParallelReceiver(processStreamReceiver);
             }
         }
 
@@ -167,8 +170,12 @@ public class SiddhiAppRuntimeBuilder {
                         siddhiAppContext.getBufferSize(), siddhiAppContext);
                 streamJunctionMap.putIfAbsent(streamDefinition.getId(), outputStreamJunction);
             }
-            insertIntoStreamCallback.init(streamJunctionMap.get(insertIntoStreamCallback.getOutputStreamDefinition()
-                    .getId()));
+            outputStreamJunction = streamJunctionMap.get(streamDefinition.getId());
+            if (parallel) {
+                // all the workers of the query publish through its single output callback
+                outputStreamJunction.enableParallelPublishing();
+            }
+            insertIntoStreamCallback.init(outputStreamJunction);
         } else if (outputCallback != null && outputCallback instanceof InsertIntoWindowCallback) {
             InsertIntoWindowCallback insertIntoWindowCallback = (InsertIntoWindowCallback) outputCallback;
             StreamDefinition streamDefinition = insertIntoWindowCallback.getOutputStreamDefinition();
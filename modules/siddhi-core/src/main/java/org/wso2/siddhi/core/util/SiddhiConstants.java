@@ -48,6 +48,12 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ENFORCE_ORDER = "EnforceOrder";
     public static final String ANNOTATION_ASYNC = "Async";
     public static final String ANNOTATION_STATISTICS = "Statistics";
+    public static final String ANNOTATION_EVENT_POOL = "EventPool";
+    public static final String ANNOTATION_PURGE = "Purge";
+    public static final String ANNOTATION_KEYED = "Keyed";
+    public static final String ANNOTATION_PARALLEL = "Parallel";
+    public static final String ANNOTATION_SNAPSHOT = "Snapshot";
+    public static final String ANNOTATION_SCHEDULER = "Scheduler";
     public static final String ANNOTATION_INDEX_BY = "IndexBy";
     public static final String ANNOTATION_INDEX = "Index";
     public static final String ANNOTATION_PRIMARY_KEY = "PrimaryKey";
@@ -60,13 +66,36 @@ public final class SiddhiConstants {
     public static final String ANNOTATION_ATTRIBUTES = "Attributes";
     public static final String ANNOTATION_PAYLOAD = "Payload";
     public static final String ANNOTATION_ELEMENT_BUFFER_SIZE = "buffer.size";
+    public static final String ANNOTATION_ELEMENT_WAIT_STRATEGY = "wait.strategy";
+    public static final String ANNOTATION_ELEMENT_PRODUCER_TYPE = "producer.type";
+    public static final String ANNOTATION_ELEMENT_WORKERS = "workers";
+    public static final String ANNOTATION_ELEMENT_SIZE = "size";
+    public static final String ANNOTATION_ELEMENT_ENABLED = "enabled";
     public static final String ANNOTATION_ELEMENT_IDLE_TIME = "idle.time";
     public static final String ANNOTATION_ELEMENT_INCREMENT = "increment";
     public static final String ANNOTATION_ELEMENT_TYPE = "type";
+    public static final String ANNOTATION_ELEMENT_IDLE_PERIOD = "idle.period";
+    public static final String ANNOTATION_ELEMENT_INTERVAL = "interval";
+    public static final String ANNOTATION_ELEMENT_MAX_KEYS = "max.keys";
+    public static final String ANNOTATION_ELEMENT_INCREMENTAL = "incremental";
+    public static final String ANNOTATION_ELEMENT_BASE_INTERVAL = "base.interval";
+    public static final String ANNOTATION_ELEMENT_NON_BLOCKING = "non.blocking";
+    public static final String ANNOTATION_ELEMENT_CODEC = "codec";
+    public static final String ANNOTATION_ELEMENT_COMPRESSION = "compression";
+    public static final String ANNOTATION_ELEMENT_RESOLUTION = "resolution";
 
     public static final String TRUE = "true";
+    public static final String SNAPSHOT_CODEC_BINARY = "binary";
+    public static final String SNAPSHOT_CODEC_JAVA = "java";
+    public static final String SNAPSHOT_COMPRESSION_NONE = "none";
+    public static final String SNAPSHOT_COMPRESSION_DEFLATE = "deflate";
     public static final String TRIGGER_START = "start";
+    public static final String INDEX_TYPE_HASH = "hash";
+    public static final String INDEX_TYPE_SORTED = "sorted";
     public static final int DEFAULT_EVENT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_EVENT_POOL_SIZE = 5;
+    public static final long DEFAULT_PURGE_INTERVAL = 1000;
+    public static final long DEFAULT_SCHEDULER_RESOLUTION = 1;
     public static final int HAVING_STATE = -2;
     public static final int UNKNOWN_STATE = -1;
     public static final int CURRENT = -1;
@@ -81,6 +110,9 @@ public final class SiddhiConstants {
     public static final String METRIC_INFIX_SIDDHI = "Siddhi";
     public static final String METRIC_INFIX_QUERIES = "Queries";
     public static final String METRIC_INFIX_WINDOWS = "Windows";
+    public static final String METRIC_INFIX_PARTITIONS = "Partitions";
+    public static final String METRIC_INFIX_SNAPSHOTS = "Snapshots";
+    public static final String METRIC_INFIX_SINKS = "Sinks";
     public static final String METRIC_DELIMITER = ".";
     public static final String METRIC_AGGREGATE_ANNOTATION = "[+]";
     public static final String EXTENSION_SEPARATOR = ":";
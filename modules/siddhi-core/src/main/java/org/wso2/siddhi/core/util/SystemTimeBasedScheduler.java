@@ -24,22 +24,23 @@ import org.wso2.siddhi.core.query.input.stream.single.EntryValveProcessor;
 
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
-import java.util.concurrent.TimeUnit;
 
 /**
- * Scheduler based on System time
+ * Scheduler based on System time, which is notified through the {@link TimerWheel} of the Siddhi app.
  */
 public class SystemTimeBasedScheduler extends Scheduler {
     private static final Logger log = Logger.getLogger(SystemTimeBasedScheduler.class);
     private EventCaller eventCaller;
     private volatile boolean running = false;
     private ScheduledExecutorService scheduledExecutorService;
+    private final TimerWheel timerWheel;
     private final Semaphore mutex;
 
     public SystemTimeBasedScheduler(ScheduledExecutorService scheduledExecutorService, Schedulable
             singleThreadEntryValve, SiddhiAppContext siddhiAppContext) {
         super(singleThreadEntryValve, siddhiAppContext);
         this.scheduledExecutorService = scheduledExecutorService;
+        this.timerWheel = siddhiAppContext.getTimerWheel();
         this.eventCaller = new EventCaller();
         mutex = new Semaphore(1);
     }
@@ -51,12 +52,7 @@ public class SystemTimeBasedScheduler extends Scheduler {
                 mutex.acquire();
                 if (!running) {
                     running = true;
-                    long timeDiff = time - siddhiAppContext.getTimestampGenerator().currentTime();
-                    if (timeDiff > 0) {
-                        scheduledExecutorService.schedule(eventCaller, timeDiff, TimeUnit.MILLISECONDS);
-                    } else {
-                        scheduledExecutorService.schedule(eventCaller, 0, TimeUnit.MILLISECONDS);
-                    }
+                    timerWheel.schedule(eventCaller, time);
                 }
 
             } catch (InterruptedException e) {
@@ -95,18 +91,16 @@ public class SystemTimeBasedScheduler extends Scheduler {
                 sendTimerEvents();
 
                 Long toNotifyTime = toNotifyQueue.peek();
-                long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
                 if (!siddhiAppContext.isPlayback()) {
                     if (toNotifyTime != null) {
-                        scheduledExecutorService.schedule(eventCaller, toNotifyTime - currentTime, TimeUnit
-                                .MILLISECONDS);
+                        timerWheel.schedule(eventCaller, toNotifyTime);
                     } else {
                         try {
                             mutex.acquire();
                             running = false;
                             if (toNotifyQueue.peek() != null) {
                                 running = true;
-                                scheduledExecutorService.schedule(eventCaller, 0, TimeUnit.MILLISECONDS);
+                                timerWheel.schedule(eventCaller, toNotifyQueue.peek());
                             }
                         } catch (InterruptedException e) {
                             Thread.currentThread().interrupt();
@@ -18,17 +18,31 @@
 
 package org.wso2.siddhi.core.util;
 
+import com.lmax.disruptor.Sequence;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Thread Barrier used to avoid concurrency issues during event processing
+ * Thread Barrier used to avoid concurrency issues during event processing. Events buffered for asynchronous workers
+ * (e.g. the consumers of async streams and the workers of parallel partitions) are drained when the barrier gets
+ * locked, hence no events are in flight while the state is being accessed. Workers report each processed batch via
+ * {@link #batchProcessed(Sequence, long)}, waking up the thread waiting for the buffers to be drained.
  */
 public class ThreadBarrier {
 
+    private ThreadLocal<Boolean> workerThread = new ThreadLocal<Boolean>();
     private ReentrantLock lock = new ReentrantLock();
+    private CopyOnWriteArrayList<EventBufferHolder> eventBuffers = new CopyOnWriteArrayList<EventBufferHolder>();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final Condition batchProcessed = drainLock.newCondition();
+    private final AtomicLong processedBatches = new AtomicLong();
 
     public void pass() {
-        if (lock.isLocked()) {
+        if (lock.isLocked() && workerThread.get() == null) {
             lock.lock();
             lock.unlock();
         }
@@ -36,10 +50,81 @@ public class ThreadBarrier {
 
     public void lock() {
         lock.lock();
+        if (!eventBuffers.isEmpty() && workerThread.get() == null) {
+            awaitDrained();
+        }
     }
 
     public void unlock() {
         lock.unlock();
     }
 
+    /**
+     * Add a buffer of events processed by asynchronous workers, which should be drained when the barrier is locked
+     *
+     * @param eventBufferHolder buffer of the workers
+     */
+    public void addEventBuffer(EventBufferHolder eventBufferHolder) {
+        eventBuffers.addIfAbsent(eventBufferHolder);
+    }
+
+    /**
+     * Mark the current thread as a worker draining an event buffer. Workers are not blocked by the barrier, as they
+     * need to process the buffered events while the barrier is being locked.
+     */
+    public void registerWorkerThread() {
+        workerThread.set(Boolean.TRUE);
+    }
+
+    public void unregisterWorkerThread() {
+        workerThread.remove();
+    }
+
+    /**
+     * Report the end of a batch processed by a worker, releasing the batch from the worker's event buffer.
+     *
+     * @param sequenceCallback sequence of the worker's event handler
+     * @param sequence         sequence of the last event of the batch
+     */
+    public void batchProcessed(Sequence sequenceCallback, long sequence) {
+        // counted before releasing the batch, such that events moved to another buffer while checking the buffers
+        // are detected
+        processedBatches.incrementAndGet();
+        sequenceCallback.setVolatile(sequence);
+        if (lock.isLocked()) {
+            drainLock.lock();
+            try {
+                batchProcessed.signalAll();
+            } finally {
+                drainLock.unlock();
+            }
+        }
+    }
+
+    private void awaitDrained() {
+        drainLock.lock();
+        try {
+            while (true) {
+                long batches = processedBatches.get();
+                if (hasBufferedEvents()) {
+                    batchProcessed.awaitUninterruptibly();
+                } else if (batches == processedBatches.get()) {
+                    // no batch was processed while checking the buffers, hence no events moved between them
+                    return;
+                }
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private boolean hasBufferedEvents() {
+        for (EventBufferHolder eventBuffer : eventBuffers) {
+            if (eventBuffer.getBufferedEvents() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hierarchical timing wheel shared by the {@link SystemTimeBasedScheduler}s of a Siddhi app. Timers are kept in
+ * buckets of ticks of the given resolution, and only the earliest bucket is scheduled in the
+ * {@link java.util.concurrent.ScheduledExecutorService} of the app, hence the number of scheduled tasks does not grow
+ * with the number of schedulers. Timers of the same tick fire together, never before their time and at most one tick
+ * after it. The wheel only keeps track of the timers, and the due timers are dispatched to the
+ * {@link java.util.concurrent.ExecutorService} of the app, such that a slow timer does not delay the others.
+ */
+public class TimerWheel {
+
+    private static final Logger log = Logger.getLogger(TimerWheel.class);
+    private static final int WHEEL_SIZE = 64;
+
+    private final SiddhiAppContext siddhiAppContext;
+    private final long resolution;
+    private final PriorityQueue<Bucket> buckets = new PriorityQueue<Bucket>();
+    private List<Runnable> dueTimers = new ArrayList<Runnable>();
+    private Wheel wheel;
+    private ScheduledFuture<?> scheduledTick;
+    private long scheduledTickTime = Long.MAX_VALUE;
+    private long lastTickId = 0;
+
+    /**
+     * @param siddhiAppContext Siddhi app context providing the current time and the scheduled executor service
+     * @param resolution       length of a tick in milliseconds
+     */
+    public TimerWheel(SiddhiAppContext siddhiAppContext, long resolution) {
+        this.siddhiAppContext = siddhiAppContext;
+        this.resolution = resolution;
+    }
+
+    public long getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Runs the timer once the given time is reached.
+     *
+     * @param timer timer to run
+     * @param time  time to run the timer at
+     */
+    public void schedule(Runnable timer, long time) {
+        long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
+        // ticks are rounded up such that timers never fire early
+        Timer entry = new Timer(timer, (time + resolution - 1) / resolution);
+        synchronized (this) {
+            if (wheel == null) {
+                wheel = new Wheel(1, currentTime / resolution);
+            } else if (buckets.isEmpty()) {
+                wheel.advance(currentTime / resolution);
+            }
+            if (wheel.add(entry)) {
+                scheduleTick(buckets.peek().tick * resolution, currentTime);
+            } else {
+                dueTimers.add(timer);
+                scheduleTick(currentTime, currentTime);
+            }
+        }
+    }
+
+    /**
+     * Schedules the tick at the given time, unless a tick is already scheduled at or before it.
+     */
+    private void scheduleTick(long tickTime, long currentTime) {
+        if (tickTime >= scheduledTickTime) {
+            return;
+        }
+        if (scheduledTick != null) {
+            scheduledTick.cancel(false);
+        }
+        final long tickId = ++lastTickId;
+        scheduledTickTime = tickTime;
+        scheduledTick = siddhiAppContext.getScheduledExecutorService().schedule(() -> tick(tickId),
+                Math.max(tickTime - currentTime, 0), TimeUnit.MILLISECONDS);
+    }
+
+    private void tick(long tickId) {
+        List<Runnable> timers;
+        long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
+        long currentTick = currentTime / resolution;
+        synchronized (this) {
+            if (tickId == lastTickId) {
+                // a cancelled tick that could not be stopped keeps the scheduled tick as it is
+                scheduledTick = null;
+                scheduledTickTime = Long.MAX_VALUE;
+            }
+            timers = dueTimers;
+            dueTimers = new ArrayList<Runnable>();
+            Bucket bucket = buckets.peek();
+            while (bucket != null && bucket.tick <= currentTick) {
+                buckets.poll();
+                wheel.advance(bucket.tick);
+                for (Timer timer : bucket.flush()) {
+                    // timers of higher level buckets move down to lower levels until their tick is reached
+                    if (!wheel.add(timer)) {
+                        timers.add(timer.timer);
+                    }
+                }
+                bucket = buckets.peek();
+            }
+        }
+        for (Runnable timer : timers) {
+            dispatch(timer);
+        }
+        synchronized (this) {
+            Bucket bucket = buckets.peek();
+            if (bucket != null) {
+                scheduleTick(bucket.tick * resolution, siddhiAppContext.getTimestampGenerator().currentTime());
+            }
+        }
+    }
+
+    private void dispatch(Runnable timer) {
+        try {
+            siddhiAppContext.getExecutorService().execute(() -> {
+                try {
+                    timer.run();
+                } catch (Throwable t) {
+                    log.error("Error when running a timer of Siddhi app '" + siddhiAppContext.getName() + "'", t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the executor only rejects timers once the Siddhi app is shut down
+            if (log.isDebugEnabled()) {
+                log.debug("Dropped a timer of Siddhi app '" + siddhiAppContext.getName() + "' as it is shut down");
+            }
+        }
+    }
+
+    /**
+     * A level of the hierarchy, where each bucket spans the given number of ticks.
+     */
+    private class Wheel {
+        private final long ticksPerBucket;
+        private final Bucket[] wheelBuckets = new Bucket[WHEEL_SIZE];
+        private long currentTick;
+        private Wheel overflowWheel;
+
+        Wheel(long ticksPerBucket, long currentTick) {
+            this.ticksPerBucket = ticksPerBucket;
+            this.currentTick = currentTick - currentTick % ticksPerBucket;
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                wheelBuckets[i] = new Bucket();
+            }
+        }
+
+        /**
+         * @return false if the tick of the timer is already reached at this level
+         */
+        boolean add(Timer timer) {
+            if (timer.tick < currentTick + ticksPerBucket) {
+                return false;
+            } else if (timer.tick < currentTick + ticksPerBucket * WHEEL_SIZE) {
+                long bucketId = timer.tick / ticksPerBucket;
+                Bucket bucket = wheelBuckets[(int) (bucketId % WHEEL_SIZE)];
+                bucket.timers.add(timer);
+                if (bucket.tick != bucketId * ticksPerBucket) {
+                    bucket.tick = bucketId * ticksPerBucket;
+                    buckets.offer(bucket);
+                }
+                return true;
+            } else {
+                if (overflowWheel == null) {
+                    overflowWheel = new Wheel(ticksPerBucket * WHEEL_SIZE, currentTick);
+                }
+                return overflowWheel.add(timer);
+            }
+        }
+
+        void advance(long tick) {
+            if (tick >= currentTick + ticksPerBucket) {
+                currentTick = tick - tick % ticksPerBucket;
+                if (overflowWheel != null) {
+                    overflowWheel.advance(currentTick);
+                }
+            }
+        }
+    }
+
+    private static class Bucket implements Comparable<Bucket> {
+        private List<Timer> timers = new ArrayList<Timer>();
+        private long tick = -1;
+
+        List<Timer> flush() {
+            List<Timer> flushedTimers = timers;
+            timers = new ArrayList<Timer>();
+            tick = -1;
+            return flushedTimers;
+        }
+
+        @Override
+        public int compareTo(Bucket bucket) {
+            return Long.compare(tick, bucket.tick);
+        }
+    }
+
+    private static class Timer {
+        private final Runnable timer;
+        private final long tick;
+
+        Timer(Runnable timer, long tick) {
+            this.timer = timer;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.collection;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Thread safe {@link java.util.List} which, unlike {@link java.util.concurrent.CopyOnWriteArrayList}, appends elements
+ * in place into the spare capacity of its array, hence adding an element is O(1) amortized. Only removals copy the
+ * array. Readers and iterators work on an immutable snapshot of the array and its size, hence iterating never throws
+ * {@link java.util.ConcurrentModificationException} and does not see the elements added or removed meanwhile.
+ * Iterators do not support {@link Iterator#remove()}.
+ *
+ * @param <E> type of the elements
+ */
+public class CopyOnRemoveArrayList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Object lock = new Object();
+    private volatile Snapshot snapshot = new Snapshot(new Object[DEFAULT_CAPACITY], 0);
+
+    @Override
+    public E get(int index) {
+        return snapshot.get(index);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size;
+    }
+
+    @Override
+    public boolean add(E element) {
+        synchronized (lock) {
+            Object[] elements = snapshot.elements;
+            int size = snapshot.size;
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size << 1);
+            }
+            // slots beyond the size of a snapshot are never read through it, hence the array can be shared
+            elements[size] = element;
+            snapshot = new Snapshot(elements, size + 1);
+            return true;
+        }
+    }
+
+    @Override
+    public E remove(int index) {
+        synchronized (lock) {
+            Snapshot current = snapshot;
+            E removed = current.get(index);
+            Object[] elements = new Object[current.elements.length];
+            System.arraycopy(current.elements, 0, elements, 0, index);
+            System.arraycopy(current.elements, index + 1, elements, index, current.size - index - 1);
+            snapshot = new Snapshot(elements, current.size - 1);
+            return removed;
+        }
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        synchronized (lock) {
+            int index = indexOf(element);
+            if (index < 0) {
+                return false;
+            }
+            remove(index);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> elementsToRemove) {
+        synchronized (lock) {
+            Snapshot current = snapshot;
+            Object[] elements = new Object[current.elements.length];
+            int size = 0;
+            for (int i = 0; i < current.size; i++) {
+                if (!elementsToRemove.contains(current.elements[i])) {
+                    elements[size++] = current.elements[i];
+                }
+            }
+            if (size == current.size) {
+                return false;
+            }
+            snapshot = new Snapshot(elements, size);
+            return true;
+        }
+    }
+
+    @Override
+    public void clear() {
+        synchronized (lock) {
+            snapshot = new Snapshot(new Object[DEFAULT_CAPACITY], 0);
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        final Snapshot current = snapshot;
+        return new Iterator<E>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < current.size;
+            }
+
+            @Override
+            public E next() {
+                if (index >= current.size) {
+                    throw new NoSuchElementException();
+                }
+                return current.get(index++);
+            }
+        };
+    }
+
+    /**
+     * Array and the number of its elements visible to the readers.
+     */
+    private final class Snapshot {
+        private final Object[] elements;
+        private final int size;
+
+        private Snapshot(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @SuppressWarnings("unchecked")
+        private E get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return (E) elements[index];
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch estimating the counts of keys in a fixed amount of memory. Estimates are never below the actual
+ * count, and exceed it by more than relativeError * total count with a probability of at most 1 - confidence.
+ * Counts can be decremented as long as no key is decremented more than it was incremented.
+ * This is not a thread safe implementation
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final long[] table;
+
+    /**
+     * @param relativeError error of the estimates relative to the total count, between 0 and 1
+     * @param confidence    probability of an estimate being within the error, between 0 and 1
+     */
+    public CountMinSketch(double relativeError, double confidence) {
+        this.width = (int) Math.ceil(Math.E / relativeError);
+        this.depth = (int) Math.ceil(Math.log(1 / (1 - confidence)));
+        this.table = new long[width * depth];
+    }
+
+    /**
+     * Adds the given delta to the count of the key and returns the new estimate of the count.
+     */
+    public long add(Object key, long delta) {
+        int hash = key == null ? 0 : key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + index(hash, row);
+            table[index] += delta;
+            estimate = Math.min(estimate, table[index]);
+        }
+        return estimate;
+    }
+
+    public long estimate(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, table[row * width + index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+    }
+
+    public long[] getTable() {
+        return table;
+    }
+
+    public void setTable(long[] table) {
+        System.arraycopy(table, 0, this.table, 0, this.table.length);
+    }
+
+    /**
+     * Derives the column of each row from the hash code of the key mixed with the row number, using the finalizer of
+     * MurmurHash3 such that rows are independent even for sequential hash codes.
+     */
+    private int index(int hash, int row) {
+        int mixed = hash ^ (row * 0x9E3779B9);
+        mixed ^= mixed >>> 16;
+        mixed *= 0x85EBCA6B;
+        mixed ^= mixed >>> 13;
+        mixed *= 0xC2B2AE35;
+        mixed ^= mixed >>> 16;
+        return (mixed & Integer.MAX_VALUE) % width;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_INDEX_IN_TYPE;
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_ATTRIBUTE_TYPE_INDEX;
+
+/**
+ * {@link ComplexEventChunk} of {@link StreamEvent}s which maintains hash indexes on the attributes its events are
+ * looked up by, such that the events having a given attribute value can be found without iterating the whole chunk.
+ * Indexes are updated as events are added to and removed from the chunk, and events of the same value are kept in
+ * their order in the chunk. Removing the oldest event of a value, as done by windows expiring their events, is O(1).
+ * This is not a thread safe implementation
+ */
+public class IndexedStreamEventChunk extends ComplexEventChunk<StreamEvent> {
+
+    private static final long serialVersionUID = -2785343851460318541L;
+    private final List<Index> indexes = new ArrayList<Index>(1);
+
+    public IndexedStreamEventChunk(boolean isBatch) {
+        super(isBatch);
+    }
+
+    /**
+     * @param position position of the attribute in the events, as given by
+     *                 {@link org.wso2.siddhi.core.executor.VariableExpressionExecutor#getPosition()}
+     * @param value    value of the attribute
+     * @return events having the given value in their order in the chunk, which should not be modified. The events are
+     * indexed by the attribute on the first lookup, and the index is maintained from then on.
+     */
+    public Collection<StreamEvent> get(int[] position, Object value) {
+        Index index = getIndex(position);
+        if (index == null) {
+            index = new Index(position);
+            for (StreamEvent event = first; event != null; event = event.getNext()) {
+                index.add(event);
+            }
+            indexes.add(index);
+        }
+        Collection<StreamEvent> events = index.events.get(value);
+        return events != null ? events : Collections.<StreamEvent>emptyList();
+    }
+
+    private Index getIndex(int[] position) {
+        for (Index index : indexes) {
+            if (index.position[STREAM_ATTRIBUTE_TYPE_INDEX] == position[STREAM_ATTRIBUTE_TYPE_INDEX] &&
+                    index.position[STREAM_ATTRIBUTE_INDEX_IN_TYPE] == position[STREAM_ATTRIBUTE_INDEX_IN_TYPE]) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void add(StreamEvent streamEvents) {
+        super.add(streamEvents);
+        addToIndexes(streamEvents, null);
+    }
+
+    @Override
+    public void insertBeforeCurrent(StreamEvent streamEvents) {
+        StreamEvent current = lastReturned;
+        super.insertBeforeCurrent(streamEvents);
+        // indexes keep events of a value in their arrival order rather than their order in the chunk
+        addToIndexes(streamEvents, current);
+    }
+
+    @Override
+    public void insertAfterCurrent(StreamEvent streamEvents) {
+        StreamEvent next = lastReturned != null ? lastReturned.getNext() : null;
+        super.insertAfterCurrent(streamEvents);
+        addToIndexes(streamEvents, next);
+    }
+
+    @Override
+    public void remove() {
+        StreamEvent removedEvent = lastReturned;
+        super.remove();
+        removeFromIndexes(removedEvent);
+    }
+
+    @Override
+    public void detach() {
+        if (lastReturned != null && previousToLastReturned != null) {
+            removeFromIndexes(lastReturned);
+        }
+        super.detach();
+    }
+
+    @Override
+    public StreamEvent detachAllBeforeCurrent() {
+        StreamEvent detachedEvents = super.detachAllBeforeCurrent();
+        if (detachedEvents != null) {
+            removeFromIndexes(detachedEvents);
+        }
+        return detachedEvents;
+    }
+
+    @Override
+    public StreamEvent poll() {
+        StreamEvent polledEvent = super.poll();
+        if (polledEvent != null) {
+            removeFromIndexes(polledEvent);
+        }
+        return polledEvent;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        for (Index index : indexes) {
+            index.events.clear();
+        }
+    }
+
+    private void addToIndexes(StreamEvent from, StreamEvent to) {
+        if (!indexes.isEmpty()) {
+            for (StreamEvent event = from; event != null && event != to; event = event.getNext()) {
+                for (Index index : indexes) {
+                    index.add(event);
+                }
+            }
+        }
+    }
+
+    private void removeFromIndexes(StreamEvent from) {
+        if (!indexes.isEmpty()) {
+            for (StreamEvent event = from; event != null; event = event.getNext()) {
+                for (Index index : indexes) {
+                    index.remove(event);
+                }
+            }
+        }
+    }
+
+    private static class Index implements Serializable {
+
+        private static final long serialVersionUID = 4920537432197358226L;
+        private final int[] position;
+        private final Map<Object, ArrayDeque<StreamEvent>> events = new HashMap<Object, ArrayDeque<StreamEvent>>();
+
+        private Index(int[] position) {
+            this.position = position.clone();
+        }
+
+        private void add(StreamEvent event) {
+            Object value = event.getAttribute(position);
+            ArrayDeque<StreamEvent> sameValueEvents = events.get(value);
+            if (sameValueEvents == null) {
+                sameValueEvents = new ArrayDeque<StreamEvent>(1);
+                events.put(value, sameValueEvents);
+            }
+            sameValueEvents.add(event);
+        }
+
+        private void remove(StreamEvent event) {
+            Object value = event.getAttribute(position);
+            ArrayDeque<StreamEvent> sameValueEvents = events.get(value);
+            if (sameValueEvents != null) {
+                // events are compared by identity, as equal events can be in the chunk at the same time
+                for (Iterator<StreamEvent> iterator = sameValueEvents.iterator(); iterator.hasNext(); ) {
+                    if (iterator.next() == event) {
+                        iterator.remove();
+                        break;
+                    }
+                }
+                if (sameValueEvents.isEmpty()) {
+                    events.remove(value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection;
+
+import java.util.Collection;
+
+/**
+ * Tracks the minimum or maximum of a sliding set of long values using primitive ring buffers. Values are kept in
+ * arrival order addressed by their insertion sequence number, and the sequence numbers of the candidate extremes are
+ * kept in a second, monotonic ring. Adding a value and removing the oldest value are O(1) amortized and nothing is
+ * allocated per value. Removing a value other than the oldest one falls back to an O(n) rebuild of the candidates.
+ * This is not a thread safe implementation
+ */
+public class LongMonotonicDeque {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final boolean max;
+    private long[] values;
+    private long[] candidates;
+    private int mask;
+    private long head = 0;
+    private long tail = 0;
+    private long candidateHead = 0;
+    private long candidateTail = 0;
+
+    /**
+     * @param max true to track the maximum, false to track the minimum
+     */
+    public LongMonotonicDeque(boolean max) {
+        this.max = max;
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        values = new long[capacity];
+        candidates = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public void add(long value) {
+        if (tail - head == values.length) {
+            grow();
+        }
+        values[(int) (tail & mask)] = value;
+        while (candidateTail > candidateHead &&
+                !dominates(values[(int) (candidates[(int) ((candidateTail - 1) & mask)] & mask)], value)) {
+            candidateTail--;
+        }
+        candidates[(int) (candidateTail++ & mask)] = tail++;
+    }
+
+    /**
+     * Removes one occurrence of the given value, preferring the oldest.
+     *
+     * @param value value to be removed
+     * @return false if the value is not present
+     */
+    public boolean remove(long value) {
+        if (head == tail) {
+            return false;
+        }
+        if (values[(int) (head & mask)] == value) {
+            if (candidates[(int) (candidateHead & mask)] == head) {
+                candidateHead++;
+            }
+            head++;
+            return true;
+        }
+        for (long sequence = head + 1; sequence < tail; sequence++) {
+            if (values[(int) (sequence & mask)] == value) {
+                for (long i = sequence; i > head; i--) {
+                    values[(int) (i & mask)] = values[(int) ((i - 1) & mask)];
+                }
+                head++;
+                rebuildCandidates();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the current minimum or maximum, undefined when empty
+     */
+    public long peek() {
+        return values[(int) (candidates[(int) (candidateHead & mask)] & mask)];
+    }
+
+    public boolean isEmpty() {
+        return head == tail;
+    }
+
+    public int size() {
+        return (int) (tail - head);
+    }
+
+    public void clear() {
+        if (values.length > DEFAULT_CAPACITY) {
+            allocate(DEFAULT_CAPACITY);
+        }
+        head = tail = candidateHead = candidateTail = 0;
+    }
+
+    /**
+     * @return the values currently held, oldest first
+     */
+    public long[] toArray() {
+        long[] array = new long[size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values[(int) ((head + i) & mask)];
+        }
+        return array;
+    }
+
+    /**
+     * Replaces the content with the given values, oldest first.
+     *
+     * @param array values to be added
+     */
+    public void restore(long[] array) {
+        clear();
+        for (long value : array) {
+            add(value);
+        }
+    }
+
+    /**
+     * Replaces the content with the given boxed values, oldest first.
+     *
+     * @param collection values to be added
+     */
+    public void restore(Collection<? extends Number> collection) {
+        clear();
+        for (Number value : collection) {
+            add(value.longValue());
+        }
+    }
+
+    private boolean dominates(long candidate, long value) {
+        return max ? candidate > value : candidate < value;
+    }
+
+    private void rebuildCandidates() {
+        candidateHead = candidateTail = 0;
+        for (long sequence = head; sequence < tail; sequence++) {
+            long value = values[(int) (sequence & mask)];
+            while (candidateTail > candidateHead &&
+                    !dominates(values[(int) (candidates[(int) ((candidateTail - 1) & mask)] & mask)], value)) {
+                candidateTail--;
+            }
+            candidates[(int) (candidateTail++ & mask)] = sequence;
+        }
+    }
+
+    private void grow() {
+        long[] oldValues = values;
+        long[] oldCandidates = candidates;
+        int oldMask = mask;
+        allocate(values.length << 1);
+        for (long sequence = head; sequence < tail; sequence++) {
+            values[(int) (sequence & mask)] = oldValues[(int) (sequence & oldMask)];
+        }
+        for (long i = candidateHead; i < candidateTail; i++) {
+            candidates[(int) (i & mask)] = oldCandidates[(int) (i & oldMask)];
+        }
+    }
+}
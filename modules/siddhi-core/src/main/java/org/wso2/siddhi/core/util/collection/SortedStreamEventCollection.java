@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.AbstractCollection;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+/**
+ * Collection of {@link StreamEvent}s kept ordered by the values of the given sort attributes. Events with equal sort
+ * values are kept in their arrival order, hence events are iterated as if they were stably sorted. Adding an event
+ * and removing the last event are O(log n), and events whose first sort attribute falls in a given range can be
+ * iterated without visiting the rest of the collection.
+ * This is not a thread safe implementation
+ */
+public class SortedStreamEventCollection extends AbstractCollection<StreamEvent> {
+
+    private static final Object LOWEST = new Object();
+    private static final Object HIGHEST = new Object();
+
+    private final VariableExpressionExecutor[] sortExecutors;
+    private final int[] orders;
+    private final TreeMap<Object[], ArrayDeque<StreamEvent>> events;
+    private int size = 0;
+
+    /**
+     * @param sortExecutors executors of the attributes to sort by, in their order of precedence
+     * @param orders        1 to sort the corresponding attribute in the ascending order and -1 for the descending order
+     */
+    public SortedStreamEventCollection(List<VariableExpressionExecutor> sortExecutors, List<Integer> orders) {
+        this.sortExecutors = sortExecutors.toArray(new VariableExpressionExecutor[sortExecutors.size()]);
+        this.orders = new int[orders.size()];
+        for (int i = 0; i < this.orders.length; i++) {
+            this.orders[i] = orders.get(i);
+        }
+        this.events = new TreeMap<Object[], ArrayDeque<StreamEvent>>(new KeyComparator());
+    }
+
+    /**
+     * @return the first sort attribute, or null if the events are not sorted by any attribute
+     */
+    public Attribute getSortAttribute() {
+        return sortExecutors.length > 0 ? sortExecutors[0].getAttribute() : null;
+    }
+
+    @Override
+    public boolean add(StreamEvent streamEvent) {
+        Object[] key = new Object[sortExecutors.length];
+        for (int i = 0; i < sortExecutors.length; i++) {
+            key[i] = sortExecutors[i].execute(streamEvent);
+        }
+        ArrayDeque<StreamEvent> sameKeyEvents = events.get(key);
+        if (sameKeyEvents == null) {
+            sameKeyEvents = new ArrayDeque<StreamEvent>(1);
+            events.put(key, sameKeyEvents);
+        }
+        sameKeyEvents.addLast(streamEvent);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the last event in the sort order, which is the latest arrival among the events with the largest sort
+     * values.
+     *
+     * @return the removed event, or null if the collection is empty
+     */
+    public StreamEvent pollLast() {
+        Map.Entry<Object[], ArrayDeque<StreamEvent>> lastEntry = events.lastEntry();
+        if (lastEntry == null) {
+            return null;
+        }
+        StreamEvent streamEvent = lastEntry.getValue().pollLast();
+        if (lastEntry.getValue().isEmpty()) {
+            events.remove(lastEntry.getKey());
+        }
+        size--;
+        return streamEvent;
+    }
+
+    /**
+     * Returns a view of the events whose first sort attribute is within the given bounds, in the sort order. Bounds
+     * are given in the natural order of the attribute values regardless of the sort order.
+     *
+     * @param from          lower bound, or null if there is no lower bound
+     * @param fromInclusive whether events equal to the lower bound are included
+     * @param to            upper bound, or null if there is no upper bound
+     * @param toInclusive   whether events equal to the upper bound are included
+     * @return events within the bounds
+     */
+    public AbstractCollection<StreamEvent> range(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        Object[] lowKey;
+        Object[] highKey;
+        if (orders[0] > 0) {
+            lowKey = from == null ? null : new Object[]{from, fromInclusive ? LOWEST : HIGHEST};
+            highKey = to == null ? null : new Object[]{to, toInclusive ? HIGHEST : LOWEST};
+        } else {
+            lowKey = to == null ? null : new Object[]{to, toInclusive ? LOWEST : HIGHEST};
+            highKey = from == null ? null : new Object[]{from, fromInclusive ? HIGHEST : LOWEST};
+        }
+        NavigableMap<Object[], ArrayDeque<StreamEvent>> rangeEvents;
+        if (lowKey == null) {
+            rangeEvents = highKey == null ? events : events.headMap(highKey, false);
+        } else if (highKey == null) {
+            rangeEvents = events.tailMap(lowKey, false);
+        } else {
+            rangeEvents = events.subMap(lowKey, false, highKey, false);
+        }
+        return new RangeView(rangeEvents);
+    }
+
+    @Override
+    public Iterator<StreamEvent> iterator() {
+        return new SortedIterator(events);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        events.clear();
+        size = 0;
+    }
+
+    private class RangeView extends AbstractCollection<StreamEvent> {
+        private final NavigableMap<Object[], ArrayDeque<StreamEvent>> rangeEvents;
+
+        RangeView(NavigableMap<Object[], ArrayDeque<StreamEvent>> rangeEvents) {
+            this.rangeEvents = rangeEvents;
+        }
+
+        @Override
+        public Iterator<StreamEvent> iterator() {
+            return new SortedIterator(rangeEvents);
+        }
+
+        @Override
+        public int size() {
+            int rangeSize = 0;
+            for (ArrayDeque<StreamEvent> sameKeyEvents : rangeEvents.values()) {
+                rangeSize += sameKeyEvents.size();
+            }
+            return rangeSize;
+        }
+    }
+
+    private class SortedIterator implements Iterator<StreamEvent> {
+        private final Iterator<ArrayDeque<StreamEvent>> keyIterator;
+        private ArrayDeque<StreamEvent> sameKeyEvents;
+        private Iterator<StreamEvent> eventIterator;
+
+        SortedIterator(NavigableMap<Object[], ArrayDeque<StreamEvent>> events) {
+            this.keyIterator = events.values().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            // empty lists are removed eagerly, hence a remaining key always has an event
+            return (eventIterator != null && eventIterator.hasNext()) || keyIterator.hasNext();
+        }
+
+        @Override
+        public StreamEvent next() {
+            if (eventIterator == null || !eventIterator.hasNext()) {
+                if (!keyIterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                sameKeyEvents = keyIterator.next();
+                eventIterator = sameKeyEvents.iterator();
+            }
+            return eventIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (eventIterator == null) {
+                throw new IllegalStateException();
+            }
+            eventIterator.remove();
+            size--;
+            if (sameKeyEvents.isEmpty()) {
+                keyIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Compares sort keys attribute by attribute. Range bounds are keys holding a value of the first attribute followed
+     * by {@link #LOWEST} or {@link #HIGHEST}, which place them before or after all keys with that value.
+     */
+    private class KeyComparator implements Comparator<Object[]> {
+        @Override
+        public int compare(Object[] key1, Object[] key2) {
+            int length = Math.min(key1.length, key2.length);
+            for (int i = 0; i < length; i++) {
+                Object value1 = key1[i];
+                Object value2 = key2[i];
+                if (value1 == LOWEST || value2 == HIGHEST) {
+                    return value1 == value2 ? 0 : -1;
+                } else if (value1 == HIGHEST || value2 == LOWEST) {
+                    return value1 == value2 ? 0 : 1;
+                }
+                int comparisonResult = ((Comparable) value1).compareTo(value2);
+                if (comparisonResult != 0) {
+                    return orders[i] * comparisonResult;
+                }
+            }
+            if (key1.length > length) {
+                return key1[length] == LOWEST ? -1 : key1[length] == HIGHEST ? 1 : 0;
+            } else if (key2.length > length) {
+                return key2[length] == LOWEST ? 1 : key2[length] == HIGHEST ? -1 : 0;
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counters of keys kept in a list of buckets ordered by count, as in the Stream-Summary structure of the Space-Saving
+ * algorithm. Keys with the same count share a bucket, hence incrementing, decrementing and replacing the key with the
+ * minimum count are O(1), and so is decrementing all counters, which is done by moving a common offset. Each counter
+ * also carries an error, which the counting algorithm interprets.
+ * This is not a thread safe implementation
+ *
+ * @param <K> type of the keys
+ */
+public class StreamSummary<K> {
+
+    private final Map<K, Counter<K>> counters = new HashMap<K, Counter<K>>();
+    private Bucket<K> head;
+    private Bucket<K> tail;
+    private long offset = 0;
+
+    public int size() {
+        return counters.size();
+    }
+
+    public boolean contains(K key) {
+        return counters.containsKey(key);
+    }
+
+    /**
+     * @return the count of the key, or 0 if the key is not counted
+     */
+    public long getCount(K key) {
+        Counter<K> counter = counters.get(key);
+        return counter == null ? 0 : counter.bucket.count - offset;
+    }
+
+    /**
+     * @return the error of the key, or 0 if the key is not counted
+     */
+    public long getError(K key) {
+        Counter<K> counter = counters.get(key);
+        return counter == null ? 0 : counter.error;
+    }
+
+    /**
+     * @return the minimum count, or 0 if no key is counted
+     */
+    public long getMinCount() {
+        return head == null ? 0 : head.count - offset;
+    }
+
+    /**
+     * Starts counting a key which is not counted yet. This is O(1) when the count is not more than the minimum count
+     * plus one or not less than the maximum count.
+     *
+     * @param key   key to count
+     * @param count initial count
+     * @param error error of the count
+     */
+    public void add(K key, long count, long error) {
+        Counter<K> counter = new Counter<K>(key, error);
+        counters.put(key, counter);
+        long storedCount = count + offset;
+        Bucket<K> previous;
+        if (head == null || storedCount <= head.count) {
+            previous = null;
+        } else {
+            previous = tail;
+            while (previous.count > storedCount) {
+                previous = previous.previous;
+            }
+        }
+        attach(counter, previous, storedCount);
+    }
+
+    /**
+     * @return the new count of the key, which should be counted already
+     */
+    public long increment(K key) {
+        Counter<K> counter = counters.get(key);
+        Bucket<K> bucket = counter.bucket;
+        long storedCount = bucket.count + 1;
+        detach(counter);
+        attach(counter, bucket.size == 0 ? bucket.previous : bucket, storedCount);
+        return storedCount - offset;
+    }
+
+    /**
+     * Decrements the count of the key, which should be counted already, and stops counting it if the count becomes 0.
+     *
+     * @return the new count of the key
+     */
+    public long decrement(K key) {
+        Counter<K> counter = counters.get(key);
+        Bucket<K> bucket = counter.bucket;
+        long storedCount = bucket.count - 1;
+        detach(counter);
+        if (storedCount - offset <= 0) {
+            counters.remove(key);
+        } else {
+            attach(counter, bucket.previous, storedCount);
+        }
+        return storedCount - offset;
+    }
+
+    /**
+     * Replaces a key having the minimum count with the given key, which is counted as the minimum count plus one with
+     * the minimum count as the error.
+     *
+     * @return the replaced key
+     */
+    public K replaceMin(K key) {
+        Bucket<K> bucket = head;
+        Counter<K> counter = bucket.first;
+        counters.remove(counter.key);
+        detach(counter);
+        Counter<K> newCounter = new Counter<K>(key, bucket.count - offset);
+        counters.put(key, newCounter);
+        attach(newCounter, bucket.size == 0 ? bucket.previous : bucket, bucket.count + 1);
+        return counter.key;
+    }
+
+    /**
+     * Decrements all counts by one and stops counting the keys whose count becomes 0.
+     *
+     * @return keys no longer counted
+     */
+    public List<K> decrementAll() {
+        offset++;
+        return removeAtMost(0);
+    }
+
+    /**
+     * Stops counting the keys whose count is not more than the given count.
+     *
+     * @return keys no longer counted
+     */
+    public List<K> removeAtMost(long count) {
+        List<K> removedKeys = new ArrayList<K>();
+        while (head != null && head.count - offset <= count) {
+            for (Counter<K> counter = head.first; counter != null; counter = counter.next) {
+                counters.remove(counter.key);
+                removedKeys.add(counter.key);
+            }
+            head = head.next;
+            if (head == null) {
+                tail = null;
+            } else {
+                head.previous = null;
+            }
+        }
+        return removedKeys;
+    }
+
+    /**
+     * @return up to the given number of keys with the largest counts, in the descending order of their counts
+     */
+    public List<K> top(int limit) {
+        List<K> topKeys = new ArrayList<K>(Math.min(limit, counters.size()));
+        for (Bucket<K> bucket = tail; bucket != null && topKeys.size() < limit; bucket = bucket.previous) {
+            for (Counter<K> counter = bucket.first; counter != null && topKeys.size() < limit;
+                 counter = counter.next) {
+                topKeys.add(counter.key);
+            }
+        }
+        return topKeys;
+    }
+
+    /**
+     * @return keys with their counts and errors, in the ascending order of their counts
+     */
+    public List<Object[]> toList() {
+        List<Object[]> list = new ArrayList<Object[]>(counters.size());
+        for (Bucket<K> bucket = head; bucket != null; bucket = bucket.next) {
+            for (Counter<K> counter = bucket.first; counter != null; counter = counter.next) {
+                list.add(new Object[]{counter.key, bucket.count - offset, counter.error});
+            }
+        }
+        return list;
+    }
+
+    public void clear() {
+        counters.clear();
+        head = null;
+        tail = null;
+        offset = 0;
+    }
+
+    /**
+     * Adds the counter to the bucket of the given count, which is either the given bucket, the bucket after it or a
+     * new bucket in between.
+     */
+    private void attach(Counter<K> counter, Bucket<K> previous, long storedCount) {
+        Bucket<K> bucket;
+        if (previous != null && previous.count == storedCount) {
+            bucket = previous;
+        } else {
+            Bucket<K> next = previous == null ? head : previous.next;
+            if (next != null && next.count == storedCount) {
+                bucket = next;
+            } else {
+                bucket = new Bucket<K>(storedCount);
+                bucket.previous = previous;
+                bucket.next = next;
+                if (previous == null) {
+                    head = bucket;
+                } else {
+                    previous.next = bucket;
+                }
+                if (next == null) {
+                    tail = bucket;
+                } else {
+                    next.previous = bucket;
+                }
+            }
+        }
+        counter.bucket = bucket;
+        counter.previous = bucket.last;
+        counter.next = null;
+        if (bucket.last == null) {
+            bucket.first = counter;
+        } else {
+            bucket.last.next = counter;
+        }
+        bucket.last = counter;
+        bucket.size++;
+    }
+
+    /**
+     * Removes the counter from its bucket, and removes the bucket from the list if it becomes empty. The removed
+     * bucket keeps its links such that a counter can be attached next to its position.
+     */
+    private void detach(Counter<K> counter) {
+        Bucket<K> bucket = counter.bucket;
+        if (counter.previous == null) {
+            bucket.first = counter.next;
+        } else {
+            counter.previous.next = counter.next;
+        }
+        if (counter.next == null) {
+            bucket.last = counter.previous;
+        } else {
+            counter.next.previous = counter.previous;
+        }
+        bucket.size--;
+        if (bucket.size == 0) {
+            if (bucket.previous == null) {
+                head = bucket.next;
+            } else {
+                bucket.previous.next = bucket.next;
+            }
+            if (bucket.next == null) {
+                tail = bucket.previous;
+            } else {
+                bucket.next.previous = bucket.previous;
+            }
+        }
+    }
+
+    private static class Bucket<K> {
+        private final long count;
+        private int size = 0;
+        private Counter<K> first;
+        private Counter<K> last;
+        private Bucket<K> previous;
+        private Bucket<K> next;
+
+        Bucket(long count) {
+            this.count = count;
+        }
+    }
+
+    private static class Counter<K> {
+        private final K key;
+        private final long error;
+        private Bucket<K> bucket;
+        private Counter<K> previous;
+        private Counter<K> next;
+
+        Counter(K key, long error) {
+            this.key = key;
+            this.error = error;
+        }
+    }
+}
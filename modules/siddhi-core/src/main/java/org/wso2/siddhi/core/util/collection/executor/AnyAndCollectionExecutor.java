@@ -33,6 +33,8 @@ import java.util.Set;
  */
 public class AnyAndCollectionExecutor implements CollectionExecutor {
 
+    //limit for 10 is a magic number identified via performance test
+    private static final int FILTER_LIMIT = 10;
 
     private final CollectionExecutor highCostCollectionExecutor;
     private final CollectionExecutor lowCollectionExecutor;
@@ -73,47 +75,57 @@ public class AnyAndCollectionExecutor implements CollectionExecutor {
     }
 
     public Collection<StreamEvent> findEvents(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
-        //limit for 10 is a magic number identified via performance test
-        Collection<StreamEvent> lowCostStreamEvents = lowCollectionExecutor.findEvents(matchingEvent,
-                                                                                       indexedEventHolder);
-        if (lowCostStreamEvents == null) {
-            return null;
-        } else if (lowCostStreamEvents.size() > 0) {
-            if (lowCostStreamEvents.size() <= 10) {
-                return exhaustiveCollectionExecutor.findEvents(matchingEvent, lowCostStreamEvents);
-            } else {
-                Collection<StreamEvent> highCostStreamEvents = highCostCollectionExecutor.findEvents(
-                        matchingEvent, indexedEventHolder);
-
-                if (highCostStreamEvents == null) {
-                    return null;
-                } else if (highCostStreamEvents.size() > 0) {
-                    if (lowCostStreamEvents.size() <= 10) {
-                        return exhaustiveCollectionExecutor.findEvents(matchingEvent, highCostStreamEvents);
-                    } else {
-                        Set<StreamEvent> returnSet = new HashSet<StreamEvent>();
-                        if (highCostStreamEvents.size() > lowCostStreamEvents.size()) {
-                            for (StreamEvent aStreamEvent : lowCostStreamEvents) {
-                                if (highCostStreamEvents.contains(aStreamEvent)) {
-                                    returnSet.add(aStreamEvent);
-                                }
-                            }
-                        } else {
-                            for (StreamEvent aStreamEvent : highCostStreamEvents) {
-                                if (lowCostStreamEvents.contains(aStreamEvent)) {
-                                    returnSet.add(aStreamEvent);
-                                }
-                            }
-                        }
-                        return returnSet;
-                    }
-                } else {
-                    return highCostStreamEvents;
-                }
+        // start from the condition estimated to match the fewest events, the default cost breaking ties
+        int lowCostSize = lowCollectionExecutor.estimateSize(matchingEvent, indexedEventHolder);
+        int highCostSize = highCostCollectionExecutor.estimateSize(matchingEvent, indexedEventHolder);
+        CollectionExecutor firstCollectionExecutor = lowCollectionExecutor;
+        CollectionExecutor secondCollectionExecutor = highCostCollectionExecutor;
+        int secondSize = highCostSize;
+        if (highCostSize < lowCostSize) {
+            firstCollectionExecutor = highCostCollectionExecutor;
+            secondCollectionExecutor = lowCollectionExecutor;
+            secondSize = lowCostSize;
+        }
+
+        Collection<StreamEvent> firstStreamEvents = firstCollectionExecutor.findEvents(matchingEvent,
+                indexedEventHolder);
+        if (firstStreamEvents == null) {
+            Collection<StreamEvent> secondStreamEvents = secondCollectionExecutor.findEvents(matchingEvent,
+                    indexedEventHolder);
+            if (secondStreamEvents == null || secondStreamEvents.size() == 0) {
+                return secondStreamEvents;
             }
-        } else {
-            return lowCostStreamEvents;
+            return exhaustiveCollectionExecutor.findEvents(matchingEvent, secondStreamEvents);
+        } else if (firstStreamEvents.size() == 0) {
+            return firstStreamEvents;
+        } else if (firstStreamEvents.size() <= FILTER_LIMIT || firstStreamEvents.size() <= secondSize) {
+            // filtering the few events found is cheaper than looking up the other condition
+            return exhaustiveCollectionExecutor.findEvents(matchingEvent, firstStreamEvents);
+        }
+
+        Collection<StreamEvent> secondStreamEvents = secondCollectionExecutor.findEvents(matchingEvent,
+                indexedEventHolder);
+        if (secondStreamEvents == null) {
+            return exhaustiveCollectionExecutor.findEvents(matchingEvent, firstStreamEvents);
+        } else if (secondStreamEvents.size() == 0) {
+            return secondStreamEvents;
+        }
+        Collection<StreamEvent> smallerStreamEvents = firstStreamEvents;
+        Collection<StreamEvent> largerStreamEvents = secondStreamEvents;
+        if (secondStreamEvents.size() < firstStreamEvents.size()) {
+            smallerStreamEvents = secondStreamEvents;
+            largerStreamEvents = firstStreamEvents;
         }
+        if (!(largerStreamEvents instanceof Set)) {
+            largerStreamEvents = new HashSet<StreamEvent>(largerStreamEvents);
+        }
+        Set<StreamEvent> returnSet = new HashSet<StreamEvent>();
+        for (StreamEvent aStreamEvent : smallerStreamEvents) {
+            if (largerStreamEvents.contains(aStreamEvent)) {
+                returnSet.add(aStreamEvent);
+            }
+        }
+        return returnSet;
     }
 
     @Override
@@ -141,4 +153,14 @@ public class AnyAndCollectionExecutor implements CollectionExecutor {
         return lowCollectionExecutor.getDefaultCost();
     }
 
+    @Override
+    public int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return Math.min(lowCollectionExecutor.estimateSize(matchingEvent, indexedEventHolder),
+                highCostCollectionExecutor.estimateSize(matchingEvent, indexedEventHolder));
+    }
+
+    @Override
+    public String explain() {
+        return "Intersect(" + lowCollectionExecutor.explain() + ", " + highCostCollectionExecutor.explain() + ")";
+    }
 }
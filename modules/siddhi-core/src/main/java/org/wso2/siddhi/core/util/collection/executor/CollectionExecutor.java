@@ -71,6 +71,20 @@ public interface CollectionExecutor {
 
     Cost getDefaultCost();
 
+    /**
+     * Estimate the number of events matching the condition, used to choose the cheapest way of finding them
+     *
+     * @param matchingEvent      matching input event
+     * @param indexedEventHolder indexed EventHolder containing data
+     * @return estimated number of matching events, which is the number of events held if they need to be scanned
+     */
+    int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder);
+
+    /**
+     * @return description of how the matching events are found
+     */
+    String explain();
+
     /**
      * Enums to specify operation cost.
      */
@@ -27,6 +27,7 @@ import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
 import java.util.Collection;
+import java.util.HashSet;
 
 /**
  * Implementation of {@link CollectionExecutor} which handle compare condition.
@@ -88,7 +89,12 @@ public class CompareCollectionExecutor implements CollectionExecutor {
             //for not equal trigger sequential scan
             return null;
         }
-        return indexedEventHolder.findEvents(attribute, operator, valueExpressionExecutor.execute(matchingEvent));
+        Object value = valueExpressionExecutor.execute(matchingEvent);
+        if (value == null && operator != Compare.Operator.EQUAL) {
+            // ranges never hold for null, while equality is used to look up events having null
+            return new HashSet<StreamEvent>();
+        }
+        return indexedEventHolder.findEvents(attribute, operator, value);
     }
 
     @Override
@@ -112,4 +118,36 @@ public class CompareCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        if (operator == Compare.Operator.NOT_EQUAL) {
+            return indexedEventHolder.size();
+        }
+        return indexedEventHolder.estimateSize(attribute, operator, valueExpressionExecutor.execute(matchingEvent));
+    }
+
+    @Override
+    public String explain() {
+        if (operator == Compare.Operator.NOT_EQUAL) {
+            return "FullScan";
+        }
+        return "IndexLookup(" + attribute + " " + toSymbol(operator) + " ?)";
+    }
+
+    static String toSymbol(Compare.Operator operator) {
+        switch (operator) {
+            case LESS_THAN:
+                return "<";
+            case GREATER_THAN:
+                return ">";
+            case LESS_THAN_EQUAL:
+                return "<=";
+            case GREATER_THAN_EQUAL:
+                return ">=";
+            case EQUAL:
+                return "==";
+            default:
+                return "!=";
+        }
+    }
 }
@@ -106,4 +106,21 @@ public class CompareExhaustiveAndCollectionExecutor implements CollectionExecuto
         }
     }
 
+    @Override
+    public int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        if (exhaustiveCollectionExecutor != null) {
+            return compareCollectionExecutor.estimateSize(matchingEvent, indexedEventHolder);
+        } else {
+            return indexedEventHolder.size();
+        }
+    }
+
+    @Override
+    public String explain() {
+        if (exhaustiveCollectionExecutor != null) {
+            return "Filter(" + compareCollectionExecutor.explain() + ")";
+        } else {
+            return "FullScan";
+        }
+    }
 }
@@ -113,4 +113,14 @@ public class ExhaustiveCollectionExecutor implements CollectionExecutor {
     public Cost getDefaultCost() {
         return Cost.EXHAUSTIVE;
     }
+
+    @Override
+    public int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return indexedEventHolder.size();
+    }
+
+    @Override
+    public String explain() {
+        return "FullScan";
+    }
 }
@@ -94,4 +94,19 @@ public class NonAndCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        if (!(Boolean) valueExpressionExecutor.execute(matchingEvent)) {
+            return 0;
+        } else if (collectionScope == CollectionExpression.CollectionScope.EXHAUSTIVE) {
+            return indexedEventHolder.size();
+        } else {
+            return collectionExecutor.estimateSize(matchingEvent, indexedEventHolder);
+        }
+    }
+
+    @Override
+    public String explain() {
+        return "Guard(" + collectionExecutor.explain() + ")";
+    }
 }
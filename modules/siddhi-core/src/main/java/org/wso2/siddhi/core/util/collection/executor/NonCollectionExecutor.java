@@ -85,4 +85,18 @@ public class NonCollectionExecutor implements CollectionExecutor {
     public Cost getDefaultCost() {
         return Cost.MULTI_RETURN_INDEX_MATCHING;
     }
+
+    @Override
+    public int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+            return indexedEventHolder.size();
+        } else {
+            return 0;
+        }
+    }
+
+    @Override
+    public String explain() {
+        return "All";
+    }
 }
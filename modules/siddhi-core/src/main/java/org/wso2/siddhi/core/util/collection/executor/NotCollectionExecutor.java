@@ -135,4 +135,14 @@ public class NotCollectionExecutor implements CollectionExecutor {
         }
     }
 
+    @Override
+    public int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return Math.max(0, indexedEventHolder.size() - notCollectionExecutor.estimateSize(matchingEvent,
+                indexedEventHolder));
+    }
+
+    @Override
+    public String explain() {
+        return "Complement(" + notCollectionExecutor.explain() + ")";
+    }
 }
@@ -141,4 +141,16 @@ public class OrCollectionExecutor implements CollectionExecutor {
             return leftCost;
         }
     }
+
+    @Override
+    public int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        int size = leftCollectionExecutor.estimateSize(matchingEvent, indexedEventHolder) +
+                rightCollectionExecutor.estimateSize(matchingEvent, indexedEventHolder);
+        return Math.min(size, indexedEventHolder.size());
+    }
+
+    @Override
+    public String explain() {
+        return "Union(" + leftCollectionExecutor.explain() + ", " + rightCollectionExecutor.explain() + ")";
+    }
 }
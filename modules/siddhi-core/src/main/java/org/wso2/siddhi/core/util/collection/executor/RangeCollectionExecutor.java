@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.util.collection.executor;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Implementation of {@link CollectionExecutor} which handles an indexed attribute bounded from both sides, such as
+ * {@code price > a and price <= b}, with a single range scan of the index.
+ */
+public class RangeCollectionExecutor implements CollectionExecutor {
+
+    private final String attribute;
+    private final ExpressionExecutor fromExpressionExecutor;
+    private final boolean fromInclusive;
+    private final ExpressionExecutor toExpressionExecutor;
+    private final boolean toInclusive;
+    private ExhaustiveCollectionExecutor exhaustiveCollectionExecutor;
+
+    public RangeCollectionExecutor(String attribute, ExpressionExecutor fromExpressionExecutor, boolean fromInclusive,
+                                   ExpressionExecutor toExpressionExecutor, boolean toInclusive,
+                                   ExhaustiveCollectionExecutor exhaustiveCollectionExecutor) {
+        this.attribute = attribute;
+        this.fromExpressionExecutor = fromExpressionExecutor;
+        this.fromInclusive = fromInclusive;
+        this.toExpressionExecutor = toExpressionExecutor;
+        this.toInclusive = toInclusive;
+        this.exhaustiveCollectionExecutor = exhaustiveCollectionExecutor;
+    }
+
+    public StreamEvent find(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder, StreamEventCloner
+            storeEventCloner) {
+        Collection<StreamEvent> storeEventSet = findEvents(matchingEvent, indexedEventHolder);
+        if (storeEventSet == null) {
+            return exhaustiveCollectionExecutor.find(matchingEvent, indexedEventHolder, storeEventCloner);
+        }
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        for (StreamEvent storeEvent : storeEventSet) {
+            if (storeEventCloner != null) {
+                returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
+            } else {
+                returnEventChunk.add(storeEvent);
+            }
+        }
+        return returnEventChunk.getFirst();
+    }
+
+    public Collection<StreamEvent> findEvents(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return indexedEventHolder.findEvents(attribute, fromExpressionExecutor.execute(matchingEvent), fromInclusive,
+                toExpressionExecutor.execute(matchingEvent), toInclusive);
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        Collection<StreamEvent> storeEventSet = findEvents(matchingEvent, indexedEventHolder);
+        if (storeEventSet == null) {
+            return exhaustiveCollectionExecutor.contains(matchingEvent, indexedEventHolder);
+        }
+        return storeEventSet.size() > 0;
+    }
+
+    @Override
+    public void delete(StateEvent deletingEvent, IndexedEventHolder indexedEventHolder) {
+        Collection<StreamEvent> storeEventSet = findEvents(deletingEvent, indexedEventHolder);
+        if (storeEventSet == null) {
+            exhaustiveCollectionExecutor.delete(deletingEvent, indexedEventHolder);
+        } else if (storeEventSet.size() > 0) {
+            // the events found can be a view of the primary key data, which changes while they are deleted
+            indexedEventHolder.deleteAll(new ArrayList<StreamEvent>(storeEventSet));
+        }
+    }
+
+    @Override
+    public Cost getDefaultCost() {
+        return Cost.MULTI_RETURN_INDEX_MATCHING;
+    }
+
+    @Override
+    public int estimateSize(StateEvent matchingEvent, IndexedEventHolder indexedEventHolder) {
+        return indexedEventHolder.estimateSize(attribute, fromExpressionExecutor.execute(matchingEvent), fromInclusive,
+                toExpressionExecutor.execute(matchingEvent), toInclusive);
+    }
+
+    @Override
+    public String explain() {
+        return "IndexRangeScan(? " + (fromInclusive ? "<=" : "<") + " " + attribute + " " +
+                (toInclusive ? "<=" : "<") + " ?)";
+    }
+}
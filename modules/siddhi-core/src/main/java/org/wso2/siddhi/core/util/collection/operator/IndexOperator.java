@@ -45,6 +45,13 @@ public class IndexOperator implements Operator {
         this.queryName = queryName;
     }
 
+    /**
+     * @return description of how the events matching the condition are found
+     */
+    public String explain() {
+        return collectionExecutor.explain();
+    }
+
     @Override
     public CompiledCondition cloneCompiledCondition(String key) {
         //todo check if there are any issues when not cloning
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.operator;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.IndexedStreamEventChunk;
+
+import java.util.Collection;
+
+/**
+ * Operator for {@link IndexedStreamEventChunk}s, which only visits the events having the value given by the key
+ * executor for the indexed attribute, before evaluating the full condition on them. Falls back to iterating the whole
+ * chunk for other kinds of store events.
+ */
+public class IndexedEventChunkOperator extends EventChunkOperator {
+    private final int[] indexPosition;
+    private final ExpressionExecutor keyExecutor;
+
+    /**
+     * @param expressionExecutor executor of the full condition
+     * @param storeEventPosition position of the store event in the matching event
+     * @param indexPosition      position of the indexed attribute in the store events
+     * @param keyExecutor        executor of the value the indexed attribute should be equal to, which does not depend
+     *                           on the store event
+     */
+    public IndexedEventChunkOperator(ExpressionExecutor expressionExecutor, int storeEventPosition,
+                                     int[] indexPosition, ExpressionExecutor keyExecutor) {
+        super(expressionExecutor, storeEventPosition);
+        this.indexPosition = indexPosition;
+        this.keyExecutor = keyExecutor;
+    }
+
+    @Override
+    public CompiledCondition cloneCompiledCondition(String key) {
+        return new IndexedEventChunkOperator(expressionExecutor.cloneExecutor(key), storeEventPosition,
+                indexPosition, keyExecutor.cloneExecutor(key));
+    }
+
+    @Override
+    public StreamEvent find(StateEvent matchingEvent, Object storeEvents, StreamEventCloner storeEventCloner) {
+        Collection<StreamEvent> candidateEvents = getCandidateEvents(matchingEvent, storeEvents);
+        if (candidateEvents == null) {
+            return super.find(matchingEvent, storeEvents, storeEventCloner);
+        }
+        ComplexEventChunk<StreamEvent> returnEventChunk = new ComplexEventChunk<StreamEvent>(false);
+        for (StreamEvent storeEvent : candidateEvents) {
+            matchingEvent.setEvent(storeEventPosition, storeEvent);
+            if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                returnEventChunk.add(storeEventCloner.copyStreamEvent(storeEvent));
+            }
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+        return returnEventChunk.getFirst();
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, Object storeEvents) {
+        Collection<StreamEvent> candidateEvents = getCandidateEvents(matchingEvent, storeEvents);
+        if (candidateEvents == null) {
+            return super.contains(matchingEvent, storeEvents);
+        }
+        try {
+            for (StreamEvent storeEvent : candidateEvents) {
+                matchingEvent.setEvent(storeEventPosition, storeEvent);
+                if ((Boolean) expressionExecutor.execute(matchingEvent)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            matchingEvent.setEvent(storeEventPosition, null);
+        }
+    }
+
+    private Collection<StreamEvent> getCandidateEvents(StateEvent matchingEvent, Object storeEvents) {
+        if (storeEvents instanceof IndexedStreamEventChunk) {
+            return ((IndexedStreamEventChunk) storeEvents).get(indexPosition, keyExecutor.execute(matchingEvent));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.collection.operator;
+
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.util.collection.SortedStreamEventCollection;
+import org.wso2.siddhi.query.api.expression.condition.Compare;
+
+/**
+ * Operator for {@link SortedStreamEventCollection}s, which only visits the events whose first sort attribute satisfies
+ * the compare condition given by the operator and the bound, before evaluating the full condition on them.
+ */
+public class SortedCollectionOperator extends CollectionOperator {
+    private final Compare.Operator operator;
+    private final ExpressionExecutor boundExecutor;
+
+    /**
+     * @param expressionExecutor executor of the full condition
+     * @param storeEventPosition position of the store event in the matching event
+     * @param operator           operator comparing the first sort attribute (as the left operand) with the bound
+     * @param boundExecutor      executor of the bound, which does not depend on the store event
+     */
+    public SortedCollectionOperator(ExpressionExecutor expressionExecutor, int storeEventPosition,
+                                    Compare.Operator operator, ExpressionExecutor boundExecutor) {
+        super(expressionExecutor, storeEventPosition);
+        this.operator = operator;
+        this.boundExecutor = boundExecutor;
+    }
+
+    @Override
+    public CompiledCondition cloneCompiledCondition(String key) {
+        return new SortedCollectionOperator(expressionExecutor.cloneExecutor(key), storeEventPosition, operator,
+                boundExecutor.cloneExecutor(key));
+    }
+
+    @Override
+    public StreamEvent find(StateEvent matchingEvent, Object storeEvents, StreamEventCloner storeEventCloner) {
+        if (!(storeEvents instanceof SortedStreamEventCollection)) {
+            return super.find(matchingEvent, storeEvents, storeEventCloner);
+        }
+        Object bound = boundExecutor.execute(matchingEvent);
+        if (bound == null) {
+            return null;
+        }
+        return super.find(matchingEvent, range((SortedStreamEventCollection) storeEvents, bound), storeEventCloner);
+    }
+
+    @Override
+    public boolean contains(StateEvent matchingEvent, Object storeEvents) {
+        if (!(storeEvents instanceof SortedStreamEventCollection)) {
+            return super.contains(matchingEvent, storeEvents);
+        }
+        Object bound = boundExecutor.execute(matchingEvent);
+        return bound != null &&
+                super.contains(matchingEvent, range((SortedStreamEventCollection) storeEvents, bound));
+    }
+
+    private Object range(SortedStreamEventCollection storeEvents, Object bound) {
+        switch (operator) {
+            case LESS_THAN:
+                return storeEvents.range(null, false, bound, false);
+            case LESS_THAN_EQUAL:
+                return storeEvents.range(null, false, bound, true);
+            case GREATER_THAN:
+                return storeEvents.range(bound, false, null, false);
+            case GREATER_THAN_EQUAL:
+                return storeEvents.range(bound, true, null, false);
+            case EQUAL:
+                return storeEvents.range(bound, true, bound, true);
+            default:
+                return storeEvents;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.wso2.siddhi.core.util.collection.executor.NonAndCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.NonCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.NotCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.executor.OrCollectionExecutor;
+import org.wso2.siddhi.core.util.collection.executor.RangeCollectionExecutor;
 import org.wso2.siddhi.core.util.collection.expression.AndCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.AttributeCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.BasicCollectionExpression;
@@ -144,8 +145,8 @@ public class CollectionExpressionParser {
             } else if (leftCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope
                     .INDEXED_ATTRIBUTE &&
                     rightCollectionExpression.getCollectionScope() == CollectionExpression.CollectionScope.NON) {
-                if (indexedEventHolder.isAttributeIndexed(((AttributeCollectionExpression) leftCollectionExpression)
-                        .getAttribute())) {
+                if (isAttributeIndexed(indexedEventHolder, ((AttributeCollectionExpression)
+                        leftCollectionExpression).getAttribute(), ((Compare) expression).getOperator())) {
                     //comparing indexed table attribute with stream attributes
                     return new CompareCollectionExpression((Compare) expression,
                             CollectionExpression.CollectionScope.INDEXED_RESULT_SET, leftCollectionExpression,
@@ -177,8 +178,8 @@ public class CollectionExpressionParser {
                     case NOT_EQUAL:
                         break;
                 }
-                if (indexedEventHolder.isAttributeIndexed(((AttributeCollectionExpression) rightCollectionExpression)
-                        .getAttribute())) {
+                if (isAttributeIndexed(indexedEventHolder, ((AttributeCollectionExpression)
+                        rightCollectionExpression).getAttribute(), operator)) {
                     //comparing indexed table attribute with stream attributes
                     return new CompareCollectionExpression((Compare) expression,
                             CollectionExpression.CollectionScope.INDEXED_RESULT_SET, rightCollectionExpression,
@@ -296,6 +297,17 @@ public class CollectionExpressionParser {
     }
 
 
+    /**
+     * Ranges can only be looked up from indexes that keep the values in order, such as sorted indexes.
+     */
+    private static boolean isAttributeIndexed(IndexedEventHolder indexedEventHolder, String attribute,
+                                              Compare.Operator operator) {
+        if (operator == Compare.Operator.EQUAL || operator == Compare.Operator.NOT_EQUAL) {
+            return indexedEventHolder.isAttributeIndexed(attribute);
+        }
+        return indexedEventHolder.isAttributeIndexedInOrder(attribute);
+    }
+
     private static boolean isCollectionVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Variable variable) {
         if (variable.getStreamId() != null) {
             MetaStreamEvent collectionStreamEvent = matchingMetaInfoHolder.getMetaStateEvent().getMetaStreamEvent
@@ -479,6 +491,13 @@ public class CollectionExpressionParser {
                                                     .getCurrentState(), tableMap, variableExpressionExecutors,
                                             siddhiAppContext, false, 0, queryName), matchingMetaInfoHolder
                                     .getStoreEventIndex());
+                            CollectionExecutor rangeCollectionExecutor = buildRangeCollectionExecutor(
+                                    leftCollectionExpression, rightCollectionExpression, exhaustiveCollectionExecutor,
+                                    matchingMetaInfoHolder, variableExpressionExecutors, tableMap, siddhiAppContext,
+                                    queryName);
+                            if (rangeCollectionExecutor != null) {
+                                return rangeCollectionExecutor;
+                            }
                             leftCollectionExecutor = buildCollectionExecutor(leftCollectionExpression,
                                     matchingMetaInfoHolder, variableExpressionExecutors, tableMap,
                                     siddhiAppContext, false, queryName);
@@ -637,4 +656,55 @@ public class CollectionExpressionParser {
         throw new UnsupportedOperationException(collectionExpression.getClass().getName() + " not supported!");
     }
 
+    /**
+     * Build a {@link RangeCollectionExecutor} when both the expressions compare the same indexed attribute, one
+     * bounding it from below and the other from above, such that the events are found with a single range scan.
+     *
+     * @return range executor, or null if the expressions do not form a range
+     */
+    private static CollectionExecutor buildRangeCollectionExecutor(
+            CollectionExpression leftCollectionExpression, CollectionExpression rightCollectionExpression,
+            ExhaustiveCollectionExecutor exhaustiveCollectionExecutor, MatchingMetaInfoHolder matchingMetaInfoHolder,
+            List<VariableExpressionExecutor> variableExpressionExecutors, Map<String, Table> tableMap,
+            SiddhiAppContext siddhiAppContext, String queryName) {
+        if (!(leftCollectionExpression instanceof CompareCollectionExpression &&
+                rightCollectionExpression instanceof CompareCollectionExpression)) {
+            return null;
+        }
+        CompareCollectionExpression fromCollectionExpression = (CompareCollectionExpression) leftCollectionExpression;
+        CompareCollectionExpression toCollectionExpression = (CompareCollectionExpression) rightCollectionExpression;
+        if (isUpperBound(fromCollectionExpression.getOperator()) &&
+                isLowerBound(toCollectionExpression.getOperator())) {
+            fromCollectionExpression = (CompareCollectionExpression) rightCollectionExpression;
+            toCollectionExpression = (CompareCollectionExpression) leftCollectionExpression;
+        }
+        String attribute = ((AttributeCollectionExpression) fromCollectionExpression
+                .getAttributeCollectionExpression()).getAttribute();
+        if (!isLowerBound(fromCollectionExpression.getOperator()) ||
+                !isUpperBound(toCollectionExpression.getOperator()) ||
+                !attribute.equals(((AttributeCollectionExpression) toCollectionExpression
+                        .getAttributeCollectionExpression()).getAttribute())) {
+            return null;
+        }
+        ExpressionExecutor fromExpressionExecutor = ExpressionParser.parseExpression(fromCollectionExpression
+                        .getValueCollectionExpression().getExpression(), matchingMetaInfoHolder.getMetaStateEvent(),
+                matchingMetaInfoHolder.getCurrentState(), tableMap, variableExpressionExecutors, siddhiAppContext,
+                false, 0, queryName);
+        ExpressionExecutor toExpressionExecutor = ExpressionParser.parseExpression(toCollectionExpression
+                        .getValueCollectionExpression().getExpression(), matchingMetaInfoHolder.getMetaStateEvent(),
+                matchingMetaInfoHolder.getCurrentState(), tableMap, variableExpressionExecutors, siddhiAppContext,
+                false, 0, queryName);
+        return new RangeCollectionExecutor(attribute, fromExpressionExecutor,
+                fromCollectionExpression.getOperator() == Compare.Operator.GREATER_THAN_EQUAL, toExpressionExecutor,
+                toCollectionExpression.getOperator() == Compare.Operator.LESS_THAN_EQUAL,
+                exhaustiveCollectionExecutor);
+    }
+
+    private static boolean isLowerBound(Compare.Operator operator) {
+        return operator == Compare.Operator.GREATER_THAN || operator == Compare.Operator.GREATER_THAN_EQUAL;
+    }
+
+    private static boolean isUpperBound(Compare.Operator operator) {
+        return operator == Compare.Operator.LESS_THAN || operator == Compare.Operator.LESS_THAN_EQUAL;
+    }
 }
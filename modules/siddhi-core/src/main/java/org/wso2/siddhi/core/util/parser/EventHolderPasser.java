@@ -34,8 +34,12 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.util.AnnotationHelper;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Class to parse {@link EventHolder}
@@ -50,6 +54,7 @@ public class EventHolderPasser {
         int primaryKeyPosition = -1;
 
         Map<String, Integer> indexMetaData = new HashMap<String, Integer>();
+        Set<String> hashIndexAttributes = new HashSet<String>();
 
         // primaryKey.
         Annotation primaryKeyAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PRIMARY_KEY,
@@ -76,11 +81,32 @@ public class EventHolderPasser {
         Annotation indexAnnotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_INDEX,
                                                                     tableDefinition.getAnnotations());
         if (indexAnnotation != null) {
-            if (indexAnnotation.getElements().size() == 0) {
+            String indexType = SiddhiConstants.INDEX_TYPE_SORTED;
+            List<Element> indexElements = new ArrayList<Element>();
+            for (Element element : indexAnnotation.getElements()) {
+                if (element.getKey() == null) {
+                    indexElements.add(element);
+                } else if (element.getKey().equalsIgnoreCase(SiddhiConstants.ANNOTATION_ELEMENT_TYPE)) {
+                    indexType = element.getValue().trim().toLowerCase();
+                    if (!indexType.equals(SiddhiConstants.INDEX_TYPE_SORTED) &&
+                            !indexType.equals(SiddhiConstants.INDEX_TYPE_HASH)) {
+                        throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation " +
+                                "contains unknown type '" + element.getValue() + "', expected '" +
+                                SiddhiConstants.INDEX_TYPE_HASH + "' or '" + SiddhiConstants.INDEX_TYPE_SORTED +
+                                "', at '" + tableDefinition.getId() + "'");
+                    }
+                } else {
+                    throw new SiddhiAppCreationException(SiddhiConstants.ANNOTATION_INDEX + " annotation contains " +
+                            "unknown element '" + element.getKey() + "', expected '" +
+                            SiddhiConstants.ANNOTATION_ELEMENT_TYPE + "' or attribute names, at '" +
+                            tableDefinition.getId() + "'");
+                }
+            }
+            if (indexElements.size() == 0) {
                 throw new SiddhiAppValidationException(SiddhiConstants.ANNOTATION_INDEX + " annotation contains "
-                                                                   + indexAnnotation.getElements().size() + " element");
+                                                                   + indexElements.size() + " element");
             }
-            for (Element element : indexAnnotation.getElements()) {
+            for (Element element : indexElements) {
                 Integer previousValue = indexMetaData.put(element.getValue().trim(), tableDefinition
                         .getAttributePosition(element.getValue().trim()));
                 if (previousValue != null) {
@@ -88,6 +114,9 @@ public class EventHolderPasser {
                                                                      "annotations defined with same attribute '" + element.getValue().trim() + "', at '" +
                                                                      tableDefinition.getId() + "'");
                 }
+                if (indexType.equals(SiddhiConstants.INDEX_TYPE_HASH)) {
+                    hashIndexAttributes.add(element.getValue().trim());
+                }
             }
         }
 
@@ -110,7 +139,7 @@ public class EventHolderPasser {
                 }
             }
             return new IndexEventHolder(tableStreamEventPool, eventConverter, primaryKeyPosition, primaryKeyAttribute,
-                                        isNumeric, indexMetaData);
+                                        isNumeric, indexMetaData, hashIndexAttributes);
         } else {
             return new ListEventHolder(tableStreamEventPool, eventConverter);
         }
@@ -277,61 +277,104 @@ public class ExpressionParser {
                                                      List<VariableExpressionExecutor> executorList,
                                                      SiddhiAppContext siddhiAppContext,
                                                      boolean groupBy, int defaultStreamEventIndex, String queryName) {
+        return parseExpression(expression, metaEvent, currentState, tableMap, executorList, siddhiAppContext, groupBy,
+                defaultStreamEventIndex, queryName, null);
+    }
+
+    /**
+     * Parse the given expression and create the appropriate Executor by recursively traversing the expression
+     *
+     * @param expression                           Expression to be parsed
+     * @param metaEvent                            Meta Event
+     * @param currentState                         Current state number
+     * @param tableMap                             Event Table Map
+     * @param executorList                         List to hold VariableExpressionExecutors to update after query
+     *                                             parsing
+     * @param siddhiAppContext                     SiddhiAppContext
+     * @param groupBy                              is for groupBy expression
+     * @param defaultStreamEventIndex              Default StreamEvent Index
+     * @param queryName                            query name of expression belongs to.
+     * @param groupByAggregationAttributeExecutors List to hold GroupByAggregationAttributeExecutors, whose group
+     *                                             state is purged by the selector, or null
+     * @return ExpressionExecutor
+     */
+    public static ExpressionExecutor parseExpression(Expression expression, MetaComplexEvent metaEvent,
+                                                     int currentState, Map<String, Table> tableMap,
+                                                     List<VariableExpressionExecutor> executorList,
+                                                     SiddhiAppContext siddhiAppContext,
+                                                     boolean groupBy, int defaultStreamEventIndex, String queryName,
+                                                     List<GroupByAggregationAttributeExecutor>
+                                                             groupByAggregationAttributeExecutors) {
         if (expression instanceof And) {
             return new AndConditionExpressionExecutor(
                     parseExpression(((And) expression).getLeftExpression(), metaEvent, currentState, tableMap,
                             executorList, siddhiAppContext,
-                            groupBy, defaultStreamEventIndex, queryName),
+                            groupBy, defaultStreamEventIndex, queryName, groupByAggregationAttributeExecutors),
                     parseExpression(((And) expression).getRightExpression(), metaEvent, currentState, tableMap,
-                            executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName)
+                            executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                            groupByAggregationAttributeExecutors)
             );
         } else if (expression instanceof Or) {
             return new OrConditionExpressionExecutor(
                     parseExpression(((Or) expression).getLeftExpression(), metaEvent, currentState, tableMap,
-                            executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName),
+                            executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                            groupByAggregationAttributeExecutors),
                     parseExpression(((Or) expression).getRightExpression(), metaEvent, currentState, tableMap,
-                            executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName));
+                            executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                            groupByAggregationAttributeExecutors));
         } else if (expression instanceof Not) {
             return new NotConditionExpressionExecutor(parseExpression(((Not) expression).getExpression(), metaEvent,
                     currentState, tableMap, executorList, siddhiAppContext, groupBy,
-                    defaultStreamEventIndex, queryName));
+                    defaultStreamEventIndex, queryName, groupByAggregationAttributeExecutors));
         } else if (expression instanceof Compare) {
             if (((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
                 return parseEqualCompare(
                         parseExpression(((Compare) expression).getLeftExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName),
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors),
                         parseExpression(((Compare) expression).getRightExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName));
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors));
             } else if (((Compare) expression).getOperator() == Compare.Operator.NOT_EQUAL) {
                 return parseNotEqualCompare(
                         parseExpression(((Compare) expression).getLeftExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName),
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors),
                         parseExpression(((Compare) expression).getRightExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName));
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors));
             } else if (((Compare) expression).getOperator() == Compare.Operator.GREATER_THAN) {
                 return parseGreaterThanCompare(
                         parseExpression(((Compare) expression).getLeftExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName),
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors),
                         parseExpression(((Compare) expression).getRightExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName));
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors));
             } else if (((Compare) expression).getOperator() == Compare.Operator.GREATER_THAN_EQUAL) {
                 return parseGreaterThanEqualCompare(
                         parseExpression(((Compare) expression).getLeftExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName),
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors),
                         parseExpression(((Compare) expression).getRightExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName));
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors));
             } else if (((Compare) expression).getOperator() == Compare.Operator.LESS_THAN) {
                 return parseLessThanCompare(
                         parseExpression(((Compare) expression).getLeftExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName),
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors),
                         parseExpression(((Compare) expression).getRightExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName));
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors));
             } else if (((Compare) expression).getOperator() == Compare.Operator.LESS_THAN_EQUAL) {
                 return parseLessThanEqualCompare(
                         parseExpression(((Compare) expression).getLeftExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName),
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors),
                         parseExpression(((Compare) expression).getRightExpression(), metaEvent, currentState, tableMap,
-                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName));
+                                executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                                groupByAggregationAttributeExecutors));
             }
 
         } else if (expression instanceof Constant) {
@@ -355,10 +398,10 @@ public class ExpressionParser {
         } else if (expression instanceof Multiply) {
             ExpressionExecutor left = parseExpression(((Multiply) expression).getLeftValue(), metaEvent,
                     currentState, tableMap, executorList, siddhiAppContext, groupBy,
-                    defaultStreamEventIndex, queryName);
+                    defaultStreamEventIndex, queryName, groupByAggregationAttributeExecutors);
             ExpressionExecutor right = parseExpression(((Multiply) expression).getRightValue(), metaEvent,
                     currentState, tableMap, executorList, siddhiAppContext, groupBy,
-                    defaultStreamEventIndex, queryName);
+                    defaultStreamEventIndex, queryName, groupByAggregationAttributeExecutors);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
             switch (type) {
                 case INT:
@@ -373,9 +416,11 @@ public class ExpressionParser {
             }
         } else if (expression instanceof Add) {
             ExpressionExecutor left = parseExpression(((Add) expression).getLeftValue(), metaEvent, currentState,
-                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                    groupByAggregationAttributeExecutors);
             ExpressionExecutor right = parseExpression(((Add) expression).getRightValue(), metaEvent, currentState,
-                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                    groupByAggregationAttributeExecutors);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
             switch (type) {
                 case INT:
@@ -391,10 +436,10 @@ public class ExpressionParser {
         } else if (expression instanceof Subtract) {
             ExpressionExecutor left = parseExpression(((Subtract) expression).getLeftValue(), metaEvent,
                     currentState, tableMap, executorList, siddhiAppContext, groupBy,
-                    defaultStreamEventIndex, queryName);
+                    defaultStreamEventIndex, queryName, groupByAggregationAttributeExecutors);
             ExpressionExecutor right = parseExpression(((Subtract) expression).getRightValue(), metaEvent,
                     currentState, tableMap, executorList, siddhiAppContext, groupBy,
-                    defaultStreamEventIndex, queryName);
+                    defaultStreamEventIndex, queryName, groupByAggregationAttributeExecutors);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
             switch (type) {
                 case INT:
@@ -409,9 +454,11 @@ public class ExpressionParser {
             }
         } else if (expression instanceof Mod) {
             ExpressionExecutor left = parseExpression(((Mod) expression).getLeftValue(), metaEvent, currentState,
-                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                    groupByAggregationAttributeExecutors);
             ExpressionExecutor right = parseExpression(((Mod) expression).getRightValue(), metaEvent, currentState,
-                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                    groupByAggregationAttributeExecutors);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
             switch (type) {
                 case INT:
@@ -426,9 +473,11 @@ public class ExpressionParser {
             }
         } else if (expression instanceof Divide) {
             ExpressionExecutor left = parseExpression(((Divide) expression).getLeftValue(), metaEvent, currentState,
-                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                    groupByAggregationAttributeExecutors);
             ExpressionExecutor right = parseExpression(((Divide) expression).getRightValue(), metaEvent, currentState,
-                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                    tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                    groupByAggregationAttributeExecutors);
             Attribute.Type type = parseArithmeticOperationResultType(left, right);
             switch (type) {
                 case INT:
@@ -470,7 +519,8 @@ public class ExpressionParser {
                 Expression[] innerExpressions = ((AttributeFunction) expression).getParameters();
                 ExpressionExecutor[] innerExpressionExecutors = parseInnerExpression(innerExpressions, metaEvent,
                         currentState, tableMap, executorList,
-                        siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                        siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                        groupByAggregationAttributeExecutors);
 
                 expressionExecutor.initExecutor(innerExpressionExecutors, siddhiAppContext, queryName,
                         configReader);
@@ -483,12 +533,18 @@ public class ExpressionParser {
                 Expression[] innerExpressions = ((AttributeFunction) expression).getParameters();
                 ExpressionExecutor[] innerExpressionExecutors = parseInnerExpression(innerExpressions, metaEvent,
                         currentState, tableMap, executorList,
-                        siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                        siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                        groupByAggregationAttributeExecutors);
                 attributeAggregator.initAggregator(innerExpressionExecutors, siddhiAppContext, configReader);
                 AbstractAggregationAttributeExecutor aggregationAttributeProcessor;
                 if (groupBy) {
-                    aggregationAttributeProcessor = new GroupByAggregationAttributeExecutor(attributeAggregator,
-                            innerExpressionExecutors, configReader, siddhiAppContext, queryName);
+                    GroupByAggregationAttributeExecutor groupByAggregationAttributeExecutor =
+                            new GroupByAggregationAttributeExecutor(attributeAggregator, innerExpressionExecutors,
+                                    configReader, siddhiAppContext, queryName);
+                    if (groupByAggregationAttributeExecutors != null) {
+                        groupByAggregationAttributeExecutors.add(groupByAggregationAttributeExecutor);
+                    }
+                    aggregationAttributeProcessor = groupByAggregationAttributeExecutor;
                 } else {
                     aggregationAttributeProcessor = new AggregationAttributeExecutor(attributeAggregator,
                             innerExpressionExecutors, siddhiAppContext, queryName);
@@ -513,7 +569,7 @@ public class ExpressionParser {
             if (isNull.getExpression() != null) {
                 ExpressionExecutor innerExpressionExecutor = parseExpression(isNull.getExpression(), metaEvent,
                         currentState, tableMap, executorList, siddhiAppContext, groupBy,
-                        defaultStreamEventIndex, queryName);
+                        defaultStreamEventIndex, queryName, groupByAggregationAttributeExecutors);
                 return new IsNullConditionExpressionExecutor(innerExpressionExecutor);
             } else {
                 String streamId = isNull.getStreamId();
@@ -1471,20 +1527,24 @@ public class ExpressionParser {
      * @param siddhiAppContext        SiddhiAppContext
      * @param groupBy                 is for groupBy expression
      * @param defaultStreamEventIndex Default StreamEvent Index
+     * @param groupByAggregationAttributeExecutors List to hold GroupByAggregationAttributeExecutors
      * @return List of expressionExecutors
      */
     private static ExpressionExecutor[] parseInnerExpression(Expression[] innerExpressions, MetaComplexEvent metaEvent,
                                                              int currentState, Map<String, Table> tableMap,
                                                              List<VariableExpressionExecutor> executorList,
                                                              SiddhiAppContext siddhiAppContext, boolean groupBy,
-                                                             int defaultStreamEventIndex, String queryName) {
+                                                             int defaultStreamEventIndex, String queryName,
+                                                             List<GroupByAggregationAttributeExecutor>
+                                                                     groupByAggregationAttributeExecutors) {
         ExpressionExecutor[] innerExpressionExecutors;
         if (innerExpressions != null) {
             if (innerExpressions.length > 0) {
                 innerExpressionExecutors = new ExpressionExecutor[innerExpressions.length];
                 for (int i = 0, innerExpressionsLength = innerExpressions.length; i < innerExpressionsLength; i++) {
                     innerExpressionExecutors[i] = parseExpression(innerExpressions[i], metaEvent, currentState,
-                            tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                            tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                            groupByAggregationAttributeExecutors);
                 }
             } else {
                 List<Expression> outputAttributes = new ArrayList<Expression>();
@@ -1517,7 +1577,8 @@ public class ExpressionParser {
                 innerExpressionExecutors = new ExpressionExecutor[outputAttributes.size()];
                 for (int i = 0, innerExpressionsLength = outputAttributes.size(); i < innerExpressionsLength; i++) {
                     innerExpressionExecutors[i] = parseExpression(outputAttributes.get(i), metaEvent, currentState,
-                            tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName);
+                            tableMap, executorList, siddhiAppContext, groupBy, defaultStreamEventIndex, queryName,
+                            groupByAggregationAttributeExecutors);
                 }
             }
         } else {
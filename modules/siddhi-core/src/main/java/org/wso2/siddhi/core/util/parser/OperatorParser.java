@@ -26,6 +26,8 @@ import org.wso2.siddhi.core.executor.ExpressionExecutor;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.table.holder.IndexedEventHolder;
+import org.wso2.siddhi.core.util.collection.IndexedStreamEventChunk;
+import org.wso2.siddhi.core.util.collection.SortedStreamEventCollection;
 import org.wso2.siddhi.core.util.collection.executor.CollectionExecutor;
 import org.wso2.siddhi.core.util.collection.expression.AttributeCollectionExpression;
 import org.wso2.siddhi.core.util.collection.expression.CollectionExpression;
@@ -33,19 +35,25 @@ import org.wso2.siddhi.core.util.collection.expression.CompareCollectionExpressi
 import org.wso2.siddhi.core.util.collection.operator.CollectionOperator;
 import org.wso2.siddhi.core.util.collection.operator.EventChunkOperator;
 import org.wso2.siddhi.core.util.collection.operator.IndexOperator;
+import org.wso2.siddhi.core.util.collection.operator.IndexedEventChunkOperator;
 import org.wso2.siddhi.core.util.collection.operator.MapOperator;
 import org.wso2.siddhi.core.util.collection.operator.MatchingMetaInfoHolder;
 import org.wso2.siddhi.core.util.collection.operator.Operator;
 import org.wso2.siddhi.core.util.collection.operator.OverwriteTableIndexOperator;
+import org.wso2.siddhi.core.util.collection.operator.SortedCollectionOperator;
+import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.Variable;
+import org.wso2.siddhi.query.api.expression.condition.And;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
+import static org.wso2.siddhi.core.util.SiddhiConstants.STREAM_EVENT_CHAIN_INDEX;
 import static org.wso2.siddhi.core.util.collection.expression.CollectionExpression.CollectionScope.INDEXED_RESULT_SET;
 
 /**
@@ -77,6 +85,17 @@ public class OperatorParser {
                 return new IndexOperator(collectionExecutor, queryName);
 
             }
+        } else if (storeEvents instanceof IndexedStreamEventChunk) {
+            ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
+                    matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
+                    variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+            Object[] indexCondition = parseIndexCondition(expression, matchingMetaInfoHolder, siddhiAppContext,
+                    variableExpressionExecutors, tableMap, queryName);
+            if (indexCondition != null) {
+                return new IndexedEventChunkOperator(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex(),
+                        (int[]) indexCondition[0], (ExpressionExecutor) indexCondition[1]);
+            }
+            return new EventChunkOperator(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex());
         } else if (storeEvents instanceof ComplexEventChunk) {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                                                                                      matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
@@ -85,6 +104,21 @@ public class OperatorParser {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                                                                                      matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
             return new MapOperator(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex());
+        } else if (storeEvents instanceof SortedStreamEventCollection) {
+            ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
+                    matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
+                    variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+            Attribute sortAttribute = ((SortedStreamEventCollection) storeEvents).getSortAttribute();
+            if (sortAttribute != null) {
+                Object[] rangeCondition = parseRangeCondition(expression, sortAttribute, matchingMetaInfoHolder,
+                        siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
+                if (rangeCondition != null) {
+                    return new SortedCollectionOperator(expressionExecutor,
+                            matchingMetaInfoHolder.getStoreEventIndex(), (Compare.Operator) rangeCondition[0],
+                            (ExpressionExecutor) rangeCondition[1]);
+                }
+            }
+            return new CollectionOperator(expressionExecutor, matchingMetaInfoHolder.getStoreEventIndex());
         } else if (storeEvents instanceof Collection) {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(expression,
                                                                                      matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap, variableExpressionExecutors, siddhiAppContext, false, 0, queryName);
@@ -94,6 +128,164 @@ public class OperatorParser {
         }
     }
 
+    /**
+     * Finds a compare condition between the given sort attribute of the store events and a bound that does not depend
+     * on the store events, which must hold for the whole condition to hold.
+     *
+     * @return the operator, normalized such that the sort attribute is the left operand, and the executor of the
+     * bound, or null if there is no such condition
+     */
+    private static Object[] parseRangeCondition(Expression expression, Attribute sortAttribute,
+                                                MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                                SiddhiAppContext siddhiAppContext,
+                                                List<VariableExpressionExecutor> variableExpressionExecutors,
+                                                Map<String, Table> tableMap, String queryName) {
+        if (expression instanceof And) {
+            Object[] rangeCondition = parseRangeCondition(((And) expression).getLeftExpression(), sortAttribute,
+                    matchingMetaInfoHolder, siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
+            if (rangeCondition == null) {
+                rangeCondition = parseRangeCondition(((And) expression).getRightExpression(), sortAttribute,
+                        matchingMetaInfoHolder, siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
+            }
+            return rangeCondition;
+        } else if (expression instanceof Compare) {
+            Compare compare = (Compare) expression;
+            Compare.Operator operator = compare.getOperator();
+            Expression boundExpression;
+            if (isStoreVariable(compare.getLeftExpression(), sortAttribute, matchingMetaInfoHolder,
+                    siddhiAppContext, tableMap, queryName)) {
+                boundExpression = compare.getRightExpression();
+            } else if (isStoreVariable(compare.getRightExpression(), sortAttribute, matchingMetaInfoHolder,
+                    siddhiAppContext, tableMap, queryName)) {
+                boundExpression = compare.getLeftExpression();
+                switch (operator) {
+                    case LESS_THAN:
+                        operator = Compare.Operator.GREATER_THAN;
+                        break;
+                    case LESS_THAN_EQUAL:
+                        operator = Compare.Operator.GREATER_THAN_EQUAL;
+                        break;
+                    case GREATER_THAN:
+                        operator = Compare.Operator.LESS_THAN;
+                        break;
+                    case GREATER_THAN_EQUAL:
+                        operator = Compare.Operator.LESS_THAN_EQUAL;
+                        break;
+                    default:
+                        break;
+                }
+            } else {
+                return null;
+            }
+            if (operator == Compare.Operator.NOT_EQUAL) {
+                return null;
+            }
+            ExpressionExecutor boundExecutor = parseBound(boundExpression, sortAttribute.getType(),
+                    matchingMetaInfoHolder, siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
+            return boundExecutor != null ? new Object[]{operator, boundExecutor} : null;
+        }
+        return null;
+    }
+
+    /**
+     * Finds an equality condition between an attribute of the store events and a value that does not depend on the
+     * store events, which must hold for the whole condition to hold.
+     *
+     * @return the position of the attribute in the store events and the executor of the value, or null if there is no
+     * such condition
+     */
+    private static Object[] parseIndexCondition(Expression expression, MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                                SiddhiAppContext siddhiAppContext,
+                                                List<VariableExpressionExecutor> variableExpressionExecutors,
+                                                Map<String, Table> tableMap, String queryName) {
+        if (expression instanceof And) {
+            Object[] indexCondition = parseIndexCondition(((And) expression).getLeftExpression(),
+                    matchingMetaInfoHolder, siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
+            if (indexCondition == null) {
+                indexCondition = parseIndexCondition(((And) expression).getRightExpression(),
+                        matchingMetaInfoHolder, siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
+            }
+            return indexCondition;
+        } else if (expression instanceof Compare &&
+                ((Compare) expression).getOperator() == Compare.Operator.EQUAL) {
+            Compare compare = (Compare) expression;
+            Expression keyExpression = compare.getRightExpression();
+            VariableExpressionExecutor storeVariableExecutor = parseStoreVariable(compare.getLeftExpression(),
+                    matchingMetaInfoHolder, siddhiAppContext, tableMap, queryName);
+            if (storeVariableExecutor == null) {
+                keyExpression = compare.getLeftExpression();
+                storeVariableExecutor = parseStoreVariable(compare.getRightExpression(), matchingMetaInfoHolder,
+                        siddhiAppContext, tableMap, queryName);
+            }
+            if (storeVariableExecutor == null) {
+                return null;
+            }
+            ExpressionExecutor keyExecutor = parseBound(keyExpression, storeVariableExecutor.getReturnType(),
+                    matchingMetaInfoHolder, siddhiAppContext, variableExpressionExecutors, tableMap, queryName);
+            if (keyExecutor == null) {
+                return null;
+            }
+            // positions of the variables are only final once the query is parsed, hence the index is looked up by
+            // the position of an executor which is updated along with the rest
+            variableExpressionExecutors.add(storeVariableExecutor);
+            return new Object[]{storeVariableExecutor.getPosition(), keyExecutor};
+        }
+        return null;
+    }
+
+    /**
+     * @return the executor of the given bound, or null if the bound depends on the store events or is not of the
+     * given type
+     */
+    private static ExpressionExecutor parseBound(Expression boundExpression, Attribute.Type type,
+                                                 MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                                 SiddhiAppContext siddhiAppContext,
+                                                 List<VariableExpressionExecutor> variableExpressionExecutors,
+                                                 Map<String, Table> tableMap, String queryName) {
+        List<VariableExpressionExecutor> boundVariableExpressionExecutors = new ArrayList<>();
+        ExpressionExecutor boundExecutor = ExpressionParser.parseExpression(boundExpression,
+                matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
+                boundVariableExpressionExecutors, siddhiAppContext, false, 0, queryName);
+        // bounds are looked up among the values of the store attribute, hence their types should be the same
+        if (boundExecutor.getReturnType() != type) {
+            return null;
+        }
+        for (VariableExpressionExecutor variableExpressionExecutor : boundVariableExpressionExecutors) {
+            if (variableExpressionExecutor.getPosition()[STREAM_EVENT_CHAIN_INDEX] ==
+                    matchingMetaInfoHolder.getStoreEventIndex()) {
+                return null;
+            }
+        }
+        variableExpressionExecutors.addAll(boundVariableExpressionExecutors);
+        return boundExecutor;
+    }
+
+    private static VariableExpressionExecutor parseStoreVariable(Expression expression,
+                                                                 MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                                                 SiddhiAppContext siddhiAppContext,
+                                                                 Map<String, Table> tableMap, String queryName) {
+        if (expression instanceof Variable) {
+            ExpressionExecutor executor = ExpressionParser.parseExpression(expression,
+                    matchingMetaInfoHolder.getMetaStateEvent(), matchingMetaInfoHolder.getCurrentState(), tableMap,
+                    new ArrayList<VariableExpressionExecutor>(), siddhiAppContext, false, 0, queryName);
+            if (executor instanceof VariableExpressionExecutor &&
+                    ((VariableExpressionExecutor) executor).getPosition()[STREAM_EVENT_CHAIN_INDEX] ==
+                            matchingMetaInfoHolder.getStoreEventIndex()) {
+                return (VariableExpressionExecutor) executor;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isStoreVariable(Expression expression, Attribute attribute,
+                                           MatchingMetaInfoHolder matchingMetaInfoHolder,
+                                           SiddhiAppContext siddhiAppContext, Map<String, Table> tableMap,
+                                           String queryName) {
+        return expression instanceof Variable &&
+                ((Variable) expression).getAttributeName().equals(attribute.getName()) &&
+                parseStoreVariable(expression, matchingMetaInfoHolder, siddhiAppContext, tableMap, queryName) != null;
+    }
+
     private static boolean isTableIndexVariable(MatchingMetaInfoHolder matchingMetaInfoHolder, Expression expression,
                                                 String indexAttribute) {
         if (expression instanceof Variable) {
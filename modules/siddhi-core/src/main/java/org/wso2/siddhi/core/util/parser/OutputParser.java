@@ -103,7 +103,7 @@ public class OutputParser {
             }
             tableMetaStreamEvent.addInputDefinition(matchingTableDefinition);
 
-            streamEventPool = new StreamEventPool(tableMetaStreamEvent, 10);
+            streamEventPool = new StreamEventPool(tableMetaStreamEvent, siddhiAppContext.getEventPoolSize(10));
             streamEventConverter = new ZeroStreamEventConverter();
 
         }
@@ -139,7 +139,8 @@ public class OutputParser {
                                 MatcherParser.constructMatchingMetaStateHolder(tableMetaStreamEvent, 0, table.getTableDefinition(), 0);
                         CompiledCondition compiledCondition = table.compileCondition((((DeleteStream) outStream).getOnDeleteExpression()),
                                 matchingMetaInfoHolder, siddhiAppContext, null, tableMap, queryName);
-                        StateEventPool stateEventPool = new StateEventPool(matchingMetaInfoHolder.getMetaStateEvent(), 10);
+                        StateEventPool stateEventPool = new StateEventPool(matchingMetaInfoHolder.getMetaStateEvent(),
+                                siddhiAppContext.getEventPoolSize(10));
                         return new DeleteTableCallback(table, compiledCondition, matchingMetaInfoHolder.getMatchingStreamEventIndex(),
                                 convertToStreamEvent, stateEventPool, streamEventPool, streamEventConverter);
                     } catch (SiddhiAppValidationException e) {
@@ -152,7 +153,8 @@ public class OutputParser {
                                 MatcherParser.constructMatchingMetaStateHolder(tableMetaStreamEvent, 0, table.getTableDefinition(), 0);
                         CompiledCondition compiledCondition = table.compileCondition((((UpdateStream) outStream).getOnUpdateExpression()),
                                 matchingMetaInfoHolder, siddhiAppContext, null, tableMap, queryName);
-                        StateEventPool stateEventPool = new StateEventPool(matchingMetaInfoHolder.getMetaStateEvent(), 10);
+                        StateEventPool stateEventPool = new StateEventPool(matchingMetaInfoHolder.getMetaStateEvent(),
+                                siddhiAppContext.getEventPoolSize(10));
                         return new UpdateTableCallback(table, compiledCondition, outputStreamDefinition,
                                 matchingMetaInfoHolder.getMatchingStreamEventIndex(), convertToStreamEvent, stateEventPool,
                                 streamEventPool, streamEventConverter);
@@ -168,7 +170,8 @@ public class OutputParser {
                                 MatcherParser.constructMatchingMetaStateHolder(tableMetaStreamEvent, 0, table.getTableDefinition(), 0);
                         CompiledCondition compiledCondition  = table.compileCondition((((UpdateOrInsertStream) outStream).getOnUpdateExpression()),
                                 matchingMetaInfoHolder, siddhiAppContext, null, tableMap, queryName);
-                        StateEventPool stateEventPool = new StateEventPool(matchingMetaInfoHolder.getMetaStateEvent(), 10);
+                        StateEventPool stateEventPool = new StateEventPool(matchingMetaInfoHolder.getMetaStateEvent(),
+                                siddhiAppContext.getEventPoolSize(10));
                         return new UpdateOrInsertTableCallback(table, compiledCondition, outputStreamDefinition,
                                 matchingMetaInfoHolder.getMatchingStreamEventIndex(), convertToStreamEvent, stateEventPool,
                                 streamEventPool, streamEventConverter);
@@ -21,6 +21,7 @@ import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.event.MetaComplexEvent;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.partition.PartitionRuntime;
 import org.wso2.siddhi.core.query.QueryRuntime;
@@ -30,6 +31,10 @@ import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.execution.partition.Partition;
 import org.wso2.siddhi.query.api.execution.query.Query;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Filter;
+import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
+import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
+import org.wso2.siddhi.query.api.execution.query.output.stream.InsertIntoStream;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -53,6 +58,7 @@ public class PartitionParser {
                     AbstractDefinition>();
             combinedStreamMap.putAll(streamDefinitionMap);
             combinedStreamMap.putAll(partitionRuntime.getLocalStreamDefinitionMap());
+            boolean keyedQuery = partitionRuntime.isKeyed() && isKeyedExecutable(query, partition);
             QueryRuntime queryRuntime = QueryParser.parse(query, siddhiAppContext, combinedStreamMap,
                     siddhiAppRuntimeBuilder.getTableDefinitionMap(),
                     siddhiAppRuntimeBuilder.getWindowDefinitionMap(),
@@ -60,10 +66,17 @@ public class PartitionParser {
                     siddhiAppRuntimeBuilder.getEventWindowMap(),
                     siddhiAppRuntimeBuilder.getEventSourceMap(),
                     siddhiAppRuntimeBuilder.getEventSinkMap(),
-                    siddhiAppRuntimeBuilder.getLockSynchronizer(), String.valueOf(queryIndex));
+                    siddhiAppRuntimeBuilder.getLockSynchronizer(), String.valueOf(queryIndex), keyedQuery);
             queryIndex++;
+            if (partitionRuntime.isKeyed() && !keyedQuery) {
+                throw new SiddhiAppCreationException("Query '" + queryRuntime.getQueryId() + "' of the keyed " +
+                        "partition '" + partitionRuntime.getPartitionId() + "' in Siddhi app '" +
+                        siddhiAppContext.getName() + "' cannot be keyed, as @keyed only supports queries consuming " +
+                        "a partitioned stream through filters and aggregations, without windows, joins, patterns, " +
+                        "sequences, output rate limiting or inner streams");
+            }
             MetaStateEvent metaStateEvent = createMetaEventForPartitioner(queryRuntime.getMetaComplexEvent());
-            partitionRuntime.addQuery(queryRuntime);
+            partitionRuntime.addQuery(queryRuntime, keyedQuery);
             partitionRuntime.addPartitionReceiver(queryRuntime, executors, metaStateEvent);
             QueryParserHelper.reduceMetaComplexEvent(metaStateEvent);
             if (queryRuntime.getMetaComplexEvent() instanceof MetaStateEvent) {
@@ -78,6 +91,32 @@ public class PartitionParser {
 
     }
 
+    /**
+     * Check whether the query can share a single runtime across all the keys of a keyed partition. This is possible
+     * when the only state of the query is its aggregations, which can be kept per partition key.
+     *
+     * @param query     query of the partition
+     * @param partition the partition
+     * @return true if the query consumes a partitioned stream through filters only and emits without rate limiting
+     */
+    private static boolean isKeyedExecutable(Query query, Partition partition) {
+        if (!(query.getInputStream() instanceof SingleInputStream) || query.getOutputRate() != null) {
+            return false;
+        }
+        SingleInputStream singleInputStream = (SingleInputStream) query.getInputStream();
+        if (singleInputStream.isInnerStream() ||
+                !partition.getPartitionTypeMap().containsKey(singleInputStream.getStreamId())) {
+            return false;
+        }
+        for (StreamHandler streamHandler : singleInputStream.getStreamHandlers()) {
+            if (!(streamHandler instanceof Filter)) {
+                return false;
+            }
+        }
+        return !(query.getOutputStream() instanceof InsertIntoStream &&
+                ((InsertIntoStream) query.getOutputStream()).isInnerStream());
+    }
+
     /**
      * Create metaEvent to be used by StreamPartitioner with output attributes
      *
@@ -24,12 +24,14 @@ import org.wso2.siddhi.core.event.state.populater.StateEventPopulatorFactory;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
+import org.wso2.siddhi.core.executor.function.FunctionExecutor;
 import org.wso2.siddhi.core.query.QueryRuntime;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.join.JoinStreamRuntime;
 import org.wso2.siddhi.core.query.input.stream.single.SingleStreamRuntime;
 import org.wso2.siddhi.core.query.output.callback.OutputCallback;
 import org.wso2.siddhi.core.query.output.ratelimit.OutputRateLimiter;
+import org.wso2.siddhi.core.query.output.ratelimit.PassThroughOutputRateLimiter;
 import org.wso2.siddhi.core.query.output.ratelimit.snapshot.WrappedSnapshotOutputRateLimiter;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.stream.input.source.Source;
@@ -39,12 +41,15 @@ import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.lock.LockSynchronizer;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
 import org.wso2.siddhi.core.util.parser.helper.QueryParserHelper;
+import org.wso2.siddhi.core.util.purge.PurgeConfiguration;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.window.Window;
 import org.wso2.siddhi.query.api.annotation.Element;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
 import org.wso2.siddhi.query.api.exception.DuplicateDefinitionException;
 import org.wso2.siddhi.query.api.execution.query.Query;
+import org.wso2.siddhi.query.api.execution.query.input.handler.Filter;
 import org.wso2.siddhi.query.api.execution.query.input.handler.StreamHandler;
 import org.wso2.siddhi.query.api.execution.query.input.stream.JoinInputStream;
 import org.wso2.siddhi.query.api.execution.query.input.stream.SingleInputStream;
@@ -88,6 +93,37 @@ public class QueryParser {
                                      Map<String, List<Sink>> eventSinkMap,
                                      LockSynchronizer lockSynchronizer,
                                      String queryIndex) {
+        return parse(query, siddhiAppContext, streamDefinitionMap, tableDefinitionMap, windowDefinitionMap,
+                tableMap, eventWindowMap, eventSourceMap, eventSinkMap, lockSynchronizer, queryIndex, false);
+    }
+
+    /**
+     * Parse a query and return corresponding QueryRuntime.
+     *
+     * @param query               query to be parsed.
+     * @param siddhiAppContext    associated Siddhi app context.
+     * @param streamDefinitionMap keyvalue containing user given stream definitions.
+     * @param tableDefinitionMap  keyvalue containing table definitions.
+     * @param windowDefinitionMap keyvalue containing window definition map.
+     * @param tableMap            keyvalue containing event tables.
+     * @param eventWindowMap      keyvalue containing event window map.
+     * @param eventSourceMap      keyvalue containing event source map.
+     * @param eventSinkMap        keyvalue containing event sink map.
+     * @param lockSynchronizer    Lock synchronizer for sync the lock across queries.
+     * @param queryIndex          query index to identify unknown query by number
+     * @param partitionKeyed      true if the query runtime is shared by all the keys of a keyed partition
+     * @return queryRuntime
+     */
+    public static QueryRuntime parse(Query query, SiddhiAppContext siddhiAppContext,
+                                     Map<String, AbstractDefinition> streamDefinitionMap,
+                                     Map<String, AbstractDefinition> tableDefinitionMap,
+                                     Map<String, AbstractDefinition> windowDefinitionMap,
+                                     Map<String, Table> tableMap,
+                                     Map<String, Window> eventWindowMap,
+                                     Map<String, List<Source>> eventSourceMap,
+                                     Map<String, List<Sink>> eventSinkMap,
+                                     LockSynchronizer lockSynchronizer,
+                                     String queryIndex, boolean partitionKeyed) {
         List<VariableExpressionExecutor> executors = new ArrayList<VariableExpressionExecutor>();
         QueryRuntime queryRuntime;
         Element nameElement = null;
@@ -126,7 +162,24 @@ public class QueryParser {
                     siddhiAppContext, streamDefinitionMap, tableDefinitionMap, windowDefinitionMap, tableMap,
                     eventWindowMap, executors, latencyTracker, outputExpectsExpiredEvents, queryName);
             QuerySelector selector = SelectorParser.parse(query.getSelector(), query.getOutputStream(),
-                    siddhiAppContext, streamRuntime.getMetaComplexEvent(), tableMap, executors, queryName);
+                    siddhiAppContext, streamRuntime.getMetaComplexEvent(), tableMap, executors, queryName,
+                    partitionKeyed);
+            PurgeConfiguration purgeConfiguration = QueryParserHelper.getPurgeConfiguration(query.getAnnotations());
+            if (purgeConfiguration != null) {
+                if (query.getSelector().getGroupByList().isEmpty()) {
+                    throw new SiddhiAppCreationException(SiddhiConstants.ANNOTATION_PURGE + " annotation is only " +
+                            "supported for queries with group by");
+                }
+                String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration()
+                        .getMatricPrefix() +
+                        SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                        SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
+                        SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                        SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_QUERIES +
+                        SiddhiConstants.METRIC_DELIMITER + queryName;
+                selector.setPurgeScheduler(QueryParserHelper.createPurgeScheduler(queryName, metricName,
+                        purgeConfiguration, siddhiAppContext));
+            }
             boolean isWindow = query.getInputStream() instanceof JoinInputStream;
             if (!isWindow && query.getInputStream() instanceof SingleInputStream) {
                 for (StreamHandler streamHandler : ((SingleInputStream) query.getInputStream()).getStreamHandlers()) {
@@ -210,7 +263,8 @@ public class QueryParser {
             QueryParserHelper.reduceMetaComplexEvent(streamRuntime.getMetaComplexEvent());
             QueryParserHelper.updateVariablePosition(streamRuntime.getMetaComplexEvent(), executors);
             QueryParserHelper.initStreamRuntime(streamRuntime, streamRuntime.getMetaComplexEvent(), lockWrapper,
-                    queryName);
+                    queryName, QueryParserHelper.getEventPoolSize(query, siddhiAppContext,
+                            SiddhiConstants.DEFAULT_EVENT_POOL_SIZE), siddhiAppContext);
             selector.setEventPopulator(StateEventPopulatorFactory.constructEventPopulator(streamRuntime
                     .getMetaComplexEvent()));
             queryRuntime = new QueryRuntime(query, siddhiAppContext, streamRuntime, selector, outputRateLimiter,
@@ -224,6 +278,13 @@ public class QueryParser {
             }
             outputRateLimiter.init(siddhiAppContext, lockWrapper, queryName);
 
+            if (lockWrapper == null && !isWindow && streamRuntime instanceof SingleStreamRuntime &&
+                    isStatelessInputStream(query) && !selector.isStateful() &&
+                    outputRateLimiter instanceof PassThroughOutputRateLimiter &&
+                    !containsStatefulFunctions(queryName, siddhiAppContext)) {
+                ((SingleStreamRuntime) streamRuntime).getProcessStreamReceiver().setParallelProcessingAllowed(true);
+            }
+
         } catch (DuplicateDefinitionException e) {
             if (nameElement != null) {
                 throw new DuplicateDefinitionException(e.getMessage() + ", when creating query " + nameElement
@@ -241,4 +302,33 @@ public class QueryParser {
         }
         return queryRuntime;
     }
+
+    /**
+     * Check whether any function executor of the query, such as those of its filter and select clauses, holds state.
+     * Function executors register themselves for snapshotting under the query name, and stateless ones do not have a
+     * state to be snapshotted.
+     */
+    private static boolean containsStatefulFunctions(String queryName, SiddhiAppContext siddhiAppContext) {
+        List<Snapshotable> snapshotables = siddhiAppContext.getSnapshotService().getSnapshotables(queryName);
+        if (snapshotables != null) {
+            for (Snapshotable snapshotable : snapshotables) {
+                if (snapshotable instanceof FunctionExecutor && snapshotable.currentState() != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isStatelessInputStream(Query query) {
+        if (!(query.getInputStream() instanceof SingleInputStream)) {
+            return false;
+        }
+        for (StreamHandler streamHandler : ((SingleInputStream) query.getInputStream()).getStreamHandlers()) {
+            if (!(streamHandler instanceof Filter)) {
+                return false;
+            }
+        }
+        return true;
+    }
 }
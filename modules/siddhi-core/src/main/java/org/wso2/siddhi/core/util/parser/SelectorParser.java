@@ -28,6 +28,7 @@ import org.wso2.siddhi.core.executor.condition.ConditionExpressionExecutor;
 import org.wso2.siddhi.core.query.selector.GroupByKeyGenerator;
 import org.wso2.siddhi.core.query.selector.QuerySelector;
 import org.wso2.siddhi.core.query.selector.attribute.processor.AttributeProcessor;
+import org.wso2.siddhi.core.query.selector.attribute.processor.executor.GroupByAggregationAttributeExecutor;
 import org.wso2.siddhi.core.table.Table;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.query.api.definition.AbstractDefinition;
@@ -66,6 +67,29 @@ public class SelectorParser {
             siddhiAppContext,
                                       MetaComplexEvent metaComplexEvent, Map<String, Table> tableMap,
                                       List<VariableExpressionExecutor> variableExpressionExecutors, String queryName) {
+        return parse(selector, outputStream, siddhiAppContext, metaComplexEvent, tableMap,
+                variableExpressionExecutors, queryName, false);
+    }
+
+    /**
+     * Parse Selector portion of a query and return corresponding QuerySelector
+     *
+     * @param selector                    selector to be parsed
+     * @param outputStream                output stream
+     * @param siddhiAppContext            query to be parsed
+     * @param metaComplexEvent            Meta event used to collect execution info of stream associated with query
+     * @param tableMap                    Table Map
+     * @param variableExpressionExecutors variable expression executors
+     * @param queryName                   query name of selector belongs to.
+     * @param partitionKeyed              true if the aggregations should be kept per partition key, as the selector
+     *                                    is shared by all keys of a keyed partition
+     * @return QuerySelector
+     */
+    public static QuerySelector parse(Selector selector, OutputStream outputStream, SiddhiAppContext
+            siddhiAppContext,
+                                      MetaComplexEvent metaComplexEvent, Map<String, Table> tableMap,
+                                      List<VariableExpressionExecutor> variableExpressionExecutors, String queryName,
+                                      boolean partitionKeyed) {
         boolean currentOn = false;
         boolean expiredOn = false;
         String id = null;
@@ -82,18 +106,23 @@ public class SelectorParser {
         id = outputStream.getId();
         containsAggregatorThreadLocal.remove();
         QuerySelector querySelector = new QuerySelector(id, selector, currentOn, expiredOn, siddhiAppContext);
+        List<GroupByAggregationAttributeExecutor> groupByAggregationAttributeExecutors =
+                new ArrayList<GroupByAggregationAttributeExecutor>();
         List<AttributeProcessor> attributeProcessors = getAttributeProcessors(selector, id, siddhiAppContext,
-                metaComplexEvent, tableMap, variableExpressionExecutors, queryName);
-        querySelector.setAttributeProcessorList(attributeProcessors, "true".equals(containsAggregatorThreadLocal.get
-                ()));
+                metaComplexEvent, tableMap, variableExpressionExecutors, groupByAggregationAttributeExecutors,
+                queryName, partitionKeyed);
+        querySelector.setAttributeProcessorList(attributeProcessors, "true".equals(containsAggregatorThreadLocal
+                .get()));
+        querySelector.setGroupByAggregationAttributeExecutors(groupByAggregationAttributeExecutors);
         containsAggregatorThreadLocal.remove();
         ConditionExpressionExecutor havingCondition = generateHavingExecutor(selector.getHavingExpression(),
                 metaComplexEvent, siddhiAppContext, tableMap, variableExpressionExecutors, queryName);
-        querySelector.setHavingConditionExecutor(havingCondition, "true".equals(containsAggregatorThreadLocal.get()));
+        querySelector.setHavingConditionExecutor(havingCondition, "true".equals(containsAggregatorThreadLocal
+                .get()));
         containsAggregatorThreadLocal.remove();
-        if (!selector.getGroupByList().isEmpty()) {
+        if (!selector.getGroupByList().isEmpty() || (partitionKeyed && querySelector.isStateful())) {
             querySelector.setGroupByKeyGenerator(new GroupByKeyGenerator(selector.getGroupByList(), metaComplexEvent,
-                    null, variableExpressionExecutors, siddhiAppContext, queryName));
+                    null, variableExpressionExecutors, siddhiAppContext, queryName, partitionKeyed));
         }
 
 
@@ -109,6 +138,8 @@ public class SelectorParser {
      * @param metaComplexEvent            meta ComplexEvent
      * @param tableMap               Table Map
      * @param variableExpressionExecutors list of VariableExpressionExecutors
+     * @param groupByAggregationAttributeExecutors list to hold the created group by aggregation executors
+     * @param partitionKeyed              true if the aggregations should be kept per partition key
      * @return list of AttributeProcessors
      */
     private static List<AttributeProcessor> getAttributeProcessors(Selector selector, String id,
@@ -116,8 +147,10 @@ public class SelectorParser {
                                                                    MetaComplexEvent metaComplexEvent,
                                                                    Map<String, Table> tableMap,
                                                                    List<VariableExpressionExecutor>
-                                                                           variableExpressionExecutors, String
-                                                                           queryName) {
+                                                                           variableExpressionExecutors,
+                                                                   List<GroupByAggregationAttributeExecutor>
+                                                                           groupByAggregationAttributeExecutors,
+                                                                   String queryName, boolean partitionKeyed) {
 
         List<AttributeProcessor> attributeProcessorList = new ArrayList<AttributeProcessor>();
         StreamDefinition outputDefinition = StreamDefinition.id(id);
@@ -159,7 +192,8 @@ public class SelectorParser {
             ExpressionExecutor expressionExecutor = ExpressionParser.parseExpression(outputAttribute.getExpression(),
                     metaComplexEvent, SiddhiConstants.UNKNOWN_STATE, tableMap, variableExpressionExecutors,
                     siddhiAppContext,
-                    !(selector.getGroupByList().isEmpty()), 0, queryName);
+                    !(selector.getGroupByList().isEmpty()) || partitionKeyed, 0, queryName,
+                    groupByAggregationAttributeExecutors);
             if (expressionExecutor instanceof VariableExpressionExecutor) {   //for variables we will directly put
                 // value at conversion stage
                 VariableExpressionExecutor executor = ((VariableExpressionExecutor) expressionExecutor);
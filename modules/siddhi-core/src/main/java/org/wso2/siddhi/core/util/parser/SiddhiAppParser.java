@@ -28,7 +28,11 @@ import org.wso2.siddhi.core.util.ElementIdGenerator;
 import org.wso2.siddhi.core.util.SiddhiAppRuntimeBuilder;
 import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.ThreadBarrier;
+import org.wso2.siddhi.core.util.TimerWheel;
+import org.wso2.siddhi.core.util.persistence.FileSystemPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceService;
+import org.wso2.siddhi.core.util.snapshot.BinarySnapshotCodec;
+import org.wso2.siddhi.core.util.snapshot.JavaSnapshotCodec;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.util.timestamp.EventTimeBasedMillisTimestampGenerator;
@@ -102,6 +106,24 @@ public class SiddhiAppParser {
                 }
             }
 
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_EVENT_POOL,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                String enabledString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_ENABLED);
+                if (enabledString != null) {
+                    siddhiAppContext.setEventPoolEnabled(Boolean.parseBoolean(enabledString));
+                }
+                String sizeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SIZE);
+                if (sizeString != null) {
+                    try {
+                        siddhiAppContext.setEventPoolSize(Integer.parseInt(sizeString));
+                    } catch (NumberFormatException e) {
+                        throw new SiddhiAppCreationException("Invalid size '" + sizeString + "' in " +
+                                SiddhiConstants.ANNOTATION_EVENT_POOL + " annotation", e);
+                    }
+                }
+            }
+
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_STATISTICS,
                     siddhiApp.getAnnotations());
 
@@ -118,6 +140,10 @@ public class SiddhiAppParser {
                             .getStatisticsConfiguration()
                             .getFactory()
                             .createStatisticsManager(annotation.getElements()));
+                    siddhiAppContext.setEventPoolTracker(siddhiContext
+                            .getStatisticsConfiguration()
+                            .getFactory()
+                            .createEventPoolTracker(siddhiAppContext.getStatisticsManager()));
                 }
             }
 
@@ -131,6 +157,27 @@ public class SiddhiAppParser {
                     new ThreadFactoryBuilder().setNameFormat("Siddhi-" +
                             siddhiAppContext.getName() + "-scheduler-thread-%d").build()));
 
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_SCHEDULER,
+                    siddhiApp.getAnnotations());
+            long resolution = SiddhiConstants.DEFAULT_SCHEDULER_RESOLUTION;
+            if (annotation != null) {
+                String resolutionString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_RESOLUTION);
+                if (resolutionString != null) {
+                    try {
+                        resolution = Long.parseLong(resolutionString);
+                    } catch (NumberFormatException e) {
+                        throw new SiddhiAppCreationException("Invalid resolution '" + resolutionString + "' in " +
+                                SiddhiConstants.ANNOTATION_SCHEDULER + " annotation", e);
+                    }
+                    if (resolution < 1) {
+                        throw new SiddhiAppCreationException("resolution of " +
+                                SiddhiConstants.ANNOTATION_SCHEDULER + " annotation should be greater than zero, " +
+                                "but found " + resolution);
+                    }
+                }
+            }
+            siddhiAppContext.setTimerWheel(new TimerWheel(siddhiAppContext, resolution));
+
             // Select the TimestampGenerator based on playback mode on/off
             annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PLAYBACK,
                     siddhiApp.getAnnotations());
@@ -180,7 +227,81 @@ public class SiddhiAppParser {
             } else {
                 siddhiAppContext.setTimestampGenerator(new SystemCurrentTimeMillisTimestampGenerator());
             }
-            siddhiAppContext.setSnapshotService(new SnapshotService(siddhiAppContext));
+            SnapshotService snapshotService = new SnapshotService(siddhiAppContext);
+            annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_SNAPSHOT,
+                    siddhiApp.getAnnotations());
+            if (annotation != null) {
+                if (Boolean.parseBoolean(annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_INCREMENTAL))) {
+                    String baseIntervalString = annotation.getElement(
+                            SiddhiConstants.ANNOTATION_ELEMENT_BASE_INTERVAL);
+                    int baseInterval = 10;
+                    if (baseIntervalString != null) {
+                        try {
+                            baseInterval = Integer.parseInt(baseIntervalString);
+                        } catch (NumberFormatException e) {
+                            throw new SiddhiAppCreationException("Invalid base.interval '" + baseIntervalString +
+                                    "' in " + SiddhiConstants.ANNOTATION_SNAPSHOT + " annotation", e);
+                        }
+                        if (baseInterval < 1) {
+                            throw new SiddhiAppCreationException("base.interval of " +
+                                    SiddhiConstants.ANNOTATION_SNAPSHOT + " annotation should be greater than " +
+                                    "zero, but found " + baseInterval);
+                        }
+                    }
+                    if (siddhiContext.getPersistenceStore() instanceof FileSystemPersistenceStore) {
+                        int maxRevisions = ((FileSystemPersistenceStore) siddhiContext.getPersistenceStore())
+                                .getMaxRevisions();
+                        if (maxRevisions < baseInterval) {
+                            // pruning would delete the revisions the last incremental snapshot depends on
+                            throw new SiddhiAppCreationException("base.interval of " +
+                                    SiddhiConstants.ANNOTATION_SNAPSHOT + " annotation should not be greater " +
+                                    "than the max.revisions " + maxRevisions + " of the persistence store, but " +
+                                    "found " + baseInterval);
+                        }
+                    }
+                    snapshotService.setIncremental(baseInterval);
+                }
+                snapshotService.setNonBlocking(Boolean.parseBoolean(annotation.getElement(
+                        SiddhiConstants.ANNOTATION_ELEMENT_NON_BLOCKING)));
+                String codec = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_CODEC);
+                String compression = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_COMPRESSION);
+                boolean compressed = SiddhiConstants.SNAPSHOT_COMPRESSION_DEFLATE.equalsIgnoreCase(compression);
+                if (compression != null && !compressed &&
+                        !SiddhiConstants.SNAPSHOT_COMPRESSION_NONE.equalsIgnoreCase(compression)) {
+                    throw new SiddhiAppCreationException("Invalid compression '" + compression + "' in " +
+                            SiddhiConstants.ANNOTATION_SNAPSHOT + " annotation, expected " +
+                            SiddhiConstants.SNAPSHOT_COMPRESSION_NONE + " or " +
+                            SiddhiConstants.SNAPSHOT_COMPRESSION_DEFLATE);
+                }
+                if (codec == null || SiddhiConstants.SNAPSHOT_CODEC_BINARY.equalsIgnoreCase(codec)) {
+                    snapshotService.setCodec(new BinarySnapshotCodec(compressed));
+                } else if (SiddhiConstants.SNAPSHOT_CODEC_JAVA.equalsIgnoreCase(codec)) {
+                    if (compressed) {
+                        throw new SiddhiAppCreationException("Compression of " + SiddhiConstants.ANNOTATION_SNAPSHOT +
+                                " annotation is only supported by the " + SiddhiConstants.SNAPSHOT_CODEC_BINARY +
+                                " codec");
+                    }
+                    snapshotService.setCodec(new JavaSnapshotCodec());
+                } else {
+                    throw new SiddhiAppCreationException("Invalid codec '" + codec + "' in " +
+                            SiddhiConstants.ANNOTATION_SNAPSHOT + " annotation, expected " +
+                            SiddhiConstants.SNAPSHOT_CODEC_BINARY + " or " + SiddhiConstants.SNAPSHOT_CODEC_JAVA);
+                }
+            }
+            if (siddhiAppContext.isStatsEnabled() && siddhiAppContext.getStatisticsManager() != null) {
+                String metricName =
+                        siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+                                SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                                SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
+                                SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                                SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SNAPSHOTS +
+                                SiddhiConstants.METRIC_DELIMITER + "stall";
+                snapshotService.setStallLatencyTracker(siddhiAppContext.getSiddhiContext()
+                        .getStatisticsConfiguration()
+                        .getFactory()
+                        .createLatencyTracker(metricName, siddhiAppContext.getStatisticsManager()));
+            }
+            siddhiAppContext.setSnapshotService(snapshotService);
             siddhiAppContext.setPersistenceService(new PersistenceService(siddhiAppContext));
             siddhiAppContext.setElementIdGenerator(new ElementIdGenerator(siddhiAppContext.getName()));
 
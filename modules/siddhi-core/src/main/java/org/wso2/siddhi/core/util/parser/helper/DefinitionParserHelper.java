@@ -143,7 +143,8 @@ public class DefinitionParserHelper {
                 tableMetaStreamEvent.addOutputData(attribute);
             }
 
-            StreamEventPool tableStreamEventPool = new StreamEventPool(tableMetaStreamEvent, 10);
+            StreamEventPool tableStreamEventPool = new StreamEventPool(tableMetaStreamEvent,
+                    siddhiAppContext.getEventPoolSize(10));
             StreamEventCloner tableStreamEventCloner = new StreamEventCloner(tableMetaStreamEvent,
                     tableStreamEventPool);
 
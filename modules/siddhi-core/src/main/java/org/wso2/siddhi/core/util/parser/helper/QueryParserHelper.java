@@ -18,6 +18,8 @@
 
 package org.wso2.siddhi.core.util.parser.helper;
 
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.event.EventPool;
 import org.wso2.siddhi.core.event.MetaComplexEvent;
 import org.wso2.siddhi.core.event.state.MetaStateEvent;
 import org.wso2.siddhi.core.event.state.MetaStateEventAttribute;
@@ -26,6 +28,7 @@ import org.wso2.siddhi.core.event.state.StateEventPool;
 import org.wso2.siddhi.core.event.stream.MetaStreamEvent;
 import org.wso2.siddhi.core.event.stream.StreamEventCloner;
 import org.wso2.siddhi.core.event.stream.StreamEventPool;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.executor.VariableExpressionExecutor;
 import org.wso2.siddhi.core.query.input.ProcessStreamReceiver;
 import org.wso2.siddhi.core.query.input.stream.StreamRuntime;
@@ -35,8 +38,19 @@ import org.wso2.siddhi.core.query.input.stream.state.StreamPreStateProcessor;
 import org.wso2.siddhi.core.query.processor.Processor;
 import org.wso2.siddhi.core.query.processor.SchedulingProcessor;
 import org.wso2.siddhi.core.query.processor.stream.AbstractStreamProcessor;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.lock.LockWrapper;
+import org.wso2.siddhi.core.util.purge.PurgeConfiguration;
+import org.wso2.siddhi.core.util.purge.PurgeScheduler;
+import org.wso2.siddhi.core.util.purge.RegisteredElements;
+import org.wso2.siddhi.core.util.statistics.EventPoolTracker;
+import org.wso2.siddhi.core.util.statistics.PurgeTracker;
+import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.execution.query.Query;
+import org.wso2.siddhi.query.api.util.AnnotationHelper;
+import org.wso2.siddhi.query.compiler.SiddhiCompiler;
+import org.wso2.siddhi.query.compiler.exception.SiddhiParserException;
 
 import java.util.List;
 
@@ -144,25 +158,155 @@ public class QueryParserHelper {
         }
     }
 
+    /**
+     * Resolve the size of the event pools used by the given query, where the @EventPool annotation of the query
+     * overrides the Siddhi app level configuration.
+     *
+     * @param query            query which uses the event pools
+     * @param siddhiAppContext associated Siddhi app context
+     * @param defaultSize      pool size to be used when it is not configured
+     * @return event pool size, or 0 when event pooling is disabled
+     */
+    public static int getEventPoolSize(Query query, SiddhiAppContext siddhiAppContext, int defaultSize) {
+        int eventPoolSize = siddhiAppContext.getEventPoolSize(defaultSize);
+        Annotation annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_EVENT_POOL,
+                query.getAnnotations());
+        if (annotation != null) {
+            String enabledString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_ENABLED);
+            String sizeString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_SIZE);
+            if (enabledString != null && !Boolean.parseBoolean(enabledString)) {
+                eventPoolSize = 0;
+            } else if (sizeString != null) {
+                try {
+                    eventPoolSize = Integer.parseInt(sizeString);
+                } catch (NumberFormatException e) {
+                    throw new SiddhiAppCreationException("Invalid size '" + sizeString + "' in " +
+                            SiddhiConstants.ANNOTATION_EVENT_POOL + " annotation", e);
+                }
+            } else if (enabledString != null) {
+                eventPoolSize = defaultSize;
+            }
+        }
+        return eventPoolSize;
+    }
+
+    /**
+     * Read the {@code @purge(idle.period, interval, max.keys)} annotation
+     *
+     * @param annotations annotations of the partition or query
+     * @return purge configuration, or null if purging is not enabled
+     */
+    public static PurgeConfiguration getPurgeConfiguration(List<Annotation> annotations) {
+        Annotation annotation = AnnotationHelper.getAnnotation(SiddhiConstants.ANNOTATION_PURGE, annotations);
+        if (annotation == null) {
+            return null;
+        }
+        String enabledString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_ENABLED);
+        if (enabledString != null && !Boolean.parseBoolean(enabledString)) {
+            return null;
+        }
+        long idlePeriod = parsePurgeTime(annotation, SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD, -1);
+        long interval = parsePurgeTime(annotation, SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL,
+                SiddhiConstants.DEFAULT_PURGE_INTERVAL);
+        int maxKeys = -1;
+        String maxKeysString = annotation.getElement(SiddhiConstants.ANNOTATION_ELEMENT_MAX_KEYS);
+        if (maxKeysString != null) {
+            try {
+                maxKeys = Integer.parseInt(maxKeysString);
+            } catch (NumberFormatException e) {
+                throw new SiddhiAppCreationException("Invalid " + SiddhiConstants.ANNOTATION_ELEMENT_MAX_KEYS + " '" +
+                        maxKeysString + "' in " + SiddhiConstants.ANNOTATION_PURGE + " annotation", e);
+            }
+        }
+        if (idlePeriod <= 0 && maxKeys <= 0) {
+            throw new SiddhiAppCreationException(SiddhiConstants.ANNOTATION_PURGE + " annotation requires a " +
+                    "positive " + SiddhiConstants.ANNOTATION_ELEMENT_IDLE_PERIOD + " or " +
+                    SiddhiConstants.ANNOTATION_ELEMENT_MAX_KEYS);
+        }
+        if (interval <= 0) {
+            throw new SiddhiAppCreationException(SiddhiConstants.ANNOTATION_PURGE + " annotation requires a " +
+                    "positive " + SiddhiConstants.ANNOTATION_ELEMENT_INTERVAL + " but found " + interval);
+        }
+        return new PurgeConfiguration(idlePeriod, interval, maxKeys);
+    }
+
+    private static long parsePurgeTime(Annotation annotation, String elementName, long defaultValue) {
+        String timeString = annotation.getElement(elementName);
+        if (timeString == null) {
+            return defaultValue;
+        }
+        try {
+            return SiddhiCompiler.parseTimeConstantDefinition(timeString).value();
+        } catch (SiddhiParserException e) {
+            throw new SiddhiAppCreationException("Invalid " + elementName + " '" + timeString + "' in " +
+                    SiddhiConstants.ANNOTATION_PURGE + " annotation", e);
+        }
+    }
+
+    /**
+     * Create the {@link PurgeScheduler} of a partition or a query, which will be started with the Siddhi app
+     *
+     * @param name               name of the partition or query
+     * @param metricName         name used to report the live and evicted keys
+     * @param purgeConfiguration purge configuration
+     * @param siddhiAppContext   Siddhi app context
+     * @return PurgeScheduler
+     */
+    public static PurgeScheduler createPurgeScheduler(String name, String metricName,
+                                                      PurgeConfiguration purgeConfiguration,
+                                                      SiddhiAppContext siddhiAppContext) {
+        PurgeTracker purgeTracker = null;
+        if (siddhiAppContext.isStatsEnabled() && siddhiAppContext.getStatisticsManager() != null) {
+            purgeTracker = siddhiAppContext.getSiddhiContext()
+                    .getStatisticsConfiguration()
+                    .getFactory()
+                    .createPurgeTracker(metricName, siddhiAppContext.getStatisticsManager());
+        }
+        PurgeScheduler purgeScheduler = new PurgeScheduler(name, purgeConfiguration, purgeTracker,
+                siddhiAppContext);
+        siddhiAppContext.addEternalReferencedHolder(purgeScheduler);
+        return purgeScheduler;
+    }
+
     public static void initStreamRuntime(StreamRuntime runtime, MetaComplexEvent metaComplexEvent, LockWrapper
-            lockWrapper, String queryName) {
+            lockWrapper, String queryName, int eventPoolSize, SiddhiAppContext siddhiAppContext) {
 
         if (runtime instanceof SingleStreamRuntime) {
-            initSingleStreamRuntime((SingleStreamRuntime) runtime, 0, metaComplexEvent, null, lockWrapper, queryName);
+            initSingleStreamRuntime((SingleStreamRuntime) runtime, 0, metaComplexEvent, null, lockWrapper, queryName,
+                    eventPoolSize, siddhiAppContext);
         } else {
             MetaStateEvent metaStateEvent = (MetaStateEvent) metaComplexEvent;
-            StateEventPool stateEventPool = new StateEventPool(metaStateEvent, 5);
+            StateEventPool stateEventPool = new StateEventPool(metaStateEvent, eventPoolSize);
+            registerEventPool(stateEventPool, queryName, siddhiAppContext);
             MetaStreamEvent[] metaStreamEvents = metaStateEvent.getMetaStreamEvents();
             for (int i = 0, metaStreamEventsLength = metaStreamEvents.length; i < metaStreamEventsLength; i++) {
                 initSingleStreamRuntime(runtime.getSingleStreamRuntimes().get(i),
-                        i, metaStateEvent, stateEventPool, lockWrapper, queryName);
+                        i, metaStateEvent, stateEventPool, lockWrapper, queryName, eventPoolSize, siddhiAppContext);
+            }
+        }
+    }
+
+    private static void registerEventPool(EventPool eventPool, String queryName, SiddhiAppContext siddhiAppContext) {
+        EventPoolTracker eventPoolTracker = siddhiAppContext.getEventPoolTracker();
+        if (eventPoolTracker != null) {
+            String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                    SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_QUERIES +
+                    SiddhiConstants.METRIC_DELIMITER + queryName;
+            eventPoolTracker.registerEventPool(eventPool, metricName);
+            RegisteredElements registeredElements = siddhiAppContext.getRecordingRegisteredElements();
+            if (registeredElements != null) {
+                registeredElements.addEventPool(eventPool);
             }
         }
     }
 
     private static void initSingleStreamRuntime(SingleStreamRuntime singleStreamRuntime, int streamEventChainIndex,
                                                 MetaComplexEvent metaComplexEvent, StateEventPool stateEventPool,
-                                                LockWrapper lockWrapper, String queryName) {
+                                                LockWrapper lockWrapper, String queryName, int eventPoolSize,
+                                                SiddhiAppContext siddhiAppContext) {
         MetaStreamEvent metaStreamEvent;
 
         if (metaComplexEvent instanceof MetaStateEvent) {
@@ -170,7 +314,8 @@ public class QueryParserHelper {
         } else {
             metaStreamEvent = (MetaStreamEvent) metaComplexEvent;
         }
-        StreamEventPool streamEventPool = new StreamEventPool(metaStreamEvent, 5);
+        StreamEventPool streamEventPool = new StreamEventPool(metaStreamEvent, eventPoolSize);
+        registerEventPool(streamEventPool, queryName, siddhiAppContext);
         ProcessStreamReceiver processStreamReceiver = singleStreamRuntime.getProcessStreamReceiver();
         processStreamReceiver.setMetaStreamEvent(metaStreamEvent);
         processStreamReceiver.setStreamEventPool(streamEventPool);
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.persistence;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.exception.PersistenceStoreException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Implementation of {@link PersistenceStore} which stores the revisions of each Siddhi app in an append-only log of
+ * segment files in the local file system. Snapshots are streamed into the log while only the log of their Siddhi app
+ * is locked, such that they are not materialized in memory and Siddhi apps do not wait for each other. Revisions are
+ * read back through memory mapping, and partially written revisions are discarded when the log is opened.
+ * <p>
+ * Supported properties:
+ * <ul>
+ * <li>location: directory of the logs, defaults to siddhi-app-persistence</li>
+ * <li>sync: when to sync the log to the disk, always (default), interval or none</li>
+ * <li>sync.interval: minimum time in milliseconds between two syncs in the interval mode, defaults to 1000</li>
+ * <li>max.revisions: number of revisions to keep for each Siddhi app, defaults to 10. Siddhi apps taking
+ * incremental snapshots are rejected if this is less than their base interval, as the revisions the last one
+ * depends on would be deleted otherwise</li>
+ * <li>segment.size: size in bytes after which a new segment file is started, defaults to 64 MB</li>
+ * </ul>
+ */
+public class FileSystemPersistenceStore implements StreamingPersistenceStore {
+
+    private static final Logger log = Logger.getLogger(FileSystemPersistenceStore.class);
+
+    private static final String PROPERTY_LOCATION = "location";
+    private static final String PROPERTY_SYNC = "sync";
+    private static final String PROPERTY_SYNC_INTERVAL = "sync.interval";
+    private static final String PROPERTY_MAX_REVISIONS = "max.revisions";
+    private static final String PROPERTY_SEGMENT_SIZE = "segment.size";
+
+    private final Map<String, SegmentedRevisionLog> revisionLogs = new HashMap<String, SegmentedRevisionLog>();
+    private String location = "siddhi-app-persistence";
+    private SyncPolicy syncPolicy = SyncPolicy.ALWAYS;
+    private long syncInterval = 1000;
+    private int maxRevisions = 10;
+    private long segmentSize = 64 * 1024 * 1024;
+
+    public FileSystemPersistenceStore() {
+    }
+
+    public FileSystemPersistenceStore(String location) {
+        this.location = location;
+    }
+
+    @Override
+    public void save(String siddhiAppId, String revision, byte[] snapshot) {
+        save(siddhiAppId, revision, outputStream -> outputStream.write(snapshot));
+    }
+
+    @Override
+    public void save(String siddhiAppId, String revision, SnapshotWriter snapshotWriter) {
+        try {
+            withRevisionLog(siddhiAppId, revisionLog -> {
+                revisionLog.append(revision, snapshotWriter);
+                return null;
+            });
+        } catch (IOException e) {
+            throw new PersistenceStoreException("Error when saving revision '" + revision + "' of Siddhi app '" +
+                    siddhiAppId + "' to '" + location + "', " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void setProperties(Map properties) {
+        if (!revisionLogs.isEmpty()) {
+            throw new PersistenceStoreException("Properties of " + FileSystemPersistenceStore.class.getSimpleName() +
+                    " cannot be changed after it is used");
+        }
+        Object value = properties.get(PROPERTY_LOCATION);
+        if (value != null) {
+            location = value.toString();
+        }
+        value = properties.get(PROPERTY_SYNC);
+        if (value != null) {
+            try {
+                syncPolicy = SyncPolicy.valueOf(value.toString().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new PersistenceStoreException("Invalid " + PROPERTY_SYNC + " '" + value + "', expected " +
+                        "always, interval or none", e);
+            }
+        }
+        syncInterval = getLong(properties, PROPERTY_SYNC_INTERVAL, syncInterval, 0);
+        maxRevisions = (int) getLong(properties, PROPERTY_MAX_REVISIONS, maxRevisions, 1);
+        segmentSize = getLong(properties, PROPERTY_SEGMENT_SIZE, segmentSize, 1);
+    }
+
+    @Override
+    public byte[] load(String siddhiAppId, String revision) {
+        try {
+            byte[] snapshot = withRevisionLog(siddhiAppId, revisionLog -> revisionLog.load(revision));
+            if (snapshot == null) {
+                log.warn("Revision '" + revision + "' not found for the siddhi app " + siddhiAppId);
+            }
+            return snapshot;
+        } catch (IOException e) {
+            throw new PersistenceStoreException("Error when loading revision '" + revision + "' of Siddhi app '" +
+                    siddhiAppId + "' from '" + location + "', " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String getLastRevision(String siddhiAppId) {
+        try {
+            return withRevisionLog(siddhiAppId, SegmentedRevisionLog::getLastRevision);
+        } catch (IOException e) {
+            throw new PersistenceStoreException("Error when opening the revisions of Siddhi app '" + siddhiAppId +
+                    "' in '" + location + "', " + e.getMessage(), e);
+        }
+    }
+
+    public int getMaxRevisions() {
+        return maxRevisions;
+    }
+
+    /**
+     * Close the revisions of the given Siddhi app, which are opened again if the app is used afterwards.
+     *
+     * @param siddhiAppId name of the Siddhi app
+     */
+    public void shutdown(String siddhiAppId) {
+        SegmentedRevisionLog revisionLog;
+        synchronized (this) {
+            revisionLog = revisionLogs.remove(siddhiAppId);
+        }
+        if (revisionLog != null) {
+            close(siddhiAppId, revisionLog);
+        }
+    }
+
+    public void shutdown() {
+        Map<String, SegmentedRevisionLog> closedRevisionLogs;
+        synchronized (this) {
+            closedRevisionLogs = new HashMap<String, SegmentedRevisionLog>(revisionLogs);
+            revisionLogs.clear();
+        }
+        for (Map.Entry<String, SegmentedRevisionLog> entry : closedRevisionLogs.entrySet()) {
+            close(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void close(String siddhiAppId, SegmentedRevisionLog revisionLog) {
+        // waits for the revision being saved, if any
+        synchronized (revisionLog) {
+            try {
+                revisionLog.close();
+            } catch (IOException e) {
+                log.error("Error when closing the revisions of Siddhi app '" + siddhiAppId + "', " +
+                        e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Apply the given action on the revision log of the given Siddhi app while only that log is locked.
+     */
+    private <T> T withRevisionLog(String siddhiAppId, RevisionLogAction<T> action) throws IOException {
+        while (true) {
+            SegmentedRevisionLog revisionLog;
+            synchronized (this) {
+                revisionLog = getRevisionLog(siddhiAppId);
+            }
+            synchronized (revisionLog) {
+                // the log is reopened if it got closed by a shutdown in the meantime
+                if (revisionLog.isOpen()) {
+                    return action.apply(revisionLog);
+                }
+            }
+        }
+    }
+
+    private SegmentedRevisionLog getRevisionLog(String siddhiAppId) throws IOException {
+        SegmentedRevisionLog revisionLog = revisionLogs.get(siddhiAppId);
+        if (revisionLog == null) {
+            Path directory = Paths.get(location, toFileName(siddhiAppId));
+            revisionLog = new SegmentedRevisionLog(directory, maxRevisions, segmentSize, syncPolicy, syncInterval);
+            revisionLogs.put(siddhiAppId, revisionLog);
+        }
+        return revisionLog;
+    }
+
+    private static String toFileName(String siddhiAppId) {
+        StringBuilder fileName = new StringBuilder(siddhiAppId.length());
+        for (byte b : siddhiAppId.getBytes(StandardCharsets.UTF_8)) {
+            if ((b >= 'a' && b <= 'z') || (b >= 'A' && b <= 'Z') || (b >= '0' && b <= '9') || b == '-' || b == '_' ||
+                    (b == '.' && fileName.length() > 0)) {
+                fileName.append((char) b);
+            } else {
+                fileName.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return fileName.toString();
+    }
+
+    private static long getLong(Map properties, String key, long defaultValue, long minValue) {
+        Object value = properties.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        long longValue;
+        try {
+            longValue = Long.parseLong(value.toString());
+        } catch (NumberFormatException e) {
+            throw new PersistenceStoreException("Invalid " + key + " '" + value + "'", e);
+        }
+        if (longValue < minValue) {
+            throw new PersistenceStoreException(key + " should not be less than " + minValue + ", but found " +
+                    longValue);
+        }
+        return longValue;
+    }
+
+    @FunctionalInterface
+    private interface RevisionLogAction<T> {
+        T apply(SegmentedRevisionLog revisionLog) throws IOException;
+    }
+
+    /**
+     * When the revision logs are synced to the disk.
+     */
+    public enum SyncPolicy {
+        /**
+         * Sync after every revision, such that saved revisions survive a system failure
+         */
+        ALWAYS,
+        /**
+         * Sync after a revision only if the sync interval has elapsed since the last sync
+         */
+        INTERVAL,
+        /**
+         * Leave syncing to the operating system
+         */
+        NONE
+    }
+}
@@ -23,6 +23,8 @@ import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
 import org.wso2.siddhi.core.util.ThreadBarrier;
 import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Persistence Service is the service layer to handle state persistence tasks such as persisting current state and
  * restoring previous states.
@@ -30,6 +32,7 @@ import org.wso2.siddhi.core.util.snapshot.SnapshotService;
 public class PersistenceService {
 
     private static final Logger log = Logger.getLogger(PersistenceService.class);
+    private static final AtomicLong lastRevisionTime = new AtomicLong();
     private String siddhiAppName;
     private PersistenceStore persistenceStore;
     private SnapshotService snapshotService;
@@ -43,15 +46,39 @@ public class PersistenceService {
     }
 
 
+    /**
+     * Create a revision id in the form of {@code <timestamp>_<siddhi app name>}. The timestamps are strictly
+     * increasing, hence revisions created within the same millisecond are still unique and ordered.
+     *
+     * @param siddhiAppName name of the Siddhi app
+     * @return revision id
+     */
+    public static String createRevision(String siddhiAppName) {
+        long currentTime = System.currentTimeMillis();
+        long revisionTime = lastRevisionTime.updateAndGet(lastTime -> Math.max(currentTime, lastTime + 1));
+        return revisionTime + "_" + siddhiAppName;
+    }
+
     public String persist() {
 
         if (persistenceStore != null) {
             if (log.isDebugEnabled()) {
                 log.debug("Persisting...");
             }
-            byte[] snapshot = snapshotService.snapshot();
-            String revision = System.currentTimeMillis() + "_" + siddhiAppName;
-            persistenceStore.save(siddhiAppName, revision, snapshot);
+            String revision = createRevision(siddhiAppName);
+            try {
+                if (persistenceStore instanceof StreamingPersistenceStore) {
+                    // the snapshot is encoded straight into the store
+                    snapshotService.captureSnapshot(revision, snapshot -> ((StreamingPersistenceStore)
+                            persistenceStore).save(siddhiAppName, revision, snapshot::writeTo));
+                } else {
+                    persistenceStore.save(siddhiAppName, revision, snapshotService.snapshot(revision));
+                }
+            } catch (RuntimeException e) {
+                snapshotService.revisionFailed(revision);
+                throw e;
+            }
+            snapshotService.revisionPersisted(revision);
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
             }
@@ -70,7 +97,8 @@ public class PersistenceService {
                 log.debug("Restoring revision: " + revision + " ...");
             }
             byte[] snapshot = persistenceStore.load(siddhiAppName, revision);
-            snapshotService.restore(snapshot);
+            snapshotService.restore(snapshot, previousRevision -> persistenceStore.load(siddhiAppName,
+                    previousRevision));
             if (log.isDebugEnabled()) {
                 log.debug("Restored revision: " + revision);
             }
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.persistence;
+
+import org.apache.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only log of the revisions of a Siddhi app, stored as a sequence of segment files. Each revision is a record
+ * of the form
+ * <pre>
+ * magic (int) | revision length (int) | revision (UTF-8) | snapshot length (long) | snapshot | CRC32 (int)
+ * </pre>
+ * where the snapshot length is written only after the snapshot, and the checksum covers the revision and the
+ * snapshot. Hence a record that is not fully written is detected and truncated when the log is opened. Only the last
+ * maxRevisions revisions are kept, and segments without any of them are deleted.
+ */
+final class SegmentedRevisionLog {
+
+    private static final Logger log = Logger.getLogger(SegmentedRevisionLog.class);
+
+    private static final int RECORD_MAGIC = 0x53524556;
+    private static final int MAX_REVISION_LENGTH = 64 * 1024;
+    private static final int MAX_MAPPED_LENGTH = 64 * 1024 * 1024;
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private final Path directory;
+    private final int maxRevisions;
+    private final long segmentSize;
+    private final FileSystemPersistenceStore.SyncPolicy syncPolicy;
+    private final long syncInterval;
+    private final LinkedHashMap<String, Record> records = new LinkedHashMap<String, Record>();
+    // number of retained records in each segment
+    private final TreeMap<Long, Integer> segmentRecords = new TreeMap<Long, Integer>();
+    private String lastRevision;
+    private long activeSegment;
+    private FileChannel activeChannel;
+    private long lastSyncTime;
+
+    SegmentedRevisionLog(Path directory, int maxRevisions, long segmentSize,
+                         FileSystemPersistenceStore.SyncPolicy syncPolicy, long syncInterval) throws IOException {
+        this.directory = directory;
+        this.maxRevisions = maxRevisions;
+        this.segmentSize = segmentSize;
+        this.syncPolicy = syncPolicy;
+        this.syncInterval = syncInterval;
+        Files.createDirectories(directory);
+        List<Long> segments = listSegments();
+        for (long segment : segments) {
+            recoverSegment(segment);
+        }
+        activeSegment = segments.isEmpty() ? 0 : segments.get(segments.size() - 1);
+        openActiveSegment();
+        evict();
+    }
+
+    void append(String revision, StreamingPersistenceStore.SnapshotWriter snapshotWriter) throws IOException {
+        if (activeChannel.size() >= segmentSize) {
+            sync(true);
+            activeChannel.close();
+            activeSegment++;
+            openActiveSegment();
+            deleteUnusedSegments();
+        }
+        byte[] revisionBytes = revision.getBytes(StandardCharsets.UTF_8);
+        long position = activeChannel.size();
+        ByteBuffer header = ByteBuffer.allocate(16 + revisionBytes.length);
+        header.putInt(RECORD_MAGIC).putInt(revisionBytes.length).put(revisionBytes).putLong(-1L).flip();
+        long snapshotPosition = position + header.capacity();
+        try {
+            write(activeChannel, header, position);
+            CRC32 checksum = new CRC32();
+            checksum.update(revisionBytes);
+            activeChannel.position(snapshotPosition);
+            // the channel is not closed by the stream as it is never closed
+            OutputStream outputStream = new BufferedOutputStream(new CheckedOutputStream(
+                    Channels.newOutputStream(activeChannel), checksum), 64 * 1024);
+            snapshotWriter.writeTo(outputStream);
+            outputStream.flush();
+            long snapshotLength = activeChannel.position() - snapshotPosition;
+            ByteBuffer trailer = ByteBuffer.allocate(4);
+            trailer.putInt((int) checksum.getValue()).flip();
+            write(activeChannel, trailer, snapshotPosition + snapshotLength);
+            ByteBuffer length = ByteBuffer.allocate(8);
+            length.putLong(snapshotLength).flip();
+            write(activeChannel, length, snapshotPosition - 8);
+            sync(false);
+            add(new Record(revision, activeSegment, snapshotPosition, snapshotLength));
+        } catch (IOException | RuntimeException e) {
+            activeChannel.truncate(position);
+            throw e;
+        }
+        evict();
+    }
+
+    byte[] load(String revision) throws IOException {
+        Record record = records.get(revision);
+        if (record == null) {
+            return null;
+        }
+        if (record.length > Integer.MAX_VALUE) {
+            throw new IOException("Revision '" + revision + "' of " + record.length + " bytes is too large to load");
+        }
+        byte[] snapshot = new byte[(int) record.length];
+        if (record.segment == activeSegment) {
+            map(activeChannel, record.position, record.length).get(snapshot);
+        } else {
+            try (FileChannel channel = FileChannel.open(segmentPath(record.segment), StandardOpenOption.READ)) {
+                map(channel, record.position, record.length).get(snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    String getLastRevision() {
+        return lastRevision;
+    }
+
+    void close() throws IOException {
+        sync(true);
+        activeChannel.close();
+    }
+
+    boolean isOpen() {
+        return activeChannel.isOpen();
+    }
+
+    private void openActiveSegment() throws IOException {
+        activeChannel = FileChannel.open(segmentPath(activeSegment), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (!segmentRecords.containsKey(activeSegment)) {
+            segmentRecords.put(activeSegment, 0);
+        }
+    }
+
+    private void recoverSegment(long segment) throws IOException {
+        Path path = segmentPath(segment);
+        segmentRecords.put(segment, 0);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                Record record = readRecord(channel, segment, position, size);
+                if (record == null) {
+                    log.warn("Discarding " + (size - position) + " bytes of partially written revisions at offset " +
+                            position + " of " + path);
+                    channel.truncate(position);
+                    channel.force(true);
+                    break;
+                }
+                add(record);
+                position = record.position + record.length + 4;
+            }
+        }
+    }
+
+    private Record readRecord(FileChannel channel, long segment, long position, long size) throws IOException {
+        if (size - position < 8) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(8);
+        read(channel, header, position);
+        if (header.getInt() != RECORD_MAGIC) {
+            return null;
+        }
+        int revisionLength = header.getInt();
+        if (revisionLength < 0 || revisionLength > MAX_REVISION_LENGTH || size - position - 8 < revisionLength + 8) {
+            return null;
+        }
+        ByteBuffer revisionBuffer = ByteBuffer.allocate(revisionLength + 8);
+        read(channel, revisionBuffer, position + 8);
+        byte[] revisionBytes = new byte[revisionLength];
+        revisionBuffer.get(revisionBytes);
+        long length = revisionBuffer.getLong();
+        long snapshotPosition = position + 16 + revisionLength;
+        if (length < 0 || size - snapshotPosition < length + 4) {
+            return null;
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(revisionBytes);
+        for (long offset = 0; offset < length; offset += MAX_MAPPED_LENGTH) {
+            checksum.update(map(channel, snapshotPosition + offset, Math.min(MAX_MAPPED_LENGTH, length - offset)));
+        }
+        ByteBuffer trailer = ByteBuffer.allocate(4);
+        read(channel, trailer, snapshotPosition + length);
+        if (trailer.getInt() != (int) checksum.getValue()) {
+            return null;
+        }
+        return new Record(new String(revisionBytes, StandardCharsets.UTF_8), segment, snapshotPosition, length);
+    }
+
+    private void add(Record record) {
+        Record replacedRecord = records.remove(record.revision);
+        if (replacedRecord != null) {
+            segmentRecords.put(replacedRecord.segment, segmentRecords.get(replacedRecord.segment) - 1);
+        }
+        records.put(record.revision, record);
+        segmentRecords.put(record.segment, segmentRecords.get(record.segment) + 1);
+        lastRevision = record.revision;
+    }
+
+    private void evict() throws IOException {
+        Iterator<Record> iterator = records.values().iterator();
+        while (records.size() > maxRevisions) {
+            Record record = iterator.next();
+            iterator.remove();
+            segmentRecords.put(record.segment, segmentRecords.get(record.segment) - 1);
+        }
+        deleteUnusedSegments();
+    }
+
+    private void deleteUnusedSegments() throws IOException {
+        Iterator<Map.Entry<Long, Integer>> iterator = segmentRecords.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, Integer> entry = iterator.next();
+            if (entry.getValue() == 0 && entry.getKey() != activeSegment) {
+                Files.deleteIfExists(segmentPath(entry.getKey()));
+                iterator.remove();
+            }
+        }
+    }
+
+    private void sync(boolean force) throws IOException {
+        switch (syncPolicy) {
+            case ALWAYS:
+                activeChannel.force(false);
+                break;
+            case INTERVAL:
+                long currentTime = System.currentTimeMillis();
+                if (force || currentTime - lastSyncTime >= syncInterval) {
+                    activeChannel.force(false);
+                    lastSyncTime = currentTime;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> segments = new ArrayList<Long>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                try {
+                    segments.add(Long.parseLong(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unknown file " + path + " in the revisions directory");
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%020d", segment) + SEGMENT_SUFFIX);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+    }
+
+    private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Location of a revision in the log.
+     */
+    private static final class Record {
+        private final String revision;
+        private final long segment;
+        private final long position;
+        private final long length;
+
+        private Record(String revision, long segment, long position, long length) {
+            this.revision = revision;
+            this.segment = segment;
+            this.position = position;
+            this.length = length;
+        }
+    }
+}
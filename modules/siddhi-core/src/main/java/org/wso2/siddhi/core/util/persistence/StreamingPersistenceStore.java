@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.persistence;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link PersistenceStore} which can save snapshots by streaming them, such that large snapshots need not be
+ * materialized in memory before they are saved.
+ */
+public interface StreamingPersistenceStore extends PersistenceStore {
+
+    /**
+     * Save the snapshot written by the given writer as the given revision. The revision is not saved if the writer
+     * fails.
+     *
+     * @param siddhiAppId    name of the Siddhi app
+     * @param revision       revision to save the snapshot as
+     * @param snapshotWriter writes the snapshot to the stream it is given
+     */
+    void save(String siddhiAppId, String revision, SnapshotWriter snapshotWriter);
+
+    /**
+     * Writes a snapshot to a stream.
+     */
+    @FunctionalInterface
+    interface SnapshotWriter {
+
+        /**
+         * @param outputStream stream to write the snapshot to, which should not be closed
+         * @throws IOException if the snapshot cannot be written
+         */
+        void writeTo(OutputStream outputStream) throws IOException;
+    }
+}
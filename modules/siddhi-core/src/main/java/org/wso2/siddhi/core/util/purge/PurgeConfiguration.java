@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.purge;
+
+/**
+ * Configuration of the idle state purging given through the {@code @purge} annotation of partitions and queries.
+ * Keys which were not accessed during the {@code idle.period} are purged, and when {@code max.keys} is given the
+ * least recently accessed keys are purged to keep the number of keys under that limit. Purging is performed once per
+ * {@code interval}.
+ */
+public class PurgeConfiguration {
+
+    private final long idlePeriod;
+    private final long interval;
+    private final int maxKeys;
+
+    /**
+     * @param idlePeriod time in milliseconds after which an idle key is purged, or -1 if keys are not purged when idle
+     * @param interval   time in milliseconds between two purging attempts
+     * @param maxKeys    maximum number of keys retained after purging, or -1 if the number of keys is not limited
+     */
+    public PurgeConfiguration(long idlePeriod, long interval, int maxKeys) {
+        this.idlePeriod = idlePeriod;
+        this.interval = interval;
+        this.maxKeys = maxKeys;
+    }
+
+    public long getIdlePeriod() {
+        return idlePeriod;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    public int getMaxKeys() {
+        return maxKeys;
+    }
+
+    public boolean isIdlePurgeEnabled() {
+        return idlePeriod > 0;
+    }
+
+    public boolean isMaxKeysEnabled() {
+        return maxKeys > 0;
+    }
+}
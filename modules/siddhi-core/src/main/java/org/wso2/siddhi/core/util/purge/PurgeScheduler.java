@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.purge;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.statistics.PurgeTracker;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically purges the idle state of the registered {@link Purgeable}s based on the {@link PurgeConfiguration}.
+ * Partition instances register their query selectors here as they get created, hence a single scheduler serves all
+ * the instances of a query.
+ */
+public class PurgeScheduler implements EternalReferencedHolder {
+
+    private static final Logger log = Logger.getLogger(PurgeScheduler.class);
+    private final Set<Purgeable> purgeables = ConcurrentHashMap.newKeySet();
+    private final PurgeConfiguration purgeConfiguration;
+    private final PurgeTracker purgeTracker;
+    private final SiddhiAppContext siddhiAppContext;
+    private final String name;
+    private ScheduledFuture scheduledFuture;
+
+    public PurgeScheduler(String name, PurgeConfiguration purgeConfiguration, PurgeTracker purgeTracker,
+                          SiddhiAppContext siddhiAppContext) {
+        this.name = name;
+        this.purgeConfiguration = purgeConfiguration;
+        this.purgeTracker = purgeTracker;
+        this.siddhiAppContext = siddhiAppContext;
+    }
+
+    public void register(Purgeable purgeable) {
+        purgeables.add(purgeable);
+    }
+
+    public void unregister(Purgeable purgeable) {
+        purgeables.remove(purgeable);
+    }
+
+    public PurgeConfiguration getPurgeConfiguration() {
+        return purgeConfiguration;
+    }
+
+    /**
+     * @return tracker to report the live and evicted keys, or null if statistics are disabled
+     */
+    public PurgeTracker getPurgeTracker() {
+        return purgeTracker;
+    }
+
+    public void purge() {
+        long currentTime = siddhiAppContext.getTimestampGenerator().currentTime();
+        for (Purgeable purgeable : purgeables) {
+            try {
+                purgeable.purge(currentTime);
+            } catch (Throwable t) {
+                log.error("Error while purging idle state of '" + name + "' in Siddhi app '" +
+                        siddhiAppContext.getName() + "', " + t.getMessage(), t);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (scheduledFuture == null) {
+            long interval = purgeConfiguration.getInterval();
+            scheduledFuture = siddhiAppContext.getScheduledExecutorService().scheduleWithFixedDelay(this::purge,
+                    interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (scheduledFuture != null) {
+            scheduledFuture.cancel(false);
+            scheduledFuture = null;
+        }
+    }
+}
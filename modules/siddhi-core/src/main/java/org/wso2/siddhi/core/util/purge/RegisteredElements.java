@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.purge;
+
+import org.wso2.siddhi.core.event.EventPool;
+import org.wso2.siddhi.core.util.extension.holder.EternalReferencedHolder;
+import org.wso2.siddhi.core.util.snapshot.Snapshotable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the elements registered with the {@link org.wso2.siddhi.core.config.SiddhiAppContext} while a runtime
+ * component is being created, so that they can be deregistered when the component is purged.
+ */
+public class RegisteredElements {
+
+    private final List<Snapshotable> snapshotables = new ArrayList<Snapshotable>();
+    private final List<EternalReferencedHolder> eternalReferencedHolders = new ArrayList<EternalReferencedHolder>();
+    private final List<EventPool> eventPools = new ArrayList<EventPool>();
+
+    public void addSnapshotable(Snapshotable snapshotable) {
+        snapshotables.add(snapshotable);
+    }
+
+    public void addEternalReferencedHolder(EternalReferencedHolder eternalReferencedHolder) {
+        eternalReferencedHolders.add(eternalReferencedHolder);
+    }
+
+    public void addEventPool(EventPool eventPool) {
+        eventPools.add(eventPool);
+    }
+
+    public List<Snapshotable> getSnapshotables() {
+        return snapshotables;
+    }
+
+    public List<EternalReferencedHolder> getEternalReferencedHolders() {
+        return eternalReferencedHolders;
+    }
+
+    public List<EventPool> getEventPools() {
+        return eventPools;
+    }
+}
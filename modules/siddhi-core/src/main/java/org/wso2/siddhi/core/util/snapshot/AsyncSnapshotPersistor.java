@@ -20,24 +20,58 @@ package org.wso2.siddhi.core.util.snapshot;
 
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
+import org.wso2.siddhi.core.util.persistence.PersistenceService;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.persistence.StreamingPersistenceStore;
 
 /**
  * {@link Runnable} which is responsible for persisting the snapshots that are taken
  */
 public class AsyncSnapshotPersistor implements Runnable {
     private static final Logger log = Logger.getLogger(AsyncSnapshotPersistor.class);
-    private byte[] snapshots;
+    private CapturedSnapshot snapshots;
     private PersistenceStore persistenceStore;
     private String siddhiAppName;
     private String revision;
+    private SnapshotService snapshotService;
 
     public AsyncSnapshotPersistor(byte[] snapshots, PersistenceStore persistenceStore,
                                   String siddhiAppName) {
+        this(snapshots, persistenceStore, siddhiAppName, PersistenceService.createRevision(siddhiAppName));
+    }
+
+    public AsyncSnapshotPersistor(byte[] snapshots, PersistenceStore persistenceStore,
+                                  String siddhiAppName, String revision) {
+        this(new CapturedSnapshot(snapshots), persistenceStore, siddhiAppName, revision);
+    }
+
+    /**
+     * @param snapshots        captured snapshot, which is serialized when the task runs if it is not serialized yet,
+     *                         and is streamed to the store if the store supports it
+     * @param persistenceStore store to persist the snapshot
+     * @param siddhiAppName    name of the Siddhi app
+     * @param revision         revision to persist the snapshot as
+     */
+    public AsyncSnapshotPersistor(CapturedSnapshot snapshots, PersistenceStore persistenceStore,
+                                  String siddhiAppName, String revision) {
+        this(snapshots, persistenceStore, siddhiAppName, revision, null);
+    }
+
+    /**
+     * @param snapshots        captured snapshot, which is serialized when the task runs if it is not serialized yet,
+     *                         and is streamed to the store if the store supports it
+     * @param persistenceStore store to persist the snapshot
+     * @param siddhiAppName    name of the Siddhi app
+     * @param revision         revision to persist the snapshot as
+     * @param snapshotService  service the snapshot is taken by, which is notified whether the revision got persisted
+     */
+    public AsyncSnapshotPersistor(CapturedSnapshot snapshots, PersistenceStore persistenceStore,
+                                  String siddhiAppName, String revision, SnapshotService snapshotService) {
         this.snapshots = snapshots;
         this.persistenceStore = persistenceStore;
         this.siddhiAppName = siddhiAppName;
-        revision = System.currentTimeMillis() + "_" + siddhiAppName;
+        this.revision = revision;
+        this.snapshotService = snapshotService;
     }
 
     public String getRevision() {
@@ -50,7 +84,21 @@ public class AsyncSnapshotPersistor implements Runnable {
             if (log.isDebugEnabled()) {
                 log.debug("Persisting...");
             }
-            persistenceStore.save(siddhiAppName, revision, snapshots);
+            try {
+                if (persistenceStore instanceof StreamingPersistenceStore) {
+                    ((StreamingPersistenceStore) persistenceStore).save(siddhiAppName, revision, snapshots::writeTo);
+                } else {
+                    persistenceStore.save(siddhiAppName, revision, snapshots.toBytes());
+                }
+            } catch (RuntimeException e) {
+                if (snapshotService != null) {
+                    snapshotService.revisionFailed(revision);
+                }
+                throw e;
+            }
+            if (snapshotService != null) {
+                snapshotService.revisionPersisted(revision);
+            }
             if (log.isDebugEnabled()) {
                 log.debug("Persisted.");
             }
@@ -0,0 +1,965 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.event.ComplexEvent;
+import org.wso2.siddhi.core.event.state.StateEvent;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.wso2.siddhi.core.util.SiddhiConstants.BEFORE_WINDOW_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.ON_AFTER_WINDOW_DATA_INDEX;
+import static org.wso2.siddhi.core.util.SiddhiConstants.OUTPUT_DATA_INDEX;
+
+/**
+ * Compact binary {@link SnapshotCodec}. Event chains are written iteratively and column by column, with the type of
+ * each attribute column inferred from its values, each string is written once and referred by its index afterwards,
+ * and the common collections and arrays are written without class descriptors. Objects of any other type are written
+ * with Java serialization. Shared references are preserved as done by Java serialization, and the encoded snapshot is
+ * optionally compressed with Deflate. Snapshots are encoded in a single pass, hence can be streamed to their
+ * destination.
+ */
+public class BinarySnapshotCodec implements SnapshotCodec {
+
+    private static final Logger log = Logger.getLogger(BinarySnapshotCodec.class);
+
+    private static final byte[] MAGIC = {'S', 'D', 'H', 'S'};
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = MAGIC.length + 2;
+    private static final byte FLAG_DEFLATE = 1;
+
+    private static final byte NULL = 0;
+    private static final byte REFERENCE = 1;
+    private static final byte STRING = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte FLOAT = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte TRUE = 7;
+    private static final byte FALSE = 8;
+    private static final byte SHORT = 9;
+    private static final byte BYTE = 10;
+    private static final byte HASH_MAP = 11;
+    private static final byte ARRAY_LIST = 12;
+    private static final byte LINKED_LIST = 13;
+    private static final byte HASH_SET = 14;
+    private static final byte OBJECT_ARRAY = 15;
+    private static final byte LONG_ARRAY = 16;
+    private static final byte DOUBLE_ARRAY = 17;
+    private static final byte INT_ARRAY = 18;
+    private static final byte STREAM_EVENTS = 19;
+    private static final byte STATE_EVENTS = 20;
+    private static final byte ELEMENT_STATES = 21;
+    private static final byte INCREMENTAL_SNAPSHOT = 22;
+    private static final byte SERIALIZED = 23;
+
+    private static final byte COLUMN_NULL = 0;
+    private static final byte COLUMN_MIXED = 1;
+    private static final byte COLUMN_INTEGER = 2;
+    private static final byte COLUMN_LONG = 3;
+    private static final byte COLUMN_FLOAT = 4;
+    private static final byte COLUMN_DOUBLE = 5;
+    private static final byte COLUMN_BOOLEAN = 6;
+    private static final byte COLUMN_STRING = 7;
+
+    private static final byte LAYOUT_NULL = 0;
+    private static final byte LAYOUT_FIXED = 1;
+    private static final byte LAYOUT_VARIABLE = 2;
+
+    private static final ComplexEvent.Type[] EVENT_TYPES = ComplexEvent.Type.values();
+
+    private final boolean compressed;
+
+    /**
+     * @param compressed whether to compress the encoded snapshots with Deflate
+     */
+    public BinarySnapshotCodec(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    @Override
+    public byte[] encode(Object snapshot) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        encode(snapshot, out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public void encode(Object snapshot, OutputStream outputStream) throws IOException {
+        outputStream.write(MAGIC);
+        outputStream.write(VERSION);
+        outputStream.write(compressed ? FLAG_DEFLATE : 0);
+        if (compressed) {
+            Deflater deflater = new Deflater();
+            try {
+                DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater, 8192);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(deflaterOutputStream, 8192));
+                new Encoder(out).writeRoot(snapshot);
+                out.flush();
+                deflaterOutputStream.finish();
+            } finally {
+                deflater.end();
+            }
+        } else {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(outputStream, 8192));
+            new Encoder(out).writeRoot(snapshot);
+            out.flush();
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        if (!canDecode(bytes)) {
+            throw new IOException("Snapshot is not encoded by " + BinarySnapshotCodec.class.getSimpleName());
+        }
+        if (bytes[MAGIC.length] != VERSION) {
+            throw new IOException("Unsupported binary snapshot version " + bytes[MAGIC.length]);
+        }
+        InputStream in = new ByteArrayInputStream(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        if ((bytes[MAGIC.length + 1] & FLAG_DEFLATE) != 0) {
+            in = new BufferedInputStream(new InflaterInputStream(in), 8192);
+        }
+        return new Decoder(new DataInputStream(in)).readObject();
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        if (bytes.length < HEADER_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isElementStates(Object snapshot) {
+        if (snapshot.getClass() != HashMap.class) {
+            return false;
+        }
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) snapshot).entrySet()) {
+            if (!(entry.getKey() instanceof String) || (entry.getValue() != null && !(entry.getValue() instanceof
+                    Map))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object[] getAttributes(StreamEvent streamEvent, int attributeType) {
+        switch (attributeType) {
+            case BEFORE_WINDOW_DATA_INDEX:
+                return streamEvent.getBeforeWindowData();
+            case ON_AFTER_WINDOW_DATA_INDEX:
+                return streamEvent.getOnAfterWindowData();
+            default:
+                return streamEvent.getOutputData();
+        }
+    }
+
+    private static void setAttributes(StreamEvent streamEvent, int attributeType, Object[] attributes) {
+        switch (attributeType) {
+            case BEFORE_WINDOW_DATA_INDEX:
+                streamEvent.setBeforeWindowData(attributes);
+                break;
+            case ON_AFTER_WINDOW_DATA_INDEX:
+                streamEvent.setOnAfterWindowData(attributes);
+                break;
+            default:
+                streamEvent.setOutputData(attributes);
+        }
+    }
+
+    private static byte getColumnType(Object value) {
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            return COLUMN_STRING;
+        } else if (type == Integer.class) {
+            return COLUMN_INTEGER;
+        } else if (type == Long.class) {
+            return COLUMN_LONG;
+        } else if (type == Double.class) {
+            return COLUMN_DOUBLE;
+        } else if (type == Float.class) {
+            return COLUMN_FLOAT;
+        } else if (type == Boolean.class) {
+            return COLUMN_BOOLEAN;
+        } else {
+            return COLUMN_MIXED;
+        }
+    }
+
+    /**
+     * Writes a snapshot. Objects of unknown types are written with a single Java serialization stream, whose output
+     * is written in chunks in place of those objects.
+     */
+    private static final class Encoder {
+
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+        private final IdentityHashMap<Object, Integer> references = new IdentityHashMap<Object, Integer>();
+        private ByteArrayOutputStream serialized;
+        private ObjectOutputStream serializedOut;
+
+        private void writeRoot(Object snapshot) throws IOException {
+            if (snapshot instanceof IncrementalSnapshot) {
+                IncrementalSnapshot incrementalSnapshot = (IncrementalSnapshot) snapshot;
+                out.writeByte(INCREMENTAL_SNAPSHOT);
+                writeObject(incrementalSnapshot.getRevision());
+                writeObject(incrementalSnapshot.getPreviousRevision());
+                writeElementStates(incrementalSnapshot.getStates());
+                writeElementStates(incrementalSnapshot.getDeltas());
+            } else if (snapshot != null && isElementStates(snapshot)) {
+                out.writeByte(ELEMENT_STATES);
+                writeElementStates((Map<String, Map<String, Object>>) snapshot);
+            } else {
+                writeObject(snapshot);
+            }
+        }
+
+        private Encoder(DataOutputStream out) {
+            this.out = out;
+        }
+
+        private void writeElementStates(Map<String, Map<String, Object>> states) throws IOException {
+            writeVarInt(out, states.size());
+            for (Map.Entry<String, Map<String, Object>> entry : states.entrySet()) {
+                writeString(entry.getKey());
+                if (log.isDebugEnabled()) {
+                    long start = System.nanoTime();
+                    int startSize = out.size();
+                    writeObject(entry.getValue());
+                    log.debug("Encoded state of '" + entry.getKey() + "' to " + (out.size() - startSize) +
+                            " bytes in " + (System.nanoTime() - start) / 1000 + " us");
+                } else {
+                    writeObject(entry.getValue());
+                }
+            }
+        }
+
+        private void writeObject(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+                return;
+            }
+            Class<?> type = value.getClass();
+            if (type == String.class) {
+                out.writeByte(STRING);
+                writeString((String) value);
+            } else if (type == Integer.class) {
+                out.writeByte(INTEGER);
+                writeVarInt(out, zigZag((Integer) value));
+            } else if (type == Long.class) {
+                out.writeByte(LONG);
+                writeVarLong(zigZag((Long) value));
+            } else if (type == Double.class) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (type == Float.class) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (type == Boolean.class) {
+                out.writeByte((Boolean) value ? TRUE : FALSE);
+            } else if (type == Short.class) {
+                out.writeByte(SHORT);
+                out.writeShort((Short) value);
+            } else if (type == Byte.class) {
+                out.writeByte(BYTE);
+                out.writeByte((Byte) value);
+            } else {
+                Integer reference = references.get(value);
+                if (reference != null) {
+                    out.writeByte(REFERENCE);
+                    writeVarInt(out, reference);
+                } else if (type == StreamEvent.class) {
+                    writeStreamEvents((StreamEvent) value);
+                } else if (type == StateEvent.class) {
+                    writeStateEvents((StateEvent) value);
+                } else {
+                    references.put(value, references.size());
+                    writeContainer(value, type);
+                }
+            }
+        }
+
+        private void writeContainer(Object value, Class<?> type) throws IOException {
+            if (type == HashMap.class) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                out.writeByte(HASH_MAP);
+                writeVarInt(out, map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeObject(entry.getKey());
+                    writeObject(entry.getValue());
+                }
+            } else if (type == ArrayList.class || type == LinkedList.class || type == HashSet.class) {
+                out.writeByte(type == ArrayList.class ? ARRAY_LIST : type == LinkedList.class ? LINKED_LIST :
+                        HASH_SET);
+                Iterable<?> collection = (Iterable<?>) value;
+                writeVarInt(out, ((Collection<?>) value).size());
+                for (Object element : collection) {
+                    writeObject(element);
+                }
+            } else if (type == Object[].class) {
+                Object[] array = (Object[]) value;
+                out.writeByte(OBJECT_ARRAY);
+                writeVarInt(out, array.length);
+                for (Object element : array) {
+                    writeObject(element);
+                }
+            } else if (type == long[].class) {
+                long[] array = (long[]) value;
+                out.writeByte(LONG_ARRAY);
+                writeVarInt(out, array.length);
+                for (long element : array) {
+                    out.writeLong(element);
+                }
+            } else if (type == double[].class) {
+                double[] array = (double[]) value;
+                out.writeByte(DOUBLE_ARRAY);
+                writeVarInt(out, array.length);
+                for (double element : array) {
+                    out.writeDouble(element);
+                }
+            } else if (type == int[].class) {
+                int[] array = (int[]) value;
+                out.writeByte(INT_ARRAY);
+                writeVarInt(out, array.length);
+                for (int element : array) {
+                    writeVarInt(out, zigZag(element));
+                }
+            } else {
+                out.writeByte(SERIALIZED);
+                if (serializedOut == null) {
+                    serialized = new ByteArrayOutputStream();
+                    serializedOut = new ObjectOutputStream(serialized);
+                }
+                serializedOut.writeObject(value);
+                serializedOut.flush();
+                writeVarInt(out, serialized.size());
+                serialized.writeTo(out);
+                serialized.reset();
+            }
+        }
+
+        private void writeStreamEvents(StreamEvent first) throws IOException {
+            // the chain is written up to the first event that is already written, which is then referred
+            List<StreamEvent> events = new ArrayList<StreamEvent>();
+            StreamEvent streamEvent = first;
+            while (streamEvent != null && !references.containsKey(streamEvent)) {
+                references.put(streamEvent, references.size());
+                events.add(streamEvent);
+                streamEvent = streamEvent.getNext();
+            }
+            out.writeByte(STREAM_EVENTS);
+            writeVarInt(out, events.size());
+            long previousTimestamp = 0;
+            for (StreamEvent event : events) {
+                writeVarLong(zigZag(event.getTimestamp() - previousTimestamp));
+                previousTimestamp = event.getTimestamp();
+            }
+            for (StreamEvent event : events) {
+                out.writeByte(event.getType() == null ? 0 : event.getType().ordinal() + 1);
+            }
+            writeAttributes(events, BEFORE_WINDOW_DATA_INDEX);
+            writeAttributes(events, ON_AFTER_WINDOW_DATA_INDEX);
+            writeAttributes(events, OUTPUT_DATA_INDEX);
+            writeObject(streamEvent);
+        }
+
+        private void writeAttributes(List<StreamEvent> events, int attributeType) throws IOException {
+            Object[][] attributes = new Object[events.size()][];
+            int length = -1;
+            int width = 0;
+            boolean fixedLength = true;
+            for (int i = 0; i < attributes.length; i++) {
+                attributes[i] = getAttributes(events.get(i), attributeType);
+                if (attributes[i] == null) {
+                    fixedLength = false;
+                } else {
+                    if (length == -1) {
+                        length = attributes[i].length;
+                    } else if (length != attributes[i].length) {
+                        fixedLength = false;
+                    }
+                    width = Math.max(width, attributes[i].length);
+                }
+            }
+            if (length == -1) {
+                out.writeByte(LAYOUT_NULL);
+                return;
+            }
+            if (fixedLength) {
+                out.writeByte(LAYOUT_FIXED);
+                writeVarInt(out, length);
+            } else {
+                out.writeByte(LAYOUT_VARIABLE);
+                for (Object[] eventAttributes : attributes) {
+                    writeVarInt(out, eventAttributes == null ? 0 : eventAttributes.length + 1);
+                }
+            }
+            for (int column = 0; column < width; column++) {
+                writeColumn(attributes, column);
+            }
+        }
+
+        private void writeColumn(Object[][] attributes, int column) throws IOException {
+            byte columnType = COLUMN_NULL;
+            int cells = 0;
+            boolean hasNull = false;
+            for (Object[] eventAttributes : attributes) {
+                if (eventAttributes != null && eventAttributes.length > column) {
+                    cells++;
+                    Object value = eventAttributes[column];
+                    if (value == null) {
+                        hasNull = true;
+                    } else if (columnType == COLUMN_NULL) {
+                        columnType = getColumnType(value);
+                    } else if (columnType != COLUMN_MIXED && columnType != getColumnType(value)) {
+                        columnType = COLUMN_MIXED;
+                    }
+                }
+            }
+            out.writeByte(columnType);
+            if (columnType == COLUMN_NULL) {
+                return;
+            }
+            if (columnType != COLUMN_MIXED) {
+                out.writeBoolean(hasNull);
+                if (hasNull) {
+                    byte[] presence = new byte[(cells + 7) / 8];
+                    int cell = 0;
+                    for (Object[] eventAttributes : attributes) {
+                        if (eventAttributes != null && eventAttributes.length > column) {
+                            if (eventAttributes[column] != null) {
+                                presence[cell >> 3] |= 1 << (cell & 7);
+                            }
+                            cell++;
+                        }
+                    }
+                    out.write(presence);
+                }
+            }
+            for (Object[] eventAttributes : attributes) {
+                if (eventAttributes != null && eventAttributes.length > column) {
+                    Object value = eventAttributes[column];
+                    if (columnType == COLUMN_MIXED) {
+                        writeObject(value);
+                    } else if (value != null) {
+                        writeColumnValue(columnType, value);
+                    }
+                }
+            }
+        }
+
+        private void writeColumnValue(byte columnType, Object value) throws IOException {
+            switch (columnType) {
+                case COLUMN_STRING:
+                    writeString((String) value);
+                    break;
+                case COLUMN_INTEGER:
+                    writeVarInt(out, zigZag((Integer) value));
+                    break;
+                case COLUMN_LONG:
+                    writeVarLong(zigZag((Long) value));
+                    break;
+                case COLUMN_DOUBLE:
+                    out.writeDouble((Double) value);
+                    break;
+                case COLUMN_FLOAT:
+                    out.writeFloat((Float) value);
+                    break;
+                default:
+                    out.writeBoolean((Boolean) value);
+            }
+        }
+
+        private void writeStateEvents(StateEvent first) throws IOException {
+            List<StateEvent> events = new ArrayList<StateEvent>();
+            StateEvent stateEvent = first;
+            while (stateEvent != null && !references.containsKey(stateEvent)) {
+                references.put(stateEvent, references.size());
+                events.add(stateEvent);
+                stateEvent = stateEvent.getNext();
+            }
+            out.writeByte(STATE_EVENTS);
+            writeVarInt(out, events.size());
+            // sizes of all the events are written first, such that they can be created before reading their content
+            for (StateEvent event : events) {
+                writeVarInt(out, event.getStreamEvents().length);
+                writeVarInt(out, event.getOutputData() == null ? 0 : event.getOutputData().length);
+            }
+            for (StateEvent event : events) {
+                writeVarLong(zigZag(event.getId()));
+                writeVarLong(zigZag(event.getTimestamp()));
+                out.writeByte(event.getType() == null ? 0 : event.getType().ordinal() + 1);
+                for (StreamEvent streamEvent : event.getStreamEvents()) {
+                    writeObject(streamEvent);
+                }
+                if (event.getOutputData() != null) {
+                    for (Object value : event.getOutputData()) {
+                        writeObject(value);
+                    }
+                }
+            }
+            writeObject(stateEvent);
+        }
+
+        private void writeString(String value) throws IOException {
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeVarInt(out, index + 1);
+            } else {
+                strings.put(value, strings.size());
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, 0);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            while ((value & ~0x7FL) != 0) {
+                out.writeByte((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            out.writeByte((int) value);
+        }
+
+        private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+
+        private static int zigZag(int value) {
+            return (value << 1) ^ (value >> 31);
+        }
+
+        private static long zigZag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link Encoder}.
+     */
+    private static final class Decoder {
+
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<String>();
+        private final List<Object> references = new ArrayList<Object>();
+        private final ChunkInputStream serialized = new ChunkInputStream();
+        private ObjectInputStream serializedIn;
+
+        private Decoder(DataInputStream in) {
+            this.in = in;
+        }
+
+        private Object readObject() throws IOException, ClassNotFoundException {
+            byte tag = in.readByte();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case REFERENCE:
+                    return references.get(readVarInt());
+                case STRING:
+                    return readString();
+                case INTEGER:
+                    return unZigZag(readVarInt());
+                case LONG:
+                    return unZigZag(readVarLong());
+                case DOUBLE:
+                    return in.readDouble();
+                case FLOAT:
+                    return in.readFloat();
+                case TRUE:
+                    return Boolean.TRUE;
+                case FALSE:
+                    return Boolean.FALSE;
+                case SHORT:
+                    return in.readShort();
+                case BYTE:
+                    return in.readByte();
+                case HASH_MAP: {
+                    int size = readVarInt();
+                    HashMap<Object, Object> map = new HashMap<Object, Object>(Math.max(16, (int) (size / .75f) + 1));
+                    references.add(map);
+                    for (int i = 0; i < size; i++) {
+                        Object key = readObject();
+                        map.put(key, readObject());
+                    }
+                    return map;
+                }
+                case ARRAY_LIST:
+                case LINKED_LIST:
+                case HASH_SET: {
+                    int size = readVarInt();
+                    Collection<Object> collection = tag == ARRAY_LIST ? new ArrayList<Object>(size) :
+                            tag == LINKED_LIST ? new LinkedList<Object>() :
+                                    new HashSet<Object>(Math.max(16, (int) (size / .75f) + 1));
+                    references.add(collection);
+                    for (int i = 0; i < size; i++) {
+                        collection.add(readObject());
+                    }
+                    return collection;
+                }
+                case OBJECT_ARRAY: {
+                    Object[] array = new Object[readVarInt()];
+                    references.add(array);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = readObject();
+                    }
+                    return array;
+                }
+                case LONG_ARRAY: {
+                    long[] array = new long[readVarInt()];
+                    references.add(array);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = in.readLong();
+                    }
+                    return array;
+                }
+                case DOUBLE_ARRAY: {
+                    double[] array = new double[readVarInt()];
+                    references.add(array);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = in.readDouble();
+                    }
+                    return array;
+                }
+                case INT_ARRAY: {
+                    int[] array = new int[readVarInt()];
+                    references.add(array);
+                    for (int i = 0; i < array.length; i++) {
+                        array[i] = unZigZag(readVarInt());
+                    }
+                    return array;
+                }
+                case STREAM_EVENTS:
+                    return readStreamEvents();
+                case STATE_EVENTS:
+                    return readStateEvents();
+                case ELEMENT_STATES:
+                    return readElementStates();
+                case INCREMENTAL_SNAPSHOT: {
+                    String revision = (String) readObject();
+                    String previousRevision = (String) readObject();
+                    HashMap<String, Map<String, Object>> states = readElementStates();
+                    return new IncrementalSnapshot(revision, previousRevision, states, readElementStates());
+                }
+                case SERIALIZED: {
+                    byte[] chunk = new byte[readVarInt()];
+                    in.readFully(chunk);
+                    serialized.add(chunk);
+                    if (serializedIn == null) {
+                        serializedIn = new ObjectInputStream(serialized);
+                    }
+                    Object value = serializedIn.readObject();
+                    references.add(value);
+                    return value;
+                }
+                default:
+                    throw new IOException("Unknown tag " + tag + " in binary snapshot");
+            }
+        }
+
+        private HashMap<String, Map<String, Object>> readElementStates() throws IOException, ClassNotFoundException {
+            int size = readVarInt();
+            HashMap<String, Map<String, Object>> states = new HashMap<String, Map<String, Object>>(
+                    Math.max(16, (int) (size / .75f) + 1));
+            for (int i = 0; i < size; i++) {
+                String elementId = readString();
+                if (log.isDebugEnabled()) {
+                    long start = System.nanoTime();
+                    states.put(elementId, (Map<String, Object>) readObject());
+                    log.debug("Decoded state of '" + elementId + "' in " + (System.nanoTime() - start) / 1000 +
+                            " us");
+                } else {
+                    states.put(elementId, (Map<String, Object>) readObject());
+                }
+            }
+            return states;
+        }
+
+        private StreamEvent readStreamEvents() throws IOException, ClassNotFoundException {
+            StreamEvent[] events = new StreamEvent[readVarInt()];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = new StreamEvent(0, 0, 0);
+                references.add(events[i]);
+                if (i > 0) {
+                    events[i - 1].setNext(events[i]);
+                }
+            }
+            long timestamp = 0;
+            for (StreamEvent event : events) {
+                timestamp += unZigZag(readVarLong());
+                event.setTimestamp(timestamp);
+            }
+            for (StreamEvent event : events) {
+                event.setType(readEventType());
+            }
+            readAttributes(events, BEFORE_WINDOW_DATA_INDEX);
+            readAttributes(events, ON_AFTER_WINDOW_DATA_INDEX);
+            readAttributes(events, OUTPUT_DATA_INDEX);
+            StreamEvent tail = (StreamEvent) readObject();
+            if (events.length == 0) {
+                return tail;
+            }
+            events[events.length - 1].setNext(tail);
+            return events[0];
+        }
+
+        private void readAttributes(StreamEvent[] events, int attributeType) throws IOException,
+                ClassNotFoundException {
+            byte layout = in.readByte();
+            if (layout == LAYOUT_NULL) {
+                for (StreamEvent event : events) {
+                    setAttributes(event, attributeType, null);
+                }
+                return;
+            }
+            Object[][] attributes = new Object[events.length][];
+            int width = 0;
+            if (layout == LAYOUT_FIXED) {
+                width = readVarInt();
+                for (int i = 0; i < events.length; i++) {
+                    attributes[i] = new Object[width];
+                }
+            } else {
+                for (int i = 0; i < events.length; i++) {
+                    int length = readVarInt();
+                    if (length > 0) {
+                        attributes[i] = new Object[length - 1];
+                        width = Math.max(width, length - 1);
+                    }
+                }
+            }
+            for (int i = 0; i < events.length; i++) {
+                setAttributes(events[i], attributeType, attributes[i]);
+            }
+            for (int column = 0; column < width; column++) {
+                readColumn(attributes, column);
+            }
+        }
+
+        private void readColumn(Object[][] attributes, int column) throws IOException, ClassNotFoundException {
+            byte columnType = in.readByte();
+            if (columnType == COLUMN_NULL) {
+                return;
+            }
+            byte[] presence = null;
+            if (columnType != COLUMN_MIXED && in.readBoolean()) {
+                int cells = 0;
+                for (Object[] eventAttributes : attributes) {
+                    if (eventAttributes != null && eventAttributes.length > column) {
+                        cells++;
+                    }
+                }
+                presence = new byte[(cells + 7) / 8];
+                in.readFully(presence);
+            }
+            int cell = 0;
+            for (Object[] eventAttributes : attributes) {
+                if (eventAttributes != null && eventAttributes.length > column) {
+                    if (columnType == COLUMN_MIXED) {
+                        eventAttributes[column] = readObject();
+                    } else if (presence == null || (presence[cell >> 3] & (1 << (cell & 7))) != 0) {
+                        eventAttributes[column] = readColumnValue(columnType);
+                    }
+                    cell++;
+                }
+            }
+        }
+
+        private Object readColumnValue(byte columnType) throws IOException {
+            switch (columnType) {
+                case COLUMN_STRING:
+                    return readString();
+                case COLUMN_INTEGER:
+                    return unZigZag(readVarInt());
+                case COLUMN_LONG:
+                    return unZigZag(readVarLong());
+                case COLUMN_DOUBLE:
+                    return in.readDouble();
+                case COLUMN_FLOAT:
+                    return in.readFloat();
+                case COLUMN_BOOLEAN:
+                    return in.readBoolean();
+                default:
+                    throw new IOException("Unknown column type " + columnType + " in binary snapshot");
+            }
+        }
+
+        private StateEvent readStateEvents() throws IOException, ClassNotFoundException {
+            StateEvent[] events = new StateEvent[readVarInt()];
+            for (int i = 0; i < events.length; i++) {
+                events[i] = new StateEvent(readVarInt(), readVarInt());
+                references.add(events[i]);
+                if (i > 0) {
+                    events[i - 1].setNext(events[i]);
+                }
+            }
+            for (StateEvent event : events) {
+                event.setId(unZigZag(readVarLong()));
+                event.setTimestamp(unZigZag(readVarLong()));
+                event.setType(readEventType());
+                for (int i = 0; i < event.getStreamEvents().length; i++) {
+                    event.setEvent(i, (StreamEvent) readObject());
+                }
+                for (int i = 0; i < event.getOutputData().length; i++) {
+                    event.setOutputData(readObject(), i);
+                }
+            }
+            StateEvent tail = (StateEvent) readObject();
+            if (events.length == 0) {
+                return tail;
+            }
+            events[events.length - 1].setNext(tail);
+            return events[0];
+        }
+
+        private ComplexEvent.Type readEventType() throws IOException {
+            int type = in.readByte();
+            return type == 0 ? null : EVENT_TYPES[type - 1];
+        }
+
+        private String readString() throws IOException {
+            int index = readVarInt();
+            if (index > 0) {
+                return strings.get(index - 1);
+            }
+            byte[] bytes = new byte[readVarInt()];
+            in.readFully(bytes);
+            String value = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = in.readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = in.readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        private static int unZigZag(int value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private static long unZigZag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+
+    /**
+     * Input stream over the chunks of the Java serialization stream, which are added as they are read.
+     */
+    private static final class ChunkInputStream extends InputStream {
+
+        private final LinkedList<byte[]> chunks = new LinkedList<byte[]>();
+        private int position = 0;
+
+        private void add(byte[] chunk) {
+            chunks.add(chunk);
+        }
+
+        @Override
+        public int read() throws IOException {
+            while (!chunks.isEmpty()) {
+                byte[] chunk = chunks.getFirst();
+                if (position < chunk.length) {
+                    return chunk[position++] & 0xFF;
+                }
+                chunks.removeFirst();
+                position = 0;
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (!chunks.isEmpty()) {
+                byte[] chunk = chunks.getFirst();
+                if (position < chunk.length) {
+                    int count = Math.min(length, chunk.length - position);
+                    System.arraycopy(chunk, position, bytes, offset, count);
+                    position += count;
+                    return count;
+                }
+                chunks.removeFirst();
+                position = 0;
+            }
+            return -1;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return chunks.isEmpty() ? 0 : chunks.getFirst().length - position;
+        }
+    }
+}
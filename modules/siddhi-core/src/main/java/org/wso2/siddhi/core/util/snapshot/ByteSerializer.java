@@ -20,30 +20,31 @@ package org.wso2.siddhi.core.util.snapshot;
 
 import org.apache.log4j.Logger;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 
 /**
- * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa
+ * Serializer used by {@link SnapshotService} to do Object to Byte[] conversion and vise-versa, using a
+ * {@link SnapshotCodec}. Bytes are decoded with the codec that produced them, which is identified by their header.
  */
 public class ByteSerializer {
     private static final Logger log = Logger.getLogger(ByteSerializer.class);
+    private static final SnapshotCodec JAVA_CODEC = new JavaSnapshotCodec();
+    // compression is identified by the header, hence the same codec decodes compressed snapshots as well
+    private static final SnapshotCodec BINARY_CODEC = new BinarySnapshotCodec(false);
 
     private ByteSerializer() {
     }
 
     public static byte[] objectToByte(Object obj) {
+        return objectToByte(obj, JAVA_CODEC);
+    }
+
+    public static byte[] objectToByte(Object obj, SnapshotCodec codec) {
         long start = System.currentTimeMillis();
         byte[] out = null;
         if (obj != null) {
             try {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                ObjectOutputStream oos = new ObjectOutputStream(baos);
-                oos.writeObject(obj);
-                out = baos.toByteArray();
+                out = codec.encode(obj);
             } catch (IOException e) {
                 log.error("Error when writing byte array. " + e.getMessage(), e);
                 return null;
@@ -51,19 +52,27 @@ public class ByteSerializer {
         }
         long end = System.currentTimeMillis();
         if (log.isDebugEnabled()) {
-            log.debug("Encoded in :" + (end - start) + " msec");
+            log.debug("Encoded " + (out == null ? 0 : out.length) + " bytes in :" + (end - start) + " msec");
         }
         return out;
     }
 
     public static Object byteToObject(byte[] bytes) {
+        return byteToObject(bytes, BINARY_CODEC);
+    }
+
+    public static Object byteToObject(byte[] bytes, SnapshotCodec codec) {
         long start = System.currentTimeMillis();
         Object out = null;
         if (bytes != null) {
             try {
-                ByteArrayInputStream bios = new ByteArrayInputStream(bytes);
-                ObjectInputStream ois = new ObjectInputStream(bios);
-                out = ois.readObject();
+                if (codec.canDecode(bytes)) {
+                    out = codec.decode(bytes);
+                } else if (BINARY_CODEC.canDecode(bytes)) {
+                    out = BINARY_CODEC.decode(bytes);
+                } else {
+                    out = JAVA_CODEC.decode(bytes);
+                }
             } catch (IOException e) {
                 log.error("Error when writing to object. " + e.getMessage(), e);
                 return null;
@@ -74,7 +83,7 @@ public class ByteSerializer {
         }
         long end = System.currentTimeMillis();
         if (log.isDebugEnabled()) {
-            log.debug("Decoded in :" + (end - start) + " msec");
+            log.debug("Decoded " + (bytes == null ? 0 : bytes.length) + " bytes in :" + (end - start) + " msec");
         }
         return out;
     }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Snapshot captured by {@link SnapshotService}, which is either already serialized or is detached from the live state
+ * and serialized when it is written.
+ */
+public class CapturedSnapshot {
+
+    private final byte[] serializedSnapshot;
+    private final Object snapshot;
+    private final SnapshotCodec codec;
+
+    public CapturedSnapshot(byte[] serializedSnapshot) {
+        this.serializedSnapshot = serializedSnapshot;
+        this.snapshot = null;
+        this.codec = null;
+    }
+
+    public CapturedSnapshot(Object snapshot, SnapshotCodec codec) {
+        this.serializedSnapshot = null;
+        this.snapshot = snapshot;
+        this.codec = codec;
+    }
+
+    /**
+     * @return serialized snapshot
+     */
+    public byte[] toBytes() {
+        if (codec == null) {
+            return serializedSnapshot;
+        }
+        return ByteSerializer.objectToByte(snapshot, codec);
+    }
+
+    /**
+     * Write the serialized snapshot to the given stream without materializing it in memory.
+     *
+     * @param outputStream stream to write to, which is not closed
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (codec == null) {
+            outputStream.write(serializedSnapshot);
+        } else {
+            codec.encode(snapshot, outputStream);
+        }
+    }
+}
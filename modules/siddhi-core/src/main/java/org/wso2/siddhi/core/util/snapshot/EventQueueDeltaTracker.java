@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.wso2.siddhi.core.event.ComplexEventChunk;
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.event.stream.StreamEventCloner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks the changes of a first-in-first-out event queue of a window between checkpoints, such that the window can
+ * report them as the number of events expired from the head of the queue and the events appended to its tail. Only
+ * counts are maintained while processing, and the appended events are copied from the tail of the queue when the
+ * changes are collected.
+ * This is not a thread safe implementation
+ */
+public class EventQueueDeltaTracker {
+
+    private static final String REMOVED = "Removed";
+    private static final String ADDED = "Added";
+
+    private int size = 0;
+    private int sizeAtCheckpoint = 0;
+    private long addedSinceCheckpoint = 0;
+    private boolean checkpointed = false;
+
+    public void added() {
+        size++;
+        addedSinceCheckpoint++;
+    }
+
+    public void removed() {
+        size--;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void checkpoint() {
+        checkpointed = true;
+        sizeAtCheckpoint = size;
+        addedSinceCheckpoint = 0;
+    }
+
+    /**
+     * Collect the changes of the queue since the previous checkpoint and mark the current state as the checkpoint.
+     *
+     * @param first             first event of the queue
+     * @param streamEventCloner cloner used to copy the appended events
+     * @return the changes, an empty map if unchanged, or null if the queue needs to be persisted in full
+     */
+    public Map<String, Object> currentDelta(StreamEvent first, StreamEventCloner streamEventCloner) {
+        if (!checkpointed) {
+            checkpoint();
+            return null;
+        }
+        int added = (int) Math.min(addedSinceCheckpoint, size);
+        int removed = sizeAtCheckpoint - (size - added);
+        Map<String, Object> delta = new HashMap<>();
+        if (added > 0 && added == size) {
+            // none of the checkpointed events remain, hence the delta is not smaller than the full state
+            delta = null;
+        } else if (added > 0 || removed > 0) {
+            StreamEvent event = first;
+            for (int i = size - added; i > 0; i--) {
+                event = event.getNext();
+            }
+            ComplexEventChunk<StreamEvent> addedEvents = new ComplexEventChunk<StreamEvent>(false);
+            for (; event != null; event = event.getNext()) {
+                addedEvents.add(streamEventCloner.copyStreamEvent(event));
+            }
+            delta.put(REMOVED, removed);
+            delta.put(ADDED, addedEvents.getFirst());
+        }
+        checkpoint();
+        return delta;
+    }
+
+    /**
+     * Apply the changes collected by {@link #currentDelta(StreamEvent, StreamEventCloner)} on the given queue.
+     *
+     * @param delta      the changes
+     * @param eventChunk the queue restored from the previous checkpoint
+     */
+    public void restoreDelta(Map<String, Object> delta, ComplexEventChunk<StreamEvent> eventChunk) {
+        if (!delta.isEmpty()) {
+            for (int i = (int) delta.get(REMOVED); i > 0; i--) {
+                eventChunk.poll();
+            }
+            StreamEvent addedEvents = (StreamEvent) delta.get(ADDED);
+            if (addedEvents != null) {
+                eventChunk.add(addedEvents);
+            }
+        }
+        reset(eventChunk.getFirst());
+    }
+
+    /**
+     * Start tracking afresh after the queue is restored, until the next checkpoint.
+     *
+     * @param first first event of the restored queue
+     */
+    public void reset(StreamEvent first) {
+        size = 0;
+        for (StreamEvent event = first; event != null; event = event.getNext()) {
+            size++;
+        }
+        checkpointed = false;
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Snapshot persisted when incremental snapshots are enabled. A base snapshot carries the full state of every
+ * processing element, while the following ones refer to their previous revision and carry only the full state of the
+ * elements that cannot report their changes and the changes of the {@link IncrementalSnapshotable} elements.
+ */
+public class IncrementalSnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String revision;
+    private final String previousRevision;
+    private final HashMap<String, Map<String, Object>> states;
+    private final HashMap<String, Map<String, Object>> deltas;
+
+    public IncrementalSnapshot(String revision, String previousRevision, HashMap<String, Map<String, Object>> states,
+                               HashMap<String, Map<String, Object>> deltas) {
+        this.revision = revision;
+        this.previousRevision = previousRevision;
+        this.states = states;
+        this.deltas = deltas;
+    }
+
+    public String getRevision() {
+        return revision;
+    }
+
+    /**
+     * @return revision this snapshot is applied on top of, or null for a base snapshot
+     */
+    public String getPreviousRevision() {
+        return previousRevision;
+    }
+
+    public HashMap<String, Map<String, Object>> getStates() {
+        return states;
+    }
+
+    public HashMap<String, Map<String, Object>> getDeltas() {
+        return deltas;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.util.Map;
+
+/**
+ * {@link Snapshotable} which can also report the changes of its state since the previous checkpoint, such that
+ * incremental snapshots need not carry the full state of the processing element every time.
+ */
+public interface IncrementalSnapshotable extends Snapshotable {
+
+    /**
+     * Used to collect the changes of the processing element since the previous checkpoint, and to mark the current
+     * state as the checkpoint for the next call.
+     *
+     * @return the changes since the previous checkpoint, an empty map if the state is unchanged, or null if the
+     * changes are not known, in which case the full state is collected via currentState()
+     */
+    Map<String, Object> currentDelta();
+
+    /**
+     * Used to apply the changes collected by currentDelta() on top of the state restored from the previous
+     * checkpoint.
+     *
+     * @param delta the changes of the element as provided by currentDelta()
+     */
+    void restoreDelta(Map<String, Object> delta);
+
+    /**
+     * Used to mark the current state as the checkpoint, once the full state is collected via currentState().
+     */
+    void checkpoint();
+}
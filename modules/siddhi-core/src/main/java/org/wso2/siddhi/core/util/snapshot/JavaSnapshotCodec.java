@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+/**
+ * {@link SnapshotCodec} using Java serialization.
+ */
+public class JavaSnapshotCodec implements SnapshotCodec {
+
+    private static final byte STREAM_MAGIC_FIRST = (byte) 0xAC;
+    private static final byte STREAM_MAGIC_SECOND = (byte) 0xED;
+
+    @Override
+    public byte[] encode(Object snapshot) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        encode(snapshot, baos);
+        return baos.toByteArray();
+    }
+
+    @Override
+    public void encode(Object snapshot, OutputStream outputStream) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(outputStream);
+        oos.writeObject(snapshot);
+        oos.flush();
+    }
+
+    @Override
+    public Object decode(byte[] bytes) throws IOException, ClassNotFoundException {
+        ByteArrayInputStream bios = new ByteArrayInputStream(bytes);
+        ObjectInputStream ois = new ObjectInputStream(bios);
+        return ois.readObject();
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes.length > 1 && bytes[0] == STREAM_MAGIC_FIRST && bytes[1] == STREAM_MAGIC_SECOND;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Codec used by {@link ByteSerializer} to convert snapshots to bytes and back. Each codec marks the bytes it
+ * produces with a header such that a snapshot can be decoded regardless of the codec configured at the time.
+ */
+public interface SnapshotCodec {
+
+    /**
+     * @param snapshot snapshot to encode
+     * @return encoded snapshot
+     * @throws IOException if the snapshot cannot be encoded
+     */
+    byte[] encode(Object snapshot) throws IOException;
+
+    /**
+     * Encode the snapshot to the given stream, which is not closed.
+     *
+     * @param snapshot     snapshot to encode
+     * @param outputStream stream to write the encoded snapshot to
+     * @throws IOException if the snapshot cannot be encoded or written
+     */
+    default void encode(Object snapshot, OutputStream outputStream) throws IOException {
+        outputStream.write(encode(snapshot));
+    }
+
+    /**
+     * @param bytes encoded snapshot
+     * @return decoded snapshot
+     * @throws IOException            if the bytes cannot be decoded
+     * @throws ClassNotFoundException if a class of the snapshot is not available
+     */
+    Object decode(byte[] bytes) throws IOException, ClassNotFoundException;
+
+    /**
+     * @param bytes encoded snapshot
+     * @return whether the given bytes are encoded by this codec
+     */
+    boolean canDecode(byte[] bytes);
+}
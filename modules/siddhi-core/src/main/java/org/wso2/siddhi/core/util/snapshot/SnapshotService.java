@@ -19,21 +19,48 @@ package org.wso2.siddhi.core.util.snapshot;
 
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.exception.SiddhiAppRuntimeException;
+import org.wso2.siddhi.core.util.purge.RegisteredElements;
+import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Service level implementation to take/restore snapshots of processing elements.
+ * When incremental snapshots are enabled, the snapshots taken for persistence form chains of a base snapshot followed
+ * by {@link IncrementalSnapshot}s carrying only the changes, and a new base is taken every baseInterval snapshots.
+ * In the non blocking mode the processing is only paused while the state is captured and copied, and the snapshots
+ * are serialized afterwards.
  */
 public class SnapshotService {
 
 
     private static final Logger log = Logger.getLogger(SnapshotService.class);
+    // bound of the revisions followed when restoring a chain, to fail on corrupted chains instead of looping
+    private static final int MAX_CHAIN_LENGTH = 10000;
     private HashMap<String, List<Snapshotable>> snapshotableMap = new HashMap<String, List<Snapshotable>>();
     private SiddhiAppContext siddhiAppContext;
+    private boolean incremental = false;
+    private int baseInterval = 10;
+    private final Object revisionLock = new Object();
+    // last persisted revision of the current chain, null when the next snapshot needs to be a base
+    private String lastRevision = null;
+    private int snapshotsSinceBase = 0;
+    // revision captured but not yet confirmed to be persisted, the next snapshot is a base while it is pending
+    private String pendingRevision = null;
+    private int pendingSnapshotsSinceBase = 0;
+    private boolean nonBlocking = false;
+    private LatencyTracker stallLatencyTracker = null;
+    private SnapshotCodec codec = new BinarySnapshotCodec(false);
 
     public SnapshotService(SiddhiAppContext siddhiAppContext) {
         this.siddhiAppContext = siddhiAppContext;
@@ -50,41 +77,203 @@ public class SnapshotService {
             snapshotableMap.put(queryName, snapshotableList);
         } else {
             // add if item is not already in list
-            if (!snapshotableList.contains(snapshotable)) {
-                snapshotableList.add(snapshotable);
+            if (snapshotableList.contains(snapshotable)) {
+                return;
             }
+            snapshotableList.add(snapshotable);
+        }
+        RegisteredElements registeredElements = siddhiAppContext.getRecordingRegisteredElements();
+        if (registeredElements != null) {
+            registeredElements.addSnapshotable(snapshotable);
+        }
+    }
+
+    public synchronized void removeSnapshotables(Collection<Snapshotable> snapshotables) {
+        Set<Snapshotable> snapshotableSet = new HashSet<Snapshotable>(snapshotables);
+        for (List<Snapshotable> snapshotableList : snapshotableMap.values()) {
+            snapshotableList.removeAll(snapshotableSet);
         }
     }
 
+    /**
+     * @return copy of the registered snapshotables, such that they can be iterated without holding the service lock
+     */
+    private synchronized List<Snapshotable> getSnapshotables() {
+        List<Snapshotable> snapshotables = new ArrayList<Snapshotable>();
+        for (List<Snapshotable> snapshotableList : snapshotableMap.values()) {
+            snapshotables.addAll(snapshotableList);
+        }
+        return snapshotables;
+    }
+
+    /**
+     * @param queryName name of the query
+     * @return copy of the snapshotables registered by the query, or null if it has none
+     */
+    public synchronized List<Snapshotable> getSnapshotables(String queryName) {
+        List<Snapshotable> snapshotableList = snapshotableMap.get(queryName);
+        return snapshotableList == null ? null : new ArrayList<Snapshotable>(snapshotableList);
+    }
+
     public byte[] snapshot() {
-        HashMap<String, Map<String, Object>> snapshots = new HashMap<>(snapshotableMap.size());
-        List<Snapshotable> snapshotableList;
-        byte[] serializedSnapshots;
+        return captureSnapshot(null).toBytes();
+    }
+
+    /**
+     * Take the snapshot to be persisted as the given revision, which only carries the changes since the previous
+     * revision when incremental snapshots are enabled.
+     *
+     * @param revision revision the snapshot is persisted as
+     * @return serialized snapshot
+     */
+    public byte[] snapshot(String revision) {
+        return captureSnapshot(revision).toBytes();
+    }
+
+    /**
+     * Capture the state of the processing elements while the processing is paused. In the non blocking mode the
+     * captured state is detached from the live state and serialized only when it is written, hence the processing
+     * resumes before the serialization and the snapshot can be serialized in the background.
+     *
+     * @param revision revision the snapshot is persisted as, or null for a full snapshot that is not persisted
+     * @return captured snapshot
+     */
+    public CapturedSnapshot captureSnapshot(String revision) {
+        CapturedSnapshot[] capturedSnapshot = new CapturedSnapshot[1];
+        captureSnapshot(revision, snapshot -> capturedSnapshot[0] = nonBlocking ? snapshot :
+                new CapturedSnapshot(snapshot.toBytes()));
+        return capturedSnapshot[0];
+    }
+
+    /**
+     * Capture the state of the processing elements and pass it to the given consumer, which can write it without
+     * materializing it in memory. In the blocking mode the consumer is called while the processing is paused, as
+     * the captured state is the live state, otherwise it is called after the processing resumes.
+     *
+     * @param revision         revision the snapshot is persisted as, or null for a full snapshot that is not
+     *                         persisted
+     * @param snapshotConsumer consumer of the captured snapshot
+     */
+    public void captureSnapshot(String revision, Consumer<CapturedSnapshot> snapshotConsumer) {
+        Object snapshot;
         if (log.isDebugEnabled()) {
             log.debug("Taking snapshot ...");
         }
+        if (stallLatencyTracker != null) {
+            stallLatencyTracker.markIn();
+        }
         try {
+            // the service itself is not locked as draining the in-flight events may register new snapshotables
             siddhiAppContext.getThreadBarrier().lock();
-            for (Map.Entry<String, List<Snapshotable>> entry : snapshotableMap.entrySet()) {
-                snapshotableList = entry.getValue();
-                snapshotableList.forEach(snapshotableElement -> snapshots.put(snapshotableElement.getElementId(),
-                                                                              snapshotableElement.currentState()));
+            if (incremental && revision != null) {
+                snapshot = collectIncrementalSnapshot(revision);
+            } else {
+                snapshot = collectSnapshot();
             }
-            if (log.isDebugEnabled()) {
-                log.debug("Snapshot serialization started ...");
-            }
-            serializedSnapshots = ByteSerializer.objectToByte(snapshots);
-            if (log.isDebugEnabled()) {
-                log.debug("Snapshot serialization finished.");
+            if (!nonBlocking) {
+                snapshotConsumer.accept(new CapturedSnapshot(snapshot, codec));
             }
         } finally {
             siddhiAppContext.getThreadBarrier().unlock();
+            if (stallLatencyTracker != null) {
+                stallLatencyTracker.markOut();
+            }
         }
         if (log.isDebugEnabled()) {
             log.debug("Snapshot taken for Siddhi app '" + siddhiAppContext.getName() + "'");
         }
+        if (nonBlocking) {
+            snapshotConsumer.accept(new CapturedSnapshot(snapshot, codec));
+        }
+    }
 
-        return serializedSnapshots;
+    private HashMap<String, Map<String, Object>> collectSnapshot() {
+        List<Snapshotable> snapshotables = getSnapshotables();
+        HashMap<String, Map<String, Object>> snapshots = new HashMap<>(snapshotables.size());
+        for (Snapshotable snapshotable : snapshotables) {
+            snapshots.put(snapshotable.getElementId(), currentState(snapshotable));
+        }
+        return snapshots;
+    }
+
+    private IncrementalSnapshot collectIncrementalSnapshot(String revision) {
+        boolean base;
+        String previousRevision;
+        synchronized (revisionLock) {
+            // deltas are only taken on top of a persisted revision, as the changes are reset at each checkpoint
+            base = lastRevision == null || pendingRevision != null || snapshotsSinceBase >= baseInterval;
+            previousRevision = base ? null : lastRevision;
+            pendingRevision = revision;
+            pendingSnapshotsSinceBase = base ? 1 : snapshotsSinceBase + 1;
+        }
+        HashMap<String, Map<String, Object>> states = new HashMap<>();
+        HashMap<String, Map<String, Object>> deltas = new HashMap<>();
+        for (Snapshotable snapshotable : getSnapshotables()) {
+            Map<String, Object> delta = null;
+            if (snapshotable instanceof IncrementalSnapshotable) {
+                if (base) {
+                    ((IncrementalSnapshotable) snapshotable).checkpoint();
+                } else {
+                    delta = ((IncrementalSnapshotable) snapshotable).currentDelta();
+                }
+            }
+            if (delta == null) {
+                states.put(snapshotable.getElementId(), currentState(snapshotable));
+            } else if (!delta.isEmpty()) {
+                deltas.put(snapshotable.getElementId(), nonBlocking ? SnapshotStateCopier.copyState(delta) :
+                        delta);
+            }
+        }
+        IncrementalSnapshot incrementalSnapshot = new IncrementalSnapshot(revision, previousRevision, states,
+                deltas);
+        if (log.isDebugEnabled()) {
+            log.debug("Collected " + (base ? "base" : "incremental") + " snapshot with " + states.size() +
+                    " full states and " + deltas.size() + " deltas");
+        }
+        return incrementalSnapshot;
+    }
+
+    /**
+     * Notify that the snapshot taken for the given revision is persisted, such that the next incremental snapshot
+     * can be based on it.
+     *
+     * @param revision persisted revision
+     */
+    public void revisionPersisted(String revision) {
+        synchronized (revisionLock) {
+            if (revision.equals(pendingRevision)) {
+                lastRevision = revision;
+                snapshotsSinceBase = pendingSnapshotsSinceBase;
+                pendingRevision = null;
+            }
+        }
+    }
+
+    /**
+     * Notify that the snapshot taken for the given revision could not be persisted, hence the next snapshot is a base.
+     *
+     * @param revision revision failed to be persisted
+     */
+    public void revisionFailed(String revision) {
+        synchronized (revisionLock) {
+            if (revision.equals(pendingRevision)) {
+                lastRevision = null;
+                pendingRevision = null;
+            }
+        }
+    }
+
+    private void resetRevisions() {
+        synchronized (revisionLock) {
+            // the restored state is not a checkpoint of the current chain, hence the next snapshot is a base
+            lastRevision = null;
+            pendingRevision = null;
+        }
+    }
+
+    private Map<String, Object> currentState(Snapshotable snapshotable) {
+        Map<String, Object> state = snapshotable.currentState();
+        return nonBlocking ? SnapshotStateCopier.copyState(state) : state;
     }
 
     public Map<String, Object> queryState(String queryName) {
@@ -92,7 +281,7 @@ public class SnapshotService {
         try {
             // Lock the threads in Siddhi
             siddhiAppContext.getThreadBarrier().lock();
-            List<Snapshotable> list = snapshotableMap.get(queryName);
+            List<Snapshotable> list = getSnapshotables(queryName);
 
             if (list != null) {
                 for (Snapshotable element : list) {
@@ -113,20 +302,114 @@ public class SnapshotService {
 
 
     public void restore(byte[] snapshot) {
-        Map<String, Map<String, Object>> snapshots = (Map<String, Map<String, Object>>)
-                ByteSerializer.byteToObject(snapshot);
-        List<Snapshotable> snapshotableList;
-        try {
-            this.siddhiAppContext.getThreadBarrier().lock();
-            for (Map.Entry<String, List<Snapshotable>> entry : snapshotableMap.entrySet()) {
-                snapshotableList = entry.getValue();
-                for (Snapshotable snapshotable : snapshotableList) {
+        restore(snapshot, null);
+    }
+
+    /**
+     * Restore the given snapshot, replaying the chain of revisions it is based on in case of an incremental
+     * snapshot.
+     *
+     * @param snapshot       serialized snapshot
+     * @param revisionLoader loads the serialized snapshot of a previous revision
+     */
+    public void restore(byte[] snapshot, Function<String, byte[]> revisionLoader) {
+        Object snapshotObject = ByteSerializer.byteToObject(snapshot, codec);
+        if (snapshotObject instanceof IncrementalSnapshot) {
+            LinkedList<IncrementalSnapshot> snapshotChain = new LinkedList<>();
+            IncrementalSnapshot incrementalSnapshot = (IncrementalSnapshot) snapshotObject;
+            snapshotChain.addFirst(incrementalSnapshot);
+            Set<String> chainedRevisions = new HashSet<String>();
+            chainedRevisions.add(incrementalSnapshot.getRevision());
+            while (incrementalSnapshot.getPreviousRevision() != null) {
+                String previousRevision = incrementalSnapshot.getPreviousRevision();
+                if (!chainedRevisions.add(previousRevision) || chainedRevisions.size() > MAX_CHAIN_LENGTH) {
+                    throw new SiddhiAppRuntimeException("Cannot restore revision '" +
+                            snapshotChain.getLast().getRevision() + "' of Siddhi app '" + siddhiAppContext.getName() +
+                            "' as its chain of previous revisions " + (chainedRevisions.size() > MAX_CHAIN_LENGTH ?
+                            "exceeds " + MAX_CHAIN_LENGTH + " revisions" : "has a cycle at '" + previousRevision +
+                            "'"));
+                }
+                byte[] previousSnapshot = revisionLoader != null ? revisionLoader.apply(previousRevision) : null;
+                if (previousSnapshot == null) {
+                    throw new SiddhiAppRuntimeException("Cannot restore revision '" +
+                            incrementalSnapshot.getRevision() + "' of Siddhi app '" + siddhiAppContext.getName() +
+                            "' as its previous revision '" + previousRevision + "' is not available");
+                }
+                incrementalSnapshot = (IncrementalSnapshot) ByteSerializer.byteToObject(previousSnapshot, codec);
+                snapshotChain.addFirst(incrementalSnapshot);
+            }
+            try {
+                this.siddhiAppContext.getThreadBarrier().lock();
+                List<Snapshotable> snapshotables = getSnapshotables();
+                for (IncrementalSnapshot chainedSnapshot : snapshotChain) {
+                    for (Snapshotable snapshotable : snapshotables) {
+                        Map<String, Object> state = chainedSnapshot.getStates().get(snapshotable.getElementId());
+                        if (state != null) {
+                            snapshotable.restoreState(state);
+                        } else if (snapshotable instanceof IncrementalSnapshotable) {
+                            Map<String, Object> delta = chainedSnapshot.getDeltas().get(snapshotable.getElementId());
+                            if (delta != null) {
+                                ((IncrementalSnapshotable) snapshotable).restoreDelta(delta);
+                            }
+                        }
+                    }
+                }
+                resetRevisions();
+            } finally {
+                siddhiAppContext.getThreadBarrier().unlock();
+            }
+        } else {
+            Map<String, Map<String, Object>> snapshots = (Map<String, Map<String, Object>>) snapshotObject;
+            try {
+                this.siddhiAppContext.getThreadBarrier().lock();
+                for (Snapshotable snapshotable : getSnapshotables()) {
                     snapshotable.restoreState(snapshots.get(snapshotable.getElementId()));
                 }
+                resetRevisions();
+            } finally {
+                siddhiAppContext.getThreadBarrier().unlock();
             }
-        } finally {
-            siddhiAppContext.getThreadBarrier().unlock();
         }
     }
 
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Enable incremental snapshots for persistence.
+     *
+     * @param baseInterval number of snapshots in a chain, including its base snapshot
+     */
+    public void setIncremental(int baseInterval) {
+        this.incremental = true;
+        this.baseInterval = baseInterval;
+    }
+
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
+    public void setNonBlocking(boolean nonBlocking) {
+        this.nonBlocking = nonBlocking;
+    }
+
+    /**
+     * @param stallLatencyTracker tracker of the time the processing is paused while taking snapshots
+     */
+    public void setStallLatencyTracker(LatencyTracker stallLatencyTracker) {
+        this.stallLatencyTracker = stallLatencyTracker;
+    }
+
+    public SnapshotCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * @param codec codec to encode the snapshots with, snapshots encoded by the other built in codecs can still be
+     *              restored
+     */
+    public void setCodec(SnapshotCodec codec) {
+        this.codec = codec;
+    }
 }
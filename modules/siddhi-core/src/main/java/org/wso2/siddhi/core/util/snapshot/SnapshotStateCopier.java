@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.snapshot;
+
+import org.wso2.siddhi.core.event.stream.StreamEvent;
+import org.wso2.siddhi.core.table.holder.IndexEventHolder;
+import org.wso2.siddhi.core.table.holder.ListEventHolder;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Copies the state collected from the processing elements, such that it is detached from the live state and can be
+ * serialized after the processing is resumed. Event chains, table event holders, the common collections and arrays are
+ * copied structurally assuming immutable attribute values, while any other mutable object is serialized right away
+ * and is only deserialized when the snapshot is restored.
+ */
+public class SnapshotStateCopier {
+
+    private SnapshotStateCopier() {
+    }
+
+    public static Map<String, Object> copyState(Map<String, Object> state) {
+        return (Map<String, Object>) copy(state);
+    }
+
+    private static Object copy(Object object) {
+        if (object == null || object instanceof String || object instanceof Number || object instanceof Boolean ||
+                object instanceof Character || object instanceof Enum) {
+            return object;
+        } else if (object instanceof StreamEvent) {
+            return copyStreamEvents((StreamEvent) object);
+        } else if (object.getClass() == ListEventHolder.class) {
+            return ((ListEventHolder) object).copy(SnapshotStateCopier::copyStreamEvent);
+        } else if (object.getClass() == IndexEventHolder.class) {
+            return ((IndexEventHolder) object).copy(SnapshotStateCopier::copyStreamEvent);
+        } else if (object.getClass() == HashMap.class) {
+            Map<Object, Object> map = (Map<Object, Object>) object;
+            HashMap<Object, Object> copiedMap = new HashMap<Object, Object>(map.size() * 2);
+            for (Map.Entry<Object, Object> entry : map.entrySet()) {
+                copiedMap.put(entry.getKey(), copy(entry.getValue()));
+            }
+            return copiedMap;
+        } else if (object.getClass() == ArrayList.class) {
+            ArrayList<Object> list = (ArrayList<Object>) object;
+            ArrayList<Object> copiedList = new ArrayList<Object>(list.size());
+            for (Object element : list) {
+                copiedList.add(copy(element));
+            }
+            return copiedList;
+        } else if (object.getClass() == LinkedList.class) {
+            LinkedList<Object> copiedList = new LinkedList<Object>();
+            for (Object element : (LinkedList<Object>) object) {
+                copiedList.add(copy(element));
+            }
+            return copiedList;
+        } else if (object.getClass() == HashSet.class) {
+            // elements of sets are used as keys, hence are expected to be immutable
+            return new HashSet<Object>((HashSet<Object>) object);
+        } else if (object.getClass() == Object[].class) {
+            Object[] array = (Object[]) object;
+            Object[] copiedArray = new Object[array.length];
+            for (int i = 0; i < array.length; i++) {
+                copiedArray[i] = copy(array[i]);
+            }
+            return copiedArray;
+        } else if (object instanceof long[]) {
+            return ((long[]) object).clone();
+        } else if (object instanceof double[]) {
+            return ((double[]) object).clone();
+        } else if (object instanceof int[]) {
+            return ((int[]) object).clone();
+        } else {
+            byte[] serializedObject = ByteSerializer.objectToByte(object);
+            return serializedObject == null ? null : new SerializedState(serializedObject);
+        }
+    }
+
+    private static StreamEvent copyStreamEvents(StreamEvent streamEvent) {
+        StreamEvent first = null;
+        StreamEvent last = null;
+        for (StreamEvent event = streamEvent; event != null; event = event.getNext()) {
+            StreamEvent copiedEvent = copyStreamEvent(event);
+            if (first == null) {
+                first = copiedEvent;
+            } else {
+                last.setNext(copiedEvent);
+            }
+            last = copiedEvent;
+        }
+        return first;
+    }
+
+    private static StreamEvent copyStreamEvent(StreamEvent event) {
+        StreamEvent copiedEvent = new StreamEvent(0, 0, 0);
+        copiedEvent.setBeforeWindowData(copyArray(event.getBeforeWindowData()));
+        copiedEvent.setOnAfterWindowData(copyArray(event.getOnAfterWindowData()));
+        copiedEvent.setOutputData(copyArray(event.getOutputData()));
+        copiedEvent.setType(event.getType());
+        copiedEvent.setTimestamp(event.getTimestamp());
+        return copiedEvent;
+    }
+
+    private static Object[] copyArray(Object[] array) {
+        return array == null ? null : array.clone();
+    }
+
+    /**
+     * State serialized while the processing is paused, which is written as is and is replaced by the deserialized
+     * state when the snapshot is read.
+     */
+    private static class SerializedState implements Serializable {
+
+        private static final long serialVersionUID = -4120466735436427613L;
+        private final byte[] serializedObject;
+
+        SerializedState(byte[] serializedObject) {
+            this.serializedObject = serializedObject;
+        }
+
+        private Object readResolve() {
+            return ByteSerializer.byteToObject(serializedObject);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics;
+
+import org.wso2.siddhi.core.event.EventPool;
+
+/**
+ * Track the hits, misses and allocations of the event pools used by Siddhi components.
+ */
+public interface EventPoolTracker {
+
+    /**
+     * Register the event pool that needs to be measured. Pools registered with the same name are reported together.
+     *
+     * @param eventPool EventPool
+     * @param name      Name of the component (e.g. query) which uses the event pool.
+     */
+    void registerEventPool(EventPool eventPool, String name);
+
+    /**
+     * Stop measuring the given event pool, e.g. when the component using it is purged.
+     *
+     * @param eventPool EventPool
+     */
+    void unregisterEventPool(EventPool eventPool);
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics;
+
+/**
+ * Track the number of live keys and the number of keys evicted by purging, for components keeping state per key
+ * such as partitions and group by queries.
+ */
+public interface PurgeTracker {
+
+    /**
+     * Notify the creation of state for new keys
+     *
+     * @param count number of keys added
+     */
+    void keysAdded(int count);
+
+    /**
+     * Notify the eviction of the state of keys
+     *
+     * @param count number of keys evicted
+     */
+    void keysEvicted(int count);
+
+    /**
+     * @return Name of the purge tracker
+     */
+    String getName();
+}
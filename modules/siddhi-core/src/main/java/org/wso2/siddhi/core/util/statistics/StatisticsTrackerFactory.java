@@ -18,6 +18,7 @@
 
 package org.wso2.siddhi.core.util.statistics;
 
+import org.wso2.siddhi.core.event.EventPool;
 import org.wso2.siddhi.query.api.annotation.Element;
 
 import java.util.List;
@@ -33,6 +34,68 @@ public interface StatisticsTrackerFactory {
 
     MemoryUsageTracker createMemoryUsageTracker(StatisticsManager statisticsManager);
 
+    /**
+     * Create a tracker of event buffer occupancy. Factories not supporting it get a tracker ignoring the
+     * registered buffers.
+     *
+     * @param statisticsManager statistics manager
+     * @return the tracker
+     */
+    default BufferedEventsTracker createBufferedEventsTracker(StatisticsManager statisticsManager) {
+        return new BufferedEventsTracker() {
+            @Override
+            public void registerEventBufferHolder(EventBufferHolder eventBufferHolder, String name) {
+            }
+
+            @Override
+            public String getName(EventBufferHolder eventBufferHolder) {
+                return null;
+            }
+        };
+    }
+
+    /**
+     * Create a tracker of event pool usage. Factories not supporting it get a tracker ignoring the registered pools.
+     *
+     * @param statisticsManager statistics manager
+     * @return the tracker
+     */
+    default EventPoolTracker createEventPoolTracker(StatisticsManager statisticsManager) {
+        return new EventPoolTracker() {
+            @Override
+            public void registerEventPool(EventPool eventPool, String name) {
+            }
+
+            @Override
+            public void unregisterEventPool(EventPool eventPool) {
+            }
+        };
+    }
+
+    /**
+     * Create a tracker of the keys kept and purged. Factories not supporting it get a tracker ignoring the counts.
+     *
+     * @param name              name of the tracker
+     * @param statisticsManager statistics manager
+     * @return the tracker
+     */
+    default PurgeTracker createPurgeTracker(String name, StatisticsManager statisticsManager) {
+        return new PurgeTracker() {
+            @Override
+            public void keysAdded(int count) {
+            }
+
+            @Override
+            public void keysEvicted(int count) {
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
     StatisticsManager createStatisticsManager(List<Element> elements);
 
 }
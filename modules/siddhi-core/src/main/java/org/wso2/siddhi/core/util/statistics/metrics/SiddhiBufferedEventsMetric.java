@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.wso2.siddhi.core.util.statistics.BufferedEventsTracker;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Class to report the number of buffered events and the remaining capacity of Siddhi event buffers.
+ */
+public class SiddhiBufferedEventsMetric implements BufferedEventsTracker {
+    private ConcurrentMap<EventBufferHolder, String> registeredHolders =
+            new ConcurrentHashMap<EventBufferHolder, String>();
+    private MetricRegistry metricRegistry;
+
+    public SiddhiBufferedEventsMetric(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Register the event buffer holder that needs to be measured
+     *
+     * @param eventBufferHolder EventBufferHolder
+     * @param name              An unique value to identify the event buffer holder.
+     */
+    @Override
+    public void registerEventBufferHolder(final EventBufferHolder eventBufferHolder, String name) {
+        if (registeredHolders.get(eventBufferHolder) == null) {
+            String sizeMetricName = name + ".size";
+            String capacityMetricName = name + ".remainingCapacity";
+            // Partitioned junctions share the same name, hence only the first one gets reported.
+            synchronized (metricRegistry) {
+                if (metricRegistry.getNames().contains(sizeMetricName)) {
+                    return;
+                }
+                metricRegistry.register(sizeMetricName,
+                                        new Gauge<Long>() {
+                                            @Override
+                                            public Long getValue() {
+                                                return eventBufferHolder.getBufferedEvents();
+                                            }
+                                        });
+                metricRegistry.register(capacityMetricName,
+                                        new Gauge<Long>() {
+                                            @Override
+                                            public Long getValue() {
+                                                return eventBufferHolder.getRemainingCapacity();
+                                            }
+                                        });
+            }
+            registeredHolders.put(eventBufferHolder, sizeMetricName);
+        }
+    }
+
+    /**
+     * @return Name of the buffered events tracker.
+     */
+    @Override
+    public String getName(EventBufferHolder eventBufferHolder) {
+        return registeredHolders.get(eventBufferHolder);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import org.wso2.siddhi.core.event.EventPool;
+import org.wso2.siddhi.core.util.statistics.EventPoolTracker;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Class to report the hits, misses and allocations of Siddhi event pools, aggregated per component.
+ */
+public class SiddhiEventPoolMetric implements EventPoolTracker {
+    private ConcurrentMap<String, List<EventPool>> registeredPools = new ConcurrentHashMap<String, List<EventPool>>();
+    private MetricRegistry metricRegistry;
+
+    public SiddhiEventPoolMetric(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Register the event pool that needs to be measured
+     *
+     * @param eventPool EventPool
+     * @param name      Name of the component which uses the event pool.
+     */
+    @Override
+    public void registerEventPool(EventPool eventPool, String name) {
+        List<EventPool> eventPools = registeredPools.get(name);
+        if (eventPools == null) {
+            synchronized (metricRegistry) {
+                eventPools = registeredPools.get(name);
+                if (eventPools == null) {
+                    eventPools = new CopyOnWriteArrayList<EventPool>();
+                    final List<EventPool> pools = eventPools;
+                    metricRegistry.register(name + ".eventPool.hits", new Gauge<Long>() {
+                        @Override
+                        public Long getValue() {
+                            long hits = 0;
+                            for (EventPool pool : pools) {
+                                hits += pool.getHitCount();
+                            }
+                            return hits;
+                        }
+                    });
+                    metricRegistry.register(name + ".eventPool.misses", new Gauge<Long>() {
+                        @Override
+                        public Long getValue() {
+                            long misses = 0;
+                            for (EventPool pool : pools) {
+                                misses += pool.getMissCount();
+                            }
+                            return misses;
+                        }
+                    });
+                    metricRegistry.register(name + ".eventPool.allocations", new Gauge<Long>() {
+                        @Override
+                        public Long getValue() {
+                            long allocations = 0;
+                            for (EventPool pool : pools) {
+                                allocations += pool.getAllocationCount();
+                            }
+                            return allocations;
+                        }
+                    });
+                    registeredPools.put(name, eventPools);
+                }
+            }
+        }
+        eventPools.add(eventPool);
+    }
+
+    @Override
+    public void unregisterEventPool(EventPool eventPool) {
+        for (List<EventPool> eventPools : registeredPools.values()) {
+            eventPools.remove(eventPool);
+        }
+    }
+}
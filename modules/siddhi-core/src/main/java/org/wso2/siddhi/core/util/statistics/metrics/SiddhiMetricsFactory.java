@@ -18,8 +18,11 @@
 
 package org.wso2.siddhi.core.util.statistics.metrics;
 
+import org.wso2.siddhi.core.util.statistics.BufferedEventsTracker;
+import org.wso2.siddhi.core.util.statistics.EventPoolTracker;
 import org.wso2.siddhi.core.util.statistics.LatencyTracker;
 import org.wso2.siddhi.core.util.statistics.MemoryUsageTracker;
+import org.wso2.siddhi.core.util.statistics.PurgeTracker;
 import org.wso2.siddhi.core.util.statistics.StatisticsManager;
 import org.wso2.siddhi.core.util.statistics.StatisticsTrackerFactory;
 import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
@@ -44,6 +47,18 @@ public class SiddhiMetricsFactory implements StatisticsTrackerFactory {
         return new SiddhiMemoryUsageMetric(statisticsManager.getRegistry());
     }
 
+    public BufferedEventsTracker createBufferedEventsTracker(StatisticsManager statisticsManager) {
+        return new SiddhiBufferedEventsMetric(statisticsManager.getRegistry());
+    }
+
+    public EventPoolTracker createEventPoolTracker(StatisticsManager statisticsManager) {
+        return new SiddhiEventPoolMetric(statisticsManager.getRegistry());
+    }
+
+    public PurgeTracker createPurgeTracker(String name, StatisticsManager statisticsManager) {
+        return new SiddhiPurgeMetric(name, statisticsManager.getRegistry());
+    }
+
     @Override
     public StatisticsManager createStatisticsManager(List<Element> elements) {
         return new SiddhiStatisticsManager(elements);
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.util.statistics.metrics;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import org.wso2.siddhi.core.util.statistics.PurgeTracker;
+
+/**
+ * Class to report the live and evicted keys of purgeable Siddhi components.
+ */
+public class SiddhiPurgeMetric implements PurgeTracker {
+    private Counter liveKeys;
+    private Counter evictedKeys;
+    private String name;
+
+    public SiddhiPurgeMetric(String name, MetricRegistry metricRegistry) {
+        this.name = name;
+        liveKeys = metricRegistry.counter(name + ".keys.live");
+        evictedKeys = metricRegistry.counter(name + ".keys.evicted");
+    }
+
+    @Override
+    public void keysAdded(int count) {
+        liveKeys.inc(count);
+    }
+
+    @Override
+    public void keysEvicted(int count) {
+        liveKeys.dec(count);
+        evictedKeys.inc(count);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
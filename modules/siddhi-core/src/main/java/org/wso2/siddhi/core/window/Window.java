@@ -136,7 +136,7 @@ public class Window implements FindableProcessor, Snapshotable {
             metaStreamEvent.addOutputData(attribute);
         }
 
-        this.streamEventPool = new StreamEventPool(metaStreamEvent, 5);
+        this.streamEventPool = new StreamEventPool(metaStreamEvent, siddhiAppContext.getEventPoolSize(5));
         StreamEventCloner streamEventCloner = new StreamEventCloner(metaStreamEvent, this.streamEventPool);
         OutputStream.OutputEventType outputEventType = windowDefinition.getOutputEventType();
         boolean outputExpectsExpiredEvents = outputEventType != OutputStream.OutputEventType.CURRENT_EVENTS;
@@ -25,10 +25,17 @@ import org.junit.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class AsyncTestCase {
     private static final Logger log = Logger.getLogger(AsyncTestCase.class);
     private int count;
@@ -316,4 +323,308 @@ public class AsyncTestCase {
 
     }
 
+    @Test
+    public void asyncTest6() throws InterruptedException {
+        log.info("async test 6");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16')" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                for (Event event : events) {
+                    count++;
+                    lastValue = (Long) event.getData(2);
+                    Assert.assertEquals(count, lastValue);
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        Event[] events = new Event[100];
+        for (int i = 0; i < events.length; i++) {
+            events[i] = new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.6f, (long) i + 1});
+        }
+        inputHandler.send(events);
+        inputHandler.send(new Object[]{"IBM", 55.6f, 101L});
+        Thread.sleep(1000);
+        siddhiAppRuntime.shutdown();
+        Assert.assertTrue(eventArrived);
+        Assert.assertEquals(101, count);
+        Assert.assertEquals(101, lastValue);
+
+    }
+
+    @Test
+    public void asyncTest7() throws InterruptedException {
+        log.info("async test 7");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='16', wait.strategy='yielding', producer.type='single')" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                eventArrived = true;
+                for (Event event : events) {
+                    count++;
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 50; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, (long) i});
+        }
+        Thread.sleep(500);
+        siddhiAppRuntime.shutdown();
+        Assert.assertTrue(eventArrived);
+        Assert.assertEquals(50, count);
+
+    }
+
+    @Test(expected = SiddhiAppCreationException.class)
+    public void asyncTest8() throws InterruptedException {
+        log.info("async test 8");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(wait.strategy='spinning')" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void asyncTest9() throws InterruptedException {
+        log.info("async test 9");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='64', workers='4')" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream " +
+                "   select symbol, volume, count() as eventCount " +
+                "   insert into outputStream ;" +
+                "end;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<String, Long> lastVolumes = new ConcurrentHashMap<String, Long>();
+        final CountDownLatch latch = new CountDownLatch(1000);
+        final AtomicBoolean inOrder = new AtomicBoolean(true);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    String symbol = (String) event.getData(0);
+                    Long lastVolume = lastVolumes.get(symbol);
+                    if (!event.getData(1).equals(lastVolume == null ? 0L : lastVolume + 1) ||
+                            !event.getData(2).equals((Long) event.getData(1) + 1)) {
+                        inOrder.set(false);
+                    }
+                    lastVolumes.put(symbol, (Long) event.getData(1));
+                    synchronized (AsyncTestCase.this) {
+                        count++;
+                    }
+                    latch.countDown();
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (long i = 0; i < 100; i++) {
+            for (int j = 0; j < 10; j++) {
+                inputHandler.send(new Object[]{"SYMBOL" + j, 55.6f, i});
+            }
+        }
+        Assert.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        siddhiAppRuntime.shutdown();
+        Assert.assertTrue("Events of a partition key should be processed in order", inOrder.get());
+        Assert.assertEquals(1000, count);
+        Assert.assertEquals(10, lastVolumes.size());
+
+    }
+
+    @Test
+    public void asyncTest10() throws InterruptedException {
+        log.info("async test 10");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='64', workers='4')" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final CountDownLatch latch = new CountDownLatch(500);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                synchronized (AsyncTestCase.this) {
+                    count += events.length;
+                }
+                for (int i = 0; i < events.length; i++) {
+                    latch.countDown();
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (long i = 0; i < 1000; i++) {
+            inputHandler.send(new Object[]{"WSO2", i % 2 == 0 ? 55.6f : 75.6f, i});
+        }
+        Assert.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        siddhiAppRuntime.shutdown();
+        Assert.assertEquals(500, count);
+
+    }
+
+    @Test
+    public void asyncTest11() throws InterruptedException {
+        log.info("async test 11");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='64', workers='4')" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select symbol, volume, custom:sequence(symbol) as sequence " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final CountDownLatch latch = new CountDownLatch(1000);
+        final AtomicBoolean inOrder = new AtomicBoolean(true);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    if (!event.getData(2).equals((Long) event.getData(1) + 1)) {
+                        inOrder.set(false);
+                    }
+                    latch.countDown();
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (long i = 0; i < 1000; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        Assert.assertTrue(latch.await(60, TimeUnit.SECONDS));
+        siddhiAppRuntime.shutdown();
+        Assert.assertTrue("Query with a stateful function should not be processed in parallel", inOrder.get());
+
+    }
+
+    @Test
+    public void asyncTest12() throws InterruptedException {
+        log.info("async test 12");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                " " +
+                "@async(buffer.size='64', workers='4')" +
+                "define stream cseEventStream (symbol string, price float, volume long);" +
+                "@async(buffer.size='64', producer.type='single')" +
+                "define stream outputStream (symbol string, volume long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[70 > price] " +
+                "select symbol, volume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final CountDownLatch latch = new CountDownLatch(1000);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                synchronized (AsyncTestCase.this) {
+                    count += events.length;
+                }
+                for (int i = 0; i < events.length; i++) {
+                    latch.countDown();
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (long i = 0; i < 1000; i++) {
+            inputHandler.send(new Object[]{"WSO2", 55.6f, i});
+        }
+        Assert.assertTrue("Events published by the parallel workers should not be lost",
+                latch.await(60, TimeUnit.SECONDS));
+        siddhiAppRuntime.shutdown();
+        Assert.assertEquals(1000, count);
+
+    }
+
 }
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.managment;
+
+import org.apache.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.PersistenceStoreException;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.persistence.FileSystemPersistenceStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class FileSystemPersistenceStoreTestCase {
+    private static final Logger log = Logger.getLogger(FileSystemPersistenceStoreTestCase.class);
+    private Path location;
+
+    @Before
+    public void init() throws IOException {
+        location = Files.createTempDirectory("siddhi-persistence");
+    }
+
+    @After
+    public void cleanUp() throws IOException {
+        try (Stream<Path> paths = Files.walk(location)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void fileSystemPersistenceTest1() throws InterruptedException, ExecutionException {
+        log.info("file system persistence test 1 - restore after restart");
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(non.blocking='true') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(3) " +
+                "select symbol, sum(volume) as totalVol " +
+                "group by symbol " +
+                "insert into OutStream ;";
+
+        final List<Object[]> outputs = new ArrayList<Object[]>();
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(event.getData());
+                }
+            }
+        };
+
+        FileSystemPersistenceStore persistenceStore = new FileSystemPersistenceStore(location.toString());
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutStream", streamCallback);
+        siddhiAppRuntime.start();
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.persist().getFuture().get();
+        inputHandler.send(new Object[]{"WSO2", 75.6f, 10});
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+        siddhiAppRuntime.persist().getFuture().get();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 1000});
+        siddhiAppRuntime.shutdown();
+        persistenceStore.shutdown();
+
+        // restart with a new store on the same location
+        persistenceStore = new FileSystemPersistenceStore(location.toString());
+        siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutStream", streamCallback);
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        outputs.clear();
+        siddhiAppRuntime.getInputHandler("StockStream").send(new Object[]{"IBM", 75.6f, 1});
+        // closes the revision logs of the store as well
+        siddhiManager.shutdown();
+
+        Assert.assertEquals(1, outputs.size());
+        Assert.assertArrayEquals(new Object[]{"IBM", 101L}, outputs.get(0));
+    }
+
+    @Test
+    public void fileSystemPersistenceTest2() throws IOException {
+        log.info("file system persistence test 2 - recovery from partially written revisions");
+
+        FileSystemPersistenceStore persistenceStore = new FileSystemPersistenceStore(location.toString());
+        for (int i = 1; i <= 3; i++) {
+            persistenceStore.save("Test", "revision" + i, snapshot(i, 1000));
+        }
+        persistenceStore.shutdown();
+
+        Path segment;
+        try (Stream<Path> paths = Files.list(location.resolve("Test"))) {
+            segment = paths.findFirst().get();
+        }
+        long size = Files.size(segment);
+        // a revision that is not fully written, followed by a corrupted one
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.allocate(64);
+            buffer.putInt(0x53524556).putInt(9).put("revision4".getBytes()).putLong(-1L).putInt(12345).flip();
+            channel.write(buffer);
+        }
+
+        persistenceStore = new FileSystemPersistenceStore(location.toString());
+        Assert.assertEquals("revision3", persistenceStore.getLastRevision("Test"));
+        Assert.assertArrayEquals(snapshot(3, 1000), persistenceStore.load("Test", "revision3"));
+        Assert.assertArrayEquals(snapshot(1, 1000), persistenceStore.load("Test", "revision1"));
+        Assert.assertNull(persistenceStore.load("Test", "revision4"));
+        Assert.assertEquals(size, Files.size(segment));
+
+        persistenceStore.save("Test", "revision4", snapshot(4, 10));
+        persistenceStore.shutdown();
+        persistenceStore = new FileSystemPersistenceStore(location.toString());
+        Assert.assertEquals("revision4", persistenceStore.getLastRevision("Test"));
+        Assert.assertArrayEquals(snapshot(4, 10), persistenceStore.load("Test", "revision4"));
+        persistenceStore.shutdown();
+    }
+
+    @Test
+    public void fileSystemPersistenceTest3() throws IOException {
+        log.info("file system persistence test 3 - bounded revisions");
+
+        FileSystemPersistenceStore persistenceStore = new FileSystemPersistenceStore();
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("location", location.toString());
+        properties.put("max.revisions", "3");
+        properties.put("segment.size", "1");
+        properties.put("sync", "interval");
+        persistenceStore.setProperties(properties);
+        for (int i = 1; i <= 5; i++) {
+            persistenceStore.save("Test", "revision" + i, snapshot(i, 100));
+        }
+        Assert.assertNull(persistenceStore.load("Test", "revision2"));
+        Assert.assertArrayEquals(snapshot(3, 100), persistenceStore.load("Test", "revision3"));
+        try (Stream<Path> paths = Files.list(location.resolve("Test"))) {
+            Assert.assertEquals(3, paths.count());
+        }
+
+        // a failed save does not leave a revision behind
+        try {
+            persistenceStore.save("Test", "revision6", outputStream -> {
+                outputStream.write(snapshot(6, 100));
+                throw new IOException("Snapshot cannot be written");
+            });
+            Assert.fail("Failure of the snapshot writer is not reported");
+        } catch (PersistenceStoreException e) {
+            Assert.assertEquals("revision5", persistenceStore.getLastRevision("Test"));
+        }
+        persistenceStore.shutdown();
+
+        persistenceStore = new FileSystemPersistenceStore();
+        persistenceStore.setProperties(properties);
+        Assert.assertEquals("revision5", persistenceStore.getLastRevision("Test"));
+        Assert.assertNull(persistenceStore.load("Test", "revision6"));
+        Assert.assertArrayEquals(snapshot(4, 100), persistenceStore.load("Test", "revision4"));
+        persistenceStore.shutdown();
+    }
+
+    @Test(expected = SiddhiAppCreationException.class)
+    public void fileSystemPersistenceTest4() {
+        log.info("file system persistence test 4 - base interval exceeding the retained revisions");
+
+        FileSystemPersistenceStore persistenceStore = new FileSystemPersistenceStore();
+        Map<String, String> properties = new HashMap<String, String>();
+        properties.put("location", location.toString());
+        properties.put("max.revisions", "3");
+        persistenceStore.setProperties(properties);
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+        try {
+            siddhiManager.createSiddhiAppRuntime("" +
+                    "@app:name('Test') " +
+                    "@app:snapshot(incremental='true', base.interval='5') " +
+                    "" +
+                    "define stream StockStream ( symbol string, price float, volume int );" +
+                    "" +
+                    "@info(name = 'query1')" +
+                    "from StockStream#window.length(3) " +
+                    "select symbol, sum(volume) as totalVol " +
+                    "insert into OutStream ;");
+        } finally {
+            siddhiManager.shutdown();
+        }
+    }
+
+    @Test
+    public void fileSystemPersistenceTest5() throws Exception {
+        log.info("file system persistence test 5 - streaming a revision while other apps are saved");
+
+        FileSystemPersistenceStore persistenceStore = new FileSystemPersistenceStore(location.toString());
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> save = executorService.submit(() -> persistenceStore.save("Test1", "revision1",
+                    outputStream -> {
+                        outputStream.write(snapshot(1, 256 * 1024));
+                        written.countDown();
+                        try {
+                            resume.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        outputStream.write(snapshot(2, 10));
+                    }));
+            Assert.assertTrue(written.await(5, TimeUnit.SECONDS));
+            // the written part is already in the log, rather than buffered till the snapshot is complete
+            try (Stream<Path> paths = Files.list(location.resolve("Test1"))) {
+                Assert.assertTrue(Files.size(paths.findFirst().get()) > 128 * 1024);
+            }
+            // only the log of the app being saved is locked
+            persistenceStore.save("Test2", "revision1", snapshot(3, 100));
+            Assert.assertArrayEquals(snapshot(3, 100), persistenceStore.load("Test2", "revision1"));
+            Assert.assertFalse(save.isDone());
+
+            resume.countDown();
+            save.get(5, TimeUnit.SECONDS);
+            byte[] snapshot = persistenceStore.load("Test1", "revision1");
+            Assert.assertEquals(256 * 1024 + 10, snapshot.length);
+            Assert.assertArrayEquals(snapshot(2, 10), Arrays.copyOfRange(snapshot, 256 * 1024, snapshot.length));
+        } finally {
+            resume.countDown();
+            executorService.shutdown();
+            persistenceStore.shutdown();
+        }
+    }
+
+    private static byte[] snapshot(int revision, int length) {
+        byte[] snapshot = new byte[length];
+        for (int i = 0; i < length; i++) {
+            snapshot[i] = (byte) (revision * 31 + i);
+        }
+        return snapshot;
+    }
+}
@@ -28,12 +28,19 @@ import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.exception.NoPersistenceStoreException;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import org.wso2.siddhi.core.util.persistence.PersistenceStore;
+import org.wso2.siddhi.core.util.snapshot.ByteSerializer;
+import org.wso2.siddhi.core.util.snapshot.IncrementalSnapshot;
 import org.wso2.siddhi.core.util.snapshot.PersistenceReference;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class PersistenceTestCase {
     private static final Logger log = Logger.getLogger(PersistenceTestCase.class);
@@ -674,4 +681,424 @@ public class PersistenceTestCase {
 
     }
 
+    @Test
+    public void persistenceTest9() throws InterruptedException, ExecutionException {
+        log.info("persistence test 9 - incremental snapshots");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(incremental='true', base.interval='3') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "define stream RegionStream ( symbol string, region string );" +
+                "define stream CheckStream ( symbol string );" +
+                "define table RegionTable ( symbol string, region string );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(4) " +
+                "select symbol, sum(volume) as totalVol " +
+                "group by symbol " +
+                "insert into OutStream ;" +
+                "" +
+                "@info(name = 'query2')" +
+                "from StockStream#window.time(1 hour) " +
+                "select symbol, max(price) as maxPrice, count() as events " +
+                "insert into MaxStream ;" +
+                "" +
+                "from RegionStream " +
+                "insert into RegionTable ;" +
+                "" +
+                "@info(name = 'query3')" +
+                "from CheckStream join RegionTable on CheckStream.symbol == RegionTable.symbol " +
+                "select RegionTable.symbol, RegionTable.region " +
+                "insert into RegionOutStream ;";
+
+        final List<Object[]> expectedOutputs = new ArrayList<Object[]>();
+        final List<Object[]> outputs = new ArrayList<Object[]>();
+        String[] symbols = new String[]{"IBM", "WSO2", "ORACLE"};
+
+        // process all the events on a runtime that is not restarted, to compare the outputs with
+        SiddhiAppRuntime referenceRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp.replace("'Test'",
+                "'TestReference'"));
+        addOutputCallbacks(referenceRuntime, expectedOutputs);
+        referenceRuntime.start();
+        referenceRuntime.getInputHandler("RegionStream").send(new Object[]{"IBM", "US"});
+        for (int i = 0; i < 20; i++) {
+            referenceRuntime.getInputHandler("StockStream").send(new Object[]{symbols[i % 3], 10f + i % 7, i});
+        }
+        expectedOutputs.clear();
+        for (int i = 20; i < 26; i++) {
+            referenceRuntime.getInputHandler("StockStream").send(new Object[]{symbols[i % 3], 10f + i % 7, i});
+        }
+        referenceRuntime.getInputHandler("CheckStream").send(new Object[]{"IBM"});
+        referenceRuntime.shutdown();
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        addOutputCallbacks(siddhiAppRuntime, outputs);
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.getInputHandler("RegionStream").send(new Object[]{"IBM", "US"});
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        List<String> revisions = new ArrayList<String>();
+        for (int i = 0; i < 20; i++) {
+            inputHandler.send(new Object[]{symbols[i % 3], 10f + i % 7, i});
+            if (i % 4 == 3) {
+                PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+                persistenceReference.getFuture().get();
+                revisions.add(persistenceReference.getRevision());
+                Thread.sleep(5);
+            }
+        }
+        // events after the last revision are lost on restart, and replayed by the source
+        inputHandler.send(new Object[]{"IBM", 100f, 1000});
+        siddhiAppRuntime.shutdown();
+
+        IncrementalSnapshot[] snapshots = new IncrementalSnapshot[revisions.size()];
+        for (int i = 0; i < revisions.size(); i++) {
+            snapshots[i] = (IncrementalSnapshot) ByteSerializer.byteToObject(persistenceStore.load("Test",
+                    revisions.get(i)));
+        }
+        Assert.assertNull(snapshots[0].getPreviousRevision());
+        Assert.assertEquals(revisions.get(0), snapshots[1].getPreviousRevision());
+        Assert.assertEquals(revisions.get(1), snapshots[2].getPreviousRevision());
+        Assert.assertNull(snapshots[3].getPreviousRevision());
+        Assert.assertEquals(revisions.get(3), snapshots[4].getPreviousRevision());
+        Assert.assertTrue(snapshots[4].getStates().size() < snapshots[3].getStates().size());
+        Assert.assertFalse(snapshots[4].getDeltas().isEmpty());
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        addOutputCallbacks(siddhiAppRuntime, outputs);
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreLastRevision();
+        outputs.clear();
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        for (int i = 20; i < 26; i++) {
+            inputHandler.send(new Object[]{symbols[i % 3], 10f + i % 7, i});
+        }
+        siddhiAppRuntime.getInputHandler("CheckStream").send(new Object[]{"IBM"});
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals(13, expectedOutputs.size());
+        Assert.assertEquals(expectedOutputs.size(), outputs.size());
+        for (int i = 0; i < expectedOutputs.size(); i++) {
+            Assert.assertArrayEquals(expectedOutputs.get(i), outputs.get(i));
+        }
+    }
+
+    @Test
+    public void persistenceTest10() throws InterruptedException, ExecutionException {
+        log.info("persistence test 10 - non blocking snapshots");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(non.blocking='true') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "define stream RegionStream ( symbol string, region string );" +
+                "define stream CheckStream ( symbol string );" +
+                "define table RegionTable ( symbol string, region string );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(4) " +
+                "select symbol, sum(volume) as totalVol " +
+                "group by symbol " +
+                "insert into OutStream ;" +
+                "" +
+                "@info(name = 'query2')" +
+                "from StockStream#window.time(1 hour) " +
+                "select symbol, max(price) as maxPrice, count() as events " +
+                "insert into MaxStream ;" +
+                "" +
+                "from RegionStream " +
+                "insert into RegionTable ;" +
+                "" +
+                "@info(name = 'query3')" +
+                "from CheckStream join RegionTable on CheckStream.symbol == RegionTable.symbol " +
+                "select RegionTable.symbol, RegionTable.region " +
+                "insert into RegionOutStream ;";
+
+        final List<Object[]> expectedOutputs = new ArrayList<Object[]>();
+        final List<Object[]> outputs = new ArrayList<Object[]>();
+        String[] symbols = new String[]{"IBM", "WSO2", "ORACLE"};
+
+        SiddhiAppRuntime referenceRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp.replace("'Test'",
+                "'TestReference'"));
+        addOutputCallbacks(referenceRuntime, expectedOutputs);
+        referenceRuntime.start();
+        referenceRuntime.getInputHandler("RegionStream").send(new Object[]{"IBM", "US"});
+        for (int i = 0; i < 10; i++) {
+            referenceRuntime.getInputHandler("StockStream").send(new Object[]{symbols[i % 3], 10f + i % 7, i});
+        }
+        expectedOutputs.clear();
+        for (int i = 10; i < 16; i++) {
+            referenceRuntime.getInputHandler("StockStream").send(new Object[]{symbols[i % 3], 10f + i % 7, i});
+        }
+        referenceRuntime.getInputHandler("CheckStream").send(new Object[]{"IBM"});
+        referenceRuntime.shutdown();
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        addOutputCallbacks(siddhiAppRuntime, outputs);
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.getInputHandler("RegionStream").send(new Object[]{"IBM", "US"});
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        for (int i = 0; i < 10; i++) {
+            inputHandler.send(new Object[]{symbols[i % 3], 10f + i % 7, i});
+        }
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        // state changed while the snapshot is being serialized should not leak in to the persisted revision
+        inputHandler.send(new Object[]{"IBM", 100f, 1000});
+        siddhiAppRuntime.getInputHandler("RegionStream").send(new Object[]{"IBM", "EU"});
+        persistenceReference.getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        addOutputCallbacks(siddhiAppRuntime, outputs);
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreRevision(persistenceReference.getRevision());
+        outputs.clear();
+        inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        for (int i = 10; i < 16; i++) {
+            inputHandler.send(new Object[]{symbols[i % 3], 10f + i % 7, i});
+        }
+        siddhiAppRuntime.getInputHandler("CheckStream").send(new Object[]{"IBM"});
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals(13, expectedOutputs.size());
+        Assert.assertEquals(expectedOutputs.size(), outputs.size());
+        for (int i = 0; i < expectedOutputs.size(); i++) {
+            Assert.assertArrayEquals(expectedOutputs.get(i), outputs.get(i));
+        }
+    }
+
+    @Test
+    public void persistenceTest11() throws InterruptedException, ExecutionException {
+        log.info("persistence test 11 - snapshot codecs");
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(codec='binary', compression='deflate') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(20000) " +
+                "select symbol, sum(volume) as totalVol, max(price) as maxPrice " +
+                "group by symbol " +
+                "insert into OutStream ;" +
+                "" +
+                "@info(name = 'query2')" +
+                "from StockStream[volume > 0]#window.lengthBatch(7) " +
+                "select symbol, count() as events " +
+                "insert all events into MaxStream ;";
+        String javaSiddhiApp = siddhiApp.replace("codec='binary', compression='deflate'", "codec='java'");
+
+        List<Object[]> expectedOutputs = persistAndRestore(siddhiApp.replace("'Test'", "'TestReference'"), null);
+        List<Object[]> outputs = persistAndRestore(siddhiApp, siddhiApp);
+        List<Object[]> javaToBinaryOutputs = persistAndRestore(javaSiddhiApp, siddhiApp);
+        List<Object[]> binaryToJavaOutputs = persistAndRestore(siddhiApp, javaSiddhiApp);
+
+        Assert.assertEquals(7, expectedOutputs.size());
+        for (List<Object[]> restoredOutputs : new List[]{outputs, javaToBinaryOutputs, binaryToJavaOutputs}) {
+            Assert.assertEquals(expectedOutputs.size(), restoredOutputs.size());
+            for (int i = 0; i < expectedOutputs.size(); i++) {
+                Assert.assertArrayEquals(expectedOutputs.get(i), restoredOutputs.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void persistenceTest12() throws InterruptedException, ExecutionException {
+        log.info("persistence test 12 - incremental snapshots with failed saves");
+
+        final AtomicBoolean failSave = new AtomicBoolean(false);
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore() {
+            @Override
+            public void save(String siddhiAppId, String revision, byte[] data) {
+                if (failSave.get()) {
+                    throw new IllegalStateException("Store unavailable");
+                }
+                super.save(siddhiAppId, revision, data);
+            }
+        };
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(incremental='true', base.interval='10') " +
+                "" +
+                "define stream StockStream ( symbol string, price float, volume int );" +
+                "" +
+                "@info(name = 'query1')" +
+                "from StockStream#window.length(4) " +
+                "select symbol, sum(volume) as totalVol " +
+                "group by symbol " +
+                "insert into OutStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        // revisions persisted back to back should not collide
+        List<String> revisions = new ArrayList<String>();
+        for (int i = 0; i < 3; i++) {
+            inputHandler.send(new Object[]{"IBM", 10f, i});
+            PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+            persistenceReference.getFuture().get();
+            revisions.add(persistenceReference.getRevision());
+        }
+        Assert.assertEquals(3, new HashSet<String>(revisions).size());
+
+        failSave.set(true);
+        inputHandler.send(new Object[]{"IBM", 10f, 3});
+        try {
+            siddhiAppRuntime.persist().getFuture().get();
+            Assert.fail("Failed save is not reported");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        failSave.set(false);
+
+        // the revision after a failed save should not depend on the revision that was never stored
+        inputHandler.send(new Object[]{"IBM", 10f, 4});
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        persistenceReference.getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        IncrementalSnapshot snapshot = (IncrementalSnapshot) ByteSerializer.byteToObject(persistenceStore.load(
+                "Test", persistenceReference.getRevision()));
+        Assert.assertNull(snapshot.getPreviousRevision());
+        Assert.assertEquals(revisions.get(1), ((IncrementalSnapshot) ByteSerializer.byteToObject(
+                persistenceStore.load("Test", revisions.get(2)))).getPreviousRevision());
+    }
+
+    @Test
+    public void persistenceTest13() throws InterruptedException, ExecutionException {
+        log.info("persistence test 13 - non blocking snapshots of indexed tables");
+
+        PersistenceStore persistenceStore = new InMemoryPersistenceStore();
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(persistenceStore);
+
+        String siddhiApp = "" +
+                "@app:name('Test') " +
+                "@app:snapshot(non.blocking='true') " +
+                "" +
+                "define stream RegionStream ( symbol string, region string, volume long );" +
+                "define stream CheckStream ( region string );" +
+                "@PrimaryKey('symbol') " +
+                "@Index('region') " +
+                "define table RegionTable ( symbol string, region string, volume long );" +
+                "" +
+                "from RegionStream " +
+                "update or insert into RegionTable " +
+                "   on RegionTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query1')" +
+                "from CheckStream join RegionTable on CheckStream.region == RegionTable.region " +
+                "select RegionTable.symbol, RegionTable.volume " +
+                "insert into RegionOutStream ;";
+
+        final List<Object[]> outputs = new ArrayList<Object[]>();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.start();
+        InputHandler regionHandler = siddhiAppRuntime.getInputHandler("RegionStream");
+        regionHandler.send(new Object[]{"IBM", "US", 100L});
+        regionHandler.send(new Object[]{"WSO2", "US", 200L});
+        regionHandler.send(new Object[]{"ORACLE", "EU", 300L});
+        PersistenceReference persistenceReference = siddhiAppRuntime.persist();
+        // changes after the snapshot is captured should not leak in to the persisted revision
+        regionHandler.send(new Object[]{"IBM", "EU", 400L});
+        regionHandler.send(new Object[]{"MSFT", "US", 500L});
+        persistenceReference.getFuture().get();
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("RegionOutStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    outputs.add(event.getData());
+                }
+            }
+        });
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restoreRevision(persistenceReference.getRevision());
+        siddhiAppRuntime.getInputHandler("CheckStream").send(new Object[]{"US"});
+        siddhiAppRuntime.shutdown();
+
+        Assert.assertEquals(2, outputs.size());
+        long totalVolume = 0;
+        for (Object[] output : outputs) {
+            totalVolume += (Long) output[1];
+        }
+        Assert.assertEquals(300L, totalVolume);
+    }
+
+    private List<Object[]> persistAndRestore(String siddhiApp, String restoringSiddhiApp)
+            throws InterruptedException, ExecutionException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        final List<Object[]> outputs = new ArrayList<Object[]>();
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    outputs.add(event.getData());
+                }
+            }
+        };
+        String[] symbols = new String[]{"IBM", "WSO2", "ORACLE", null};
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutStream", streamCallback);
+        siddhiAppRuntime.addCallback("MaxStream", streamCallback);
+        siddhiAppRuntime.start();
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        for (int i = 0; i < 25000; i++) {
+            inputHandler.send(new Object[]{symbols[i % 4], 10f + i % 7, i % 11 - 3});
+        }
+        if (restoringSiddhiApp != null) {
+            siddhiAppRuntime.persist().getFuture().get();
+            siddhiAppRuntime.shutdown();
+            siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(restoringSiddhiApp);
+            siddhiAppRuntime.addCallback("OutStream", streamCallback);
+            siddhiAppRuntime.addCallback("MaxStream", streamCallback);
+            siddhiAppRuntime.start();
+            siddhiAppRuntime.restoreLastRevision();
+            inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        }
+        outputs.clear();
+        for (int i = 0; i < 6; i++) {
+            inputHandler.send(new Object[]{symbols[i % 4], 5f * i, i + 1});
+        }
+        siddhiAppRuntime.shutdown();
+        return outputs;
+    }
+
+    private void addOutputCallbacks(SiddhiAppRuntime siddhiAppRuntime, final List<Object[]> outputs) {
+        StreamCallback streamCallback = new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(event.getData());
+                }
+            }
+        };
+        siddhiAppRuntime.addCallback("OutStream", streamCallback);
+        siddhiAppRuntime.addCallback("MaxStream", streamCallback);
+        siddhiAppRuntime.addCallback("RegionOutStream", streamCallback);
+    }
+
 }
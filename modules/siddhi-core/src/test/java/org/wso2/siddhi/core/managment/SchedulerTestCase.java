@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.managment;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SchedulerTestCase {
+    private static final Logger log = Logger.getLogger(SchedulerTestCase.class);
+
+    @Test
+    public void schedulerTest1() throws InterruptedException {
+        log.info("Scheduler Test 1: time windows of many partitions expire events through a coarse timer wheel");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:scheduler(resolution='50') " +
+                "define stream cseEventStream (symbol string, price float, timestamp long); " +
+                "partition with (symbol of cseEventStream) " +
+                "begin " +
+                "   @info(name = 'query1') " +
+                "   from cseEventStream#window.time(200 milliseconds) " +
+                "   select symbol, timestamp " +
+                "   insert expired events into outputStream ; " +
+                "end ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final AtomicInteger removeEventCount = new AtomicInteger();
+        final AtomicInteger earlyEventCount = new AtomicInteger();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                long currentTime = System.currentTimeMillis();
+                for (Event event : events) {
+                    removeEventCount.incrementAndGet();
+                    if (currentTime < (Long) event.getData(1) + 200) {
+                        earlyEventCount.incrementAndGet();
+                    }
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        for (int i = 0; i < 1000; i++) {
+            inputHandler.send(new Object[]{"SYMBOL-" + (i % 500), 10f, System.currentTimeMillis()});
+            if (i % 100 == 0) {
+                Thread.sleep(10);
+            }
+        }
+        long start = System.currentTimeMillis();
+        while (removeEventCount.get() < 1000 && System.currentTimeMillis() - start < 5000) {
+            Thread.sleep(50);
+        }
+        Assert.assertEquals(1000, removeEventCount.get());
+        Assert.assertEquals(0, earlyEventCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expected = SiddhiAppCreationException.class)
+    public void schedulerTest2() throws InterruptedException {
+        log.info("Scheduler Test 2: invalid resolution");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:scheduler(resolution='0') " +
+                "define stream cseEventStream (symbol string, price float, timestamp long); " +
+                "from cseEventStream#window.time(1 sec) " +
+                "select * " +
+                "insert into outputStream ;";
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void schedulerTest3() throws InterruptedException {
+        log.info("Scheduler Test 3: a slow timer does not delay the other timers of the same tick");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:scheduler(resolution='50') " +
+                "define stream SlowStream (symbol string, timestamp long); " +
+                "define stream FastStream (symbol string, timestamp long); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from SlowStream#window.time(100 milliseconds) " +
+                "select symbol, timestamp " +
+                "insert expired events into SlowOutputStream ; " +
+                "" +
+                "@info(name = 'query2') " +
+                "from FastStream#window.time(100 milliseconds) " +
+                "select symbol, timestamp " +
+                "insert expired events into FastOutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final AtomicLong fastExpiryDelay = new AtomicLong(-1);
+        siddhiAppRuntime.addCallback("SlowOutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        siddhiAppRuntime.addCallback("FastOutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                fastExpiryDelay.set(System.currentTimeMillis() - (Long) events[0].getData(1));
+            }
+        });
+
+        siddhiAppRuntime.start();
+        long timestamp = System.currentTimeMillis();
+        siddhiAppRuntime.getInputHandler("SlowStream").send(new Object[]{"IBM", timestamp});
+        siddhiAppRuntime.getInputHandler("FastStream").send(new Object[]{"IBM", timestamp});
+        long start = System.currentTimeMillis();
+        while (fastExpiryDelay.get() < 0 && System.currentTimeMillis() - start < 2000) {
+            Thread.sleep(10);
+        }
+        siddhiAppRuntime.shutdown();
+        Assert.assertTrue(fastExpiryDelay.get() >= 100);
+        Assert.assertTrue("Expiry delayed by " + fastExpiryDelay.get() + " ms", fastExpiryDelay.get() < 600);
+    }
+}
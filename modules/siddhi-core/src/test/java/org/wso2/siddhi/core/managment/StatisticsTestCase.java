@@ -29,9 +29,11 @@ import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiConstants;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.concurrent.ExecutionException;
 
 public class StatisticsTestCase {
     private static final Logger log = Logger.getLogger(StatisticsTestCase.class);
@@ -103,6 +105,7 @@ public class StatisticsTestCase {
         Assert.assertTrue(output.contains("Gauges"));
         Assert.assertTrue(output.contains("org.wso2.siddhi." + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS));
         Assert.assertTrue(output.contains("query1.memory"));
+        Assert.assertTrue(output.contains("query1.eventPool.allocations"));
         Assert.assertTrue(output.contains("Meters"));
         Assert.assertTrue(output.contains(SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
                 SiddhiConstants.METRIC_INFIX_STREAMS + SiddhiConstants.METRIC_DELIMITER + "cseEventStream"));
@@ -111,4 +114,46 @@ public class StatisticsTestCase {
 
         log.info(output);
     }
+
+    @Test
+    public void statisticsTest2() throws InterruptedException, ExecutionException {
+        log.info("statistics test 2 - snapshot stall latency");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+        String siddhiApp = "" +
+                "@app:statistics(reporter = 'console', interval = '2' )" +
+                "@app:snapshot(non.blocking = 'true')" +
+                " " +
+                "define stream cseEventStream (symbol string, price float, volume int);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(5) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(baos);
+        PrintStream old = System.out;
+        System.setOut(ps);
+
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"WSO2", 55.6f, 100});
+        siddhiAppRuntime.persist().getFuture().get();
+        inputHandler.send(new Object[]{"IBM", 75.6f, 100});
+
+        Thread.sleep(2010);
+        siddhiAppRuntime.shutdown();
+
+        System.out.flush();
+        System.setOut(old);
+        String output = baos.toString();
+
+        Assert.assertTrue(output.contains("Timers"));
+        Assert.assertTrue(output.contains(SiddhiConstants.METRIC_INFIX_SIDDHI + SiddhiConstants.METRIC_DELIMITER +
+                SiddhiConstants.METRIC_INFIX_SNAPSHOTS + SiddhiConstants.METRIC_DELIMITER + "stall"));
+
+        log.info(output);
+    }
 }
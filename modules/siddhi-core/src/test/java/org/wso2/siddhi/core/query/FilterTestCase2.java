@@ -38,6 +38,9 @@ import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class FilterTestCase2 {
     private static final Logger log = Logger.getLogger(FilterTestCase2.class);
     private volatile int count;
@@ -1754,4 +1757,95 @@ public class FilterTestCase2 {
 
     }
 
+    @Test
+    public void filterTest122() throws InterruptedException {
+        log.info("filter test122");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price double, volume long, " +
+                "quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[volume / quantity > 10 and price * 2 != 100.0] " +
+                "select symbol, (volume - 1) * quantity as total, price / 0 as ratio " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    count++;
+                    Assert.assertTrue("IBM".equals(event.getData(0)) || "GOOG".equals(event.getData(0)));
+                    Assert.assertEquals(198L, event.getData(1));
+                    Assert.assertNull(event.getData(2));
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 70.0, 100L, 2});
+        inputHandler.send(new Object[]{"WSO2", 50.0, 100L, 2});
+        inputHandler.send(new Object[]{"ORACLE", 70.0, 100L, 0});
+        inputHandler.send(new Object[]{"GOOG", null, 100L, 2});
+        inputHandler.send(new Object[]{"MSFT", 70.0, null, 2});
+        Thread.sleep(100);
+        Assert.assertEquals(2, count);
+        Assert.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+
+    }
+
+    @Test
+    public void filterTest123() throws InterruptedException {
+        log.info("filter test123");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String cseEventStream = "define stream cseEventStream (symbol string, price double, volume long, " +
+                "quantity int);";
+        String query = "@info(name = 'query1') " +
+                "from cseEventStream[volume - 0 < 10 and price / quantity != 1.0] " +
+                "select symbol, volume + 0 as volume, (price / quantity) / (quantity % 3) as ratio, " +
+                "quantity / (quantity - 2) as scaled " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(cseEventStream + query);
+        List<Object[]> received = new ArrayList<Object[]>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                for (Event event : inEvents) {
+                    received.add(event.getData());
+                }
+                eventArrived = true;
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"IBM", 8.0, Long.MIN_VALUE, 4});
+        inputHandler.send(new Object[]{"WSO2", Double.NaN, 5L, 2});
+        inputHandler.send(new Object[]{"ORACLE", 9.0, 5L, 3});
+        inputHandler.send(new Object[]{"GOOG", null, 5L, 1});
+        inputHandler.send(new Object[]{"MSFT", 70.0, null, 2});
+        Thread.sleep(100);
+        Assert.assertTrue(eventArrived);
+        Assert.assertEquals(4, received.size());
+        Assert.assertArrayEquals(new Object[]{"IBM", Long.MIN_VALUE, 2.0, 2}, received.get(0));
+        Assert.assertArrayEquals(new Object[]{"WSO2", 5L, Double.NaN, null}, received.get(1));
+        Assert.assertArrayEquals(new Object[]{"ORACLE", 5L, null, 3}, received.get(2));
+        Assert.assertArrayEquals(new Object[]{"GOOG", 5L, null, -1}, received.get(3));
+        siddhiAppRuntime.shutdown();
+
+    }
+
 }
@@ -28,6 +28,14 @@ import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.snapshot.ByteSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
 public class MaxAggregatorExtensionTestCase {
     private static final Logger log = Logger.getLogger(MaxAggregatorExtensionTestCase.class);
@@ -96,4 +104,142 @@ public class MaxAggregatorExtensionTestCase {
 
     }
 
+    @Test
+    public void testMaxAggregatorExtension2() throws InterruptedException {
+        log.info("MaxAggregator TestCase 2 - sliding min and max over a length window");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (symbol string, price int);";
+        String query = ("@info(name = 'query1') " +
+                "from inputStream#window.length(3) " +
+                "select max(price) as maxPrice, min(price) as minPrice " +
+                "insert into outputStream;");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition +
+                query);
+
+        final List<Object> maxValues = new ArrayList<Object>();
+        final List<Object> minValues = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    maxValues.add(event.getData(0));
+                    minValues.add(event.getData(1));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        for (int price : new int[]{5, 3, 8, 1, 2, 4, 7}) {
+            inputHandler.send(new Object[]{"WSO2", price});
+        }
+        Assert.assertEquals(Arrays.<Object>asList(5, 5, 8, 8, 8, 4, 7), maxValues);
+        Assert.assertEquals(Arrays.<Object>asList(5, 3, 3, 1, 1, 1, 2), minValues);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testMaxAggregatorExtension3() throws InterruptedException {
+        log.info("MaxAggregator TestCase 3 - max over a window expiring events out of arrival order");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "define stream inputStream (symbol string, price double);";
+        String query = ("@info(name = 'query1') " +
+                "from inputStream#window.sort(2, price, 'asc') " +
+                "select max(price) as maxPrice " +
+                "insert into outputStream;");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition +
+                query);
+
+        final List<Object> maxValues = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    maxValues.add(event.getData(0));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        for (double price : new double[]{5, 3, 8, 1, 2, 0, 9, 0.5}) {
+            inputHandler.send(new Object[]{"WSO2", price});
+        }
+        Assert.assertEquals(Arrays.<Object>asList(5.0, 5.0, 8.0, 5.0, 3.0, 2.0, 9.0, 1.0), maxValues);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void testMaxAggregatorExtension4() throws InterruptedException {
+        log.info("MaxAggregator TestCase 4 - restoring min and max state kept in boxed deques");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('MaxAggregatorTest4') " +
+                "define stream inputStream (symbol string, price int);" +
+                "@info(name = 'query1') " +
+                "from inputStream#window.length(3) " +
+                "select max(price) as maxPrice, min(price) as minPrice " +
+                "insert into outputStream;";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        for (int price : new int[]{5, 3, 8}) {
+            inputHandler.send(new Object[]{"WSO2", price});
+        }
+        // the aggregators used to keep only the candidate values, in a LinkedList of boxed values
+        Object snapshot = toBoxedDeques(ByteSerializer.byteToObject(siddhiAppRuntime.snapshot()));
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final List<Object> maxValues = new ArrayList<Object>();
+        final List<Object> minValues = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    maxValues.add(event.getData(0));
+                    minValues.add(event.getData(1));
+                }
+            }
+        });
+        inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restore(ByteSerializer.objectToByte(snapshot));
+        for (int price : new int[]{1, 2, 4}) {
+            inputHandler.send(new Object[]{"WSO2", price});
+        }
+        Assert.assertEquals(Arrays.<Object>asList(8, 8, 4), maxValues);
+        Assert.assertEquals(Arrays.<Object>asList(1, 1, 1), minValues);
+        siddhiAppRuntime.shutdown();
+    }
+
+    private static Object toBoxedDeques(Object state) {
+        if (!(state instanceof Map)) {
+            return state;
+        }
+        Map<Object, Object> boxedState = new HashMap<Object, Object>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) state).entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof long[]) {
+                boolean max = "MaxDeque".equals(entry.getKey());
+                LinkedList<Integer> candidates = new LinkedList<Integer>();
+                for (long windowValue : (long[]) value) {
+                    while (!candidates.isEmpty() && (max ? candidates.peekLast() < windowValue :
+                            candidates.peekLast() > windowValue)) {
+                        candidates.removeLast();
+                    }
+                    candidates.addLast((int) windowValue);
+                }
+                value = candidates;
+            }
+            boxedState.put(entry.getKey(), toBoxedDeques(value));
+        }
+        return boxedState;
+    }
+
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.extension.util;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.ReturnAttribute;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.executor.ExpressionExecutor;
+import org.wso2.siddhi.core.executor.function.FunctionExecutor;
+import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.query.api.definition.Attribute;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Extension(
+        name = "sequence",
+        namespace = "custom",
+        description = "Return the number of events the function has been executed for, including the current one.",
+        parameters = {
+                @Parameter(name = "arg",
+                           description = "Any attribute, which is ignored.",
+                           type = {DataType.STRING, DataType.INT, DataType.LONG, DataType.DOUBLE, DataType.FLOAT,
+                                   DataType.BOOL, DataType.OBJECT})
+        },
+        returnAttributes = @ReturnAttribute(
+                description = "Returns the sequence number of the event.",
+                type = {DataType.LONG}),
+        examples = @Example(
+                syntax = "from fooStream\n" +
+                        "select custom:sequence(symbol) as sequence\n" +
+                        "insert into barStream",
+                description = "This will return 1 for the first event, 2 for the second and so on."
+        )
+)
+public class SequenceFunctionExtension extends FunctionExecutor {
+
+    private long sequence;
+
+    @Override
+    public void init(ExpressionExecutor[] attributeExpressionExecutors,
+                     ConfigReader configReader,
+                     SiddhiAppContext siddhiAppContext) {
+        //Nothing to init
+    }
+
+    @Override
+    public Attribute.Type getReturnType() {
+        return Attribute.Type.LONG;
+    }
+
+    @Override
+    protected Object execute(Object[] data) {
+        return ++sequence;
+    }
+
+    @Override
+    protected Object execute(Object data) {
+        return ++sequence;
+    }
+
+    @Override
+    public void start() {
+        //Nothing to start
+    }
+
+    @Override
+    public void stop() {
+        //Nothing to stop
+    }
+
+    @Override
+    public Map<String, Object> currentState() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("Sequence", sequence);
+        return state;
+    }
+
+    @Override
+    public void restoreState(Map<String, Object> state) {
+        sequence = (Long) state.get("Sequence");
+    }
+}
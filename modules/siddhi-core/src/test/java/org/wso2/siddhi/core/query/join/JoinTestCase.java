@@ -31,6 +31,8 @@ import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 
+import java.util.LinkedList;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class JoinTestCase {
@@ -932,4 +934,115 @@ public class JoinTestCase {
             siddhiAppRuntime.shutdown();
         }
     }
+
+    @Test
+    public void joinTest21() throws InterruptedException {
+        log.info("Join test21");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream orderStream (id int, quantity int); " +
+                "define stream stockStream (id int, quantity int); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from orderStream unidirectional join stockStream#window.length(50) " +
+                "on orderStream.id == stockStream.id and stockStream.quantity >= orderStream.quantity " +
+                "select orderStream.id, stockStream.quantity " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    if (inEvents != null) {
+                        inEventCount.addAndGet(inEvents.length);
+                    }
+                }
+            });
+            InputHandler orderStreamHandler = siddhiAppRuntime.getInputHandler("orderStream");
+            InputHandler stockStreamHandler = siddhiAppRuntime.getInputHandler("stockStream");
+            siddhiAppRuntime.start();
+
+            // window events are expired while being indexed by id, hence compare the matches with the window contents
+            Random random = new Random(7);
+            LinkedList<int[]> window = new LinkedList<int[]>();
+            int expectedCount = 0;
+            for (int i = 0; i < 2000; i++) {
+                int id = random.nextInt(20);
+                int quantity = random.nextInt(100);
+                if (random.nextBoolean()) {
+                    stockStreamHandler.send(new Object[]{id, quantity});
+                    window.add(new int[]{id, quantity});
+                    if (window.size() > 50) {
+                        window.removeFirst();
+                    }
+                } else {
+                    orderStreamHandler.send(new Object[]{id, quantity});
+                    for (int[] stock : window) {
+                        if (stock[0] == id && stock[1] >= quantity) {
+                            expectedCount++;
+                        }
+                    }
+                }
+            }
+            Assert.assertTrue(expectedCount > 0);
+            Assert.assertEquals(expectedCount, inEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void joinTest22() throws InterruptedException {
+        log.info("Join test22");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream orderStream (symbol string, quantity int); " +
+                "define stream stockStream (symbol string, quantity int); " +
+                "define window stockWindow (symbol string, quantity int) time(1 sec); ";
+        String query = "" +
+                "from stockStream " +
+                "insert into stockWindow; " +
+                "" +
+                "@info(name = 'query1') " +
+                "from orderStream unidirectional join stockWindow " +
+                "on stockWindow.symbol == orderStream.symbol " +
+                "select orderStream.symbol, stockWindow.quantity " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timeStamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventCount.incrementAndGet();
+                            Assert.assertEquals("WSO2", event.getData(0));
+                        }
+                    }
+                }
+            });
+            InputHandler orderStreamHandler = siddhiAppRuntime.getInputHandler("orderStream");
+            InputHandler stockStreamHandler = siddhiAppRuntime.getInputHandler("stockStream");
+            siddhiAppRuntime.start();
+
+            stockStreamHandler.send(new Object[]{"WSO2", 10});
+            stockStreamHandler.send(new Object[]{"IBM", 20});
+            stockStreamHandler.send(new Object[]{"WSO2", 30});
+            orderStreamHandler.send(new Object[]{"WSO2", 5});
+            Assert.assertEquals(2, inEventCount.get());
+            orderStreamHandler.send(new Object[]{"ORACLE", 5});
+            Assert.assertEquals(2, inEventCount.get());
+            Thread.sleep(1500);
+            stockStreamHandler.send(new Object[]{"WSO2", 40});
+            orderStreamHandler.send(new Object[]{"WSO2", 5});
+            Assert.assertEquals(3, inEventCount.get());
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
 }
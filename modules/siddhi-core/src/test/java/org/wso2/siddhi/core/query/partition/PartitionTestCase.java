@@ -28,10 +28,12 @@ import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.persistence.InMemoryPersistenceStore;
 import org.wso2.siddhi.query.api.SiddhiApp;
 import org.wso2.siddhi.query.api.annotation.Annotation;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 import org.wso2.siddhi.query.api.execution.partition.Partition;
 import org.wso2.siddhi.query.api.execution.query.Query;
 import org.wso2.siddhi.query.api.execution.query.input.stream.InputStream;
@@ -39,6 +41,12 @@ import org.wso2.siddhi.query.api.execution.query.selection.Selector;
 import org.wso2.siddhi.query.api.expression.Expression;
 import org.wso2.siddhi.query.api.expression.condition.Compare;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 
@@ -1326,4 +1334,347 @@ public class PartitionTestCase {
         Assert.assertEquals(1, count.get());
         executionRuntime.shutdown();
     }
+
+    @Test
+    public void testPartitionQuery24() throws InterruptedException {
+        log.info("Partition test24 - purging idle partitions");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest24') " +
+                "define stream cseEventStream (symbol string, price float,volume int);"
+                + "@purge(idle.period='100 millisec', interval='50 millisec') "
+                + "partition with (symbol of cseEventStream)"
+                + "begin"
+                + "@info(name = 'query') from cseEventStream " +
+                "select symbol, count() as total " +
+                "insert into OutStockStream ;"
+                + "end ";
+
+        SiddhiAppRuntime executionRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final List<Long> totals = new ArrayList<Long>();
+        executionRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    totals.add((Long) event.getData(1));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionRuntime.getInputHandler("cseEventStream");
+        executionRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75f, 100});
+        inputHandler.send(new Object[]{"IBM", 76f, 100});
+        Thread.sleep(500);
+        inputHandler.send(new Object[]{"IBM", 77f, 100});
+        SiddhiTestHelper.waitForEvents(100, 3, count, 60000);
+        Assert.assertEquals(Arrays.asList(1L, 2L, 1L), totals);
+        executionRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery25() throws InterruptedException {
+        log.info("Partition test25 - limiting the number of partition keys");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest25') " +
+                "define stream cseEventStream (symbol string, price float,volume int);"
+                + "@purge(max.keys='1', interval='50 millisec') "
+                + "partition with (symbol of cseEventStream)"
+                + "begin"
+                + "@info(name = 'query') from cseEventStream " +
+                "select symbol, count() as total " +
+                "insert into OutStockStream ;"
+                + "end ";
+
+        SiddhiAppRuntime executionRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final List<Long> totals = new ArrayList<Long>();
+        executionRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    totals.add((Long) event.getData(1));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionRuntime.getInputHandler("cseEventStream");
+        executionRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75f, 100});
+        Thread.sleep(10);
+        inputHandler.send(new Object[]{"WSO2", 76f, 100});
+        Thread.sleep(300);
+        inputHandler.send(new Object[]{"WSO2", 77f, 100});
+        inputHandler.send(new Object[]{"IBM", 78f, 100});
+        SiddhiTestHelper.waitForEvents(100, 4, count, 60000);
+        Assert.assertEquals(Arrays.asList(1L, 1L, 2L, 1L), totals);
+        executionRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery26() throws InterruptedException {
+        log.info("Partition test26 - keyed partition sharing the query runtime across keys");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest26') " +
+                "define stream cseEventStream (symbol string, price float,volume int);"
+                + "@keyed "
+                + "partition with (symbol of cseEventStream)"
+                + "begin"
+                + "@info(name = 'query1') from cseEventStream[price > 10] " +
+                "select symbol, sum(volume) as totalVolume, count() as total " +
+                "insert into OutStockStream ;"
+                + "@info(name = 'query2') from cseEventStream " +
+                "select symbol, price, count() as total " +
+                "group by price " +
+                "insert into OutPriceStream ;"
+                + "end ";
+
+        SiddhiAppRuntime executionRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final List<Object> stockTotals = new ArrayList<Object>();
+        final List<Object> priceTotals = new ArrayList<Object>();
+        executionRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    stockTotals.add(event.getData(0) + ":" + event.getData(1) + ":" + event.getData(2));
+                    count.incrementAndGet();
+                }
+            }
+        });
+        executionRuntime.addCallback("OutPriceStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    priceTotals.add(event.getData(0) + ":" + event.getData(2));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionRuntime.getInputHandler("cseEventStream");
+        executionRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75f, 10});
+        inputHandler.send(new Object[]{"IBM", 75f, 200});
+        inputHandler.send(new Object[]{"IBM", 5f, 300});
+        inputHandler.send(new Object[]{"WSO2", 76f, 20});
+        inputHandler.send(new Object[]{"IBM", 76f, 400});
+        SiddhiTestHelper.waitForEvents(100, 11, count, 60000);
+        Assert.assertEquals(Arrays.asList("IBM:100:1", "WSO2:10:1", "IBM:300:2", "WSO2:30:2", "IBM:700:3"),
+                stockTotals);
+        Assert.assertEquals(Arrays.asList("IBM:1", "WSO2:1", "IBM:2", "IBM:1", "WSO2:1", "IBM:1"), priceTotals);
+        executionRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery27() throws InterruptedException {
+        log.info("Partition test27 - purging idle keys of a keyed partition");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest27') " +
+                "define stream cseEventStream (symbol string, price float,volume int);"
+                + "@keyed "
+                + "@purge(idle.period='100 millisec', interval='50 millisec') "
+                + "partition with (symbol of cseEventStream)"
+                + "begin"
+                + "@info(name = 'query') from cseEventStream " +
+                "select symbol, count() as total " +
+                "insert into OutStockStream ;"
+                + "end ";
+
+        SiddhiAppRuntime executionRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final List<Long> totals = new ArrayList<Long>();
+        executionRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    totals.add((Long) event.getData(1));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionRuntime.getInputHandler("cseEventStream");
+        executionRuntime.start();
+        inputHandler.send(new Object[]{"IBM", 75f, 100});
+        inputHandler.send(new Object[]{"WSO2", 75f, 100});
+        inputHandler.send(new Object[]{"IBM", 76f, 100});
+        Thread.sleep(500);
+        inputHandler.send(new Object[]{"IBM", 77f, 100});
+        SiddhiTestHelper.waitForEvents(100, 4, count, 60000);
+        Assert.assertEquals(Arrays.asList(1L, 1L, 2L, 1L), totals);
+        executionRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery28() throws InterruptedException {
+        log.info("Partition test28 - processing partition keys in parallel");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest28') " +
+                "define stream cseEventStream (symbol string, price float,volume int);"
+                + "@parallel(workers='4') "
+                + "partition with (symbol of cseEventStream)"
+                + "begin"
+                + "@info(name = 'query') from cseEventStream " +
+                "select symbol, count() as total " +
+                "insert into OutStockStream ;"
+                + "end ";
+
+        SiddhiAppRuntime executionRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final Map<String, List<Long>> totals = new ConcurrentHashMap<String, List<Long>>();
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        executionRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                threads.add(Thread.currentThread().getName());
+                for (Event event : events) {
+                    totals.computeIfAbsent((String) event.getData(0), k -> new ArrayList<Long>())
+                            .add((Long) event.getData(1));
+                    count.incrementAndGet();
+                }
+            }
+        });
+
+        InputHandler inputHandler = executionRuntime.getInputHandler("cseEventStream");
+        executionRuntime.start();
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < 8; j++) {
+                inputHandler.send(new Object[]{"WSO2" + j, 75f, 100});
+            }
+        }
+        SiddhiTestHelper.waitForEvents(100, 800, count, 60000);
+        Assert.assertEquals(800, count.get());
+        Assert.assertEquals(8, totals.size());
+        for (List<Long> keyTotals : totals.values()) {
+            Assert.assertEquals(100, keyTotals.size());
+            for (int i = 0; i < keyTotals.size(); i++) {
+                Assert.assertEquals(Long.valueOf(i + 1), keyTotals.get(i));
+            }
+        }
+        Assert.assertTrue(threads.size() > 1);
+        executionRuntime.shutdown();
+    }
+
+    @Test
+    public void testPartitionQuery29() throws InterruptedException {
+        log.info("Partition test29 - persisting a parallel partition");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String siddhiApp = "@app:name('PartitionTest29') " +
+                "define stream cseEventStream (symbol string, price float,volume int);"
+                + "@parallel(workers='4') "
+                + "partition with (symbol of cseEventStream)"
+                + "begin"
+                + "@info(name = 'query') from cseEventStream " +
+                "select symbol, count() as total " +
+                "insert into OutStockStream ;"
+                + "end ";
+
+        final Map<String, Long> totals = new ConcurrentHashMap<String, Long>();
+        SiddhiAppRuntime executionRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        executionRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    totals.put((String) event.getData(0), (Long) event.getData(1));
+                    count.incrementAndGet();
+                }
+            }
+        });
+        InputHandler inputHandler = executionRuntime.getInputHandler("cseEventStream");
+        executionRuntime.start();
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < 8; j++) {
+                inputHandler.send(new Object[]{"WSO2" + j, 75f, 100});
+            }
+        }
+        // All the events handed over to the workers are processed before taking the snapshot
+        executionRuntime.persist();
+        Assert.assertEquals(400, count.get());
+        for (int j = 0; j < 8; j++) {
+            Assert.assertEquals(Long.valueOf(50), totals.get("WSO2" + j));
+        }
+        for (int j = 0; j < 8; j++) {
+            inputHandler.send(new Object[]{"WSO2" + j, 75f, 100});
+        }
+        SiddhiTestHelper.waitForEvents(100, 408, count, 60000);
+        Assert.assertEquals(408, count.get());
+        for (int j = 0; j < 8; j++) {
+            Assert.assertEquals(Long.valueOf(51), totals.get("WSO2" + j));
+        }
+        executionRuntime.shutdown();
+    }
+
+    @Test(expected = SiddhiAppValidationException.class)
+    public void testPartitionQuery30() throws InterruptedException {
+        log.info("Partition test30 - keyed partition rejecting a query with a window");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "@app:name('PartitionTest30') " +
+                "define stream cseEventStream (symbol string, price float,volume int);"
+                + "@keyed "
+                + "partition with (symbol of cseEventStream)"
+                + "begin"
+                + "@info(name = 'query1') from cseEventStream#window.length(2) " +
+                "select symbol, sum(volume) as totalVolume " +
+                "insert into OutWindowStream ;"
+                + "end ";
+
+        siddhiManager.createSiddhiAppRuntime(siddhiApp);
+    }
+
+    @Test
+    public void testPartitionQuery31() throws InterruptedException {
+        log.info("Partition test31 - persisting a partition fed by the workers of an async stream");
+        SiddhiManager siddhiManager = new SiddhiManager();
+        siddhiManager.setPersistenceStore(new InMemoryPersistenceStore());
+
+        String siddhiApp = "@app:name('PartitionTest31') " +
+                "@async(buffer.size='64', workers='4') " +
+                "define stream cseEventStream (symbol string, price float,volume int);"
+                + "@async(buffer.size='64') "
+                + "define stream OutStockStream (symbol string, total long);"
+                + "partition with (symbol of cseEventStream)"
+                + "begin"
+                + "@info(name = 'query') from cseEventStream " +
+                "select symbol, count() as total " +
+                "insert into OutStockStream ;"
+                + "end ";
+
+        final Map<String, Long> totals = new ConcurrentHashMap<String, Long>();
+        SiddhiAppRuntime executionRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        executionRuntime.addCallback("OutStockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    totals.put((String) event.getData(0), (Long) event.getData(1));
+                    count.incrementAndGet();
+                }
+            }
+        });
+        InputHandler inputHandler = executionRuntime.getInputHandler("cseEventStream");
+        executionRuntime.start();
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < 8; j++) {
+                inputHandler.send(new Object[]{"WSO2" + j, 75f, 100});
+            }
+        }
+        // All the events buffered by the async streams are processed before taking the snapshot
+        executionRuntime.persist();
+        Assert.assertEquals(400, count.get());
+        for (int j = 0; j < 8; j++) {
+            Assert.assertEquals(Long.valueOf(50), totals.get("WSO2" + j));
+        }
+        executionRuntime.shutdown();
+    }
 }
@@ -0,0 +1,352 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.siddhi.core.query.selector;
+
+import com.lmax.disruptor.ExceptionHandler;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.SiddhiTestHelper;
+import org.wso2.siddhi.core.util.collection.OpenAddressingHashMap;
+import org.wso2.siddhi.core.util.snapshot.ByteSerializer;
+import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class GroupByTestCase {
+    private static final Logger log = Logger.getLogger(GroupByTestCase.class);
+    private volatile int count;
+
+    @Before
+    public void init() {
+        count = 0;
+    }
+
+    @Test
+    public void groupByTest1() throws InterruptedException {
+        log.info("group by test1 - multiple attributes");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (symbol string, user string, volume long); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select symbol, user, sum(volume) as totalVolume " +
+                "group by symbol, user " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final List<Object> totals = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    count++;
+                    totals.add(event.getData(2));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"a::b", "c", 10L});
+        inputHandler.send(new Object[]{"a", "b::c", 20L});
+        inputHandler.send(new Object[]{"a", null, 30L});
+        inputHandler.send(new Object[]{"a", "null", 40L});
+        inputHandler.send(new Object[]{"a::b", "c", 50L});
+        inputHandler.send(new Object[]{"a", null, 60L});
+
+        Thread.sleep(100);
+        Assert.assertEquals(6, count);
+        Assert.assertEquals(Arrays.<Object>asList(10L, 20L, 30L, 40L, 60L, 90L), totals);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void groupByTest2() throws InterruptedException {
+        log.info("group by test2 - purging idle groups");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (symbol string, volume long); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "@purge(idle.period='100 millisec', interval='50 millisec') " +
+                "from inputStream " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final List<Object> totals = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    count++;
+                    totals.add(event.getData(1));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"a", 10L});
+        inputHandler.send(new Object[]{"b", 20L});
+        inputHandler.send(new Object[]{"a", 30L});
+        Thread.sleep(500);
+        inputHandler.send(new Object[]{"a", 40L});
+        inputHandler.send(new Object[]{"b", 50L});
+
+        Thread.sleep(100);
+        Assert.assertEquals(5, count);
+        Assert.assertEquals(Arrays.<Object>asList(10L, 20L, 40L, 40L, 50L), totals);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void groupByTest3() throws InterruptedException {
+        log.info("group by test3 - limiting the number of groups");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (symbol string, volume long); ";
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "@purge(max.keys='1', interval='50 millisec') " +
+                "from inputStream " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition + query);
+        final List<Object> totals = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    count++;
+                    totals.add(event.getData(1));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        inputHandler.send(new Object[]{"a", 10L});
+        Thread.sleep(10);
+        inputHandler.send(new Object[]{"b", 20L});
+        Thread.sleep(300);
+        inputHandler.send(new Object[]{"b", 30L});
+        inputHandler.send(new Object[]{"a", 40L});
+
+        Thread.sleep(100);
+        Assert.assertEquals(4, count);
+        Assert.assertEquals(Arrays.<Object>asList(10L, 20L, 50L, 40L), totals);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test(expected = SiddhiAppValidationException.class)
+    public void groupByTest4() throws InterruptedException {
+        log.info("group by test4 - purging without group by");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String query = "" +
+                "define stream inputStream (symbol string, volume long); " +
+                "@info(name = 'query1') " +
+                "@purge(idle.period='1 sec') " +
+                "from inputStream " +
+                "select symbol, sum(volume) as totalVolume " +
+                "insert into outputStream; ";
+
+        siddhiManager.createSiddhiAppRuntime(query);
+    }
+
+    @Test
+    public void groupByTest5() throws InterruptedException {
+        log.info("group by test5 - restoring a snapshot with string group keys");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('groupByTest5') " +
+                "define stream inputStream (symbol string, user string, volume long); " +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select symbol, user, sum(volume) as totalVolume " +
+                "group by symbol, user " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"IBM", "u1", 10L});
+        inputHandler.send(new Object[]{"WSO2", "u1", 20L});
+        // snapshots taken before the group keys were typed held "value1::value2::" strings as keys
+        Object snapshot = toLegacyGroupKeys(ByteSerializer.byteToObject(siddhiAppRuntime.snapshot()));
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final List<Object> totals = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    count++;
+                    totals.add(event.getData(2));
+                }
+            }
+        });
+        inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restore(ByteSerializer.objectToByte(snapshot));
+        inputHandler.send(new Object[]{"IBM", "u1", 5L});
+        inputHandler.send(new Object[]{"IBM", "u2", 5L});
+        inputHandler.send(new Object[]{"WSO2", "u1", 5L});
+
+        Assert.assertEquals(3, count);
+        Assert.assertEquals(Arrays.<Object>asList(15L, 5L, 25L), totals);
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void groupByTest6() throws InterruptedException {
+        log.info("group by test6 - purging and persisting while async events are arriving");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@async(buffer.size='64') " +
+                "define stream inputStream (symbol string, volume long); " +
+                "@info(name = 'query1') " +
+                "@purge(max.keys='5', interval='1 millisec') " +
+                "from inputStream " +
+                "select symbol, sum(volume) as totalVolume " +
+                "group by symbol " +
+                "insert into outputStream; ";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        final AtomicInteger eventCount = new AtomicInteger(0);
+        final AtomicInteger failedCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                eventCount.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.handleExceptionWith(new ExceptionHandler<Object>() {
+            @Override
+            public void handleEventException(Throwable throwable, long sequence, Object event) {
+                log.error("Failed to process " + event, throwable);
+                failedCount.incrementAndGet();
+            }
+
+            @Override
+            public void handleOnStartException(Throwable throwable) {
+                failedCount.incrementAndGet();
+            }
+
+            @Override
+            public void handleOnShutdownException(Throwable throwable) {
+                failedCount.incrementAndGet();
+            }
+        });
+        final InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+
+        final int events = 20000;
+        Thread sender = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < events; i++) {
+                        inputHandler.send(new Object[]{"symbol" + (i % 50), 1L});
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        sender.start();
+        while (sender.isAlive()) {
+            siddhiAppRuntime.restore(siddhiAppRuntime.snapshot());
+            Thread.sleep(1);
+        }
+        sender.join();
+
+        SiddhiTestHelper.waitForEvents(10, events, eventCount, 60000);
+        Assert.assertEquals(events, eventCount.get());
+        Assert.assertEquals(0, failedCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    private static Object toLegacyGroupKeys(Object state) {
+        if (!(state instanceof Map)) {
+            return state;
+        }
+        Map<Object, Object> legacyState = new HashMap<Object, Object>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) state).entrySet()) {
+            Object key = entry.getKey() instanceof GroupByKey ? entry.getKey().toString() : entry.getKey();
+            legacyState.put(key, toLegacyGroupKeys(entry.getValue()));
+        }
+        return legacyState;
+    }
+
+    @Test
+    public void openAddressingHashMapTest() {
+        log.info("open addressing hash map test");
+        OpenAddressingHashMap<GroupByKey, Integer> map = new OpenAddressingHashMap<GroupByKey, Integer>();
+        Map<GroupByKey, Integer> expected = new HashMap<GroupByKey, Integer>();
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            GroupByKey key = new GroupByKey(new Object[]{random.nextInt(5000), "key" + random.nextInt(3)});
+            if (random.nextInt(3) == 0) {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                Assert.assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        Assert.assertEquals(expected.size(), map.size());
+        for (Map.Entry<GroupByKey, Integer> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        int values = 0;
+        for (Integer ignored : map.values()) {
+            values++;
+        }
+        Assert.assertEquals(expected.size(), values);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.EventPrinter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ApproximateCountAttributeAggregatorTestCase {
+    private static final Logger log = Logger.getLogger(ApproximateCountAttributeAggregatorTestCase.class);
+
+    @Test
+    public void approximateCountTest1() throws InterruptedException {
+        log.info("Approximate Count TestCase 1");
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select ip, approximateCount(ip) as requests " +
+                "insert into outputStream; ";
+
+        Assert.assertEquals(Arrays.<Object>asList(1L, 1L, 2L, 3L, 1L, 2L),
+                run(query, "a", "b", "a", "a", "c", "b"));
+    }
+
+    @Test
+    public void approximateCountTest2() throws InterruptedException {
+        log.info("Approximate Count TestCase 2");
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#window.length(2) " +
+                "select ip, approximateCount(ip, 0.001, 0.999) as requests " +
+                "insert into outputStream; ";
+
+        Assert.assertEquals(Arrays.<Object>asList(1L, 2L, 2L, 1L, 1L),
+                run(query, "a", "a", "a", "b", "a"));
+    }
+
+    private List<Object> run(String query, String... ips) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(
+                "define stream inputStream (ip string); " + query);
+        final List<Object> outputs = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    outputs.add(event.getData(1));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        for (String ip : ips) {
+            inputHandler.send(new Object[]{ip});
+        }
+        siddhiAppRuntime.shutdown();
+        return outputs;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.query.selector.attribute.aggregator;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ApproximateTopKAttributeAggregatorTestCase {
+    private static final Logger log = Logger.getLogger(ApproximateTopKAttributeAggregatorTestCase.class);
+
+    @Test
+    public void approximateTopKTest1() throws InterruptedException {
+        log.info("Approximate TopK TestCase 1");
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select approximateTopK(ip, 2) as topTalkers " +
+                "insert into outputStream; ";
+        List<Object> outputs = run(query, "a", "a", "b", "a", "b", "c");
+
+        Assert.assertEquals(6, outputs.size());
+        Map<Object, Long> expected = new LinkedHashMap<Object, Long>();
+        expected.put("a", 3L);
+        expected.put("b", 2L);
+        Assert.assertEquals(new ArrayList<Object>(expected.entrySet()),
+                new ArrayList<Object>(((Map<Object, Long>) outputs.get(5)).entrySet()));
+    }
+
+    @Test
+    public void approximateTopKTest2() throws InterruptedException {
+        log.info("Approximate TopK TestCase 2");
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream#window.length(3) " +
+                "select approximateTopK(ip, 2) as topTalkers " +
+                "insert into outputStream; ";
+        List<Object> outputs = run(query, "a", "a", "b", "b", "b");
+
+        Assert.assertEquals(5, outputs.size());
+        Map<Object, Long> expected = new LinkedHashMap<Object, Long>();
+        expected.put("b", 2L);
+        expected.put("a", 1L);
+        Assert.assertEquals(expected, outputs.get(3));
+        expected.clear();
+        expected.put("b", 3L);
+        Assert.assertEquals(expected, outputs.get(4));
+    }
+
+    @Test
+    public void approximateTopKTest3() throws InterruptedException {
+        log.info("Approximate TopK TestCase 3");
+
+        // capacity 2 makes c replace the least frequent value b, inheriting its count
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select approximateTopK(ip, 2, 2) as topTalkers " +
+                "insert into outputStream; ";
+        List<Object> outputs = run(query, "a", "a", "b", "c");
+
+        Map<Object, Long> expected = new LinkedHashMap<Object, Long>();
+        expected.put("a", 2L);
+        expected.put("c", 2L);
+        Assert.assertEquals(expected, outputs.get(3));
+    }
+
+    @Test(expected = SiddhiAppValidationException.class)
+    public void approximateTopKTest4() throws InterruptedException {
+        log.info("Approximate TopK TestCase 4");
+
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from inputStream " +
+                "select approximateTopK(ip, 5, 2) as topTalkers " +
+                "insert into outputStream; ";
+        run(query);
+    }
+
+    private List<Object> run(String query, String... ips) throws InterruptedException {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(
+                "define stream inputStream (ip string); " + query);
+        final List<Object> outputs = new ArrayList<Object>();
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    // the aggregator updates the same map as events arrive
+                    outputs.add(new LinkedHashMap<Object, Long>((Map<Object, Long>) event.getData(0)));
+                }
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+        siddhiAppRuntime.start();
+        for (String ip : ips) {
+            inputHandler.send(new Object[]{ip});
+        }
+        siddhiAppRuntime.shutdown();
+        return outputs;
+    }
+}
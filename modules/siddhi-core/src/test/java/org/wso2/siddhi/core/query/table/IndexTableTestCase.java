@@ -25,6 +25,7 @@ import org.junit.Test;
 import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.QueryNotExistException;
 import org.wso2.siddhi.core.exception.SiddhiAppCreationException;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
@@ -32,10 +33,14 @@ import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.SiddhiTestHelper;
 import org.wso2.siddhi.query.api.exception.AttributeNotExistException;
 import org.wso2.siddhi.query.api.exception.DuplicateAnnotationException;
+import org.wso2.siddhi.query.api.exception.SiddhiAppValidationException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class IndexTableTestCase {
@@ -2233,4 +2238,403 @@ public class IndexTableTestCase {
         }
     }
 
+    @Test
+    public void indexTableTest34() throws InterruptedException {
+        log.info("indexTableTest34 - range of an indexed attribute");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, minVolume long, maxVolume long); " +
+                "@Index('symbol', 'volume') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on StockTable.volume > CheckStockStream.minVolume and StockTable.volume <= CheckStockStream" +
+                ".maxVolume " +
+                "select CheckStockStream.symbol, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timeStamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                    if (removeEvents != null) {
+                        removeEventCount = removeEventCount + removeEvents.length;
+                    }
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+            siddhiAppRuntime.start();
+            for (long volume = 100; volume <= 1000; volume += 100) {
+                stockStream.send(new Object[]{volume % 200 == 0 ? "WSO2" : "IBM", 55.6f, volume});
+            }
+            checkStockStream.send(new Object[]{"A", 250L, 600L});
+            checkStockStream.send(new Object[]{"B", 100L, 100L});
+            checkStockStream.send(new Object[]{"C", 0L, 100L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"A", 300L},
+                    new Object[]{"A", 400L},
+                    new Object[]{"A", 500L},
+                    new Object[]{"A", 600L},
+                    new Object[]{"C", 100L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 5, inEventCount, 60000);
+            Assert.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            Assert.assertEquals("Number of success events", 5, inEventCount.get());
+            Assert.assertEquals("Number of remove events", 0, removeEventCount);
+            Assert.assertEquals("Event arrived", true, eventArrived);
+            Assert.assertEquals(Collections.singletonList("IndexRangeScan(? < volume <= ?)"),
+                    siddhiAppRuntime.explain("query2"));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void indexTableTest35() throws InterruptedException {
+        log.info("indexTableTest35 - intersection of indexed conditions");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream CheckStockStream (symbol string, minVolume long, maxVolume long); " +
+                "@Index('symbol', 'volume') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from CheckStockStream join StockTable " +
+                " on StockTable.volume >= CheckStockStream.minVolume and StockTable.volume < CheckStockStream" +
+                ".maxVolume and StockTable.symbol == CheckStockStream.symbol " +
+                "select StockTable.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+            siddhiAppRuntime.start();
+            String[] symbols = new String[]{"WSO2", "IBM", "ORACLE", "MSFT", "GOOG"};
+            Random random = new Random(11);
+            List<Object[]> stocks = new ArrayList<Object[]>();
+            for (int i = 0; i < 500; i++) {
+                Object[] stock = new Object[]{symbols[random.nextInt(symbols.length)], (float) i,
+                        (long) random.nextInt(100)};
+                stocks.add(stock);
+                stockStream.send(stock);
+            }
+            List<Object[]> expected = new ArrayList<Object[]>();
+            for (int i = 0; i < 50; i++) {
+                String symbol = symbols[random.nextInt(symbols.length)];
+                long minVolume = random.nextInt(100);
+                long maxVolume = minVolume + random.nextInt(30);
+                checkStockStream.send(new Object[]{symbol, minVolume, maxVolume});
+                for (Object[] stock : stocks) {
+                    if (stock[0].equals(symbol) && (Long) stock[2] >= minVolume && (Long) stock[2] < maxVolume) {
+                        expected.add(stock);
+                    }
+                }
+            }
+
+            SiddhiTestHelper.waitForEvents(100, expected.size(), inEventCount, 60000);
+            Assert.assertEquals("Number of success events", expected.size(), inEventCount.get());
+            Assert.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            Assert.assertEquals("Event arrived", true, eventArrived);
+            List<String> queryPlans = siddhiAppRuntime.explain("query2");
+            Assert.assertEquals(1, queryPlans.size());
+            Assert.assertTrue(queryPlans.get(0).startsWith("Intersect("));
+            Assert.assertTrue(queryPlans.get(0).contains("IndexRangeScan(? <= volume < ?)"));
+            Assert.assertTrue(queryPlans.get(0).contains("IndexLookup(symbol == ?)"));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void indexTableTest36() throws InterruptedException {
+        log.info("indexTableTest36 - delete by range and union of indexed conditions");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream DeleteStockStream (minVolume long, maxVolume long); " +
+                "define stream CheckStockStream (symbol string, volume long); " +
+                "@Index('symbol', 'volume') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.volume >= minVolume and StockTable.volume <= maxVolume ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckStockStream join StockTable " +
+                " on StockTable.symbol == CheckStockStream.symbol or StockTable.volume < CheckStockStream.volume " +
+                "select StockTable.symbol, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.addCallback("query3", new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    EventPrinter.print(timeStamp, inEvents, removeEvents);
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                }
+            });
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+
+            siddhiAppRuntime.start();
+            stockStream.send(new Object[]{"WSO2", 55.6f, 100L});
+            stockStream.send(new Object[]{"IBM", 75.6f, 200L});
+            stockStream.send(new Object[]{"WSO2", 57.6f, 300L});
+            stockStream.send(new Object[]{"IBM", 77.6f, 400L});
+            deleteStockStream.send(new Object[]{150L, 300L});
+            checkStockStream.send(new Object[]{"IBM", 150L});
+
+            List<Object[]> expected = Arrays.asList(
+                    new Object[]{"WSO2", 100L},
+                    new Object[]{"IBM", 400L}
+            );
+            SiddhiTestHelper.waitForEvents(100, 2, inEventCount, 60000);
+            Assert.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            Assert.assertEquals("Number of success events", 2, inEventCount.get());
+            Assert.assertEquals(Collections.singletonList("IndexRangeScan(? <= volume <= ?)"),
+                    siddhiAppRuntime.explain("query2"));
+            Assert.assertEquals(Collections.singletonList("Union(IndexLookup(symbol == ?), IndexLookup(volume < ?))"),
+                    siddhiAppRuntime.explain("query3"));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(expected = QueryNotExistException.class)
+    public void indexTableTest37() throws InterruptedException {
+        log.info("indexTableTest37");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@Index('symbol') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            siddhiAppRuntime.explain("query2");
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test
+    public void indexTableTest38() throws InterruptedException {
+        log.info("indexTableTest38 - hash indexes");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "define stream DeleteStockStream (symbol string); " +
+                "define stream CheckStockStream (symbol string); " +
+                "define stream CheckVolumeStream (volume long); " +
+                "@Index('symbol', 'volume', type='hash') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from DeleteStockStream " +
+                "delete StockTable " +
+                "   on StockTable.symbol == symbol ;" +
+                "" +
+                "@info(name = 'query3') " +
+                "from CheckStockStream join StockTable " +
+                " on StockTable.symbol == CheckStockStream.symbol " +
+                "select StockTable.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;" +
+                "" +
+                "@info(name = 'query4') " +
+                "from CheckVolumeStream join StockTable " +
+                " on StockTable.volume >= CheckVolumeStream.volume " +
+                "select StockTable.symbol, StockTable.price, StockTable.volume " +
+                "insert into OutStream;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        try {
+            QueryCallback queryCallback = new QueryCallback() {
+                @Override
+                public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                    if (inEvents != null) {
+                        for (Event event : inEvents) {
+                            inEventsList.add(event.getData());
+                            inEventCount.incrementAndGet();
+                        }
+                        eventArrived = true;
+                    }
+                }
+            };
+            siddhiAppRuntime.addCallback("query3", queryCallback);
+            siddhiAppRuntime.addCallback("query4", queryCallback);
+
+            InputHandler stockStream = siddhiAppRuntime.getInputHandler("StockStream");
+            InputHandler deleteStockStream = siddhiAppRuntime.getInputHandler("DeleteStockStream");
+            InputHandler checkStockStream = siddhiAppRuntime.getInputHandler("CheckStockStream");
+            InputHandler checkVolumeStream = siddhiAppRuntime.getInputHandler("CheckVolumeStream");
+
+            siddhiAppRuntime.start();
+            Random random = new Random(13);
+            List<Object[]> stocks = new ArrayList<Object[]>();
+            for (int i = 0; i < 2000; i++) {
+                Object[] stock = new Object[]{"S" + random.nextInt(300), (float) i, (long) random.nextInt(50)};
+                stocks.add(stock);
+                stockStream.send(stock);
+            }
+            for (int i = 0; i < 150; i++) {
+                String symbol = "S" + random.nextInt(300);
+                deleteStockStream.send(new Object[]{symbol});
+                for (Iterator<Object[]> iterator = stocks.iterator(); iterator.hasNext(); ) {
+                    if (iterator.next()[0].equals(symbol)) {
+                        iterator.remove();
+                    }
+                }
+            }
+
+            List<Object[]> expected = new ArrayList<Object[]>();
+            for (int i = 0; i < 300; i++) {
+                String symbol = "S" + i;
+                checkStockStream.send(new Object[]{symbol});
+                for (Object[] stock : stocks) {
+                    if (stock[0].equals(symbol)) {
+                        expected.add(stock);
+                    }
+                }
+            }
+            checkVolumeStream.send(new Object[]{45L});
+            for (Object[] stock : stocks) {
+                if ((Long) stock[2] >= 45L) {
+                    expected.add(stock);
+                }
+            }
+
+            SiddhiTestHelper.waitForEvents(100, expected.size(), inEventCount, 60000);
+            Assert.assertEquals("Number of success events", expected.size(), inEventCount.get());
+            Assert.assertEquals("In events matched", true,
+                    SiddhiTestHelper.isUnsortedEventsMatch(inEventsList, expected));
+            Assert.assertEquals(Collections.singletonList("IndexLookup(symbol == ?)"),
+                    siddhiAppRuntime.explain("query3"));
+            Assert.assertEquals(Collections.singletonList("FullScan"), siddhiAppRuntime.explain("query4"));
+        } finally {
+            siddhiAppRuntime.shutdown();
+        }
+    }
+
+    @Test(expected = SiddhiAppValidationException.class)
+    public void indexTableTest39() throws InterruptedException {
+        log.info("indexTableTest39");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@Index('symbol', type='bitmap') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = null;
+        try {
+            siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        } finally {
+            if (siddhiAppRuntime != null) {
+                siddhiAppRuntime.shutdown();
+            }
+        }
+    }
+
+    @Test(expected = SiddhiAppCreationException.class)
+    public void indexTableTest40() throws InterruptedException {
+        log.info("indexTableTest40");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "@Index('symbol', typ='hash') " +
+                "define table StockTable (symbol string, price float, volume long); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from StockStream " +
+                "insert into StockTable ;" +
+                "";
+
+        SiddhiAppRuntime siddhiAppRuntime = null;
+        try {
+            siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        } finally {
+            if (siddhiAppRuntime != null) {
+                siddhiAppRuntime.shutdown();
+            }
+        }
+    }
 }
@@ -26,8 +26,15 @@ import org.wso2.siddhi.core.SiddhiAppRuntime;
 import org.wso2.siddhi.core.SiddhiManager;
 import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.query.output.callback.QueryCallback;
+import org.wso2.siddhi.core.query.selector.GroupByKey;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
+import org.wso2.siddhi.core.util.snapshot.ByteSerializer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class FrequentWindowTestCase {
     private static final Logger log = Logger.getLogger(FrequentWindowTestCase.class);
@@ -142,4 +149,80 @@ public class FrequentWindowTestCase {
 
     }
 
+    @Test
+    public void frequentUniqueWindowTest3() throws InterruptedException {
+        log.info("frequentWindow test3 - restoring a snapshot with string keyed counts");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@app:name('frequentWindowTest3') " +
+                "define stream purchase (cardNo string, price float); " +
+                "@info(name = 'query1') " +
+                "from purchase#window.frequent(2, cardNo) " +
+                "select cardNo, price " +
+                "insert all events into PotentialFraud ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("purchase");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Object[]{"3234-3244-2432-4124", 73.36f});
+        inputHandler.send(new Object[]{"3234-3244-2432-4124", 73.36f});
+        inputHandler.send(new Object[]{"3234-3244-2432-4124", 73.36f});
+        inputHandler.send(new Object[]{"1234-3244-2432-123", 46.36f});
+        // snapshots taken before the keys were typed only held the counts keyed by the concatenated values
+        Object snapshot = toLegacyCountMap(ByteSerializer.byteToObject(siddhiAppRuntime.snapshot()));
+        siddhiAppRuntime.shutdown();
+
+        siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    inEventCount += inEvents.length;
+                }
+                if (removeEvents != null) {
+                    removeEventCount += removeEvents.length;
+                }
+                eventArrived = true;
+            }
+        });
+        inputHandler = siddhiAppRuntime.getInputHandler("purchase");
+        siddhiAppRuntime.start();
+        siddhiAppRuntime.restore(ByteSerializer.objectToByte(snapshot));
+        inputHandler.send(new Object[]{"3234-3244-2432-4124", 73.36f});
+        inputHandler.send(new Object[]{"1234-3244-2432-123", 46.36f});
+        // the restored counts of the cards keep the new card out of the window
+        inputHandler.send(new Object[]{"5768-3244-2432-5646", 48.36f});
+
+        Assert.assertEquals("Event arrived", true, eventArrived);
+        Assert.assertEquals("In Event count", 2, inEventCount);
+        Assert.assertEquals("Out Event count", 0, removeEventCount);
+        siddhiAppRuntime.shutdown();
+    }
+
+    private static Object toLegacyCountMap(Object state) {
+        if (!(state instanceof Map)) {
+            return state;
+        }
+        Map<?, ?> stateMap = (Map<?, ?>) state;
+        Map<Object, Object> legacyState = new HashMap<Object, Object>();
+        if (stateMap.containsKey("Counters") && stateMap.containsKey("Events")) {
+            Map<String, Integer> countMap = new ConcurrentHashMap<String, Integer>();
+            for (Object[] counter : (List<Object[]>) stateMap.get("Counters")) {
+                StringBuilder key = new StringBuilder();
+                for (Object value : ((GroupByKey) counter[0]).getValues()) {
+                    key.append(value);
+                }
+                countMap.put(key.toString(), ((Long) counter[1]).intValue());
+            }
+            legacyState.put("CountMap", countMap);
+            return legacyState;
+        }
+        for (Map.Entry<?, ?> entry : stateMap.entrySet()) {
+            legacyState.put(entry.getKey(), toLegacyCountMap(entry.getValue()));
+        }
+        return legacyState;
+    }
 }
@@ -30,6 +30,9 @@ import org.wso2.siddhi.core.query.output.callback.QueryCallback;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.util.EventPrinter;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class SortWindowTestCase {
     private static final Logger log = Logger.getLogger(SortWindowTestCase.class);
     private int inEventCount;
@@ -137,4 +140,75 @@ public class SortWindowTestCase {
         siddhiAppRuntime.shutdown();
 
     }
+
+    @Test
+    public void sortWindowTest3() throws InterruptedException {
+        log.info("sortWindow test3");
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String streams = "" +
+                "define stream cseEventStream (symbol string, price float, volume long); " +
+                "define stream twitterStream (company string, minPrice float, maxPrice float); ";
+        String query = "" +
+                "@info(name = 'query1') " +
+                "from twitterStream unidirectional join cseEventStream#window.sort(3, price, 'desc') " +
+                "on cseEventStream.price > twitterStream.minPrice and cseEventStream.price <= twitterStream.maxPrice " +
+                "select company, symbol, price " +
+                "insert into outputStream ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from twitterStream unidirectional join cseEventStream#window.sort(3, price, 'asc') " +
+                "on twitterStream.minPrice < cseEventStream.price " +
+                "select company, symbol, price " +
+                "insert into outputStream2 ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+        final List<Object[]> descOutput = new ArrayList<Object[]>();
+        final List<Object[]> ascOutput = new ArrayList<Object[]>();
+        siddhiAppRuntime.addCallback("query1", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        descOutput.add(event.getData());
+                    }
+                }
+            }
+        });
+        siddhiAppRuntime.addCallback("query2", new QueryCallback() {
+            @Override
+            public void receive(long timeStamp, Event[] inEvents, Event[] removeEvents) {
+                EventPrinter.print(timeStamp, inEvents, removeEvents);
+                if (inEvents != null) {
+                    for (Event event : inEvents) {
+                        ascOutput.add(event.getData());
+                    }
+                }
+            }
+        });
+
+        InputHandler cseEventStreamHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        InputHandler twitterStreamHandler = siddhiAppRuntime.getInputHandler("twitterStream");
+        siddhiAppRuntime.start();
+        cseEventStreamHandler.send(new Object[]{"WSO2", 50f, 100L});
+        cseEventStreamHandler.send(new Object[]{"IBM", 20f, 100L});
+        cseEventStreamHandler.send(new Object[]{"ORCL", 40f, 100L});
+        cseEventStreamHandler.send(new Object[]{"GOOG", 100f, 100L});
+        cseEventStreamHandler.send(new Object[]{"MSFT", 60f, 100L});
+        twitterStreamHandler.send(new Object[]{"X", 55f, 100f});
+        twitterStreamHandler.send(new Object[]{"Y", 10f, 50f});
+        twitterStreamHandler.send(new Object[]{"Z", 100f, 200f});
+        Thread.sleep(500);
+
+        Assert.assertEquals(3, descOutput.size());
+        Assert.assertArrayEquals(new Object[]{"X", "GOOG", 100f}, descOutput.get(0));
+        Assert.assertArrayEquals(new Object[]{"X", "MSFT", 60f}, descOutput.get(1));
+        Assert.assertArrayEquals(new Object[]{"Y", "WSO2", 50f}, descOutput.get(2));
+        Assert.assertEquals(3, ascOutput.size());
+        Assert.assertArrayEquals(new Object[]{"Y", "IBM", 20f}, ascOutput.get(0));
+        Assert.assertArrayEquals(new Object[]{"Y", "ORCL", 40f}, ascOutput.get(1));
+        Assert.assertArrayEquals(new Object[]{"Y", "WSO2", 50f}, ascOutput.get(2));
+        siddhiAppRuntime.shutdown();
+    }
 }
@@ -171,4 +171,61 @@ public class ExceptionHandlerTestCase {
         Assert.assertEquals("Exception is properly handled thrown by 2 invalid events", 2, failedCount.get());
         siddhiAppRuntime.shutdown();
     }
+
+    @Test
+    public void callbackTestForFailingCallbackOnAsyncStream() throws Exception {
+        log.info("callback test with a failing callback on an async stream");
+        siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@app:name('callbackTest2') " +
+                "" +
+                "@async(buffer.size='16')" +
+                "define stream StockStream (symbol string, price float, volume long);";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("StockStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                count.addAndGet(events.length);
+                eventArrived = true;
+                throw new RuntimeException("Failing callback");
+            }
+        });
+        siddhiAppRuntime.handleExceptionWith(new ExceptionHandler<Object>() {
+            @Override
+            public void handleEventException(Throwable throwable, long l, Object o) {
+                failedCount.incrementAndGet();
+                failedCaught = true;
+            }
+
+            @Override
+            public void handleOnStartException(Throwable throwable) {
+                failedCount.incrementAndGet();
+                failedCaught = true;
+            }
+
+            @Override
+            public void handleOnShutdownException(Throwable throwable) {
+                failedCount.incrementAndGet();
+                failedCaught = true;
+            }
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("StockStream");
+        siddhiAppRuntime.start();
+        inputHandler.send(new Event[]{
+                new Event(System.currentTimeMillis(), new Object[]{"IBM", 700.0f, 100L}),
+                new Event(System.currentTimeMillis(), new Object[]{"WSO2", 60.5f, 200L}),
+                new Event(System.currentTimeMillis(), new Object[]{"IBM", 700.0f, 100L})});
+        inputHandler.send(new Event[]{
+                new Event(System.currentTimeMillis(), new Object[]{"WSO2", 60.5f, 200L}),
+                new Event(System.currentTimeMillis(), new Object[]{"IBM", 700.0f, 100L})});
+        SiddhiTestHelper.waitForEvents(100, 5, count, 60000);
+
+        Assert.assertTrue(eventArrived);
+        Assert.assertEquals(5, count.get());
+        Assert.assertFalse("Callback errors should not reach the exception handler", failedCaught);
+        Assert.assertEquals(0, failedCount.get());
+        siddhiAppRuntime.shutdown();
+    }
 }
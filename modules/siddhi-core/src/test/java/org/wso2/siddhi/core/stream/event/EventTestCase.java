@@ -67,6 +67,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class EventTestCase {
 
@@ -102,6 +103,75 @@ public class EventTestCase {
 
     }
 
+    @Test
+    public void testDisabledEventPool() {
+        StreamEventPool streamEventPool = new StreamEventPool(2, 3, 1, 0);
+
+        StreamEvent streamEvent = streamEventPool.borrowEvent();
+        streamEventPool.returnEvents(streamEvent);
+        Assert.assertEquals(0, streamEventPool.getBufferedEventsSize());
+        Assert.assertNotSame(streamEvent, streamEventPool.borrowEvent());
+        Assert.assertEquals(0, streamEventPool.getHitCount());
+        Assert.assertEquals(2, streamEventPool.getAllocationCount());
+    }
+
+    @Test
+    public void testEventPoolOfTerminatedThreads() throws InterruptedException {
+        final StreamEventPool streamEventPool = new StreamEventPool(2, 3, 1, 64);
+        for (int i = 0; i < 100; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    StreamEvent streamEvent = streamEventPool.borrowEvent();
+                    streamEventPool.returnEvents(streamEvent);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        StreamEvent streamEvent = streamEventPool.borrowEvent();
+        Assert.assertEquals(1, streamEventPool.getMagazineCount());
+        Assert.assertEquals(101, streamEventPool.getHitCount() + streamEventPool.getMissCount());
+        Assert.assertTrue(streamEventPool.getHitCount() > 0);
+        streamEventPool.returnEvents(streamEvent);
+    }
+
+    @Test
+    public void testConcurrentEventPool() throws InterruptedException {
+        final StreamEventPool streamEventPool = new StreamEventPool(2, 3, 1, 64);
+        final int iterations = 10000;
+        final AtomicInteger duplicates = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    StreamEvent[] streamEvents = new StreamEvent[10];
+                    for (int j = 0; j < iterations; j++) {
+                        for (int k = 0; k < streamEvents.length; k++) {
+                            streamEvents[k] = streamEventPool.borrowEvent();
+                            streamEvents[k].setTimestamp(Thread.currentThread().getId());
+                        }
+                        for (StreamEvent streamEvent : streamEvents) {
+                            if (streamEvent.getTimestamp() != Thread.currentThread().getId()) {
+                                duplicates.incrementAndGet();
+                            }
+                            streamEventPool.returnEvents(streamEvent);
+                        }
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(0, duplicates.get());
+        Assert.assertEquals(threads.length * iterations * 10, streamEventPool.getHitCount() +
+                streamEventPool.getMissCount());
+        Assert.assertTrue(streamEventPool.getHitCount() > streamEventPool.getMissCount());
+    }
+
     @Test
     public void testPassThroughStreamEventConverter() {
         Attribute symbol = new Attribute("symbol", Attribute.Type.STRING);
@@ -32,6 +32,9 @@ import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.transport.InMemoryBroker;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class InMemoryTransportTestCase {
@@ -656,4 +659,94 @@ public class InMemoryTransportTestCase {
         SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
 
     }
+
+    @Test
+    public void inMemoryWithBatchSource() throws InterruptedException {
+        log.info("Test inMemory source sending batches");
+
+        String streams = "" +
+                "@app:name('TestSiddhiApp')" +
+                "@source(type='testBatchInMemory', topic='WSO2', @map(type='passThrough')) " +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        AtomicInteger batchCount = new AtomicInteger(0);
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                batchCount.incrementAndGet();
+                for (Event event : events) {
+                    wso2Count.incrementAndGet();
+                }
+            }
+        });
+
+        siddhiAppRuntime.start();
+
+        List<Object> batch = new ArrayList<>();
+        batch.add(new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.6f, 100L}));
+        batch.add("invalid event");
+        batch.add(new Event[]{new Event(System.currentTimeMillis(), new Object[]{"WSO2", 57.6f, 100L}),
+                new Event(System.currentTimeMillis(), new Object[]{"WSO2", 58.6f, 100L})});
+        InMemoryBroker.publish("WSO2", batch);
+        InMemoryBroker.publish("WSO2", new Event(System.currentTimeMillis(), new Object[]{"WSO2", 59.6f, 100L}));
+
+        //assert event count
+        Assert.assertEquals("Number of WSO2 events", 4, wso2Count.get());
+        Assert.assertEquals("Number of batches", 2, batchCount.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void inMemoryWithBatchSourceResults() throws InterruptedException {
+        log.info("Test inMemory source reporting batches with events failing to map as processed");
+
+        String streams = "" +
+                "@app:name('TestSiddhiApp')" +
+                "@source(type='testBatchInMemory', topic='WSO2', @map(type='passThrough')) " +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                wso2Count.addAndGet(events.length);
+            }
+        });
+
+        siddhiAppRuntime.start();
+
+        List<Object> batch = new ArrayList<>();
+        batch.add(new Event(System.currentTimeMillis(), new Object[]{"WSO2", 55.6f, 100L}));
+        batch.add("invalid event");
+        InMemoryBroker.publish("WSO2", batch);
+        batch = new ArrayList<>();
+        batch.add(new Event(System.currentTimeMillis(), new Object[]{"WSO2", 57.6f, 100L}));
+        batch.add(new Object[]{"WSO2", 58.6f, 100L});
+        InMemoryBroker.publish("WSO2", batch);
+
+        TestBatchInMemorySource source = (TestBatchInMemorySource) siddhiAppRuntime.getSources().iterator().next()
+                .get(0);
+        Assert.assertEquals("Number of WSO2 events", 3, wso2Count.get());
+        Assert.assertEquals("Batch results", Arrays.asList(true, true), source.getBatchResults());
+        siddhiAppRuntime.shutdown();
+    }
 }
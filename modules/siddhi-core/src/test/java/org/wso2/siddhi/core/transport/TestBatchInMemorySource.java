@@ -0,0 +1,94 @@
+/*
+ * Copyright (c)  2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.core.transport;
+
+import org.wso2.siddhi.annotation.Example;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.util.DataType;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
+import org.wso2.siddhi.core.stream.input.source.InMemorySource;
+import org.wso2.siddhi.core.stream.input.source.SourceEventListener;
+import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.core.util.transport.InMemoryBroker;
+import org.wso2.siddhi.core.util.transport.OptionHolder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Implementation of {@link org.wso2.siddhi.core.stream.input.source.Source} to receive events through in-memory
+ * transport, passing the received lists of messages as batches.
+ */
+@Extension(
+        name = "testBatchInMemory",
+        namespace = "source",
+        description = "In-memory source passing the received lists of messages to the mapper as batches.",
+        parameters = @Parameter(name = "topic", type = DataType.STRING, description = "Subscribes to sent on the "
+                + "given topic."),
+        examples = @Example(
+                syntax = "@source(type='testBatchInMemory', @map(type='passThrough'),\n" +
+                        "define stream BarStream (symbol string, price float, volume long)",
+                description = "In this example BarStream receives each published list of events as one batch."
+        )
+)
+public class TestBatchInMemorySource extends InMemorySource {
+    private static final String TOPIC_KEY = "topic";
+    private InMemoryBroker.Subscriber subscriber;
+    private final List<Boolean> batchResults = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void init(SourceEventListener sourceEventListener, OptionHolder optionHolder, String[]
+            requestedTransportPropertyNames, ConfigReader configReader, SiddhiAppContext siddhiAppContext) {
+        super.init(sourceEventListener, optionHolder, requestedTransportPropertyNames, configReader, siddhiAppContext);
+        String topic = optionHolder.validateAndGetStaticValue(TOPIC_KEY, "input inMemory source");
+        this.subscriber = new InMemoryBroker.Subscriber() {
+            @Override
+            public void onMessage(Object msg) {
+                if (msg instanceof List) {
+                    batchResults.add(sourceEventListener.onEvents(((List) msg).toArray(), null));
+                } else {
+                    sourceEventListener.onEvent(msg, null);
+                }
+            }
+
+            @Override
+            public String getTopic() {
+                return topic;
+            }
+        };
+    }
+
+    /**
+     * @return whether each batch received so far was processed by the source mapper
+     */
+    public List<Boolean> getBatchResults() {
+        return batchResults;
+    }
+
+    @Override
+    public void connect(ConnectionCallback connectionCallback) throws ConnectionUnavailableException {
+        InMemoryBroker.subscribe(subscriber);
+    }
+
+    @Override
+    public void disconnect() {
+        InMemoryBroker.unsubscribe(subscriber);
+    }
+}
@@ -45,6 +45,7 @@ import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -83,6 +84,15 @@ import java.util.List;
                                 + "false will prompt DAS to send and event with null value to Siddhi where user "
                                 + "can handle"
                                 + " it accordingly(ie. Assign a default value)",
+                        type = {DataType.BOOL}),
+                @Parameter(name = "streaming.mapping",
+                        description = "This can either have value true or false. By default it will be false. "
+                                + "Setting this property to true maps each message in a single pass of a streaming "
+                                + "json parser, without building an intermediate json document. Custom mappings "
+                                + "are then restricted to json paths of field names and array indexes, and the "
+                                + "mapper falls back to json path evaluation for any other path. In this mode the "
+                                + "events of a default mapped json array are validated the same way as a single "
+                                + "event.",
                         type = {DataType.BOOL})
         },
         examples = {
@@ -113,7 +123,14 @@ import java.util.List;
                                 + "       },\n"
                                 + "        \"price\":55.6\n"
                                 + "    }\n"
-                                + "}")
+                                + "}"),
+                @Example(
+                        syntax = "@source(type='inMemory', topic='stock', @map(type='json', "
+                                + "streaming.mapping='true', enclosing.element=\"$.portfolio\", "
+                                + "@attributes(symbol = \"stock.company.symbol\", price = \"stock.price\", "
+                                + "volume = \"stock.volume\")))",
+                        description = "Above configuration will perform the same custom JSON mapping as the previous "
+                                + "example, reading each String or byte[] message in a single pass.")
         }
 )
 
@@ -124,6 +141,7 @@ public class JsonSourceMapper extends SourceMapper {
     private static final String DEFAULT_ENCLOSING_ELEMENT = "$";
     private static final String FAIL_ON_MISSING_ATTRIBUTE_IDENTIFIER = "fail.on.missing.attribute";
     private static final String ENCLOSING_ELEMENT_IDENTIFIER = "enclosing.element";
+    private static final String STREAMING_MAPPING_IDENTIFIER = "streaming.mapping";
     private static final Logger log = Logger.getLogger(JsonSourceMapper.class);
 
     private StreamDefinition streamDefinition;
@@ -135,6 +153,8 @@ public class JsonSourceMapper extends SourceMapper {
     private AttributeConverter attributeConverter = new AttributeConverter();
     private JsonFactory factory;
     private int attributesSize;
+    private boolean isStreamingMappingEnabled = false;
+    private StreamingJsonExtractor streamingJsonExtractor;
 
     @Override
     public void init(StreamDefinition streamDefinition, OptionHolder optionHolder,
@@ -146,6 +166,8 @@ public class JsonSourceMapper extends SourceMapper {
         this.mappingPositions = new MappingPositionData[attributesSize];
         failOnMissingAttribute = Boolean.parseBoolean(optionHolder.
                 validateAndGetStaticValue(FAIL_ON_MISSING_ATTRIBUTE_IDENTIFIER, "true"));
+        isStreamingMappingEnabled = Boolean.parseBoolean(optionHolder.
+                validateAndGetStaticValue(STREAMING_MAPPING_IDENTIFIER, "false"));
         factory = new JsonFactory();
         if (attributeMappingList != null && attributeMappingList.size() > 0) {
             isCustomMappingEnabled = true;
@@ -162,6 +184,18 @@ public class JsonSourceMapper extends SourceMapper {
                 }
                 this.mappingPositions[i] = new MappingPositionData(position, attributeMapping.getMapping());
             }
+            if (isStreamingMappingEnabled) {
+                String[] mappings = new String[mappingPositions.length];
+                for (int i = 0; i < mappingPositions.length; i++) {
+                    mappings[i] = mappingPositions[i].getMapping();
+                }
+                streamingJsonExtractor = StreamingJsonExtractor.compile(factory, enclosingElement, mappings);
+                if (streamingJsonExtractor == null) {
+                    log.warn("The json paths of the custom mapping of stream '" + streamDefinition.getId() + "' " +
+                            "cannot be evaluated in a single pass, hence they are evaluated as json paths.");
+                    isStreamingMappingEnabled = false;
+                }
+            }
         } else {
             for (int i = 0; i < attributesSize; i++) {
                 this.mappingPositions[i] = new MappingPositionData(i, DEFAULT_JSON_MAPPING_PREFIX + this
@@ -172,7 +206,7 @@ public class JsonSourceMapper extends SourceMapper {
 
     @Override
     public Class[] getSupportedInputEventClasses() {
-        return new Class[]{String.class};
+        return new Class[]{String.class, byte[].class};
     }
 
     @Override
@@ -189,31 +223,36 @@ public class JsonSourceMapper extends SourceMapper {
     }
 
     /**
-     * Convert the given JSON string to {@link Event}.
+     * Convert the given JSON string or UTF-8 encoded bytes to {@link Event}.
      *
-     * @param eventObject JSON string
+     * @param eventObject JSON string or bytes
      * @return the constructed Event object
      */
     private Object convertToEvent(Object eventObject) {
-        if (!(eventObject instanceof String)) {
-            log.error("Invalid JSON object received. Expected String, but found " +
+        if (!(eventObject instanceof String) && !(eventObject instanceof byte[])) {
+            log.error("Invalid JSON object received. Expected String or byte[], but found " +
                     eventObject.getClass()
                             .getCanonicalName());
             return null;
         }
 
-        if (!isJsonValid(eventObject.toString())) {
-            log.error("Invalid Json String :" + eventObject.toString());
+        if (isStreamingMappingEnabled) {
+            return convertToEventsWithStreaming(eventObject);
+        }
+
+        String jsonString = toJsonString(eventObject);
+        if (!isJsonValid(jsonString)) {
+            log.error("Invalid Json String :" + jsonString);
             return null;
         }
 
         Object jsonObj;
-        ReadContext readContext = JsonPath.parse(eventObject.toString());
+        ReadContext readContext = JsonPath.parse(jsonString);
         if (isCustomMappingEnabled) {
             jsonObj = readContext.read(enclosingElement);
             if (jsonObj == null) {
                 log.error("Enclosing element " + enclosingElement + " cannot be found in the json string " +
-                        eventObject.toString() + ".");
+                        jsonString + ".");
                 return null;
             }
             if (jsonObj instanceof JSONArray) {
@@ -239,16 +278,143 @@ public class JsonSourceMapper extends SourceMapper {
         } else {
             jsonObj = readContext.read(DEFAULT_ENCLOSING_ELEMENT);
             if (jsonObj instanceof JSONArray) {
-                return convertToEventArrayForDefaultMapping(eventObject);
+                return convertToEventArrayForDefaultMapping(jsonString);
             } else {
                 try {
-                    return convertToSingleEventForDefaultMapping(eventObject);
+                    return convertToSingleEventForDefaultMapping(jsonString);
                 } catch (IOException e) {
-                    log.error("Json string " + eventObject + " cannot be parsed to json object.");
+                    log.error("Json string " + jsonString + " cannot be parsed to json object.");
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Convert the given JSON string or bytes to events in a single pass of a {@link JsonParser}.
+     *
+     * @param eventObject JSON string or bytes
+     * @return the constructed Event array
+     */
+    private Event[] convertToEventsWithStreaming(Object eventObject) {
+        List<Event> eventList = new ArrayList<Event>();
+        try (JsonParser parser = createParser(eventObject)) {
+            if (isCustomMappingEnabled) {
+                boolean isEnclosingElementFound = streamingJsonExtractor.extract(parser, (values, found) -> {
+                    Event event = processCustomEvent(values, found, eventObject);
+                    if (event != null) {
+                        eventList.add(event);
+                    }
+                });
+                if (!isEnclosingElementFound) {
+                    log.error("Enclosing element " + enclosingElement + " cannot be found in the json string " +
+                            toJsonString(eventObject) + ".");
                     return null;
                 }
+            } else {
+                JsonToken jsonToken = parser.nextToken();
+                if (JsonToken.START_ARRAY.equals(jsonToken)) {
+                    while ((jsonToken = parser.nextToken()) != null && !JsonToken.END_ARRAY.equals(jsonToken)) {
+                        Event event = readDefaultEvent(parser, eventObject);
+                        if (event != null) {
+                            eventList.add(event);
+                        }
+                    }
+                } else {
+                    Event event = readDefaultEvent(parser, eventObject);
+                    if (event != null) {
+                        eventList.add(event);
+                    }
+                }
+                while (parser.nextToken() != null) {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            log.error("Invalid Json String :" + toJsonString(eventObject));
+            return null;
+        }
+        return eventList.toArray(new Event[eventList.size()]);
+    }
+
+    /**
+     * Read a default mapped event, in the form of {"event":{...}}, starting at the current token of the parser. The
+     * whole element is consumed even when the event is dropped, such that the following events can be read.
+     */
+    private Event readDefaultEvent(JsonParser parser, Object eventObject) throws IOException {
+        if (!JsonToken.START_OBJECT.equals(parser.getCurrentToken())) {
+            parser.skipChildren();
+            log.error("Default json message " + toJsonString(eventObject)
+                    + " contains an event which is not a json object. Hence dropping the event.");
+            return null;
+        }
+        Event event = null;
+        boolean isEventIdentifierFound = false;
+        while (JsonToken.FIELD_NAME.equals(parser.nextToken())) {
+            String identifier = parser.getCurrentName();
+            parser.nextToken();
+            if (!isEventIdentifierFound && DEFAULT_JSON_EVENT_IDENTIFIER.equalsIgnoreCase(identifier)) {
+                isEventIdentifierFound = true;
+                event = readDefaultEventData(parser, eventObject);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (!isEventIdentifierFound) {
+            log.error("Default json message " + toJsonString(eventObject)
+                    + " contains an event without the valid event identifier \"event\". " +
+                    "Hence dropping the event.");
+        }
+        return event;
+    }
+
+    private Event readDefaultEventData(JsonParser parser, Object eventObject) throws IOException {
+        if (!JsonToken.START_OBJECT.equals(parser.getCurrentToken())) {
+            parser.skipChildren();
+            log.error("Default json message " + toJsonString(eventObject)
+                    + " contains an event which is not a json object. Hence dropping the event.");
+            return null;
+        }
+        Event event = new Event(attributesSize);
+        Object[] data = event.getData();
+        int numberOfProvidedAttributes = 0;
+        boolean isValid = true;
+        while (JsonToken.FIELD_NAME.equals(parser.nextToken())) {
+            String key = parser.getCurrentName();
+            JsonToken jsonToken = parser.nextToken();
+            int position = findDefaultMappingPosition(key);
+            if (!isValid) {
+                parser.skipChildren();
+            } else if (position == -1) {
+                log.error("Stream \"" + streamDefinition.getId() +
+                        "\" does not have an attribute named \"" + key +
+                        "\", but the received event " + toJsonString(eventObject) +
+                        " does. Hence dropping the event.");
+                isValid = false;
+                parser.skipChildren();
+            } else {
+                numberOfProvidedAttributes++;
+                Attribute.Type type = streamAttributes.get(position).getType();
+                if (JsonToken.VALUE_NULL.equals(jsonToken)) {
+                    data[position] = null;
+                } else if (isCompatible(jsonToken, type)) {
+                    data[position] = readDefaultValue(parser, type);
+                } else {
+                    logIncompatibleValue(toJsonString(eventObject), parser.getText(), type);
+                    isValid = false;
+                    parser.skipChildren();
+                }
             }
         }
+        if (!isValid) {
+            return null;
+        }
+        if (failOnMissingAttribute && (numberOfProvidedAttributes != attributesSize)) {
+            log.error("Json message " + toJsonString(eventObject) +
+                    " contains missing attributes. Hence dropping the event.");
+            return null;
+        }
+        return event;
     }
 
     private Event convertToSingleEventForDefaultMapping(Object eventObject) throws IOException {
@@ -291,79 +457,11 @@ public class JsonSourceMapper extends SourceMapper {
 
                 if (JsonToken.VALUE_NULL.equals(jsonToken)) {
                     data[position] = null;
+                } else if (isCompatible(jsonToken, type)) {
+                    data[position] = readDefaultValue(parser, type);
                 } else {
-                    switch (type) {
-                        case BOOL:
-                            if (JsonToken.VALUE_TRUE.equals(jsonToken) || JsonToken.VALUE_FALSE.equals(jsonToken)) {
-                                data[position] = parser.getValueAsBoolean();
-                            } else {
-                                log.error("Json message " + eventObject.toString() +
-                                        " contains incompatible attribute types and values. Value " +
-                                        parser.getText() + " is not compatible with type BOOL. " +
-                                        "Hence dropping the message.");
-                                return null;
-                            }
-                            break;
-                        case INT:
-                            if (JsonToken.VALUE_NUMBER_INT.equals(jsonToken)) {
-                                data[position] = parser.getValueAsInt();
-                            } else {
-                                log.error("Json message " + eventObject.toString() +
-                                        " contains incompatible attribute types and values. Value " +
-                                        parser.getText() + " is not compatible with type INT. " +
-                                        "Hence dropping the message.");
-                                return null;
-                            }
-                            break;
-                        case DOUBLE:
-                            if (JsonToken.VALUE_NUMBER_FLOAT.equals(jsonToken)) {
-                                data[position] = parser.getValueAsDouble();
-                            } else {
-                                log.error("Json message " + eventObject.toString() +
-                                        " contains incompatible attribute types and values. Value " +
-                                        parser.getText() + " is not compatible with type DOUBLE. " +
-                                        "Hence dropping the message.");
-                                return null;
-                            }
-                            break;
-                        case STRING:
-                            if (JsonToken.VALUE_STRING.equals(jsonToken)) {
-                                data[position] = parser.getValueAsString();
-                            } else {
-                                log.error("Json message " + eventObject.toString() +
-                                        " contains incompatible attribute types and values. Value " +
-                                        parser.getText() + " is not compatible with type STRING. " +
-                                        "Hence dropping the message.");
-                                return null;
-                            }
-                            break;
-                        case FLOAT:
-                            if (JsonToken.VALUE_NUMBER_FLOAT.equals(jsonToken) ||
-                                    JsonToken.VALUE_NUMBER_INT.equals(jsonToken)) {
-                                data[position] = attributeConverter.getPropertyValue(parser.getValueAsString(),
-                                        Attribute.Type.FLOAT);
-                            } else {
-                                log.error("Json message " + eventObject.toString() +
-                                        " contains incompatible attribute types and values. Value " +
-                                        parser.getText() + " is not compatible with type FLOAT. " +
-                                        "Hence dropping the message.");
-                                return null;
-                            }
-                            break;
-                        case LONG:
-                            if (JsonToken.VALUE_NUMBER_INT.equals(jsonToken)) {
-                                data[position] = parser.getValueAsLong();
-                            } else {
-                                log.error("Json message " + eventObject.toString() +
-                                        " contains incompatible attribute types and values. Value " +
-                                        parser.getText() + " is not compatible with type LONG. " +
-                                        "Hence dropping the message.");
-                                return null;
-                            }
-                            break;
-                        default:
-                            return null;
-                    }
+                    logIncompatibleValue(eventObject, parser.getText(), type);
+                    return null;
                 }
             }
         }
@@ -417,6 +515,33 @@ public class JsonSourceMapper extends SourceMapper {
         return Arrays.copyOfRange(events, 0, index);
     }
 
+    private Event processCustomEvent(String[] values, boolean[] found, Object eventObject) {
+        Event event = new Event(attributesSize);
+        Object[] data = event.getData();
+        for (int i = 0; i < mappingPositions.length; i++) {
+            int position = mappingPositions[i].getPosition();
+            if (!found[i] && failOnMissingAttribute) {
+                log.error("Json message " + toJsonString(eventObject) +
+                        " contains missing attributes. Hence dropping the event.");
+                return null;
+            }
+            if (values[i] == null) {
+                data[position] = null;
+            } else {
+                try {
+                    data[position] = attributeConverter.getPropertyValue(values[i],
+                            streamAttributes.get(position).getType());
+                } catch (RuntimeException e) {
+                    log.error("Json message " + toJsonString(eventObject) + " contains incompatible attribute " +
+                            "types and values. Value " + values[i] + " is not compatible with type " +
+                            streamAttributes.get(position).getType() + ". Hence dropping the event.");
+                    return null;
+                }
+            }
+        }
+        return event;
+    }
+
     private Event processCustomEvent(ReadContext readContext) {
         Configuration conf = Configuration.defaultConfiguration();
         Event event = new Event(attributesSize);
@@ -456,6 +581,64 @@ public class JsonSourceMapper extends SourceMapper {
         return -1;
     }
 
+    private boolean isCompatible(JsonToken jsonToken, Attribute.Type type) {
+        switch (type) {
+            case BOOL:
+                return JsonToken.VALUE_TRUE.equals(jsonToken) || JsonToken.VALUE_FALSE.equals(jsonToken);
+            case INT:
+            case LONG:
+                return JsonToken.VALUE_NUMBER_INT.equals(jsonToken);
+            case DOUBLE:
+                return JsonToken.VALUE_NUMBER_FLOAT.equals(jsonToken);
+            case FLOAT:
+                return JsonToken.VALUE_NUMBER_FLOAT.equals(jsonToken) || JsonToken.VALUE_NUMBER_INT.equals(jsonToken);
+            case STRING:
+                return JsonToken.VALUE_STRING.equals(jsonToken);
+            default:
+                return false;
+        }
+    }
+
+    private Object readDefaultValue(JsonParser parser, Attribute.Type type) throws IOException {
+        switch (type) {
+            case BOOL:
+                return parser.getValueAsBoolean();
+            case INT:
+                return parser.getValueAsInt();
+            case LONG:
+                return parser.getValueAsLong();
+            case DOUBLE:
+                return parser.getValueAsDouble();
+            case FLOAT:
+                return attributeConverter.getPropertyValue(parser.getValueAsString(), Attribute.Type.FLOAT);
+            default:
+                return parser.getValueAsString();
+        }
+    }
+
+    private void logIncompatibleValue(Object eventObject, String value, Attribute.Type type) {
+        log.error("Json message " + eventObject.toString() +
+                " contains incompatible attribute types and values. Value " +
+                value + " is not compatible with type " + type + ". " +
+                "Hence dropping the message.");
+    }
+
+    private JsonParser createParser(Object eventObject) throws IOException {
+        if (eventObject instanceof byte[]) {
+            return factory.createParser((byte[]) eventObject);
+        } else {
+            return factory.createParser(eventObject.toString());
+        }
+    }
+
+    private static String toJsonString(Object eventObject) {
+        if (eventObject instanceof byte[]) {
+            return new String((byte[]) eventObject, StandardCharsets.UTF_8);
+        } else {
+            return eventObject.toString();
+        }
+    }
+
     private boolean isJsonValid(String jsonInString) {
         Gson gson = new Gson();
         try {
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.extension.input.mapper.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts the values of a set of definite json paths in a single pass over a {@link JsonParser}, without building
+ * an intermediate document. Supported paths consist of field names (dot or bracket notation) and array indexes,
+ * such as {@code $.portfolio}, {@code stock.company.symbol} and {@code $['stock'].trades[0].price}.
+ */
+class StreamingJsonExtractor {
+
+    private final JsonFactory factory;
+    private final Object[] enclosingPath;
+    private final PathNode root;
+    private final int mappingCount;
+
+    private StreamingJsonExtractor(JsonFactory factory, Object[] enclosingPath, PathNode root, int mappingCount) {
+        this.factory = factory;
+        this.enclosingPath = enclosingPath;
+        this.root = root;
+        this.mappingCount = mappingCount;
+    }
+
+    /**
+     * Compile the given enclosing element and attribute mappings.
+     *
+     * @param factory          factory used to serialize object and array values
+     * @param enclosingElement json path of the element holding the events
+     * @param mappings         json paths of the attributes, relative to each event
+     * @return the extractor, or null if any of the paths cannot be evaluated in a single pass
+     */
+    static StreamingJsonExtractor compile(JsonFactory factory, String enclosingElement, String[] mappings) {
+        Object[] enclosingPath = parsePath(enclosingElement);
+        if (enclosingPath == null) {
+            return null;
+        }
+        PathNode root = new PathNode();
+        for (int i = 0; i < mappings.length; i++) {
+            Object[] path = parsePath(mappings[i]);
+            if (path == null) {
+                return null;
+            }
+            PathNode node = root;
+            for (Object segment : path) {
+                if (node.mappingIndexes != null) {
+                    return null;
+                }
+                node = node.getOrCreateChild(segment);
+            }
+            if (node.hasChildren()) {
+                return null;
+            }
+            node.addMappingIndex(i);
+        }
+        return new StreamingJsonExtractor(factory, enclosingPath, root, mappings.length);
+    }
+
+    /**
+     * Read the enclosing element from the parser and pass the mapped values of each event in it to the handler.
+     * A mapped object or array is passed as its json string. The rest of the message is read as well, such that
+     * malformed json is reported.
+     *
+     * @param parser  parser of the json message
+     * @param handler handler receiving the values of each event
+     * @return false if the enclosing element is not an object or an array of events
+     * @throws IOException if the message is not valid json
+     */
+    boolean extract(JsonParser parser, EventValueHandler handler) throws IOException {
+        parser.nextToken();
+        if (!moveTo(parser, 0)) {
+            return false;
+        }
+        String[] values = new String[mappingCount];
+        boolean[] found = new boolean[mappingCount];
+        JsonToken token = parser.getCurrentToken();
+        if (JsonToken.START_ARRAY.equals(token)) {
+            while ((token = parser.nextToken()) != null && !JsonToken.END_ARRAY.equals(token)) {
+                readEvent(parser, values, found, handler);
+            }
+        } else if (JsonToken.START_OBJECT.equals(token)) {
+            readEvent(parser, values, found, handler);
+        } else {
+            return false;
+        }
+        while (parser.nextToken() != null) {
+            parser.skipChildren();
+        }
+        return true;
+    }
+
+    private void readEvent(JsonParser parser, String[] values, boolean[] found, EventValueHandler handler)
+            throws IOException {
+        Arrays.fill(values, null);
+        Arrays.fill(found, false);
+        read(parser, root, values, found);
+        handler.onEvent(values, found);
+    }
+
+    private boolean moveTo(JsonParser parser, int depth) throws IOException {
+        if (depth == enclosingPath.length) {
+            return true;
+        }
+        Object segment = enclosingPath[depth];
+        JsonToken token = parser.getCurrentToken();
+        if (segment instanceof String && JsonToken.START_OBJECT.equals(token)) {
+            while (JsonToken.FIELD_NAME.equals(parser.nextToken())) {
+                boolean matched = segment.equals(parser.getCurrentName());
+                parser.nextToken();
+                if (matched) {
+                    return moveTo(parser, depth + 1);
+                }
+                parser.skipChildren();
+            }
+        } else if (segment instanceof Integer && JsonToken.START_ARRAY.equals(token)) {
+            int index = 0;
+            while ((token = parser.nextToken()) != null && !JsonToken.END_ARRAY.equals(token)) {
+                if (index++ == (Integer) segment) {
+                    return moveTo(parser, depth + 1);
+                }
+                parser.skipChildren();
+            }
+        }
+        return false;
+    }
+
+    private void read(JsonParser parser, PathNode node, String[] values, boolean[] found) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (node.mappingIndexes != null) {
+            String value = readValue(parser, token);
+            for (int mappingIndex : node.mappingIndexes) {
+                values[mappingIndex] = value;
+                found[mappingIndex] = true;
+            }
+        } else if (node.fields != null && JsonToken.START_OBJECT.equals(token)) {
+            while (JsonToken.FIELD_NAME.equals(parser.nextToken())) {
+                PathNode child = node.fields.get(parser.getCurrentName());
+                parser.nextToken();
+                if (child != null) {
+                    read(parser, child, values, found);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else if (node.indexes != null && JsonToken.START_ARRAY.equals(token)) {
+            int index = 0;
+            while ((token = parser.nextToken()) != null && !JsonToken.END_ARRAY.equals(token)) {
+                PathNode child = node.indexes.get(index++);
+                if (child != null) {
+                    read(parser, child, values, found);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private String readValue(JsonParser parser, JsonToken token) throws IOException {
+        if (JsonToken.VALUE_NULL.equals(token)) {
+            return null;
+        } else if (JsonToken.START_OBJECT.equals(token) || JsonToken.START_ARRAY.equals(token)) {
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator generator = factory.createGenerator(writer)) {
+                generator.copyCurrentStructure(parser);
+            }
+            return writer.toString();
+        } else {
+            return parser.getText();
+        }
+    }
+
+    /**
+     * Parse a definite json path to its field name and array index segments.
+     *
+     * @param path json path, where the leading "$" is optional
+     * @return the segments, or null if the path is not supported
+     */
+    static Object[] parsePath(String path) {
+        String trimmedPath = path.trim();
+        if (trimmedPath.startsWith("$")) {
+            trimmedPath = trimmedPath.substring(1);
+        } else {
+            trimmedPath = "." + trimmedPath;
+        }
+        List<Object> segments = new ArrayList<>();
+        int i = 0;
+        while (i < trimmedPath.length()) {
+            char c = trimmedPath.charAt(i);
+            if (c == '.') {
+                int end = i + 1;
+                while (end < trimmedPath.length() && trimmedPath.charAt(end) != '.' &&
+                        trimmedPath.charAt(end) != '[') {
+                    end++;
+                }
+                String name = trimmedPath.substring(i + 1, end);
+                if (!isFieldName(name)) {
+                    return null;
+                }
+                segments.add(name);
+                i = end;
+            } else if (c == '[') {
+                int end = trimmedPath.indexOf(']', i);
+                if (end < 0) {
+                    return null;
+                }
+                String content = trimmedPath.substring(i + 1, end).trim();
+                if (content.length() > 2 && content.charAt(0) == '\'' && content.charAt(content.length() - 1) == '\''
+                        && content.indexOf('\'', 1) == content.length() - 1) {
+                    segments.add(content.substring(1, content.length() - 1));
+                } else if (isIndex(content)) {
+                    segments.add(Integer.valueOf(content));
+                } else {
+                    return null;
+                }
+                i = end + 1;
+            } else {
+                return null;
+            }
+        }
+        return segments.toArray();
+    }
+
+    private static boolean isFieldName(String name) {
+        if (name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c) || "*@?()'\"$".indexOf(c) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isIndex(String content) {
+        if (content.isEmpty() || content.length() > 9) {
+            return false;
+        }
+        for (int i = 0; i < content.length(); i++) {
+            if (!Character.isDigit(content.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Receives the mapped values of each event read by the {@link StreamingJsonExtractor}.
+     */
+    interface EventValueHandler {
+
+        /**
+         * @param values values of the mappings, where a json null and a missing value are both null
+         * @param found  whether each mapping is present in the event
+         */
+        void onEvent(String[] values, boolean[] found);
+    }
+
+    /**
+     * A node of the tree of compiled paths, which is either a mapped value or has child field names or indexes.
+     */
+    private static class PathNode {
+        private Map<String, PathNode> fields;
+        private Map<Integer, PathNode> indexes;
+        private int[] mappingIndexes;
+
+        private PathNode getOrCreateChild(Object segment) {
+            if (segment instanceof Integer) {
+                if (indexes == null) {
+                    indexes = new HashMap<>();
+                }
+                return indexes.computeIfAbsent((Integer) segment, key -> new PathNode());
+            } else {
+                if (fields == null) {
+                    fields = new HashMap<>();
+                }
+                return fields.computeIfAbsent((String) segment, key -> new PathNode());
+            }
+        }
+
+        private boolean hasChildren() {
+            return fields != null || indexes != null;
+        }
+
+        private void addMappingIndex(int mappingIndex) {
+            if (mappingIndexes == null) {
+                mappingIndexes = new int[]{mappingIndex};
+            } else {
+                mappingIndexes = Arrays.copyOf(mappingIndexes, mappingIndexes.length + 1);
+                mappingIndexes[mappingIndexes.length - 1] = mappingIndex;
+            }
+        }
+    }
+}
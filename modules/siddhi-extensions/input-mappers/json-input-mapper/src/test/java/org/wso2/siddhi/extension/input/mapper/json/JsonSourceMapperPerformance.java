@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.extension.input.mapper.json;
+
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+import org.wso2.siddhi.core.util.transport.InMemoryBroker;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the json path based and the streaming json mappings, for default and custom mappings of messages of
+ * about 2 KB, by publishing them through an in-memory source.
+ */
+public class JsonSourceMapperPerformance {
+    private static final int WARMUP_MESSAGES = 200000;
+    private static final int MESSAGES = 1000000;
+
+    public static void main(String[] args) {
+        String defaultMessage = createDefaultMessage();
+        String customMessage = createCustomMessage();
+        String defaultMapping = "@map(type='json', streaming.mapping='%s')";
+        String customMapping = "@map(type='json', streaming.mapping='%s', enclosing.element='$.portfolio', " +
+                "@attributes(symbol = 'stock.company.symbol', price = 'stock.price', volume = 'stock.volume'))";
+
+        System.out.println("Default mapping message size: " + defaultMessage.length() + " bytes, " +
+                "custom mapping message size: " + customMessage.length() + " bytes");
+        for (String streaming : new String[]{"false", "true"}) {
+            run("default, streaming.mapping=" + streaming, String.format(defaultMapping, streaming),
+                    defaultMessage);
+            run("custom, streaming.mapping=" + streaming, String.format(customMapping, streaming), customMessage);
+        }
+        run("custom, streaming.mapping=true, byte[]", String.format(customMapping, "true"),
+                customMessage.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void run(String name, String mapping, Object message) {
+        SiddhiManager siddhiManager = new SiddhiManager();
+        String siddhiApp = "" +
+                "@source(type='inMemory', topic='stock', " + mapping + ") " +
+                "define stream StockStream (symbol string, price float, volume long); " +
+                "from StockStream[volume > 0] " +
+                "select * " +
+                "insert into OutputStream; ";
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        AtomicLong eventCount = new AtomicLong();
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            @Override
+            public void receive(Event[] events) {
+                eventCount.addAndGet(events.length);
+            }
+        });
+        siddhiAppRuntime.start();
+
+        for (int i = 0; i < WARMUP_MESSAGES; i++) {
+            InMemoryBroker.publish("stock", message);
+        }
+        eventCount.set(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            InMemoryBroker.publish("stock", message);
+        }
+        long timeSpent = System.nanoTime() - start;
+        System.out.println(name + ": " + (MESSAGES * 1000000000L / timeSpent) + " messages/s, " +
+                (eventCount.get() * 1000000000L / timeSpent) + " events/s, " +
+                (timeSpent / MESSAGES) + " ns/message");
+        siddhiAppRuntime.shutdown();
+        siddhiManager.shutdown();
+    }
+
+    private static String createDefaultMessage() {
+        StringBuilder message = new StringBuilder("[");
+        for (int i = 0; i < 32; i++) {
+            if (i > 0) {
+                message.append(',');
+            }
+            message.append("{\"event\":{\"symbol\":\"WSO2\",\"price\":").append(55.6 + i)
+                    .append(",\"volume\":").append(100 + i).append("}}");
+        }
+        return message.append(']').toString();
+    }
+
+    private static String createCustomMessage() {
+        StringBuilder message = new StringBuilder("{\"portfolio\":{\"history\":[");
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                message.append(',');
+            }
+            message.append("{\"day\":").append(i).append(",\"open\":").append(50.5 + i)
+                    .append(",\"close\":").append(51.5 + i).append('}');
+        }
+        message.append("],\"stock\":{\"volume\":100,\"exchange\":\"NYSE\",\"company\":{\"name\":\"WSO2 Inc\",")
+                .append("\"symbol\":\"WSO2\",\"country\":\"US\"},\"price\":55.6,\"currency\":\"USD\"},")
+                .append("\"description\":\"");
+        for (int i = 0; i < 40; i++) {
+            message.append("lorem ipsum ");
+        }
+        return message.append("\"}}").toString();
+    }
+}
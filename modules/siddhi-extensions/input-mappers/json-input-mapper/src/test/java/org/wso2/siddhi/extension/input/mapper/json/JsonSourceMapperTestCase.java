@@ -28,6 +28,7 @@ import org.wso2.siddhi.core.stream.output.StreamCallback;
 import org.wso2.siddhi.core.util.EventPrinter;
 import org.wso2.siddhi.core.util.transport.InMemoryBroker;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class JsonSourceMapperTestCase {
@@ -909,4 +910,162 @@ public class JsonSourceMapperTestCase {
         siddhiAppRuntime.shutdown();
     }
 
+    @Test
+    public void jsonSourceMapperTest13() throws InterruptedException {
+        log.info("test JsonSourceMapper 13");
+
+        String streams = "" +
+                "@app:name('TestSiddhiApp')" +
+                "@source(type='inMemory', topic='stock', " +
+                "@map(type='json', streaming.mapping='true', enclosing.element=\"$.portfolio\", " +
+                "fail.on.missing.attribute=\"true\", " +
+                "@attributes(symbol = \"stock.company.symbol\", price = \"$.stock.price\", " +
+                "volume = \"stock['volume']\"))) " +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    switch (count.incrementAndGet()) {
+                        case 1:
+                            Assert.assertEquals(55.6f, event.getData(1));
+                            Assert.assertEquals(100L, event.getData(2));
+                            break;
+                        case 2:
+                            Assert.assertEquals(56.6f, event.getData(1));
+                            Assert.assertEquals(null, event.getData(2));
+                            break;
+                        case 3:
+                            Assert.assertEquals(null, event.getData(1));
+                            break;
+                        case 4:
+                            Assert.assertEquals(76.6f, event.getData(1));
+                            break;
+                        case 5:
+                            Assert.assertEquals(null, event.getData(0));
+                            break;
+                        case 6:
+                            Assert.assertEquals("IBM", event.getData(0));
+                            break;
+                        default:
+                            Assert.fail();
+                    }
+                }
+            }
+        });
+
+        siddhiAppRuntime.start();
+
+        InMemoryBroker.publish("stock", "\n" +
+                "{\"portfolio\":\n" +
+                "   [" +
+                "       {\"stock\":{\"volume\":100,\"company\":{\"symbol\":\"wso2\"},\"price\":55.6}}," +
+                "       {\"stock\":{\"volume\":null,\"company\":{\"symbol\":\"wso2\"},\"price\":56.6}}" +
+                "   ]\n" +
+                "}\n");
+        InMemoryBroker.publish("stock", "\n" +
+                "{\"portfolio\":\n" +
+                "   [" +
+                "       {\"stock\":{\"volume\":100,\"company\":{\"symbol\":\"wso2\"}}}," +
+                "       {\"stock\":{\"volume\":200,\"company\":{\"symbol\":\"wso2\"},\"price\":null}}" +
+                "   ]\n" +
+                "}\n");
+        InMemoryBroker.publish("stock", ("\n" +
+                "{\"portfolio\":\n" +
+                "   [" +
+                "       {\"stock\":{\"volume\":100,\"company\":{\"symbol\":\"wso2\"},\"price\":76.6}}," +
+                "       {\"stock\":{\"volume\":200,\"company\":{\"symbol\":null},\"price\":77.6}}" +
+                "   ]\n" +
+                "}\n").getBytes(StandardCharsets.UTF_8));
+        InMemoryBroker.publish("stock", "\n" +
+                "{\"other\":[1, 2], \"portfolio\":\n" +
+                "   {\"stock\":{\"company\":{\"symbol\":\"IBM\"},\"price\":86.6,\"volume\":300}}" +
+                "}\n");
+        InMemoryBroker.publish("stock", "{\"portfolio\":{\"stock\":{\"volume\":300}}");
+        InMemoryBroker.publish("stock", "{\"stock\":{\"volume\":300}}");
+        Thread.sleep(100);
+
+        //assert event count
+        Assert.assertEquals("Number of events", 6, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
+    @Test
+    public void jsonSourceMapperTest14() throws InterruptedException {
+        log.info("test JsonSourceMapper 14");
+
+        String streams = "" +
+                "@app:name('TestSiddhiApp')" +
+                "@source(type='inMemory', topic='stock', @map(type='json', streaming.mapping='true')) " +
+                "define stream FooStream (symbol string, price float, volume long); " +
+                "define stream BarStream (symbol string, price float, volume long); ";
+
+        String query = "" +
+                "from FooStream " +
+                "select * " +
+                "insert into BarStream; ";
+
+        SiddhiManager siddhiManager = new SiddhiManager();
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(streams + query);
+
+        siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+
+            @Override
+            public void receive(Event[] events) {
+                EventPrinter.print(events);
+                for (Event event : events) {
+                    switch (count.incrementAndGet()) {
+                        case 1:
+                            Assert.assertEquals(55.6f, event.getData(1));
+                            break;
+                        case 2:
+                            Assert.assertEquals(56f, event.getData(1));
+                            Assert.assertEquals(100L, event.getData(2));
+                            break;
+                        case 3:
+                            Assert.assertEquals(57.6f, event.getData(1));
+                            break;
+                        case 4:
+                            Assert.assertEquals(60.6f, event.getData(1));
+                            break;
+                        default:
+                            Assert.fail();
+                    }
+                }
+            }
+        });
+
+        siddhiAppRuntime.start();
+
+        InMemoryBroker.publish("stock", "{\"event\":{\"symbol\":\"WSO2\",\"price\":55.6,\"volume\":100}}");
+        InMemoryBroker.publish("stock", "{\"event\":{\"symbol\":\"WSO2\",\"price\":56,\"volume\":100}}"
+                .getBytes(StandardCharsets.UTF_8));
+        InMemoryBroker.publish("stock", " \n" +
+                "[\n" +
+                "{\"event\":{\"symbol\":\"WSO2\",\"price\":\"56.6\",\"volume\":100}},\n" +
+                "{\"event\":{\"symbol\":\"WSO2\",\"price\":57.6,\"volume\":99}},\n" +
+                "{\"testEvent\":{\"symbol\":\"WSO2\",\"price\":58.6,\"volume\":80}},\n" +
+                "{\"event\":{\"symbol\":\"WSO2\",\"price\":59.6}},\n" +
+                "{\"event\":{\"symbol\":\"WSO2\",\"price\":60.6,\"volume\":80}}\n" +
+                "]\n");
+        InMemoryBroker.publish("stock", "[{\"event\":{\"symbol\":\"WSO2\",\"price\":61.6,\"volume\":80}}");
+        Thread.sleep(100);
+
+        //assert event count
+        Assert.assertEquals("Number of events", 4, count.get());
+        siddhiAppRuntime.shutdown();
+    }
+
 }
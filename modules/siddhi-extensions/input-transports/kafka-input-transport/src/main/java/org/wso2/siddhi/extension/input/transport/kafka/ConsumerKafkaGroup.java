@@ -18,6 +18,8 @@
 
 package org.wso2.siddhi.extension.input.transport.kafka;
 
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.stream.input.source.SourceEventListener;
 
@@ -27,7 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ExecutorService;
 
 public class ConsumerKafkaGroup {
     private static final Logger log = Logger.getLogger(ConsumerKafkaGroup.class);
@@ -36,11 +38,18 @@ public class ConsumerKafkaGroup {
     private final Properties props;
     private List<KafkaConsumerThread> kafkaConsumerThreadList = new ArrayList<>();
     private Map<String, Map<Integer, Long>> topicOffsetMap = new HashMap<>();
-    private ScheduledExecutorService executorService;
+    private ExecutorService executorService;
     private String threadingOption;
+    private boolean batchEnabled;
 
     public ConsumerKafkaGroup(String topics[], String partitions[], Properties props, Map<String, Map<Integer, Long>>
-            topicOffsetMap, String threadingOption, ScheduledExecutorService executorService) {
+            topicOffsetMap, String threadingOption, ExecutorService executorService) {
+        this(topics, partitions, props, topicOffsetMap, threadingOption, executorService, false);
+    }
+
+    public ConsumerKafkaGroup(String topics[], String partitions[], Properties props, Map<String, Map<Integer, Long>>
+            topicOffsetMap, String threadingOption, ExecutorService executorService, boolean batchEnabled) {
+        this.batchEnabled = batchEnabled;
         this.threadingOption = threadingOption;
         this.topicOffsetMap = topicOffsetMap;
         this.topics = topics;
@@ -68,17 +77,17 @@ public class ConsumerKafkaGroup {
     public void run(SourceEventListener sourceEventListener) {
         try {
             if (KafkaSource.SINGLE_THREADED.equals(threadingOption)) {
-                KafkaConsumerThread kafkaConsumerThread =
-                        new KafkaConsumerThread(sourceEventListener, topics, partitions, props, topicOffsetMap);
+                KafkaConsumerThread kafkaConsumerThread = new KafkaConsumerThread(sourceEventListener, topics,
+                        partitions, props, topicOffsetMap, batchEnabled);
                 kafkaConsumerThreadList.add(kafkaConsumerThread);
+                executorService.submit(kafkaConsumerThread);
                 log.info("Kafka Consumer thread starting to listen on topic/s: " + Arrays.toString(topics) +
                         " with partition/s: " + Arrays.toString(partitions));
-                kafkaConsumerThread.run();
             } else if (KafkaSource.TOPIC_WISE.equals(threadingOption)) {
                 for (String topic : topics) {
                     KafkaConsumerThread kafkaConsumerThread =
                             new KafkaConsumerThread(sourceEventListener, new String[]{topic}, partitions, props,
-                                    topicOffsetMap);
+                                    topicOffsetMap, batchEnabled);
                     kafkaConsumerThreadList.add(kafkaConsumerThread);
                     executorService.submit(kafkaConsumerThread);
                     log.info("Kafka Consumer thread starting to listen on topic: " + topic +
@@ -86,10 +95,12 @@ public class ConsumerKafkaGroup {
                 }
             } else if (KafkaSource.PARTITION_WISE.equals(threadingOption)) {
                 for (String topic : topics) {
-                    for (String partition : partitions) {
+                    // without a partition list, a consumer thread is started for each partition of the topic
+                    String[] topicPartitions = (partitions != null) ? partitions : getPartitions(topic);
+                    for (String partition : topicPartitions) {
                         KafkaConsumerThread kafkaConsumerThread =
                                 new KafkaConsumerThread(sourceEventListener, new String[]{topic},
-                                        new String[]{partition}, props, topicOffsetMap);
+                                        new String[]{partition}, props, topicOffsetMap, batchEnabled);
                         kafkaConsumerThreadList.add(kafkaConsumerThread);
                         executorService.submit(kafkaConsumerThread);
                         log.info("Kafka Consumer thread starting to listen on topic: " + topic +
@@ -102,6 +113,20 @@ public class ConsumerKafkaGroup {
         }
     }
 
+    private String[] getPartitions(String topic) {
+        KafkaConsumer<byte[], byte[]> consumer = new KafkaConsumer<>(props);
+        try {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(topic);
+            String[] topicPartitions = new String[partitionInfos.size()];
+            for (int i = 0; i < topicPartitions.length; i++) {
+                topicPartitions[i] = String.valueOf(partitionInfos.get(i).partition());
+            }
+            return topicPartitions;
+        } finally {
+            consumer.close();
+        }
+    }
+
     public Map<String, Map<Integer, Long>> getTopicOffsetMap() {
         Map<String, Map<Integer, Long>> topicOffsetMap = new HashMap<>();
         for (KafkaConsumerThread kafkaConsumerThread : kafkaConsumerThreadList) {
@@ -19,9 +19,11 @@
 package org.wso2.siddhi.extension.input.transport.kafka;
 
 import org.apache.kafka.clients.consumer.CommitFailedException;
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.stream.input.source.SourceEventListener;
@@ -39,7 +41,7 @@ import java.util.concurrent.locks.ReentrantLock;
 public class KafkaConsumerThread implements Runnable {
 
     private static final Logger log = Logger.getLogger(KafkaConsumerThread.class);
-    private final KafkaConsumer<byte[], byte[]> consumer;
+    private final Consumer<byte[], byte[]> consumer;
     // KafkaConsumer is not thread safe, hence we need a lock
     private final Lock consumerLock = new ReentrantLock();
     private SourceEventListener sourceEventListener;
@@ -48,10 +50,28 @@ public class KafkaConsumerThread implements Runnable {
     private volatile boolean paused;
     private volatile boolean inactive;
     private List<TopicPartition> partitionsList = new ArrayList<>();
+    private boolean batchEnabled;
 
     public KafkaConsumerThread(SourceEventListener sourceEventListener, String topics[], String partitions[],
                                Properties props, Map<String, Map<Integer, Long>> topicOffsetMap) {
-        this.consumer = new KafkaConsumer<>(props);
+        this(sourceEventListener, topics, partitions, props, topicOffsetMap, false);
+    }
+
+    /**
+     * @param batchEnabled whether the records of each poll are sent to the source mapper as a single batch, in
+     *                     which case their offsets are recorded and committed only after the batch is accepted
+     */
+    public KafkaConsumerThread(SourceEventListener sourceEventListener, String topics[], String partitions[],
+                               Properties props, Map<String, Map<Integer, Long>> topicOffsetMap,
+                               boolean batchEnabled) {
+        this(sourceEventListener, topics, partitions, new KafkaConsumer<>(props), topicOffsetMap, batchEnabled);
+    }
+
+    KafkaConsumerThread(SourceEventListener sourceEventListener, String topics[], String partitions[],
+                        Consumer<byte[], byte[]> consumer, Map<String, Map<Integer, Long>> topicOffsetMap,
+                        boolean batchEnabled) {
+        this.consumer = consumer;
+        this.batchEnabled = batchEnabled;
         this.sourceEventListener = sourceEventListener;
         this.topicOffsetMap = topicOffsetMap;
         this.topics = topics;
@@ -115,8 +135,8 @@ public class KafkaConsumerThread implements Runnable {
     @Override
     public void run() {
         final Lock consumerLock = this.consumerLock;
-        while (!inactive) {
-            while (!paused) {
+        while (!inactive && !Thread.currentThread().isInterrupted()) {
+            while (!paused && !Thread.currentThread().isInterrupted()) {
                 // The time, in milliseconds, spent waiting in poll if data is not available. If 0, returns
                 // immediately with any records that are available now. Must not be negative
                 ConsumerRecords<byte[], byte[]> records;
@@ -126,25 +146,31 @@ public class KafkaConsumerThread implements Runnable {
                 } finally {
                     consumerLock.unlock();
                 }
-                for (ConsumerRecord record : records) {
-                    String event = record.value().toString();
-                    if (log.isDebugEnabled()) {
-                        log.debug("Event received in Kafka Event Adaptor: " + event + ", offSet: " + record.offset()
-                                + ", key: " + record.key() + ", topic: " + record.topic() + ", partition: " + record
-                                .partition());
-                    }
-                    topicOffsetMap.get(record.topic()).put(record.partition(), record.offset());
-                    sourceEventListener.onEvent(event, null);
-                }
-                try {
-                    consumerLock.lock();
+                if (batchEnabled) {
                     if (!records.isEmpty()) {
-                        consumer.commitAsync();
+                        processBatch(records);
+                    }
+                } else {
+                    for (ConsumerRecord record : records) {
+                        String event = record.value().toString();
+                        if (log.isDebugEnabled()) {
+                            log.debug("Event received in Kafka Event Adaptor: " + event + ", offSet: " +
+                                    record.offset() + ", key: " + record.key() + ", topic: " + record.topic() +
+                                    ", partition: " + record.partition());
+                        }
+                        topicOffsetMap.get(record.topic()).put(record.partition(), record.offset());
+                        sourceEventListener.onEvent(event, null);
+                    }
+                    try {
+                        consumerLock.lock();
+                        if (!records.isEmpty()) {
+                            consumer.commitAsync();
+                        }
+                    } catch (CommitFailedException e) {
+                        log.error("Kafka commit failed for topic kafka_result_topic", e);
+                    } finally {
+                        consumerLock.unlock();
                     }
-                } catch (CommitFailedException e) {
-                    log.error("Kafka commit failed for topic kafka_result_topic", e);
-                } finally {
-                    consumerLock.unlock();
                 }
             }
         }
@@ -153,6 +179,59 @@ public class KafkaConsumerThread implements Runnable {
         consumerLock.unlock();
     }
 
+    /**
+     * Send the records of a poll as a single batch, and commit their offsets once the batch is accepted.
+     *
+     * @param records records of a poll
+     * @return whether the batch was accepted, otherwise its offsets are neither recorded nor committed, and the
+     * consumer is seeked back to the start of the batch such that the next poll redelivers it
+     */
+    boolean processBatch(ConsumerRecords<byte[], byte[]> records) {
+        Object[] events = new Object[records.count()];
+        int i = 0;
+        for (ConsumerRecord record : records) {
+            events[i++] = record.value().toString();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Batch of " + events.length + " events received in Kafka Event Adaptor from topic/s: " +
+                    Arrays.toString(topics));
+        }
+        if (!sourceEventListener.onEvents(events, null)) {
+            log.error("Batch of " + events.length + " events from topic/s " + Arrays.toString(topics) + " was not " +
+                    "processed, hence not committing its offsets but seeking back to redeliver it " +
+                    records.partitions());
+            try {
+                consumerLock.lock();
+                for (TopicPartition partition : records.partitions()) {
+                    consumer.seek(partition, records.records(partition).get(0).offset());
+                }
+            } finally {
+                consumerLock.unlock();
+            }
+            return false;
+        }
+
+        // the batch is accepted, hence its offsets can be recorded and committed
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<byte[], byte[]>> partitionRecords = records.records(partition);
+            long offset = partitionRecords.get(partitionRecords.size() - 1).offset();
+            topicOffsetMap.get(partition.topic()).put(partition.partition(), offset);
+            offsets.put(partition, new OffsetAndMetadata(offset + 1));
+        }
+        try {
+            consumerLock.lock();
+            consumer.commitAsync(offsets, (committedOffsets, e) -> {
+                if (e != null) {
+                    log.error("Kafka commit failed for offsets " + committedOffsets, e);
+                }
+            });
+        } finally {
+            consumerLock.unlock();
+        }
+        return true;
+    }
+
     public void shutdownConsumer() {
         inactive = true;
     }
@@ -31,7 +31,7 @@ import org.wso2.siddhi.core.util.transport.OptionHolder;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ExecutorService;
 
 @Extension(
         name = "kafka",
@@ -52,10 +52,11 @@ public class KafkaSource extends Source {
     private final static String ADAPTOR_OPTIONAL_CONFIGURATION_PROPERTIES = "optional.configuration";
     private final static String TOPIC_OFFSET_MAP = "topic.offset.map";
     private final static String THREADING_OPTION = "threading.option";
+    private final static String BATCH_ENABLED = "batch.enabled";
     private static final String HEADER_SEPARATOR = ",";
     private static final String ENTRY_SEPARATOR = ":";
     private SourceEventListener sourceEventListener;
-    private ScheduledExecutorService executorService;
+    private ExecutorService executorService;
     private OptionHolder optionHolder;
     private ConsumerKafkaGroup consumerKafkaGroup;
     private Map<String, Map<Integer, Long>> topicOffsetMap = new HashMap<>();
@@ -95,7 +96,8 @@ public class KafkaSource extends Source {
             requestedTransportPropertyNames, ConfigReader configReader, SiddhiAppContext siddhiAppContext) {
         this.sourceEventListener = sourceEventListener;
         this.optionHolder = optionHolder;
-        this.executorService = siddhiAppContext.getScheduledExecutorService();
+        // consumer threads run till the source is disconnected, hence they are not run on the scheduler threads
+        this.executorService = siddhiAppContext.getExecutorService();
         siddhiAppContext.getSnapshotService().addSnapshotable("kafka-sink", this);
     }
 
@@ -117,10 +119,12 @@ public class KafkaSource extends Source {
         String topics[] = topicList.split(HEADER_SEPARATOR);
         String optionalConfigs = optionHolder.validateAndGetStaticValue(ADAPTOR_OPTIONAL_CONFIGURATION_PROPERTIES,
                 null);
+        boolean batchEnabled = Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(BATCH_ENABLED,
+                "false"));
         consumerKafkaGroup = new ConsumerKafkaGroup(topics, partitions,
                 KafkaSource.createConsumerConfig(zkServerList, groupID,
                         optionalConfigs),
-                topicOffsetMap, threadingOption, this.executorService);
+                topicOffsetMap, threadingOption, this.executorService, batchEnabled);
         consumerKafkaGroup.run(sourceEventListener);
     }
 
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.extension.input.transport.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.core.stream.input.source.SourceEventListener;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class KafkaConsumerThreadTestCase {
+    private static final Logger log = Logger.getLogger(KafkaConsumerThreadTestCase.class);
+    private static final String TOPIC = "kafka_batch_topic";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+    private MockConsumer<byte[], byte[]> consumer;
+    private Map<String, Map<Integer, Long>> topicOffsetMap;
+    private AtomicInteger batchCount;
+
+    @Before
+    public void init() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updateBeginningOffsets(Collections.singletonMap(PARTITION, 0L));
+        topicOffsetMap = new HashMap<>();
+        batchCount = new AtomicInteger(0);
+    }
+
+    @Test
+    public void testAcceptedBatchCommitted() {
+        log.info("Test offsets of an accepted batch being recorded and committed");
+        KafkaConsumerThread consumerThread = createConsumerThread(new BatchListener(true));
+        addRecords(0, 3);
+
+        Assert.assertTrue(consumerThread.processBatch(consumer.poll(100)));
+        Assert.assertEquals(1, batchCount.get());
+        Assert.assertEquals(Long.valueOf(2), topicOffsetMap.get(TOPIC).get(0));
+        Assert.assertEquals(3, consumer.committed(PARTITION).offset());
+    }
+
+    @Test
+    public void testFailedBatchNotCommitted() {
+        log.info("Test offsets of a failed batch being neither recorded nor committed, and the batch redelivered");
+        BatchListener listener = new BatchListener(true);
+        KafkaConsumerThread consumerThread = createConsumerThread(listener);
+        addRecords(0, 2);
+        Assert.assertTrue(consumerThread.processBatch(consumer.poll(100)));
+        Assert.assertEquals(2, consumer.committed(PARTITION).offset());
+
+        listener.accepted = false;
+        addRecords(2, 3);
+        Assert.assertFalse(consumerThread.processBatch(consumer.poll(100)));
+        Assert.assertEquals(2, batchCount.get());
+        Assert.assertEquals(Long.valueOf(1), topicOffsetMap.get(TOPIC).get(0));
+        Assert.assertEquals(2, consumer.committed(PARTITION).offset());
+        Assert.assertEquals(2, consumer.position(PARTITION));
+
+        // the broker redelivers the batch from the position seeked back to
+        listener.accepted = true;
+        addRecords(consumer.position(PARTITION), 3);
+        Assert.assertTrue(consumerThread.processBatch(consumer.poll(100)));
+        Assert.assertEquals(3, batchCount.get());
+        Assert.assertEquals(3, listener.lastBatchSize);
+        Assert.assertEquals(Long.valueOf(4), topicOffsetMap.get(TOPIC).get(0));
+        Assert.assertEquals(5, consumer.committed(PARTITION).offset());
+    }
+
+    @Test
+    public void testInterruptedBatchStopsConsumer() throws InterruptedException {
+        log.info("Test consumer thread stopping when interrupted while processing a batch");
+        KafkaConsumerThread consumerThread = createConsumerThread(new BatchListener(true) {
+            @Override
+            public boolean onEvents(Object[] eventObjects, String[] transportProperties) {
+                super.onEvents(eventObjects, transportProperties);
+                // as done by the source mapper when interrupted while sending the batch
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+        addRecords(0, 2);
+
+        Thread thread = new Thread(consumerThread);
+        thread.start();
+        thread.join(5000);
+        Assert.assertFalse(thread.isAlive());
+        Assert.assertEquals(1, batchCount.get());
+        Assert.assertTrue(consumer.closed());
+        Assert.assertNull(topicOffsetMap.get(TOPIC).get(0));
+    }
+
+    private KafkaConsumerThread createConsumerThread(SourceEventListener sourceEventListener) {
+        return new KafkaConsumerThread(sourceEventListener, new String[]{TOPIC}, new String[]{"0"}, consumer,
+                topicOffsetMap, true);
+    }
+
+    private void addRecords(long firstOffset, int count) {
+        for (long offset = firstOffset; offset < firstOffset + count; offset++) {
+            consumer.addRecord(new ConsumerRecord<>(TOPIC, 0, offset, null, ("event " + offset).getBytes()));
+        }
+    }
+
+    private class BatchListener implements SourceEventListener {
+        private volatile boolean accepted;
+        private volatile int lastBatchSize;
+
+        BatchListener(boolean accepted) {
+            this.accepted = accepted;
+        }
+
+        @Override
+        public StreamDefinition getStreamDefinition() {
+            return StreamDefinition.id("FooStream");
+        }
+
+        @Override
+        public void onEvent(Object eventObject, String[] transportProperties) {
+            Assert.fail("Events are expected as batches");
+        }
+
+        @Override
+        public boolean onEvents(Object[] eventObjects, String[] transportProperties) {
+            batchCount.incrementAndGet();
+            lastBatchSize = eventObjects.length;
+            return accepted;
+        }
+    }
+}
@@ -155,6 +155,46 @@ public class KafkaSourceTestCase {
         }
     }
 
+    @Test
+    public void testKafkaBatchPartitionWiseSubscriptionWithoutPartitionList() throws InterruptedException {
+        try {
+            log.info("Creating test for batch delivery with a consumer thread per partition of the topic");
+            String topics[] = new String[]{"kafka_topic_batch"};
+            createTopic(topics, 2);
+            SiddhiManager siddhiManager = new SiddhiManager();
+            siddhiManager.setExtension("source.mapper:text", TextSourceMapper.class);
+            SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(
+                    "@app:name('TestSiddhiApp') " +
+                            "define stream BarStream (symbol string, price float, volume long); " +
+                            "@info(name = 'query1') " +
+                            "@source(type='kafka', topic='kafka_topic_batch', group.id='test_batch', " +
+                            "threading.option='partition.wise', bootstrap.servers='localhost:9092', " +
+                            "batch.enabled='true', " +
+                            "@map(type='text'))" +
+                            "Define stream FooStream (symbol string, price float, volume long);" +
+                            "from FooStream select symbol, price, volume insert into BarStream;");
+            siddhiAppRuntime.addCallback("BarStream", new StreamCallback() {
+                @Override
+                public void receive(Event[] events) {
+                    EventPrinter.print(events);
+                    for (Event event : events) {
+                        eventArrived = true;
+                        count++;
+                    }
+                }
+            });
+            siddhiAppRuntime.start();
+            Thread.sleep(2000);
+            kafkaPublisher(topics, 2, 10, 0);
+            Thread.sleep(5000);
+            assertEquals(10, count);
+            assertTrue(eventArrived);
+            siddhiAppRuntime.shutdown();
+        } catch (ZkTimeoutException ex) {
+            log.warn("No zookeeper may not be available.", ex);
+        }
+    }
+
     @Test
     public void testAKafkaPauseAndResume() throws InterruptedException {
         try {
@@ -35,9 +35,18 @@ public class TCPServer {
     }
 
     public synchronized void start() {
+        start(new ServerConfig());
+    }
+
+    /**
+     * Start the server shared by the tcp sources, the given configuration is ignored when it is already started.
+     *
+     * @param serverConfig configuration of the server
+     */
+    public synchronized void start(ServerConfig serverConfig) {
         if (tcpNettyServer == null) {
             tcpNettyServer = new TCPNettyServer();
-            tcpNettyServer.bootServer(new ServerConfig());
+            tcpNettyServer.bootServer(serverConfig);
         }
     }
 
@@ -29,6 +29,7 @@ import org.wso2.siddhi.core.util.config.ConfigReader;
 import org.wso2.siddhi.core.util.transport.OptionHolder;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 import org.wso2.siddhi.tcp.transport.callback.StreamListener;
+import org.wso2.siddhi.tcp.transport.config.ServerConfig;
 
 import java.util.Map;
 
@@ -40,10 +41,23 @@ import java.util.Map;
 )
 public class TCPSource extends Source {
     static String CONTEXT = "context";
+    static final String RECEIVER_THREADS = "receiver.threads";
+    static final String WORKER_THREADS = "worker.threads";
+    static final String DECODER_THREADS = "decoder.threads";
+    static final String MAX_PENDING_BUNDLES = "max.pending.bundles";
+    static final String EPOLL = "epoll";
+    static final String TCP_NO_DELAY = "tcp.no.delay";
+    static final String RECEIVE_BUFFER_SIZE = "receive.buffer.size";
+    static final String SEND_BUFFER_SIZE = "send.buffer.size";
+    static final String WRITE_BUFFER_LOW_WATER_MARK = "write.buffer.low.water.mark";
+    static final String WRITE_BUFFER_HIGH_WATER_MARK = "write.buffer.high.water.mark";
+    static final String POOLED_ALLOCATOR = "pooled.allocator";
+    static final String DIRECT_BUFFERS = "direct.buffers";
 
     private SourceEventListener sourceEventListener;
     private String context;
     private StreamDefinition streamDefinition;
+    private ServerConfig serverConfig;
 
     @Override
     public void init(SourceEventListener sourceEventListener, OptionHolder optionHolder, String[]
@@ -53,6 +67,39 @@ public class TCPSource extends Source {
                 siddhiAppContext.getName() + "/" + sourceEventListener.getStreamDefinition().getId());
         streamDefinition = StreamDefinition.id(context);
         streamDefinition.getAttributeList().addAll(sourceEventListener.getStreamDefinition().getAttributeList());
+        serverConfig = createServerConfig(configReader);
+    }
+
+    /**
+     * The server is shared by all the tcp sources, hence it is configured through the system configuration.
+     */
+    private static ServerConfig createServerConfig(ConfigReader configReader) {
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setReceiverThreads(Integer.parseInt(configReader.readConfig(RECEIVER_THREADS,
+                String.valueOf(serverConfig.getReceiverThreads()))));
+        serverConfig.setWorkerThreads(Integer.parseInt(configReader.readConfig(WORKER_THREADS,
+                String.valueOf(serverConfig.getWorkerThreads()))));
+        serverConfig.setDecoderThreads(Integer.parseInt(configReader.readConfig(DECODER_THREADS,
+                String.valueOf(serverConfig.getDecoderThreads()))));
+        serverConfig.setMaxPendingBundles(Integer.parseInt(configReader.readConfig(MAX_PENDING_BUNDLES,
+                String.valueOf(serverConfig.getMaxPendingBundles()))));
+        serverConfig.setEpoll(Boolean.parseBoolean(configReader.readConfig(EPOLL,
+                String.valueOf(serverConfig.isEpoll()))));
+        serverConfig.setTcpNoDelay(Boolean.parseBoolean(configReader.readConfig(TCP_NO_DELAY,
+                String.valueOf(serverConfig.isTcpNoDelay()))));
+        serverConfig.setReceiveBufferSize(Integer.parseInt(configReader.readConfig(RECEIVE_BUFFER_SIZE,
+                String.valueOf(serverConfig.getReceiveBufferSize()))));
+        serverConfig.setSendBufferSize(Integer.parseInt(configReader.readConfig(SEND_BUFFER_SIZE,
+                String.valueOf(serverConfig.getSendBufferSize()))));
+        serverConfig.setWriteBufferLowWaterMark(Integer.parseInt(configReader.readConfig(
+                WRITE_BUFFER_LOW_WATER_MARK, String.valueOf(serverConfig.getWriteBufferLowWaterMark()))));
+        serverConfig.setWriteBufferHighWaterMark(Integer.parseInt(configReader.readConfig(
+                WRITE_BUFFER_HIGH_WATER_MARK, String.valueOf(serverConfig.getWriteBufferHighWaterMark()))));
+        serverConfig.setPooledAllocator(Boolean.parseBoolean(configReader.readConfig(POOLED_ALLOCATOR,
+                String.valueOf(serverConfig.isPooledAllocator()))));
+        serverConfig.setDirectBuffers(Boolean.parseBoolean(configReader.readConfig(DIRECT_BUFFERS,
+                String.valueOf(serverConfig.isDirectBuffers()))));
+        return serverConfig;
     }
 
     @Override
@@ -62,7 +109,7 @@ public class TCPSource extends Source {
 
     @Override
     public void connect(Source.ConnectionCallback connectionCallback) throws ConnectionUnavailableException {
-        TCPServer.getInstance().start();
+        TCPServer.getInstance().start(serverConfig);
         TCPServer.getInstance().addStreamListener(new StreamListener() {
             @Override
             public StreamDefinition getStreamDefinition() {
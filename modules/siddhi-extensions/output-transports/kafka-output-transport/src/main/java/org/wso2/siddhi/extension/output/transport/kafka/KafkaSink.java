@@ -24,26 +24,52 @@ import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.annotation.Example;
 import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.annotation.Parameter;
+import org.wso2.siddhi.annotation.util.DataType;
 import org.wso2.siddhi.core.config.SiddhiAppContext;
 import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
 import org.wso2.siddhi.core.stream.output.sink.Sink;
+import org.wso2.siddhi.core.util.SiddhiConstants;
 import org.wso2.siddhi.core.util.config.ConfigReader;
+import org.wso2.siddhi.core.util.statistics.EventBufferHolder;
+import org.wso2.siddhi.core.util.statistics.ThroughputTracker;
 import org.wso2.siddhi.core.util.transport.DynamicOptions;
 import org.wso2.siddhi.core.util.transport.Option;
 import org.wso2.siddhi.core.util.transport.OptionHolder;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 
 @Extension(
         name = "kafka",
         namespace = "sink",
         description = "TBD",
+        parameters = {
+                @Parameter(name = "topic",
+                        description = "Topic the events are published to.",
+                        type = {DataType.STRING}),
+                @Parameter(name = "partition.no",
+                        description = "Partition of the topic the events are published to. If not given, the " +
+                                "partition is chosen by Kafka based on the key. Note that earlier versions sent " +
+                                "this value as the record key instead, use 'key' for that.",
+                        type = {DataType.INT}),
+                @Parameter(name = "key",
+                        description = "Key of the published records, such that Kafka publishes the events having " +
+                                "the same key to the same partition, when 'partition.no' is not given.",
+                        type = {DataType.STRING}),
+                @Parameter(name = "max.in.flight.events",
+                        description = "Maximum number of events waiting to be acknowledged by Kafka, after which " +
+                                "publishing blocks. The default is 10000.",
+                        type = {DataType.INT})
+        },
         examples = @Example(description = "TBD", syntax = "TBD")
 )
-public class KafkaSink extends Sink {
+public class KafkaSink extends Sink implements EventBufferHolder {
 
     private static final String KAFKA_PUBLISH_TOPIC = "topic";
     private static final String KAFKA_BROKER_LIST = "bootstrap.servers";
@@ -51,13 +77,28 @@ public class KafkaSink extends Sink {
     private static final String HEADER_SEPARATOR = ",";
     private static final String ENTRY_SEPARATOR = ":";
     private static final String KAFKA_PARTITION_NO = "partition.no";
+    private static final String KAFKA_KEY = "key";
+    private static final String KAFKA_LINGER_MS = "linger.ms";
+    private static final String KAFKA_BATCH_SIZE = "batch.size";
+    private static final String KAFKA_COMPRESSION_TYPE = "compression.type";
+    private static final String KAFKA_MAX_IN_FLIGHT_EVENTS = "max.in.flight.events";
+    private static final String KAFKA_BINARY_MESSAGE = "is.binary.message";
     private static final Logger log = Logger.getLogger(KafkaSink.class);
     private ScheduledExecutorService executorService;
-    private Producer<String, String> producer;
+    private Producer<String, Object> producer;
     private Option topicOption = null;
     private String kafkaConnect;
     private String optionalConfigs;
     private Option partitionOption;
+    private Option keyOption;
+    private String lingerMs;
+    private String batchSize;
+    private String compressionType;
+    private boolean binaryMessage;
+    private int maxInFlightEvents;
+    private Semaphore inFlightEvents;
+    private ThroughputTracker sentTracker;
+    private ThroughputTracker errorTracker;
 
     @Override
     protected void init(StreamDefinition outputStreamDefinition, OptionHolder optionHolder,
@@ -66,7 +107,33 @@ public class KafkaSink extends Sink {
         optionalConfigs = optionHolder.validateAndGetStaticValue(KAFKA_OPTIONAL_CONFIGURATION_PROPERTIES, null);
         topicOption = optionHolder.validateAndGetOption(KAFKA_PUBLISH_TOPIC);
         partitionOption = optionHolder.getOrCreateOption(KAFKA_PARTITION_NO, null);
+        keyOption = optionHolder.getOrCreateOption(KAFKA_KEY, null);
+        lingerMs = optionHolder.validateAndGetStaticValue(KAFKA_LINGER_MS, "1");
+        batchSize = optionHolder.validateAndGetStaticValue(KAFKA_BATCH_SIZE, "16384");
+        compressionType = optionHolder.validateAndGetStaticValue(KAFKA_COMPRESSION_TYPE, "none");
+        binaryMessage = Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(KAFKA_BINARY_MESSAGE, "false"));
+        maxInFlightEvents = Integer.parseInt(optionHolder.validateAndGetStaticValue(KAFKA_MAX_IN_FLIGHT_EVENTS,
+                "10000"));
+        inFlightEvents = new Semaphore(maxInFlightEvents);
         executorService = siddhiAppContext.getScheduledExecutorService();
+        if (siddhiAppContext.isStatsEnabled() && siddhiAppContext.getStatisticsManager() != null) {
+            String metricName = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getMatricPrefix() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_EXECUTION_PLANS +
+                    SiddhiConstants.METRIC_DELIMITER + siddhiAppContext.getName() +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SIDDHI +
+                    SiddhiConstants.METRIC_DELIMITER + SiddhiConstants.METRIC_INFIX_SINKS +
+                    SiddhiConstants.METRIC_DELIMITER + outputStreamDefinition.getId() +
+                    SiddhiConstants.METRIC_DELIMITER + "kafka";
+            sentTracker = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getFactory()
+                    .createThroughputTracker(metricName + SiddhiConstants.METRIC_DELIMITER + "sent",
+                            siddhiAppContext.getStatisticsManager());
+            errorTracker = siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getFactory()
+                    .createThroughputTracker(metricName + SiddhiConstants.METRIC_DELIMITER + "errors",
+                            siddhiAppContext.getStatisticsManager());
+            siddhiAppContext.getSiddhiContext().getStatisticsConfiguration().getFactory()
+                    .createBufferedEventsTracker(siddhiAppContext.getStatisticsManager())
+                    .registerEventBufferHolder(this, metricName + SiddhiConstants.METRIC_DELIMITER + "inFlight");
+        }
     }
 
     @Override
@@ -75,11 +142,16 @@ public class KafkaSink extends Sink {
         props.put("bootstrap.servers", kafkaConnect);
         props.put("acks", "all");
         props.put("retries", 0);
-        props.put("batch.size", 16384);
-        props.put("linger.ms", 1);
+        props.put("batch.size", batchSize);
+        props.put("linger.ms", lingerMs);
+        props.put("compression.type", compressionType);
         props.put("buffer.memory", 33554432);
         props.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-        props.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        if (binaryMessage) {
+            props.put("value.serializer", "org.apache.kafka.common.serialization.ByteArraySerializer");
+        } else {
+            props.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+        }
 
         if (optionalConfigs != null) {
             String[] optionalProperties = optionalConfigs.split(HEADER_SEPARATOR);
@@ -94,23 +166,67 @@ public class KafkaSink extends Sink {
                 }
             }
         }
-        producer = new KafkaProducer<>(props);
+        producer = createProducer(props);
         log.info("Kafka producer created.");
     }
 
+    /**
+     * @param props producer configuration
+     * @return producer used to publish the events
+     */
+    Producer<String, Object> createProducer(Properties props) {
+        return new KafkaProducer<>(props);
+    }
+
     @Override
     public void publish(Object payload, DynamicOptions transportOptions) throws ConnectionUnavailableException {
         String topic = topicOption.getValue(transportOptions);
         String partitionNo = partitionOption.getValue(transportOptions);
+        String key = keyOption.getValue(transportOptions);
         try {
-            if (null == partitionNo) {
-                producer.send(new ProducerRecord<>(topic, payload.toString()));
-            } else {
-                producer.send(new ProducerRecord<>(topic, partitionNo, payload.toString()));
-            }
+            // bounds the events waiting for acknowledgement, blocking the publisher when the limit is reached
+            inFlightEvents.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.error(String.format("Interrupted while publishing the message to [topic] %s [partition-no] %s, " +
+                    "hence dropping the message.", topic, partitionNo), e);
+            return;
+        }
+        try {
+            Integer partition = (null == partitionNo) ? null : Integer.parseInt(partitionNo);
+            Object message = binaryMessage ? toBytes(payload) : payload.toString();
+            producer.send(new ProducerRecord<>(topic, partition, key, message), (metadata, exception) -> {
+                inFlightEvents.release();
+                if (exception != null) {
+                    onError(topic, partitionNo, exception);
+                } else if (sentTracker != null) {
+                    sentTracker.eventIn();
+                }
+            });
         } catch (Exception e) {
-            log.error(String.format("Failed to publish the message to [topic] %s [partition-no] %s. Error: %s",
-                    topic, partitionNo, e.getMessage()), e);
+            inFlightEvents.release();
+            onError(topic, partitionNo, e);
+        }
+    }
+
+    private void onError(String topic, String partitionNo, Exception e) {
+        if (errorTracker != null) {
+            errorTracker.eventIn();
+        }
+        log.error(String.format("Failed to publish the message to [topic] %s [partition-no] %s. Error: %s",
+                topic, partitionNo, e.getMessage()), e);
+    }
+
+    private static byte[] toBytes(Object payload) {
+        if (payload instanceof byte[]) {
+            return (byte[]) payload;
+        } else if (payload instanceof ByteBuffer) {
+            ByteBuffer byteBuffer = ((ByteBuffer) payload).duplicate();
+            byte[] bytes = new byte[byteBuffer.remaining()];
+            byteBuffer.get(bytes);
+            return bytes;
+        } else {
+            return payload.toString().getBytes(StandardCharsets.UTF_8);
         }
     }
 
@@ -129,12 +245,22 @@ public class KafkaSink extends Sink {
 
     @Override
     public Class[] getSupportedInputEventClasses() {
-        return new Class[]{String.class};
+        return new Class[]{String.class, byte[].class, ByteBuffer.class};
     }
 
     @Override
     public String[] getSupportedDynamicOptions() {
-        return new String[]{KAFKA_PUBLISH_TOPIC, KAFKA_PARTITION_NO};
+        return new String[]{KAFKA_PUBLISH_TOPIC, KAFKA_PARTITION_NO, KAFKA_KEY};
+    }
+
+    @Override
+    public long getBufferedEvents() {
+        return maxInFlightEvents - inFlightEvents.availablePermits();
+    }
+
+    @Override
+    public long getRemainingCapacity() {
+        return inFlightEvents.availablePermits();
     }
 
     @Override
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.extension.output.transport.kafka;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.internals.DefaultPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.wso2.siddhi.annotation.Extension;
+import org.wso2.siddhi.core.config.SiddhiAppContext;
+import org.wso2.siddhi.core.config.SiddhiContext;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.exception.ConnectionUnavailableException;
+import org.wso2.siddhi.core.util.ElementIdGenerator;
+import org.wso2.siddhi.core.util.transport.DynamicOptions;
+import org.wso2.siddhi.core.util.transport.OptionHolder;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+public class KafkaSinkPublishTestCase {
+    private static final Logger log = Logger.getLogger(KafkaSinkPublishTestCase.class);
+    private static final String TOPIC = "kafka_topic";
+    private static final StreamDefinition STREAM_DEFINITION = StreamDefinition.id("FooStream")
+            .attribute("symbol", Attribute.Type.STRING)
+            .attribute("partition", Attribute.Type.INT);
+    private MockProducer<String, Object> producer;
+
+    @Before
+    public void init() {
+        List<PartitionInfo> partitions = new ArrayList<>();
+        Node node = new Node(0, "localhost", 9092);
+        for (int i = 0; i < 3; i++) {
+            partitions.add(new PartitionInfo(TOPIC, i, node, new Node[]{node}, new Node[]{node}));
+        }
+        Cluster cluster = new Cluster(Collections.singletonList(node), partitions, Collections.emptySet());
+        producer = new MockProducer<>(cluster, false, new DefaultPartitioner(), new StringSerializer(),
+                valueSerializer());
+    }
+
+    @Test
+    public void testPartitionAndKeyRouting() throws ConnectionUnavailableException {
+        log.info("Test publishing events to the given partition and with the given key");
+        Map<String, String> dynamicOptions = new HashMap<>();
+        dynamicOptions.put("partition.no", "{{partition}}");
+        dynamicOptions.put("key", "{{symbol}}");
+        KafkaSink kafkaSink = createSink(Collections.emptyMap(), dynamicOptions);
+        publish(kafkaSink, "WSO2", 2);
+        dynamicOptions.remove("partition.no");
+        kafkaSink = createSink(Collections.emptyMap(), dynamicOptions);
+        publish(kafkaSink, "IBM", 2);
+
+        List<ProducerRecord<String, Object>> records = producer.history();
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals(TOPIC, records.get(0).topic());
+        // partition.no is the partition of the record, not its key
+        Assert.assertEquals(Integer.valueOf(2), records.get(0).partition());
+        Assert.assertEquals("WSO2", records.get(0).key());
+        Assert.assertEquals("WSO2:2", records.get(0).value());
+        // without a partition, Kafka partitions by the key
+        Assert.assertNull(records.get(1).partition());
+        Assert.assertEquals("IBM", records.get(1).key());
+    }
+
+    @Test
+    public void testSendFailureReleasesPermit() throws ConnectionUnavailableException {
+        log.info("Test failed sends releasing their in-flight permits");
+        Map<String, String> dynamicOptions = new HashMap<>();
+        dynamicOptions.put("partition.no", "{{partition}}");
+        KafkaSink kafkaSink = createSink(Collections.singletonMap("max.in.flight.events", "2"), dynamicOptions);
+
+        // failing asynchronously, on the delivery callback
+        publish(kafkaSink, "WSO2", 0);
+        Assert.assertEquals(1, kafkaSink.getBufferedEvents());
+        Assert.assertTrue(producer.errorNext(new RuntimeException("send failed")));
+        Assert.assertEquals(0, kafkaSink.getBufferedEvents());
+        Assert.assertEquals(2, kafkaSink.getRemainingCapacity());
+
+        // failing synchronously, as the partition does not exist
+        publish(kafkaSink, "WSO2", 5);
+        Assert.assertEquals(0, kafkaSink.getBufferedEvents());
+
+        publish(kafkaSink, "WSO2", 1);
+        publish(kafkaSink, "IBM", 1);
+        Assert.assertEquals(2, kafkaSink.getBufferedEvents());
+        Assert.assertTrue(producer.completeNext());
+        Assert.assertTrue(producer.completeNext());
+        Assert.assertEquals(0, kafkaSink.getBufferedEvents());
+    }
+
+    @Test
+    public void testPublishBlockedAtMaxInFlightEvents() throws Exception {
+        log.info("Test publishing blocking when the maximum in-flight events are unacknowledged");
+        KafkaSink kafkaSink = createSink(Collections.singletonMap("max.in.flight.events", "2"),
+                Collections.emptyMap());
+        publish(kafkaSink, "WSO2", 0);
+        publish(kafkaSink, "IBM", 0);
+
+        Thread publisher = new Thread(() -> {
+            try {
+                publish(kafkaSink, "ORCL", 0);
+            } catch (ConnectionUnavailableException e) {
+                log.error(e.getMessage(), e);
+            }
+        });
+        publisher.start();
+        TimeUnit.MILLISECONDS.sleep(500);
+        Assert.assertTrue(publisher.isAlive());
+        Assert.assertEquals(2, producer.history().size());
+
+        Assert.assertTrue(producer.completeNext());
+        publisher.join(5000);
+        Assert.assertFalse(publisher.isAlive());
+        Assert.assertEquals(3, producer.history().size());
+        Assert.assertEquals("ORCL:0", producer.history().get(2).value());
+        Assert.assertEquals(2, kafkaSink.getBufferedEvents());
+    }
+
+    private KafkaSink createSink(Map<String, String> staticOptions, Map<String, String> dynamicOptions)
+            throws ConnectionUnavailableException {
+        Map<String, String> options = new HashMap<>(staticOptions);
+        options.put("topic", TOPIC);
+        options.put("bootstrap.servers", "localhost:9092");
+        SiddhiAppContext siddhiAppContext = new SiddhiAppContext();
+        siddhiAppContext.setSiddhiContext(new SiddhiContext());
+        siddhiAppContext.setName("TestSiddhiApp");
+        siddhiAppContext.setElementIdGenerator(new ElementIdGenerator("TestSiddhiApp"));
+        KafkaSink kafkaSink = new KafkaSink() {
+            @Override
+            Producer<String, Object> createProducer(Properties props) {
+                return producer;
+            }
+        };
+        kafkaSink.initOnlyTransport(STREAM_DEFINITION, new OptionHolder(STREAM_DEFINITION, options,
+                dynamicOptions, KafkaSink.class.getAnnotation(Extension.class)), null, siddhiAppContext);
+        kafkaSink.connect();
+        return kafkaSink;
+    }
+
+    private static void publish(KafkaSink kafkaSink, String symbol, int partition)
+            throws ConnectionUnavailableException {
+        kafkaSink.publish(symbol + ":" + partition, new DynamicOptions(new Event(System.currentTimeMillis(),
+                new Object[]{symbol, partition})));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Serializer<Object> valueSerializer() {
+        return (Serializer) new StringSerializer();
+    }
+}
@@ -31,6 +31,7 @@ import org.wso2.siddhi.core.util.transport.Option;
 import org.wso2.siddhi.core.util.transport.OptionHolder;
 import org.wso2.siddhi.query.api.definition.StreamDefinition;
 import org.wso2.siddhi.tcp.transport.TCPNettyClient;
+import org.wso2.siddhi.tcp.transport.config.ClientConfig;
 
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -46,6 +47,16 @@ public class TCPSink extends Sink {
     public static final String HOST = "host";
     public static final String PORT = "port";
     public static final String CONTEXT = "context";
+    public static final String WORKER_THREADS = "worker.threads";
+    public static final String WRITE_BATCH_SIZE = "write.batch.size";
+    public static final String EPOLL = "epoll";
+    public static final String TCP_NO_DELAY = "tcp.no.delay";
+    public static final String RECEIVE_BUFFER_SIZE = "receive.buffer.size";
+    public static final String SEND_BUFFER_SIZE = "send.buffer.size";
+    public static final String WRITE_BUFFER_LOW_WATER_MARK = "write.buffer.low.water.mark";
+    public static final String WRITE_BUFFER_HIGH_WATER_MARK = "write.buffer.high.water.mark";
+    public static final String POOLED_ALLOCATOR = "pooled.allocator";
+    public static final String DIRECT_BUFFERS = "direct.buffers";
     private static final Logger log = Logger.getLogger(TCPSink.class);
     private TCPNettyClient TCPNettyClient;
     private String host;
@@ -66,12 +77,37 @@ public class TCPSink extends Sink {
     @Override
     protected void init(StreamDefinition outputStreamDefinition, OptionHolder optionHolder, ConfigReader sinkConfigReader, SiddhiAppContext
             siddhiAppContext) {
-        TCPNettyClient = new TCPNettyClient();
+        TCPNettyClient = new TCPNettyClient(createClientConfig(optionHolder));
         host = optionHolder.validateAndGetStaticValue(HOST, "localhost");
         port = Integer.parseInt(optionHolder.validateAndGetStaticValue(PORT, "9892"));
         streamIdOption = optionHolder.validateAndGetOption(CONTEXT);
     }
 
+    private static ClientConfig createClientConfig(OptionHolder optionHolder) {
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setWorkerThreads(Integer.parseInt(optionHolder.validateAndGetStaticValue(WORKER_THREADS,
+                String.valueOf(clientConfig.getWorkerThreads()))));
+        clientConfig.setWriteBatchSize(Integer.parseInt(optionHolder.validateAndGetStaticValue(WRITE_BATCH_SIZE,
+                String.valueOf(clientConfig.getWriteBatchSize()))));
+        clientConfig.setEpoll(Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(EPOLL,
+                String.valueOf(clientConfig.isEpoll()))));
+        clientConfig.setTcpNoDelay(Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(TCP_NO_DELAY,
+                String.valueOf(clientConfig.isTcpNoDelay()))));
+        clientConfig.setReceiveBufferSize(Integer.parseInt(optionHolder.validateAndGetStaticValue(
+                RECEIVE_BUFFER_SIZE, String.valueOf(clientConfig.getReceiveBufferSize()))));
+        clientConfig.setSendBufferSize(Integer.parseInt(optionHolder.validateAndGetStaticValue(SEND_BUFFER_SIZE,
+                String.valueOf(clientConfig.getSendBufferSize()))));
+        clientConfig.setWriteBufferLowWaterMark(Integer.parseInt(optionHolder.validateAndGetStaticValue(
+                WRITE_BUFFER_LOW_WATER_MARK, String.valueOf(clientConfig.getWriteBufferLowWaterMark()))));
+        clientConfig.setWriteBufferHighWaterMark(Integer.parseInt(optionHolder.validateAndGetStaticValue(
+                WRITE_BUFFER_HIGH_WATER_MARK, String.valueOf(clientConfig.getWriteBufferHighWaterMark()))));
+        clientConfig.setPooledAllocator(Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(
+                POOLED_ALLOCATOR, String.valueOf(clientConfig.isPooledAllocator()))));
+        clientConfig.setDirectBuffers(Boolean.parseBoolean(optionHolder.validateAndGetStaticValue(DIRECT_BUFFERS,
+                String.valueOf(clientConfig.isDirectBuffers()))));
+        return clientConfig;
+    }
+
     @Override
     public void connect() throws ConnectionUnavailableException {
 
@@ -1098,5 +1098,87 @@ public class TCPSinkTestCase {
 
     }
 
+    @Test
+    public void testTcpSink17() throws InterruptedException {
+        log.info("tcpSource TestCase 17 - batched writes");
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String inStreamDefinition = "" +
+                "define stream inputStream (a string, b int, c float, d long, e double, f bool); " +
+                "@sink(type='tcp', context='foo', write.batch.size='2', epoll='true', tcp.no.delay='false', " +
+                "@map(type='passThrough')) " +
+                "define stream outputStream (a string, b int, c float, d long, e double, f bool);";
+        String query = ("@info(name = 'query1') " +
+                "from inputStream " +
+                "select *  " +
+                "insert into outputStream;");
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(inStreamDefinition +
+                query);
+
+        StreamDefinition streamDefinition = StreamDefinition.id("foo").attribute("a", Attribute.Type.STRING)
+                .attribute("b", Attribute.Type.INT).attribute("c", Attribute.Type.FLOAT).attribute("d", Attribute
+                        .Type.LONG)
+                .attribute("e", Attribute.Type.DOUBLE).attribute("f", Attribute.Type.BOOL);
+
+        TCPNettyServer tcpNettyServer = new TCPNettyServer();
+        tcpNettyServer.addStreamListener(new StreamListener() {
+            @Override
+            public StreamDefinition getStreamDefinition() {
+                return streamDefinition;
+            }
+
+            @Override
+            public void onEvent(Event event) {
+                System.out.println(event);
+                eventArrived = true;
+                count++;
+                switch (count) {
+                    case 1:
+                        Assert.assertEquals("test", event.getData(0));
+                        break;
+                    case 2:
+                        Assert.assertEquals("test1", event.getData(0));
+                        break;
+                    case 3:
+                        Assert.assertEquals("test2", event.getData(0));
+                        break;
+                    default:
+                        org.junit.Assert.fail();
+                }
+            }
+
+            @Override
+            public void onEvents(Event[] events) {
+                for (Event event : events) {
+                    onEvent(event);
+                }
+            }
+        });
+
+
+        siddhiAppRuntime.start();
+        Thread.sleep(2000);
+        tcpNettyServer.bootServer(new ServerConfig());
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("inputStream");
+
+        ArrayList<Event> arrayList = new ArrayList<Event>();
+        arrayList.add(new Event(System.currentTimeMillis(), new Object[]{"test", 36, 3.0f, 380l, 23.0, true}));
+        arrayList.add(new Event(System.currentTimeMillis(), new Object[]{"test1", 361, 31.0f, 3801l, 231.0, false}));
+        arrayList.add(new Event(System.currentTimeMillis(), new Object[]{"test2", 362, 32.0f, 3802l, 232.0, true}));
+        // the last event only partly fills a batch, which is flushed without waiting for the next event
+        for (Event event : arrayList) {
+            inputHandler.send(event);
+        }
+
+        Thread.sleep(300);
+
+        Assert.assertEquals(3, count);
+        Assert.assertTrue(eventArrived);
+        siddhiAppRuntime.shutdown();
+        tcpNettyServer.shutdownGracefully();
+
+    }
+
 }
 
@@ -24,13 +24,13 @@ import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.tcp.transport.config.ClientConfig;
 import org.wso2.siddhi.tcp.transport.handlers.EventEncoder;
+import org.wso2.siddhi.tcp.transport.handlers.FlushBatchHandler;
 import org.wso2.siddhi.tcp.transport.utils.EventComposite;
+import org.wso2.siddhi.tcp.transport.utils.SocketConfigUtil;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -44,22 +44,34 @@ public class TCPNettyClient {
     private Channel channel;
     private String sessionId;
     private String hostAndPort;
+    private boolean writeBatched;
 
 
     public TCPNettyClient() {
-        group = new NioEventLoopGroup();
+        this(new ClientConfig());
+    }
+
+    public TCPNettyClient(ClientConfig clientConfig) {
+        boolean epoll = SocketConfigUtil.isEpollEnabled(clientConfig);
+        final int writeBatchSize = clientConfig.getWriteBatchSize();
+        writeBatched = writeBatchSize > 1;
+        group = SocketConfigUtil.createEventLoopGroup(epoll, clientConfig.getWorkerThreads());
         bootstrap = new Bootstrap();
         bootstrap.group(group)
-                .channel(NioSocketChannel.class)
-                .handler(new ChannelInitializer<SocketChannel>() {
+                .channel(SocketConfigUtil.getChannelClass(epoll))
+                .handler(new ChannelInitializer<Channel>() {
                     @Override
-                    protected void initChannel(SocketChannel ch) throws Exception {
+                    protected void initChannel(Channel ch) throws Exception {
                         ChannelPipeline pipeline = ch.pipeline();
                         pipeline.addLast(
                                 new EventEncoder()
                         );
+                        if (writeBatched) {
+                            pipeline.addLast(new FlushBatchHandler(writeBatchSize));
+                        }
                     }
                 });
+        SocketConfigUtil.applyOptions(bootstrap, clientConfig);
     }
 
     public static void main(String[] args) {
@@ -90,7 +102,12 @@ public class TCPNettyClient {
 
     public ChannelFuture send(String streamId, Event[] events) {
         EventComposite EventComposite = new EventComposite(sessionId, streamId, events);
-        ChannelFuture cf = channel.writeAndFlush(EventComposite);
+        ChannelFuture cf;
+        if (writeBatched) {
+            cf = channel.write(EventComposite);
+        } else {
+            cf = channel.writeAndFlush(EventComposite);
+        }
         cf.addListener(new ChannelFutureListener() {
             @Override
             public void operationComplete(ChannelFuture future) throws Exception {
@@ -104,9 +121,22 @@ public class TCPNettyClient {
         return cf;
     }
 
+    /**
+     * Flush the events written so far, which is only needed to bypass the write batching of the client.
+     */
+    public void flush() {
+        if (channel != null) {
+            channel.flush();
+        }
+    }
+
     public void disconnect() {
         if (channel != null && channel.isOpen()) {
             try {
+                if (writeBatched) {
+                    // events still batched would be dropped when closing
+                    channel.flush();
+                }
                 channel.close();
                 channel.closeFuture().sync();
             } catch (InterruptedException e) {
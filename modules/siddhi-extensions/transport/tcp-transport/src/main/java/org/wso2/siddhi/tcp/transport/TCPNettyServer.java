@@ -27,8 +27,8 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.DefaultEventExecutorGroup;
+import io.netty.util.concurrent.EventExecutorGroup;
 import org.apache.commons.collections4.queue.CircularFifoQueue;
 import org.apache.log4j.Logger;
 import org.wso2.siddhi.query.api.definition.Attribute;
@@ -37,12 +37,14 @@ import org.wso2.siddhi.tcp.transport.callback.LogStreamListener;
 import org.wso2.siddhi.tcp.transport.callback.StreamListener;
 import org.wso2.siddhi.tcp.transport.config.ServerConfig;
 import org.wso2.siddhi.tcp.transport.handlers.EventDecoder;
+import org.wso2.siddhi.tcp.transport.utils.SocketConfigUtil;
 import org.wso2.siddhi.tcp.transport.utils.StreamTypeHolder;
 
 public class TCPNettyServer {
     private static final Logger log = Logger.getLogger(TCPNettyServer.class);
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
+    private EventExecutorGroup decoderGroup;
     private StreamTypeHolder streamInfoHolder = new StreamTypeHolder();
     private ChannelFuture channelFuture;
     private String hostAndPort;
@@ -67,15 +69,20 @@ public class TCPNettyServer {
     }
 
     public void bootServer(ServerConfig serverConfig) {
-        bossGroup = new NioEventLoopGroup(serverConfig.getReceiverThreads());
-        workerGroup = new NioEventLoopGroup(serverConfig.getWorkerThreads());
+        boolean epoll = SocketConfigUtil.isEpollEnabled(serverConfig);
+        bossGroup = SocketConfigUtil.createEventLoopGroup(epoll, serverConfig.getReceiverThreads());
+        workerGroup = SocketConfigUtil.createEventLoopGroup(epoll, serverConfig.getWorkerThreads());
+        if (serverConfig.getDecoderThreads() > 0) {
+            decoderGroup = new DefaultEventExecutorGroup(serverConfig.getDecoderThreads());
+        }
+        final int maxPendingBundles = serverConfig.getMaxPendingBundles();
         hostAndPort = serverConfig.getHost() + ":" + serverConfig.getPort();
         try {
             flowController = new FlowController(serverConfig.getQueueSizeOfTcpTransport());
             // More terse code to setup the server
             ServerBootstrap bootstrap = new ServerBootstrap();
             bootstrap.group(bossGroup, workerGroup)
-                    .channel(NioServerSocketChannel.class)
+                    .channel(SocketConfigUtil.getServerChannelClass(epoll))
                     .childOption(ChannelOption.AUTO_READ, false)
                     .childHandler(new ChannelInitializer() {
 
@@ -83,14 +90,21 @@ public class TCPNettyServer {
                         protected void initChannel(Channel channel) throws Exception {
                             ChannelPipeline p = channel.pipeline();
                             p.addLast(flowController);
-                            p.addLast(new EventDecoder(streamInfoHolder));
+                            if (decoderGroup == null) {
+                                p.addLast(new EventDecoder(streamInfoHolder));
+                            } else {
+                                // events of a connection are decoded by the same executor to retain their order
+                                p.addLast(new EventDecoder(streamInfoHolder, decoderGroup.next(), maxPendingBundles));
+                            }
                         }
                     });
 
+            SocketConfigUtil.applyOptions(bootstrap, serverConfig);
+
             // Bind and start to accept incoming connections.
             channelFuture = bootstrap.bind(serverConfig.getHost(), serverConfig.getPort()).sync();
 
-            log.info("Tcp Server started in " + hostAndPort + "");
+            log.info("Tcp Server started in " + hostAndPort + (epoll ? " using epoll" : ""));
         } catch (InterruptedException e) {
             log.error("Error when booting up tcp server on '" + hostAndPort + "' " + e.getMessage(), e);
         }
@@ -105,6 +119,10 @@ public class TCPNettyServer {
         }
         workerGroup.shutdownGracefully();
         bossGroup.shutdownGracefully();
+        if (decoderGroup != null) {
+            decoderGroup.shutdownGracefully();
+            decoderGroup = null;
+        }
         log.info("Tcp Server running on '" + hostAndPort + "' stopped.");
         workerGroup = null;
         bossGroup = null;
@@ -155,8 +173,10 @@ class FlowController extends ChannelInboundHandlerAdapter {
     }
 
     public void channelRead(final ChannelHandlerContext ctx, Object msg) {
-        // since auto-read is set to false, we have to trigger the read
-        ctx.channel().read();
+        // since auto-read is set to false, we have to trigger the read, unless suspended by the decoder
+        if (!Boolean.TRUE.equals(ctx.channel().attr(EventDecoder.READ_SUSPENDED).get())) {
+            ctx.channel().read();
+        }
 
         if (msg != null) {
             // queue the message
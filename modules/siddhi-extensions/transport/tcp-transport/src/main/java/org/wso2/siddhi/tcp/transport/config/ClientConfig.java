@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport.config;
+
+import org.wso2.siddhi.tcp.transport.utils.Constant;
+
+/**
+ * Configuration of the tcp client.
+ */
+public class ClientConfig extends SocketConfig {
+    private int workerThreads = Constant.DEFAULT_CLIENT_WORKER_THREADS;
+    private int writeBatchSize = Constant.DEFAULT_WRITE_BATCH_SIZE;
+
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * @param workerThreads number of IO threads of the client, or 0 for the Netty default
+     */
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+
+    public int getWriteBatchSize() {
+        return writeBatchSize;
+    }
+
+    /**
+     * @param writeBatchSize number of writes flushed together, 1 flushes each write. Writes are flushed when the
+     *                       batch is full or when the IO thread has processed the writes queued so far.
+     */
+    public void setWriteBatchSize(int writeBatchSize) {
+        this.writeBatchSize = writeBatchSize;
+    }
+}
@@ -20,12 +20,17 @@ package org.wso2.siddhi.tcp.transport.config;
 
 import org.wso2.siddhi.tcp.transport.utils.Constant;
 
-public class ServerConfig {
+/**
+ * Configuration of the tcp server.
+ */
+public class ServerConfig extends SocketConfig {
     private int receiverThreads = Constant.DEFAULT_RECEIVER_THREADS;
     private int workerThreads = Constant.DEFAULT_WORKER_THREADS;
     private int queueSizeOfTcpTransport = Constant.DEFAULT_QUEUE_SIZE_OF_TCP_TRANSPORT;
     private int port = Constant.DEFAULT_PORT;
     private String host = Constant.DEFAULT_HOST;
+    private int decoderThreads = Constant.DEFAULT_DECODER_THREADS;
+    private int maxPendingBundles = Constant.DEFAULT_MAX_PENDING_BUNDLES;
 
     public int getReceiverThreads() {
         return receiverThreads;
@@ -66,4 +71,27 @@ public class ServerConfig {
     public void setHost(String host) {
         this.host = host;
     }
+
+    public int getDecoderThreads() {
+        return decoderThreads;
+    }
+
+    /**
+     * @param decoderThreads number of threads decoding the received events, or 0 to decode them on the IO threads
+     */
+    public void setDecoderThreads(int decoderThreads) {
+        this.decoderThreads = decoderThreads;
+    }
+
+    public int getMaxPendingBundles() {
+        return maxPendingBundles;
+    }
+
+    /**
+     * @param maxPendingBundles number of event bundles of a connection waiting to be decoded, beyond which reading
+     *                          from the connection is suspended. Only used when decoder threads are configured.
+     */
+    public void setMaxPendingBundles(int maxPendingBundles) {
+        this.maxPendingBundles = maxPendingBundles;
+    }
 }
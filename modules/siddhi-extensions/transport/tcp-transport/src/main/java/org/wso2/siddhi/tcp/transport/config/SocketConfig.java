@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport.config;
+
+import org.wso2.siddhi.tcp.transport.utils.Constant;
+
+/**
+ * Socket options shared by the tcp server and client. Buffer sizes of 0 leave the operating system defaults.
+ */
+public abstract class SocketConfig {
+    private boolean epoll = Constant.DEFAULT_EPOLL;
+    private boolean tcpNoDelay = Constant.DEFAULT_TCP_NO_DELAY;
+    private int receiveBufferSize = Constant.DEFAULT_SOCKET_BUFFER_SIZE;
+    private int sendBufferSize = Constant.DEFAULT_SOCKET_BUFFER_SIZE;
+    private int writeBufferLowWaterMark = Constant.DEFAULT_WRITE_BUFFER_LOW_WATER_MARK;
+    private int writeBufferHighWaterMark = Constant.DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK;
+    private boolean pooledAllocator = Constant.DEFAULT_POOLED_ALLOCATOR;
+    private boolean directBuffers = Constant.DEFAULT_DIRECT_BUFFERS;
+
+    public boolean isEpoll() {
+        return epoll;
+    }
+
+    /**
+     * @param epoll whether to use the native epoll transport, which falls back to NIO when it is not available
+     */
+    public void setEpoll(boolean epoll) {
+        this.epoll = epoll;
+    }
+
+    public boolean isTcpNoDelay() {
+        return tcpNoDelay;
+    }
+
+    public void setTcpNoDelay(boolean tcpNoDelay) {
+        this.tcpNoDelay = tcpNoDelay;
+    }
+
+    public int getReceiveBufferSize() {
+        return receiveBufferSize;
+    }
+
+    public void setReceiveBufferSize(int receiveBufferSize) {
+        this.receiveBufferSize = receiveBufferSize;
+    }
+
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+
+    public void setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+    }
+
+    public int getWriteBufferLowWaterMark() {
+        return writeBufferLowWaterMark;
+    }
+
+    public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+        this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+    }
+
+    public int getWriteBufferHighWaterMark() {
+        return writeBufferHighWaterMark;
+    }
+
+    public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+        this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    }
+
+    public boolean isPooledAllocator() {
+        return pooledAllocator;
+    }
+
+    public void setPooledAllocator(boolean pooledAllocator) {
+        this.pooledAllocator = pooledAllocator;
+    }
+
+    public boolean isDirectBuffers() {
+        return directBuffers;
+    }
+
+    public void setDirectBuffers(boolean directBuffers) {
+        this.directBuffers = directBuffers;
+    }
+}
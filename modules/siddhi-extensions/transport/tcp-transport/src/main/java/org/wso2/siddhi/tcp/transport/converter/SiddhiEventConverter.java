@@ -24,10 +24,13 @@ import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.query.api.definition.Attribute;
 import org.wso2.siddhi.tcp.transport.exception.MalformedEventException;
 import org.wso2.siddhi.tcp.transport.utils.BinaryMessageConverterUtil;
+import org.wso2.siddhi.tcp.transport.utils.Constant;
 import org.wso2.siddhi.tcp.transport.utils.StreamInfo;
 import org.wso2.siddhi.tcp.transport.utils.StreamTypeHolder;
+import org.wso2.siddhi.tcp.transport.utils.StringCache;
 
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 /**
  * This class is a implementation EventConverter to create the event from the Binary message.
@@ -35,51 +38,106 @@ import java.nio.ByteBuffer;
  */
 public class SiddhiEventConverter {
     static final Logger log = Logger.getLogger(SiddhiEventConverter.class);
+    private static final int HEADER_SIZE = 5;
+    private static final Charset CHARSET = Charset.forName(Constant.DEFAULT_CHARSET);
 
     public static void toConvertToSiddhiEvents(Object eventBundle, StreamTypeHolder streamTypeHolder) {
 
         ByteBuf byteBuffer = (ByteBuf) eventBundle;
 
-        int protocol = byteBuffer.readByte();
-        int messageSize = byteBuffer.readInt();
-        if (protocol != 2 || messageSize > byteBuffer.readableBytes()) {
+        int protocol = byteBuffer.getByte(byteBuffer.readerIndex());
+        int messageSize = byteBuffer.getInt(byteBuffer.readerIndex() + 1);
+        if (protocol != 2 || messageSize > byteBuffer.readableBytes() - HEADER_SIZE) {
             byteBuffer.resetReaderIndex();
             return;
         }
+        toConvertToSiddhiEvents(byteBuffer, streamTypeHolder, null);
+        byteBuffer.markReaderIndex();
+    }
+
+    /**
+     * Convert a complete event bundle, starting from its protocol byte, to Siddhi events and send them to the
+     * listener of the stream. Attributes are read directly from the buffer, and the reader index is moved to the end
+     * of the bundle.
+     *
+     * @param byteBuffer       buffer containing the complete bundle
+     * @param streamTypeHolder holder of the registered streams
+     * @param streamIdCache    cache used to resolve the stream id, or null to read it each time
+     */
+    public static void toConvertToSiddhiEvents(ByteBuf byteBuffer, StreamTypeHolder streamTypeHolder,
+                                               StringCache streamIdCache) {
+        byteBuffer.skipBytes(1);
+        int messageSize = byteBuffer.readInt();
+        int bundleEnd = byteBuffer.readerIndex() + messageSize;
 
+        // session id is not used when receiving events
         int sessionIdSize = byteBuffer.readInt();
-        String sessionId = BinaryMessageConverterUtil.getString(byteBuffer, sessionIdSize);
+        byteBuffer.skipBytes(sessionIdSize);
 
         int streamIdSize = byteBuffer.readInt();
-        String streamId = BinaryMessageConverterUtil.getString(byteBuffer, streamIdSize);
+        String streamId;
+        if (streamIdCache != null) {
+            streamId = streamIdCache.read(byteBuffer, streamIdSize);
+        } else {
+            streamId = BinaryMessageConverterUtil.getString(byteBuffer, streamIdSize);
+        }
 
         StreamInfo streamInfo = streamTypeHolder.getStreamInfo(streamId);
         int numberOfEvents = byteBuffer.readInt();
 
         if (streamInfo == null) {
-            for (int i = 0; i < numberOfEvents; i++) {
-                int eventSize = byteBuffer.readInt();
-                byte[] bytes = new byte[eventSize];
-                byteBuffer.readBytes(bytes);
-            }
-            byteBuffer.markReaderIndex();
+            byteBuffer.readerIndex(bundleEnd);
             log.error("Events with unknown streamId : '" + streamId + "' hence dropping the events!");
             return;
         }
 
+        Attribute.Type[] attributeTypes = streamInfo.getAttributeTypes();
         Event[] events = new Event[numberOfEvents];
         for (int i = 0; i < numberOfEvents; i++) {
             int eventSize = byteBuffer.readInt();
-            //System.out.println("Event Size:" + eventSize);
-            byte[] bytes = new byte[eventSize];
-            byteBuffer.readBytes(bytes);
-            ByteBuffer eventByteBuffer = ByteBuffer.wrap(bytes);
-            events[i] = getEvent(eventByteBuffer, streamInfo.getAttributeTypes());
+            int eventEnd = byteBuffer.readerIndex() + eventSize;
+            long timeStamp = byteBuffer.readLong();
+            events[i] = new Event(timeStamp, toObjectArray(byteBuffer, attributeTypes));
+            byteBuffer.readerIndex(eventEnd);
         }
-        byteBuffer.markReaderIndex();
+        byteBuffer.readerIndex(bundleEnd);
         streamInfo.getStreamListener().onEvents(events);
     }
 
+    private static Object[] toObjectArray(ByteBuf byteBuffer, Attribute.Type[] attributeTypeOrder) {
+        if (attributeTypeOrder == null) {
+            return null;
+        }
+        Object[] objects = new Object[attributeTypeOrder.length];
+        for (int i = 0; i < attributeTypeOrder.length; i++) {
+            switch (attributeTypeOrder[i]) {
+                case INT:
+                    objects[i] = byteBuffer.readInt();
+                    break;
+                case LONG:
+                    objects[i] = byteBuffer.readLong();
+                    break;
+                case STRING:
+                    int stringSize = byteBuffer.readInt();
+                    if (stringSize != 0) {
+                        objects[i] = byteBuffer.toString(byteBuffer.readerIndex(), stringSize, CHARSET);
+                        byteBuffer.skipBytes(stringSize);
+                    }
+                    break;
+                case DOUBLE:
+                    objects[i] = byteBuffer.readDouble();
+                    break;
+                case FLOAT:
+                    objects[i] = byteBuffer.readFloat();
+                    break;
+                case BOOL:
+                    objects[i] = byteBuffer.readByte() == 1;
+                    break;
+            }
+        }
+        return objects;
+    }
+
     public static Event getEvent(ByteBuffer byteBuffer, Attribute.Type[] attributeTypes) throws
             MalformedEventException {
         Event event = new Event();
@@ -21,24 +21,84 @@ package org.wso2.siddhi.tcp.transport.handlers;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
+import io.netty.util.concurrent.EventExecutor;
 import org.wso2.siddhi.tcp.transport.converter.SiddhiEventConverter;
+import org.wso2.siddhi.tcp.transport.utils.Constant;
 import org.wso2.siddhi.tcp.transport.utils.StreamTypeHolder;
+import org.wso2.siddhi.tcp.transport.utils.StringCache;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
-
+/**
+ * Frames the event bundles received on a connection and converts them to Siddhi events. Bundles are converted on the
+ * IO thread, or when a decode executor is given, handed to that executor such that decoding does not compete with
+ * the socket reads. In the latter case reading from the connection is suspended while the number of bundles waiting
+ * to be decoded exceeds the given limit, and resumed when half of them are decoded.
+ */
 public class EventDecoder extends ByteToMessageDecoder {
-    private StreamTypeHolder streamInfoHolder;
+    /**
+     * Channel attribute set while the reads of the channel are suspended by the decoder.
+     */
+    public static final AttributeKey<Boolean> READ_SUSPENDED = AttributeKey.valueOf("siddhi.tcp.read.suspended");
+    private static final int HEADER_SIZE = 5;
+    private final StreamTypeHolder streamInfoHolder;
+    private final StringCache streamIdCache = new StringCache(Constant.DEFAULT_STREAM_ID_CACHE_SIZE);
+    private final EventExecutor decodeExecutor;
+    private final int maxPendingBundles;
+    private final AtomicInteger pendingBundles = new AtomicInteger(0);
 
     public EventDecoder(StreamTypeHolder streamInfoHolder) {
+        this(streamInfoHolder, null, 0);
+    }
+
+    public EventDecoder(StreamTypeHolder streamInfoHolder, EventExecutor decodeExecutor, int maxPendingBundles) {
         this.streamInfoHolder = streamInfoHolder;
+        this.decodeExecutor = decodeExecutor;
+        this.maxPendingBundles = maxPendingBundles;
     }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
-        if (in.readableBytes() < 5) {
+        if (in.readableBytes() < HEADER_SIZE) {
             return;
         }
-        SiddhiEventConverter.toConvertToSiddhiEvents(in, streamInfoHolder);
+        int bundleStart = in.readerIndex();
+        if (in.getByte(bundleStart) != 2) {
+            return;
+        }
+        int bundleSize = HEADER_SIZE + in.getInt(bundleStart + 1);
+        if (in.readableBytes() < bundleSize) {
+            return;
+        }
+        if (decodeExecutor == null) {
+            SiddhiEventConverter.toConvertToSiddhiEvents(in, streamInfoHolder, streamIdCache);
+        } else {
+            final ByteBuf bundle = in.readSlice(bundleSize).retain();
+            final Attribute<Boolean> readSuspended = ctx.channel().attr(READ_SUSPENDED);
+            if (pendingBundles.incrementAndGet() >= maxPendingBundles) {
+                readSuspended.set(true);
+                // bundles could have been decoded before suspending, hence nothing would resume the reads
+                if (pendingBundles.get() <= maxPendingBundles / 2) {
+                    readSuspended.set(false);
+                }
+            }
+            decodeExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        SiddhiEventConverter.toConvertToSiddhiEvents(bundle, streamInfoHolder, streamIdCache);
+                    } finally {
+                        bundle.release();
+                        if (pendingBundles.decrementAndGet() <= maxPendingBundles / 2 &&
+                                readSuspended.compareAndSet(true, false)) {
+                            ctx.channel().read();
+                        }
+                    }
+                }
+            });
+        }
     }
 }
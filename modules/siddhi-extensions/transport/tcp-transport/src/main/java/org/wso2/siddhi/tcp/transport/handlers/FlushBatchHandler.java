@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport.handlers;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Coalesces the flushes of the writes made to a channel. Writes are flushed when the given number of writes are
+ * pending, or once the IO thread has processed the writes queued before the first pending write, hence writes from
+ * the publishing threads do not need to be flushed explicitly.
+ */
+public class FlushBatchHandler extends ChannelOutboundHandlerAdapter {
+    private final int batchSize;
+    private int pendingWrites = 0;
+    private boolean flushScheduled = false;
+
+    public FlushBatchHandler(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+        ctx.write(msg, promise);
+        if (++pendingWrites >= batchSize) {
+            flush(ctx);
+        } else if (!flushScheduled) {
+            flushScheduled = true;
+            // runs after the writes already queued on the IO thread, hence they are flushed together
+            ctx.executor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    flushScheduled = false;
+                    if (pendingWrites > 0) {
+                        flush(ctx);
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        pendingWrites = 0;
+        ctx.flush();
+    }
+}
@@ -26,6 +26,18 @@ public final class Constant {
     public static final int DEFAULT_QUEUE_SIZE_OF_TCP_TRANSPORT = 65525;
     public static final int DEFAULT_PORT = 9892;
     public static final String DEFAULT_HOST = "0.0.0.0";
+    public static final int DEFAULT_DECODER_THREADS = 0;
+    public static final int DEFAULT_MAX_PENDING_BUNDLES = 1024;
+    public static final int DEFAULT_STREAM_ID_CACHE_SIZE = 16;
+    public static final boolean DEFAULT_EPOLL = false;
+    public static final boolean DEFAULT_TCP_NO_DELAY = true;
+    public static final int DEFAULT_SOCKET_BUFFER_SIZE = 0;
+    public static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024;
+    public static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 64 * 1024;
+    public static final boolean DEFAULT_POOLED_ALLOCATOR = true;
+    public static final boolean DEFAULT_DIRECT_BUFFERS = true;
+    public static final int DEFAULT_CLIENT_WORKER_THREADS = 0;
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 1;
 
     private Constant() {
 
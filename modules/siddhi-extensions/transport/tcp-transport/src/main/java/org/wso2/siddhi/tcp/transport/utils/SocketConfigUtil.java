@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport.utils;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.tcp.transport.config.SocketConfig;
+
+/**
+ * Util class to create the event loops, channels and allocators of the tcp server and client based on their
+ * {@link SocketConfig}.
+ */
+public final class SocketConfigUtil {
+    private static final Logger log = Logger.getLogger(SocketConfigUtil.class);
+    private static final ByteBufAllocator POOLED_DIRECT_ALLOCATOR = new PooledByteBufAllocator(true);
+    private static final ByteBufAllocator POOLED_HEAP_ALLOCATOR = new PooledByteBufAllocator(false);
+    private static final ByteBufAllocator UNPOOLED_DIRECT_ALLOCATOR = new UnpooledByteBufAllocator(true);
+    private static final ByteBufAllocator UNPOOLED_HEAP_ALLOCATOR = new UnpooledByteBufAllocator(false);
+
+    private SocketConfigUtil() {
+
+    }
+
+    /**
+     * @param socketConfig socket configuration
+     * @return whether the native epoll transport is configured and available
+     */
+    public static boolean isEpollEnabled(SocketConfig socketConfig) {
+        return isEpollEnabled(socketConfig, Epoll.isAvailable(), Epoll.unavailabilityCause());
+    }
+
+    static boolean isEpollEnabled(SocketConfig socketConfig, boolean epollAvailable, Throwable unavailabilityCause) {
+        if (socketConfig.isEpoll() && !epollAvailable) {
+            log.warn("Native epoll transport is not available, hence using NIO transport. " + unavailabilityCause);
+            return false;
+        }
+        return socketConfig.isEpoll();
+    }
+
+    public static EventLoopGroup createEventLoopGroup(boolean epoll, int threads) {
+        if (epoll) {
+            return new EpollEventLoopGroup(threads);
+        } else {
+            return new NioEventLoopGroup(threads);
+        }
+    }
+
+    public static Class<? extends ServerChannel> getServerChannelClass(boolean epoll) {
+        if (epoll) {
+            return EpollServerSocketChannel.class;
+        } else {
+            return NioServerSocketChannel.class;
+        }
+    }
+
+    public static Class<? extends Channel> getChannelClass(boolean epoll) {
+        if (epoll) {
+            return EpollSocketChannel.class;
+        } else {
+            return NioSocketChannel.class;
+        }
+    }
+
+    public static ByteBufAllocator getAllocator(SocketConfig socketConfig) {
+        if (socketConfig.isPooledAllocator()) {
+            return socketConfig.isDirectBuffers() ? POOLED_DIRECT_ALLOCATOR : POOLED_HEAP_ALLOCATOR;
+        } else {
+            return socketConfig.isDirectBuffers() ? UNPOOLED_DIRECT_ALLOCATOR : UNPOOLED_HEAP_ALLOCATOR;
+        }
+    }
+
+    /**
+     * Apply the socket options to the connections accepted by the server.
+     *
+     * @param bootstrap    server bootstrap
+     * @param socketConfig socket configuration
+     */
+    public static void applyOptions(ServerBootstrap bootstrap, SocketConfig socketConfig) {
+        if (socketConfig.getReceiveBufferSize() > 0) {
+            // set on the server socket as well, as receive buffers over 64KB must be set before the connection is
+            // accepted to be effective
+            bootstrap.option(ChannelOption.SO_RCVBUF, socketConfig.getReceiveBufferSize());
+            bootstrap.childOption(ChannelOption.SO_RCVBUF, socketConfig.getReceiveBufferSize());
+        }
+        if (socketConfig.getSendBufferSize() > 0) {
+            bootstrap.childOption(ChannelOption.SO_SNDBUF, socketConfig.getSendBufferSize());
+        }
+        bootstrap.childOption(ChannelOption.TCP_NODELAY, socketConfig.isTcpNoDelay())
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                        socketConfig.getWriteBufferLowWaterMark(), socketConfig.getWriteBufferHighWaterMark()))
+                .childOption(ChannelOption.ALLOCATOR, getAllocator(socketConfig));
+    }
+
+    /**
+     * Apply the socket options to the connections of the client.
+     *
+     * @param bootstrap    client bootstrap
+     * @param socketConfig socket configuration
+     */
+    public static void applyOptions(Bootstrap bootstrap, SocketConfig socketConfig) {
+        if (socketConfig.getReceiveBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_RCVBUF, socketConfig.getReceiveBufferSize());
+        }
+        if (socketConfig.getSendBufferSize() > 0) {
+            bootstrap.option(ChannelOption.SO_SNDBUF, socketConfig.getSendBufferSize());
+        }
+        bootstrap.option(ChannelOption.TCP_NODELAY, socketConfig.isTcpNoDelay())
+                .option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(
+                        socketConfig.getWriteBufferLowWaterMark(), socketConfig.getWriteBufferHighWaterMark()))
+                .option(ChannelOption.ALLOCATOR, getAllocator(socketConfig));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport.utils;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.Charset;
+
+/**
+ * Direct mapped cache of the strings read from a {@link ByteBuf}, used to resolve values repeated on every message
+ * such as stream ids without allocating a new string each time. This is not thread safe, hence it is expected to be
+ * used by a single connection.
+ */
+public class StringCache {
+    private static final Charset CHARSET = Charset.forName(Constant.DEFAULT_CHARSET);
+    private final byte[][] keys;
+    private final String[] values;
+    private final int mask;
+
+    public StringCache(int size) {
+        int capacity = 1;
+        while (capacity < size) {
+            capacity <<= 1;
+        }
+        this.keys = new byte[capacity][];
+        this.values = new String[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Read a string of the given size from the current reader index of the buffer.
+     *
+     * @param byteBuf buffer to read from
+     * @param size    number of bytes of the string
+     * @return the cached string if the same bytes were read before, else the newly read string
+     */
+    public String read(ByteBuf byteBuf, int size) {
+        int index = byteBuf.readerIndex();
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + byteBuf.getByte(index + i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        byte[] key = keys[slot];
+        if (key != null && isMatch(key, byteBuf, index, size)) {
+            byteBuf.skipBytes(size);
+            return values[slot];
+        }
+        byte[] bytes = new byte[size];
+        byteBuf.readBytes(bytes);
+        String value = new String(bytes, CHARSET);
+        keys[slot] = bytes;
+        values[slot] = value;
+        return value;
+    }
+
+    private static boolean isMatch(byte[] key, ByteBuf byteBuf, int index, int size) {
+        if (key.length != size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (key[i] != byteBuf.getByte(index + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport;
+
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.tcp.transport.callback.StreamListener;
+import org.wso2.siddhi.tcp.transport.config.ClientConfig;
+import org.wso2.siddhi.tcp.transport.config.ServerConfig;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class TCPNettyClientTestCase {
+    private static final Logger log = Logger.getLogger(TCPNettyClientTestCase.class);
+    private static final StreamDefinition STREAM_DEFINITION = StreamDefinition.id("StockStream")
+            .attribute("symbol", Attribute.Type.STRING)
+            .attribute("price", Attribute.Type.DOUBLE)
+            .attribute("volume", Attribute.Type.LONG);
+    private static final int PORT = 9896;
+
+    @Test
+    public void tcpNettyClientTest1() throws InterruptedException {
+        log.info("tcpNettyClient TestCase 1 - batched writes flushed without an explicit flush");
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setWriteBatchSize(4);
+        sendAndReceive(new ServerConfig(), clientConfig, 10);
+    }
+
+    @Test
+    public void tcpNettyClientTest2() throws InterruptedException {
+        log.info("tcpNettyClient TestCase 2 - epoll requested, falling back to NIO where it is not available");
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setEpoll(true);
+        serverConfig.setDecoderThreads(2);
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setEpoll(true);
+        clientConfig.setWriteBatchSize(3);
+        clientConfig.setTcpNoDelay(false);
+        clientConfig.setPooledAllocator(false);
+        sendAndReceive(serverConfig, clientConfig, 7);
+    }
+
+    @Test
+    public void tcpNettyClientTest3() throws InterruptedException {
+        log.info("tcpNettyClient TestCase 3 - unbatched writes");
+        ClientConfig clientConfig = new ClientConfig();
+        clientConfig.setWriteBatchSize(1);
+        sendAndReceive(new ServerConfig(), clientConfig, 5);
+    }
+
+    private static void sendAndReceive(ServerConfig serverConfig, ClientConfig clientConfig, int bundleCount)
+            throws InterruptedException {
+        List<Event> events = new CopyOnWriteArrayList<Event>();
+        TCPNettyServer tcpNettyServer = new TCPNettyServer();
+        tcpNettyServer.addStreamListener(new StreamListener() {
+            @Override
+            public StreamDefinition getStreamDefinition() {
+                return STREAM_DEFINITION;
+            }
+
+            @Override
+            public void onEvent(Event event) {
+                events.add(event);
+            }
+
+            @Override
+            public void onEvents(Event[] receivedEvents) {
+                for (Event event : receivedEvents) {
+                    onEvent(event);
+                }
+            }
+        });
+        serverConfig.setPort(PORT);
+        tcpNettyServer.bootServer(serverConfig);
+        TCPNettyClient tcpNettyClient = new TCPNettyClient(clientConfig);
+        try {
+            tcpNettyClient.connect("localhost", PORT);
+            for (int i = 0; i < bundleCount; i++) {
+                tcpNettyClient.send("StockStream", new Event[]{event(2 * i), event(2 * i + 1)});
+            }
+            // a partly filled batch is flushed as well, hence all the events arrive without flushing the client
+            int eventCount = 2 * bundleCount;
+            long start = System.currentTimeMillis();
+            while (events.size() < eventCount && System.currentTimeMillis() - start < 5000) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            Assert.assertEquals(eventCount, events.size());
+            for (int i = 0; i < eventCount; i++) {
+                Assert.assertEquals(1000L + i, events.get(i).getTimestamp());
+                Assert.assertArrayEquals(event(i).getData(), events.get(i).getData());
+            }
+        } finally {
+            tcpNettyClient.shutdown();
+            tcpNettyServer.shutdownGracefully();
+        }
+    }
+
+    private static Event event(int eventId) {
+        return new Event(1000L + eventId, new Object[]{"WSO2-" + eventId, 55.5 + eventId, (long) eventId});
+    }
+}
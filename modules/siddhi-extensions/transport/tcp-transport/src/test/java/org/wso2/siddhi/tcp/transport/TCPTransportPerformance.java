@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport;
+
+import org.apache.log4j.Logger;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.tcp.transport.callback.StreamListener;
+import org.wso2.siddhi.tcp.transport.config.ClientConfig;
+import org.wso2.siddhi.tcp.transport.config.ServerConfig;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local client/server harness measuring the throughput and the latency of the tcp transport over loopback, for the
+ * NIO and epoll transports with and without client write batching. Arguments are the number of events to send per
+ * configuration, the number of events per bundle, and the number of decoder threads of the server (0 decodes on the
+ * IO threads). This is not run as a part of the tests.
+ */
+public class TCPTransportPerformance {
+    private static final Logger log = Logger.getLogger(TCPTransportPerformance.class);
+    private static final int PORT = 9893;
+    private static final int WRITE_BATCH_SIZE = 64;
+    private static final StreamDefinition STREAM_DEFINITION = StreamDefinition.id("StockStream")
+            .attribute("symbol", Attribute.Type.STRING)
+            .attribute("price", Attribute.Type.DOUBLE)
+            .attribute("volume", Attribute.Type.LONG);
+
+    public static void main(String[] args) throws InterruptedException {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int batchSize = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int decoderThreads = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        int port = PORT;
+        for (boolean epoll : new boolean[]{false, true}) {
+            for (int writeBatchSize : new int[]{1, WRITE_BATCH_SIZE}) {
+                ServerConfig serverConfig = new ServerConfig();
+                serverConfig.setPort(port++);
+                serverConfig.setDecoderThreads(decoderThreads);
+                serverConfig.setEpoll(epoll);
+                ClientConfig clientConfig = new ClientConfig();
+                clientConfig.setEpoll(epoll);
+                clientConfig.setWriteBatchSize(writeBatchSize);
+                run((epoll ? "epoll" : "nio") + ", write batch " + writeBatchSize + ", " + decoderThreads +
+                        " decoder threads", serverConfig, clientConfig, events, batchSize);
+            }
+        }
+    }
+
+    private static void run(String name, ServerConfig serverConfig, ClientConfig clientConfig, int events,
+                            int batchSize) throws InterruptedException {
+        int bundles = events / batchSize;
+        final long expected = (long) bundles * batchSize;
+        final AtomicLong received = new AtomicLong(0);
+        final CountDownLatch latch = new CountDownLatch(1);
+        // latency of each bundle, in nanoseconds from its send till it is received
+        final long[] latencies = new long[bundles];
+        final AtomicInteger latencyIndex = new AtomicInteger(0);
+
+        TCPNettyServer tcpNettyServer = new TCPNettyServer();
+        tcpNettyServer.addStreamListener(new StreamListener() {
+            @Override
+            public StreamDefinition getStreamDefinition() {
+                return STREAM_DEFINITION;
+            }
+
+            @Override
+            public void onEvent(Event event) {
+                onEvents(new Event[]{event});
+            }
+
+            @Override
+            public void onEvents(Event[] events) {
+                int index = latencyIndex.getAndIncrement();
+                if (index < latencies.length) {
+                    latencies[index] = System.nanoTime() - events[0].getTimestamp();
+                }
+                if (received.addAndGet(events.length) >= expected) {
+                    latch.countDown();
+                }
+            }
+        });
+        tcpNettyServer.bootServer(serverConfig);
+
+        TCPNettyClient tcpNettyClient = new TCPNettyClient(clientConfig);
+        tcpNettyClient.connect("localhost", serverConfig.getPort());
+        Object[][] data = new Object[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            data[i] = new Object[]{"WSO2", 55.6 + i, 100L + i};
+        }
+
+        long start = System.nanoTime();
+        for (int i = 1; i <= bundles; i++) {
+            // events are encoded on the IO thread, hence a new bundle is sent each time
+            long timestamp = System.nanoTime();
+            Event[] batch = new Event[batchSize];
+            for (int j = 0; j < batchSize; j++) {
+                batch[j] = new Event(timestamp, data[j]);
+            }
+            if (i % 1000 == 0) {
+                // wait for the writes such that the client does not buffer all the events
+                tcpNettyClient.send("StockStream", batch).sync();
+            } else {
+                tcpNettyClient.send("StockStream", batch);
+            }
+        }
+        boolean completed = latch.await(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+
+        int measured = Math.min(latencyIndex.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, measured);
+        Arrays.sort(sorted);
+        long p99 = measured == 0 ? 0 : sorted[(int) Math.min(measured - 1, Math.ceil(measured * 0.99) - 1)];
+        log.info(name + " : " + (long) (received.get() * 1000000000.0 / elapsed) + " events/sec, p99 " +
+                "latency " + TimeUnit.NANOSECONDS.toMicros(p99) + " us, received " + received.get() + " of " +
+                expected + " events in " + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms" +
+                (completed ? "" : " (timed out)"));
+
+        tcpNettyClient.disconnect();
+        tcpNettyClient.shutdown();
+        tcpNettyServer.shutdownGracefully();
+    }
+}
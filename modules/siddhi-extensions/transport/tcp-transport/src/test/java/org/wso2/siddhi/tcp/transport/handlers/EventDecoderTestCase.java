@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport.handlers;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.concurrent.DefaultEventExecutor;
+import io.netty.util.concurrent.EventExecutor;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.query.api.definition.Attribute;
+import org.wso2.siddhi.query.api.definition.StreamDefinition;
+import org.wso2.siddhi.tcp.transport.callback.StreamListener;
+import org.wso2.siddhi.tcp.transport.converter.BinaryEventConverter;
+import org.wso2.siddhi.tcp.transport.utils.EventComposite;
+import org.wso2.siddhi.tcp.transport.utils.StreamTypeHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class EventDecoderTestCase {
+    private static final Logger log = Logger.getLogger(EventDecoderTestCase.class);
+    private static final StreamDefinition STREAM_DEFINITION = StreamDefinition.id("StockStream")
+            .attribute("symbol", Attribute.Type.STRING)
+            .attribute("price", Attribute.Type.DOUBLE)
+            .attribute("volume", Attribute.Type.LONG);
+
+    @Test
+    public void eventDecoderTest1() throws IOException {
+        log.info("eventDecoder TestCase 1 - bundles split across reads");
+        List<Event> events = new CopyOnWriteArrayList<Event>();
+        EmbeddedChannel channel = new EmbeddedChannel(new EventDecoder(streamTypeHolder(events, null)));
+
+        ByteBuf bundles = Unpooled.buffer();
+        bundles.writeBytes(bundle(0, 3));
+        bundles.writeBytes(bundle(3, 2));
+        int firstBundleSize = bundle(0, 3).readableBytes();
+        // the header of the first bundle split, then the rest of it along with a part of the second bundle
+        channel.writeInbound(bundles.readRetainedSlice(3));
+        Assert.assertEquals(0, events.size());
+        channel.writeInbound(bundles.readRetainedSlice(firstBundleSize - 3 + 10));
+        Assert.assertEquals(3, events.size());
+        channel.writeInbound(bundles.readRetainedSlice(bundles.readableBytes()));
+        Assert.assertEquals(5, events.size());
+        bundles.release();
+        assertEvents(events, 5);
+        channel.finish();
+    }
+
+    @Test
+    public void eventDecoderTest2() throws IOException, InterruptedException {
+        log.info("eventDecoder TestCase 2 - decoding on a decode executor");
+        List<Event> events = new CopyOnWriteArrayList<Event>();
+        EventExecutor decodeExecutor = new DefaultEventExecutor();
+        EmbeddedChannel channel = new EmbeddedChannel(new EventDecoder(streamTypeHolder(events, null),
+                decodeExecutor, 100));
+
+        for (int i = 0; i < 50; i++) {
+            ByteBuf bundle = bundle(i * 2, 2);
+            // bundles are split such that the decoder keeps a part of each in its buffer
+            channel.writeInbound(bundle.readRetainedSlice(7));
+            channel.writeInbound(bundle.readRetainedSlice(bundle.readableBytes()));
+            bundle.release();
+        }
+        waitFor(events, 100);
+        assertEvents(events, 100);
+        Assert.assertNotEquals(Boolean.TRUE, channel.attr(EventDecoder.READ_SUSPENDED).get());
+        channel.finish();
+        decodeExecutor.shutdownGracefully().sync();
+    }
+
+    @Test
+    public void eventDecoderTest3() throws IOException, InterruptedException {
+        log.info("eventDecoder TestCase 3 - reads suspended while bundles are pending");
+        List<Event> events = new CopyOnWriteArrayList<Event>();
+        CountDownLatch decodeLatch = new CountDownLatch(1);
+        EventExecutor decodeExecutor = new DefaultEventExecutor();
+        EmbeddedChannel channel = new EmbeddedChannel(new EventDecoder(streamTypeHolder(events, decodeLatch),
+                decodeExecutor, 4));
+
+        // the first bundle blocks the decode executor, while the others pile up
+        for (int i = 0; i < 3; i++) {
+            channel.writeInbound(bundle(i, 1));
+        }
+        Assert.assertNotEquals(Boolean.TRUE, channel.attr(EventDecoder.READ_SUSPENDED).get());
+        channel.writeInbound(bundle(3, 1));
+        Assert.assertEquals(Boolean.TRUE, channel.attr(EventDecoder.READ_SUSPENDED).get());
+        channel.writeInbound(bundle(4, 1));
+        Assert.assertEquals(Boolean.TRUE, channel.attr(EventDecoder.READ_SUSPENDED).get());
+
+        decodeLatch.countDown();
+        waitFor(events, 5);
+        assertEvents(events, 5);
+        Assert.assertEquals(Boolean.FALSE, channel.attr(EventDecoder.READ_SUSPENDED).get());
+        channel.finish();
+        decodeExecutor.shutdownGracefully().sync();
+    }
+
+    private static StreamTypeHolder streamTypeHolder(final List<Event> events, final CountDownLatch decodeLatch) {
+        StreamTypeHolder streamTypeHolder = new StreamTypeHolder();
+        streamTypeHolder.putStreamCallback(new StreamListener() {
+            @Override
+            public StreamDefinition getStreamDefinition() {
+                return STREAM_DEFINITION;
+            }
+
+            @Override
+            public void onEvent(Event event) {
+                onEvents(new Event[]{event});
+            }
+
+            @Override
+            public void onEvents(Event[] receivedEvents) {
+                if (decodeLatch != null) {
+                    try {
+                        decodeLatch.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                for (Event event : receivedEvents) {
+                    events.add(event);
+                }
+            }
+        });
+        return streamTypeHolder;
+    }
+
+    private static ByteBuf bundle(int firstEvent, int eventCount) throws IOException {
+        Event[] events = new Event[eventCount];
+        for (int i = 0; i < eventCount; i++) {
+            int eventId = firstEvent + i;
+            events[i] = new Event(1000L + eventId, new Object[]{"WSO2-" + eventId, 55.5 + eventId, (long) eventId});
+        }
+        ByteBuf bundle = Unpooled.buffer();
+        BinaryEventConverter.convertToBinaryMessage(new EventComposite("session", "StockStream", events), bundle);
+        return bundle;
+    }
+
+    private static void assertEvents(List<Event> events, int eventCount) {
+        Assert.assertEquals(eventCount, events.size());
+        for (int i = 0; i < eventCount; i++) {
+            Event event = events.get(i);
+            Assert.assertEquals(1000L + i, event.getTimestamp());
+            Assert.assertArrayEquals(new Object[]{"WSO2-" + i, 55.5 + i, (long) i}, event.getData());
+        }
+    }
+
+    private static void waitFor(List<Event> events, int eventCount) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (events.size() < eventCount && System.currentTimeMillis() - start < 5000) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+}
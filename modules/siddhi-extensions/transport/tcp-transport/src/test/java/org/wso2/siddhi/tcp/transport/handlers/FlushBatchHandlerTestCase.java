@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport.handlers;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FlushBatchHandlerTestCase {
+    private static final Logger log = Logger.getLogger(FlushBatchHandlerTestCase.class);
+
+    @Test
+    public void flushBatchHandlerTest1() {
+        log.info("flushBatchHandler TestCase 1 - flushing when the batch fills");
+        EmbeddedChannel channel = new EmbeddedChannel(new FlushBatchHandler(3));
+
+        channel.write("a");
+        channel.write("b");
+        Assert.assertNull(channel.readOutbound());
+        channel.write("c");
+        // the batch is full, hence flushed without running the scheduled flush
+        Assert.assertEquals("a", channel.readOutbound());
+        Assert.assertEquals("b", channel.readOutbound());
+        Assert.assertEquals("c", channel.readOutbound());
+        Assert.assertNull(channel.readOutbound());
+
+        // the flush scheduled by the first batch finds nothing pending
+        channel.runPendingTasks();
+        Assert.assertNull(channel.readOutbound());
+        channel.finish();
+    }
+
+    @Test
+    public void flushBatchHandlerTest2() {
+        log.info("flushBatchHandler TestCase 2 - flushing a partly filled batch");
+        EmbeddedChannel channel = new EmbeddedChannel(new FlushBatchHandler(3));
+
+        channel.write("a");
+        channel.write("b");
+        Assert.assertNull(channel.readOutbound());
+        channel.runPendingTasks();
+        Assert.assertEquals("a", channel.readOutbound());
+        Assert.assertEquals("b", channel.readOutbound());
+        Assert.assertNull(channel.readOutbound());
+
+        // a new flush is scheduled for the writes following the flush
+        channel.write("c");
+        Assert.assertNull(channel.readOutbound());
+        channel.runPendingTasks();
+        Assert.assertEquals("c", channel.readOutbound());
+        Assert.assertNull(channel.readOutbound());
+        channel.finish();
+    }
+
+    @Test
+    public void flushBatchHandlerTest3() {
+        log.info("flushBatchHandler TestCase 3 - batches spanning the scheduled flush");
+        EmbeddedChannel channel = new EmbeddedChannel(new FlushBatchHandler(2));
+
+        channel.write("a");
+        channel.write("b");
+        channel.write("c");
+        Assert.assertEquals("a", channel.readOutbound());
+        Assert.assertEquals("b", channel.readOutbound());
+        Assert.assertNull(channel.readOutbound());
+        // the flush scheduled by the first write picks up the write following the full batch
+        channel.runPendingTasks();
+        Assert.assertEquals("c", channel.readOutbound());
+        Assert.assertNull(channel.readOutbound());
+        channel.finish();
+    }
+}
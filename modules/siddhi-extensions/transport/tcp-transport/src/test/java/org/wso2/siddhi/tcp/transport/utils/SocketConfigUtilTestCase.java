@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport.utils;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelConfig;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.siddhi.tcp.transport.config.ClientConfig;
+import org.wso2.siddhi.tcp.transport.config.ServerConfig;
+import org.wso2.siddhi.tcp.transport.config.SocketConfig;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class SocketConfigUtilTestCase {
+    private static final Logger log = Logger.getLogger(SocketConfigUtilTestCase.class);
+    private static final int BUFFER_SIZE = 128 * 1024;
+
+    @Test
+    public void socketConfigUtilTest1() throws InterruptedException {
+        log.info("socketConfigUtil TestCase 1 - falling back to NIO when the native epoll transport is missing");
+        ServerConfig serverConfig = new ServerConfig();
+        serverConfig.setEpoll(true);
+        boolean epoll = SocketConfigUtil.isEpollEnabled(serverConfig, false,
+                new UnsatisfiedLinkError("no netty-transport-native-epoll in java.library.path"));
+        Assert.assertFalse(epoll);
+        Assert.assertEquals(NioServerSocketChannel.class, SocketConfigUtil.getServerChannelClass(epoll));
+        Assert.assertEquals(NioSocketChannel.class, SocketConfigUtil.getChannelClass(epoll));
+        EventLoopGroup group = SocketConfigUtil.createEventLoopGroup(epoll, 1);
+        try {
+            Assert.assertTrue(group instanceof NioEventLoopGroup);
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+
+        Assert.assertTrue(SocketConfigUtil.isEpollEnabled(serverConfig, true, null));
+        serverConfig.setEpoll(false);
+        Assert.assertFalse(SocketConfigUtil.isEpollEnabled(serverConfig, true, null));
+        Assert.assertFalse(SocketConfigUtil.isEpollEnabled(serverConfig, false, null));
+    }
+
+    @Test
+    public void socketConfigUtilTest2() throws InterruptedException {
+        log.info("socketConfigUtil TestCase 2 - applying the socket options to the server and client connections");
+        ServerConfig serverConfig = new ServerConfig();
+        configure(serverConfig);
+        ClientConfig clientConfig = new ClientConfig();
+        configure(clientConfig);
+
+        BlockingQueue<Channel> acceptedChannels = new LinkedBlockingQueue<Channel>();
+        EventLoopGroup group = new NioEventLoopGroup(2);
+        try {
+            ServerBootstrap serverBootstrap = new ServerBootstrap();
+            serverBootstrap.group(group)
+                    .channel(NioServerSocketChannel.class)
+                    .childHandler(new ChannelInitializer<Channel>() {
+                        @Override
+                        protected void initChannel(Channel channel) throws Exception {
+                            acceptedChannels.add(channel);
+                        }
+                    });
+            SocketConfigUtil.applyOptions(serverBootstrap, serverConfig);
+            Channel serverChannel = serverBootstrap.bind("localhost", 0).sync().channel();
+            assertBufferSize(BUFFER_SIZE, serverChannel.config().getOption(ChannelOption.SO_RCVBUF));
+
+            Bootstrap bootstrap = new Bootstrap();
+            bootstrap.group(group)
+                    .channel(NioSocketChannel.class)
+                    .handler(new ChannelInboundHandlerAdapter());
+            SocketConfigUtil.applyOptions(bootstrap, clientConfig);
+            Channel clientChannel = bootstrap.connect(serverChannel.localAddress()).sync().channel();
+            Assert.assertEquals(((InetSocketAddress) serverChannel.localAddress()).getPort(),
+                    ((InetSocketAddress) clientChannel.remoteAddress()).getPort());
+
+            Channel acceptedChannel = acceptedChannels.poll(5, TimeUnit.SECONDS);
+            Assert.assertNotNull(acceptedChannel);
+            assertOptions(acceptedChannel.config());
+            assertOptions(clientChannel.config());
+
+            clientChannel.close().sync();
+            serverChannel.close().sync();
+        } finally {
+            group.shutdownGracefully().sync();
+        }
+    }
+
+    private static void configure(SocketConfig socketConfig) {
+        socketConfig.setTcpNoDelay(false);
+        socketConfig.setReceiveBufferSize(BUFFER_SIZE);
+        socketConfig.setSendBufferSize(BUFFER_SIZE);
+        socketConfig.setWriteBufferLowWaterMark(16 * 1024);
+        socketConfig.setWriteBufferHighWaterMark(256 * 1024);
+        socketConfig.setPooledAllocator(false);
+        socketConfig.setDirectBuffers(false);
+    }
+
+    private static void assertOptions(ChannelConfig config) {
+        Assert.assertEquals(Boolean.FALSE, config.getOption(ChannelOption.TCP_NODELAY));
+        assertBufferSize(BUFFER_SIZE, config.getOption(ChannelOption.SO_RCVBUF));
+        assertBufferSize(BUFFER_SIZE, config.getOption(ChannelOption.SO_SNDBUF));
+        WriteBufferWaterMark waterMark = config.getOption(ChannelOption.WRITE_BUFFER_WATER_MARK);
+        Assert.assertEquals(16 * 1024, waterMark.low());
+        Assert.assertEquals(256 * 1024, waterMark.high());
+        Assert.assertTrue(config.getAllocator() instanceof UnpooledByteBufAllocator);
+        Assert.assertFalse(config.getAllocator().isDirectBufferPooled());
+        ByteBuf buffer = config.getAllocator().buffer();
+        try {
+            Assert.assertFalse(buffer.isDirect());
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static void assertBufferSize(int expected, int actual) {
+        // the OS may round the buffer sizes up (Linux doubles them), but never below the requested size
+        Assert.assertTrue("buffer size " + actual + " is less than " + expected, actual >= expected);
+    }
+}
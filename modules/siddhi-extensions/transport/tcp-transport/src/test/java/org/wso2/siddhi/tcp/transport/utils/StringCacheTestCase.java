@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.tcp.transport.utils;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.log4j.Logger;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class StringCacheTestCase {
+    private static final Logger log = Logger.getLogger(StringCacheTestCase.class);
+
+    @Test
+    public void stringCacheTest1() {
+        log.info("stringCache TestCase 1 - repeated strings are served from the cache");
+        StringCache stringCache = new StringCache(4);
+        ByteBuf byteBuf = Unpooled.buffer();
+        byteBuf.writeBytes("StockStream".getBytes(StandardCharsets.UTF_8));
+        byteBuf.writeInt(10);
+        byteBuf.writeBytes("StockStream".getBytes(StandardCharsets.UTF_8));
+
+        String first = stringCache.read(byteBuf, 11);
+        Assert.assertEquals("StockStream", first);
+        Assert.assertEquals(10, byteBuf.readInt());
+        String second = stringCache.read(byteBuf, 11);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(0, byteBuf.readableBytes());
+        byteBuf.release();
+    }
+
+    @Test
+    public void stringCacheTest2() {
+        log.info("stringCache TestCase 2 - strings sharing a slot are told apart");
+        // a single slot, such that every string replaces the previous one
+        StringCache stringCache = new StringCache(1);
+        String[] values = {"StockStream", "Stock", "StockStreaM", "\u00DCnicodeStream", "", "StockStream"};
+        ByteBuf byteBuf = Unpooled.buffer();
+        for (String value : values) {
+            byteBuf.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+        for (String value : values) {
+            Assert.assertEquals(value, stringCache.read(byteBuf, value.getBytes(StandardCharsets.UTF_8).length));
+        }
+        Assert.assertEquals(0, byteBuf.readableBytes());
+        byteBuf.release();
+    }
+}
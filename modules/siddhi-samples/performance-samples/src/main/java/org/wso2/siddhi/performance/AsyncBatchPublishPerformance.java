@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.performance;
+
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+/**
+ * Compares publishing events one by one against publishing them as arrays into an @Async stream. Run with the
+ * batch size as the first argument (1 publishes events individually), e.g. "AsyncBatchPublishPerformance 100".
+ */
+public class AsyncBatchPublishPerformance {
+
+    public static void main(String[] args) throws InterruptedException {
+        int batchSize = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "@Async(buffer.size='4096') " +
+                "define stream cseEventStream (symbol string, price float, volume long, timestamp long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream[700 > price] " +
+                "select * " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            public int eventCount = 0;
+            public long timeSpent = 0;
+            long startTime = System.currentTimeMillis();
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    eventCount++;
+                    timeSpent += (System.currentTimeMillis() - (Long) event.getData(3));
+                    if (eventCount % 1000000 == 0) {
+                        System.out.println("Throughput : " + (eventCount * 1000) / ((System.currentTimeMillis()) -
+                                startTime));
+                        System.out.println("Time spent :  " + (timeSpent * 1.0 / eventCount));
+                        startTime = System.currentTimeMillis();
+                        eventCount = 0;
+                        timeSpent = 0;
+                    }
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        System.out.println("Publishing with batch size : " + batchSize);
+        if (batchSize <= 1) {
+            while (true) {
+                inputHandler.send(new Object[]{"WSO2", 55.6f, 100L, System.currentTimeMillis()});
+            }
+        } else {
+            Event[] events = new Event[batchSize];
+            while (true) {
+                long timestamp = System.currentTimeMillis();
+                for (int i = 0; i < batchSize; i++) {
+                    events[i] = new Event(timestamp, new Object[]{"WSO2", 55.6f, 100L, timestamp});
+                }
+                inputHandler.send(events);
+            }
+        }
+    }
+}
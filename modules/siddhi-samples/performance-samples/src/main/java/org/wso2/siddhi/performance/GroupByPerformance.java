@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.performance;
+
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+/**
+ * Measures a group by over three attributes with the given number of distinct keys (10^6 by default), e.g.
+ * "GroupByPerformance 1000000".
+ */
+public class GroupByPerformance {
+
+    public static void main(String[] args) throws InterruptedException {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (region string, deviceId int, sensorId long, value double, " +
+                "timestamp long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream " +
+                "select region, deviceId, sensorId, sum(value) as total, count() as events, " +
+                "max(timestamp) as timestamp " +
+                "group by region, deviceId, sensorId " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            public int eventCount = 0;
+            public long timeSpent = 0;
+            long startTime = System.currentTimeMillis();
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    eventCount++;
+                    timeSpent += (System.currentTimeMillis() - (Long) event.getData(5));
+                    if (eventCount % 1000000 == 0) {
+                        System.out.println("Throughput : " + (eventCount * 1000) / ((System.currentTimeMillis()) -
+                                startTime));
+                        System.out.println("Time spent :  " + (timeSpent * 1.0 / eventCount));
+                        startTime = System.currentTimeMillis();
+                        eventCount = 0;
+                        timeSpent = 0;
+                    }
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        System.out.println("Group by keys : " + keys);
+        String[] regions = new String[]{"north", "south", "east", "west"};
+        int key = 0;
+        while (true) {
+            inputHandler.send(new Object[]{regions[key % regions.length], key / regions.length, (long) (key % 10),
+                    10.5, System.currentTimeMillis()});
+            key = (key + 1) % keys;
+        }
+    }
+}
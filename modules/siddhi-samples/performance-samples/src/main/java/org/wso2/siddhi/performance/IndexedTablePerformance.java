@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.performance;
+
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Random;
+
+/**
+ * Measures the memory per row and the equality lookup throughput of an indexed in-memory table, with the given
+ * number of rows (10^6 by default) and index type ('hash' or 'sorted'), e.g. "IndexedTablePerformance 1000000 hash".
+ * Compare with {@link NoIndexingTablePerformance}, which looks up the table by its primary key.
+ */
+public class IndexedTablePerformance {
+
+    private static final int LOOKUP_CHUNK = 1000000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        String indexType = args.length > 1 ? args[1] : "hash";
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream StockInputStream (symbol string, company string, price float, volume int); " +
+                "define stream StockCheckStream (symbol string, timestamp long); " +
+                "" +
+                "@Index('symbol', 'volume', type='" + indexType + "') " +
+                "define table StockTable (symbol string, company string, price float, volume int); " +
+                "" +
+                "@info(name = 'query1') " +
+                "from StockInputStream " +
+                "insert into StockTable ;" +
+                "" +
+                "@info(name = 'query2') " +
+                "from StockCheckStream join StockTable " +
+                "on StockCheckStream.symbol == StockTable.symbol " +
+                "select StockCheckStream.timestamp, StockTable.symbol, StockTable.volume " +
+                "insert into OutputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+        siddhiAppRuntime.addCallback("OutputStream", new StreamCallback() {
+            public int eventCount = 0;
+            long startTime = System.currentTimeMillis();
+
+            @Override
+            public void receive(Event[] events) {
+                eventCount += events.length;
+                if (eventCount >= LOOKUP_CHUNK) {
+                    System.out.println("Lookup throughput : " + (eventCount * 1000L) /
+                            Math.max(1, System.currentTimeMillis() - startTime));
+                    startTime = System.currentTimeMillis();
+                    eventCount = 0;
+                }
+            }
+        });
+
+        InputHandler stockInputHandler = siddhiAppRuntime.getInputHandler("StockInputStream");
+        InputHandler stockCheckHandler = siddhiAppRuntime.getInputHandler("StockCheckStream");
+        siddhiAppRuntime.start();
+
+        System.out.println("Rows : " + rows + ", index type : " + indexType);
+        long usedMemory = usedMemory();
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            // a tenth of the volumes are distinct, such that both unique and shared values are indexed
+            stockInputHandler.send(new Object[]{"S" + i, "C" + i, i * 1.0f, i % (rows / 10 + 1)});
+        }
+        System.out.println("Load time (ms) : " + (System.currentTimeMillis() - startTime));
+        System.out.println("Memory per row (bytes) : " + (usedMemory() - usedMemory) / rows);
+
+        Random random = new Random(1);
+        while (true) {
+            stockCheckHandler.send(new Object[]{"S" + random.nextInt(rows), System.currentTimeMillis()});
+        }
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
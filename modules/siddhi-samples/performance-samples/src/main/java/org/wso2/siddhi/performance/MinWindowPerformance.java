@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.siddhi.performance;
+
+import org.wso2.siddhi.core.SiddhiAppRuntime;
+import org.wso2.siddhi.core.SiddhiManager;
+import org.wso2.siddhi.core.event.Event;
+import org.wso2.siddhi.core.stream.input.InputHandler;
+import org.wso2.siddhi.core.stream.output.StreamCallback;
+
+import java.util.Random;
+
+/**
+ * Measures min() over a sliding length window of the given size (10^5 by default), e.g.
+ * "MinWindowPerformance 100000".
+ */
+public class MinWindowPerformance {
+
+    public static void main(String[] args) throws InterruptedException {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        SiddhiManager siddhiManager = new SiddhiManager();
+
+        String siddhiApp = "" +
+                "define stream cseEventStream (symbol string, price double, timestamp long);" +
+                "" +
+                "@info(name = 'query1') " +
+                "from cseEventStream#window.length(" + length + ") " +
+                "select min(price) as minPrice, timestamp " +
+                "insert into outputStream ;";
+
+        SiddhiAppRuntime siddhiAppRuntime = siddhiManager.createSiddhiAppRuntime(siddhiApp);
+
+        siddhiAppRuntime.addCallback("outputStream", new StreamCallback() {
+            public int eventCount = 0;
+            public long timeSpent = 0;
+            long startTime = System.currentTimeMillis();
+
+            @Override
+            public void receive(Event[] events) {
+                for (Event event : events) {
+                    eventCount++;
+                    timeSpent += (System.currentTimeMillis() - (Long) event.getData(1));
+                    if (eventCount % 1000000 == 0) {
+                        System.out.println("Throughput : " + (eventCount * 1000) / ((System.currentTimeMillis()) -
+                                startTime));
+                        System.out.println("Time spent :  " + (timeSpent * 1.0 / eventCount));
+                        startTime = System.currentTimeMillis();
+                        eventCount = 0;
+                        timeSpent = 0;
+                    }
+                }
+            }
+
+        });
+
+        InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
+        siddhiAppRuntime.start();
+        System.out.println("Window length : " + length);
+        Random random = new Random(1);
+        while (true) {
+            inputHandler.send(new Object[]{"WSO2", random.nextDouble() * 1000, System.currentTimeMillis()});
+        }
+    }
+}
@@ -24,20 +24,27 @@ import org.wso2.siddhi.core.event.Event;
 import org.wso2.siddhi.core.stream.input.InputHandler;
 import org.wso2.siddhi.core.stream.output.StreamCallback;
 
+/**
+ * Measures the cost of creating partition keys, for the given number of keys (10^5 by default) and partition
+ * execution mode, e.g. "PartitionPerformance 1000000 keyed" or "PartitionPerformance 1000000 cloned".
+ */
 public class PartitionPerformance {
     private static int count = 0;
 
     public static void main(String[] args) throws InterruptedException {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        boolean keyed = args.length <= 1 || "keyed".equalsIgnoreCase(args[1]);
         SiddhiManager siddhiManager = new SiddhiManager();
 
         String siddhiApp = "" +
                 "define stream cseEventStream (symbol string, price float, volume long);" +
                 "" +
+                (keyed ? "@keyed " : "") +
                 "partition with (symbol of cseEventStream) " +
                 "begin " +
                 "   @info(name = 'query1') " +
                 "   from cseEventStream[700 > price] " +
-                "   select * " +
+                "   select symbol, sum(volume) as totalVolume, count() as total " +
                 "   insert into outputStream ;" +
                 "end;";
 
@@ -54,11 +61,31 @@ public class PartitionPerformance {
         InputHandler inputHandler = siddhiAppRuntime.getInputHandler("cseEventStream");
         siddhiAppRuntime.start();
 
-        while (true) {
+        System.out.println("Partition keys : " + keys + ", mode : " + (keyed ? "keyed" : "cloned"));
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedMemory = runtime.totalMemory() - runtime.freeMemory();
+        long startTime = System.nanoTime();
+        while (count < keys) {
             count++;
-            inputHandler.send(new Object[]{"WSO2" + count, 55.6f, 100});
-            System.out.println("Partition created :" + count);
+            inputHandler.send(new Object[]{"WSO2" + count, 55.6f, 100L});
+            if (count % 10000 == 0) {
+                System.out.println("Partitions created : " + count + ", avg creation time (micro sec) : " +
+                        ((System.nanoTime() - startTime) / 1000.0 / count));
+            }
         }
+        long timeSpent = System.nanoTime() - startTime;
+        System.gc();
+        System.out.println("Time spent (ms) : " + timeSpent / 1000000);
+        System.out.println("Memory per key (bytes) : " + ((runtime.totalMemory() - runtime.freeMemory() -
+                usedMemory) / keys));
 
+        startTime = System.nanoTime();
+        for (int i = 1; i <= keys; i++) {
+            inputHandler.send(new Object[]{"WSO2" + i, 55.6f, 100L});
+        }
+        System.out.println("Throughput over existing keys : " + (keys * 1000000000L) / (System.nanoTime() -
+                startTime));
+        siddhiAppRuntime.shutdown();
     }
 }